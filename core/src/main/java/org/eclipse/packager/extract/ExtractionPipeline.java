@@ -0,0 +1,743 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.extract;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.packager.io.IOConsumer;
+import org.eclipse.packager.utils.Strings;
+
+/**
+ * Extract the entries of a package archive to a directory
+ * <p>
+ * The archive is decompressed and walked on the calling thread, by a format
+ * specific reader, which hands the entries over to the pipeline. Regular file
+ * content is passed on to a pool of writer threads through a bounded set of
+ * buffers, so that decompression and writing overlap and writing scales with
+ * the number of writers. The amount of buffered data is limited by
+ * {@link ExtractorOptions#getMaxBufferedBytes()}.
+ * </p>
+ * <p>
+ * Entries can't escape the target directory. Entry names are resolved
+ * against the target directory, and rejected if they point outside of it, or
+ * if an existing parent directory is a symbolic link. Symbolic links are only
+ * created once all other entries have been written, so that later entries
+ * can't be written through them, and hard links must point to a regular file
+ * of the archive.
+ * </p>
+ * <p>
+ * An instance can only be used for a single run.
+ * </p>
+ */
+public class ExtractionPipeline {
+    private static final int PERMISSION_BITS = 0777;
+
+    private static final PosixFilePermission[] PERMISSIONS = {
+            PosixFilePermission.OTHERS_EXECUTE, PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_READ,
+            PosixFilePermission.GROUP_EXECUTE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_READ,
+            PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_READ
+    };
+
+    private static final Job POISON = new Job(null, null, 0, 0, 0, null, null);
+
+    private static final Chunk END = new Chunk(null, -1);
+
+    public static class Result {
+        private final long files;
+
+        private final long directories;
+
+        private final long symbolicLinks;
+
+        private final long hardLinks;
+
+        private final long bytes;
+
+        private Result(final long files, final long directories, final long symbolicLinks, final long hardLinks, final long bytes) {
+            this.files = files;
+            this.directories = directories;
+            this.symbolicLinks = symbolicLinks;
+            this.hardLinks = hardLinks;
+            this.bytes = bytes;
+        }
+
+        protected Result(final Result other) {
+            this(other.files, other.directories, other.symbolicLinks, other.hardLinks, other.bytes);
+        }
+
+        public long getFiles() {
+            return this.files;
+        }
+
+        public long getDirectories() {
+            return this.directories;
+        }
+
+        public long getSymbolicLinks() {
+            return this.symbolicLinks;
+        }
+
+        public long getHardLinks() {
+            return this.hardLinks;
+        }
+
+        /**
+         * The number of bytes of regular file content written
+         *
+         * @return the number of bytes written
+         */
+        public long getBytes() {
+            return this.bytes;
+        }
+    }
+
+    private static class Chunk {
+        private final byte[] data;
+
+        private final int length;
+
+        Chunk(final byte[] data, final int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private static class Job {
+        private final Path path;
+
+        private final String name;
+
+        private final long size;
+
+        private final int mode;
+
+        private final long modificationTime;
+
+        private final MessageDigest digest;
+
+        private final String expectedDigest;
+
+        private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<>();
+
+        /**
+         * Set by the writer once all chunks have been consumed
+         */
+        private boolean consumed;
+
+        Job(final Path path, final String name, final long size, final int mode, final long modificationTime, final MessageDigest digest, final String expectedDigest) {
+            this.path = path;
+            this.name = name;
+            this.size = size;
+            this.mode = mode;
+            this.modificationTime = modificationTime;
+            this.digest = digest;
+            this.expectedDigest = expectedDigest;
+        }
+    }
+
+    private static class SymbolicLink {
+        private final String linkTo;
+
+        private final long modificationTime;
+
+        SymbolicLink(final String linkTo, final long modificationTime) {
+            this.linkTo = linkTo;
+            this.modificationTime = modificationTime;
+        }
+    }
+
+    /**
+     * A bounded pool of transfer buffers
+     */
+    private static class TransferBuffers {
+        private final int bufferSize;
+
+        private final Semaphore available;
+
+        private final ConcurrentLinkedQueue<byte[]> free = new ConcurrentLinkedQueue<>();
+
+        TransferBuffers(final int bufferSize, final int buffers) {
+            this.bufferSize = bufferSize;
+            this.available = new Semaphore(buffers);
+        }
+
+        byte[] acquire() throws IOException {
+            try {
+                this.available.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for buffer", e);
+            }
+
+            final byte[] result = this.free.poll();
+            return result != null ? result : new byte[this.bufferSize];
+        }
+
+        void release(final byte[] buffer) {
+            this.free.offer(buffer);
+            this.available.release();
+        }
+    }
+
+    private final Path target;
+
+    private final ExtractorOptions options;
+
+    private final String threadName;
+
+    private final boolean posix;
+
+    private final TransferBuffers buffers;
+
+    private final BlockingQueue<Job> jobs;
+
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    private final AtomicLong files = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * Directories which are known to be real directories, with no symbolic
+     * link in their parent chain
+     */
+    private final Set<Path> verifiedDirectories = new HashSet<>();
+
+    private final List<Job> directories = new ArrayList<>();
+
+    private final Map<Path, Path> hardLinks = new LinkedHashMap<>();
+
+    private final Map<Path, SymbolicLink> symbolicLinks = new LinkedHashMap<>();
+
+    private boolean used;
+
+    /**
+     * Create a new pipeline
+     *
+     * @param target the target directory, will be created if necessary
+     * @param options the options to use
+     * @param threadName the name prefix of the writer threads
+     */
+    public ExtractionPipeline(final Path target, final ExtractorOptions options, final String threadName) {
+        this.target = target.toAbsolutePath().normalize();
+        this.options = options;
+        this.threadName = threadName;
+        this.posix = this.target.getFileSystem().supportedFileAttributeViews().contains("posix");
+
+        final long buffers = Math.max(1, (options.getMaxBufferedBytes() + options.getBufferSize() - 1) / options.getBufferSize());
+        this.buffers = new TransferBuffers(options.getBufferSize(), (int) Math.min(Integer.MAX_VALUE, buffers));
+        this.jobs = new ArrayBlockingQueue<>(options.getPendingFiles());
+    }
+
+    public Path getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Run the extraction
+     * <p>
+     * The reader is called on the calling thread, and must hand over all
+     * entries of the archive to the pipeline.
+     * </p>
+     *
+     * @param reader the format specific reader of the archive
+     * @return the result of the extraction
+     * @throws IOException if extracting fails
+     * @throws IllegalStateException if the pipeline was already used
+     */
+    public Result run(final IOConsumer<ExtractionPipeline> reader) throws IOException {
+        if (this.used) {
+            throw new IllegalStateException("Pipeline was already used");
+        }
+        this.used = true;
+
+        Files.createDirectories(this.target);
+
+        final int writers = this.options.getWriterThreads();
+        final CountDownLatch done = new CountDownLatch(writers);
+
+        final ExecutorService ownExecutor = this.options.getExecutor() == null ? Executors.newFixedThreadPool(writers, new WriterThreadFactory(this.threadName)) : null;
+
+        try {
+            for (int i = 0; i < writers; i++) {
+                final Runnable writer = () -> {
+                    try {
+                        write();
+                    } finally {
+                        done.countDown();
+                    }
+                };
+                if (ownExecutor != null) {
+                    ownExecutor.execute(writer);
+                } else {
+                    this.options.getExecutor().execute(writer);
+                }
+            }
+
+            IOException readFailure = null;
+            try {
+                reader.accept(this);
+            } catch (final IOException e) {
+                readFailure = e;
+            } finally {
+                for (int i = 0; i < writers; i++) {
+                    enqueue(POISON);
+                }
+            }
+
+            try {
+                done.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for writers", e);
+            }
+
+            if (readFailure != null) {
+                throw readFailure;
+            }
+            checkFailure();
+
+            final long hardLinks = createHardLinks();
+            final long symbolicLinks = createSymbolicLinks();
+
+            // deepest directories first, so that parents keep their times
+
+            this.directories.sort((a, b) -> Integer.compare(b.path.getNameCount(), a.path.getNameCount()));
+            for (final Job directory : this.directories) {
+                applyAttributes(directory);
+            }
+
+            return new Result(this.files.get(), this.directories.size(), symbolicLinks, hardLinks, this.bytes.get());
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Resolve the name of an archive entry against the target directory
+     *
+     * @param name the name of the entry, leading <code>./</code> and
+     *            <code>/</code> are ignored
+     * @return the absolute path of the entry
+     * @throws IOException if the entry points outside of the target
+     *             directory, or an existing parent directory is a symbolic
+     *             link
+     */
+    public Path resolve(final String name) throws IOException {
+        String relative = name;
+        if (relative.startsWith("./")) {
+            relative = relative.substring(2);
+        }
+        while (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+
+        final Path result = this.target.resolve(relative).normalize();
+        if (!result.startsWith(this.target)) {
+            throw new IOException(String.format("Entry '%s' points outside of the target directory", name));
+        }
+
+        for (Path parent = result.getParent(); parent != null && !parent.equals(this.target) && parent.startsWith(this.target); parent = parent.getParent()) {
+            if (this.verifiedDirectories.contains(parent)) {
+                break;
+            }
+            if (Files.isSymbolicLink(parent)) {
+                throw new IOException(String.format("Entry '%s' points through the symbolic link '%s'", name, this.target.relativize(parent)));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Add a directory
+     *
+     * @param path the resolved path of the directory
+     * @param mode the mode, only the permission bits are used
+     * @param modificationTime the modification time, in seconds since the
+     *            epoch
+     * @throws IOException if the directory can't be created
+     */
+    public void addDirectory(final Path path, final int mode, final long modificationTime) throws IOException {
+        checkFailure();
+        replaced(path);
+
+        createDirectories(path);
+        this.directories.add(new Job(path, null, 0, mode, modificationTime, null, null));
+    }
+
+    /**
+     * Add a regular file
+     * <p>
+     * The content is read from the stream on the calling thread, and written
+     * by the writer threads.
+     * </p>
+     *
+     * @param in the stream to read the content from, will not be closed
+     * @param name the name of the entry, used for error messages
+     * @param path the resolved path of the file
+     * @param size the size of the content
+     * @param mode the mode, only the permission bits are used
+     * @param modificationTime the modification time, in seconds since the
+     *            epoch
+     * @param digest the digest to verify the content with, may be
+     *            <code>null</code>
+     * @param expectedDigest the expected digest, as hex string, must be set
+     *            if a digest is set
+     * @throws IOException if reading the content fails, or a writer has
+     *             failed
+     */
+    public void addFile(final InputStream in, final String name, final Path path, final long size, final int mode, final long modificationTime, final MessageDigest digest, final String expectedDigest) throws IOException {
+        checkFailure();
+        replaced(path);
+
+        createDirectories(path.getParent());
+
+        final Job job = new Job(path, name, size, mode, modificationTime, digest, expectedDigest);
+        enqueue(job);
+
+        try {
+            long remaining = size;
+            while (remaining > 0) {
+                final byte[] buffer = this.buffers.acquire();
+                final int len = readChunk(in, buffer, (int) Math.min(buffer.length, remaining));
+                if (len < 0) {
+                    this.buffers.release(buffer);
+                    throw new IOException(String.format("Unexpected end of data for '%s'", name));
+                }
+                job.chunks.add(new Chunk(buffer, len));
+                remaining -= len;
+
+                checkFailure();
+            }
+        } finally {
+            job.chunks.add(END);
+        }
+    }
+
+    /**
+     * Add a symbolic link
+     * <p>
+     * The link will be created once all other entries have been written.
+     * </p>
+     *
+     * @param path the resolved path of the link
+     * @param linkTo the target of the link, which is not checked
+     * @param modificationTime the modification time, in seconds since the
+     *            epoch
+     * @throws IOException if a writer has failed
+     */
+    public void addSymbolicLink(final Path path, final String linkTo, final long modificationTime) throws IOException {
+        checkFailure();
+        replaced(path);
+
+        this.symbolicLinks.put(path, new SymbolicLink(linkTo, modificationTime));
+    }
+
+    /**
+     * Add a hard link
+     * <p>
+     * The link will be created once all regular files have been written.
+     * </p>
+     *
+     * @param path the resolved path of the link
+     * @param existing the resolved path of a regular file of the archive
+     * @throws IOException if a writer has failed
+     */
+    public void addHardLink(final Path path, final Path existing) throws IOException {
+        checkFailure();
+        replaced(path);
+
+        createDirectories(path.getParent());
+        this.hardLinks.put(path, existing);
+    }
+
+    /**
+     * Drop pending links of an entry, which is replaced by a later entry
+     */
+    private void replaced(final Path path) {
+        this.symbolicLinks.remove(path);
+        this.hardLinks.remove(path);
+    }
+
+    private static int readChunk(final InputStream in, final byte[] buffer, final int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            final int rc = in.read(buffer, total, len - total);
+            if (rc < 0) {
+                return total > 0 ? total : -1;
+            }
+            total += rc;
+        }
+        return total;
+    }
+
+    private void enqueue(final Job job) throws IOException {
+        try {
+            this.jobs.put(job);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queuing file", e);
+        }
+    }
+
+    private void createDirectories(final Path path) throws IOException {
+        if (path == null || this.verifiedDirectories.contains(path)) {
+            return;
+        }
+
+        Files.createDirectories(path);
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(String.format("'%s' is not a directory", path));
+        }
+        this.verifiedDirectories.add(path);
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException e = this.failure.get();
+        if (e != null) {
+            throw new IOException("Failed to write entry", e);
+        }
+    }
+
+    /**
+     * The main loop of a writer thread
+     */
+    private void write() {
+        while (true) {
+            final Job job;
+            try {
+                job = this.jobs.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.failure.compareAndSet(null, new IOException("Interrupted while waiting for work", e));
+                return;
+            }
+
+            if (job == POISON) {
+                return;
+            }
+
+            try {
+                writeFile(job);
+            } catch (final IOException e) {
+                this.failure.compareAndSet(null, e);
+                drain(job);
+            } catch (final RuntimeException e) {
+                this.failure.compareAndSet(null, new IOException(e));
+                drain(job);
+            }
+        }
+    }
+
+    private void writeFile(final Job job) throws IOException {
+        // don't follow a symbolic link already present in the target directory
+
+        try (FileChannel channel = FileChannel.open(job.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, LinkOption.NOFOLLOW_LINKS)) {
+            if (job.size > 0) {
+                // preallocate the file with its final size
+                channel.write(ByteBuffer.allocate(1), job.size - 1);
+            }
+
+            while (true) {
+                final Chunk chunk = nextChunk(job);
+                if (chunk == END) {
+                    job.consumed = true;
+                    break;
+                }
+                try {
+                    final ByteBuffer buffer = ByteBuffer.wrap(chunk.data, 0, chunk.length);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    if (job.digest != null) {
+                        job.digest.update(chunk.data, 0, chunk.length);
+                    }
+                } finally {
+                    this.buffers.release(chunk.data);
+                }
+            }
+        }
+
+        if (job.digest != null) {
+            final String actual = Strings.hex(job.digest.digest());
+            if (!actual.equalsIgnoreCase(job.expectedDigest)) {
+                throw new IOException(String.format("Digest mismatch for '%s' - expected: %s, actual: %s", job.name, job.expectedDigest, actual));
+            }
+        }
+
+        applyAttributes(job);
+
+        this.files.incrementAndGet();
+        this.bytes.addAndGet(job.size);
+    }
+
+    private Chunk nextChunk(final Job job) throws IOException {
+        try {
+            return job.chunks.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data", e);
+        }
+    }
+
+    /**
+     * Consume the remaining chunks of a failed job, so that the reader
+     * doesn't block on buffers
+     */
+    private void drain(final Job job) {
+        if (job.consumed) {
+            return;
+        }
+
+        try {
+            Chunk chunk;
+            while ((chunk = job.chunks.take()) != END) {
+                this.buffers.release(chunk.data);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void applyAttributes(final Job job) throws IOException {
+        if (this.options.isRestoreModes() && this.posix) {
+            Files.setPosixFilePermissions(job.path, toPermissions(job.mode));
+        }
+        if (this.options.isRestoreModificationTimes()) {
+            Files.setLastModifiedTime(job.path, FileTime.from(job.modificationTime, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Create the hard links, once all files have been written
+     */
+    private long createHardLinks() throws IOException {
+        for (final Map.Entry<Path, Path> entry : this.hardLinks.entrySet()) {
+            checkParents(entry.getKey());
+            checkParents(entry.getValue());
+
+            if (!Files.isRegularFile(entry.getValue(), LinkOption.NOFOLLOW_LINKS)) {
+                throw new IOException(String.format("Missing content for hard link '%s'", entry.getKey()));
+            }
+            Files.deleteIfExists(entry.getKey());
+            try {
+                Files.createLink(entry.getKey(), entry.getValue());
+            } catch (final FileAlreadyExistsException e) {
+                throw new IOException(String.format("Failed to create hard link '%s'", entry.getKey()), e);
+            }
+        }
+        return this.hardLinks.size();
+    }
+
+    /**
+     * Create the symbolic links, once all other entries have been written
+     * <p>
+     * As links are created, the parent chain of every link needs to be
+     * checked again, without relying on the verified directories.
+     * </p>
+     */
+    private long createSymbolicLinks() throws IOException {
+        for (final Map.Entry<Path, SymbolicLink> entry : this.symbolicLinks.entrySet()) {
+            final Path path = entry.getKey();
+
+            checkParents(path);
+            Files.createDirectories(path.getParent());
+
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                throw new IOException(String.format("Symbolic link '%s' would replace a directory", this.target.relativize(path)));
+            }
+
+            Files.deleteIfExists(path);
+            Files.createSymbolicLink(path, Paths.get(entry.getValue().linkTo));
+
+            if (this.options.isRestoreModificationTimes()) {
+                final FileTime time = FileTime.from(entry.getValue().modificationTime, TimeUnit.SECONDS);
+                Files.getFileAttributeView(path, BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS).setTimes(time, null, null);
+            }
+        }
+        return this.symbolicLinks.size();
+    }
+
+    private void checkParents(final Path path) throws IOException {
+        for (Path parent = path.getParent(); parent != null && !parent.equals(this.target) && parent.startsWith(this.target); parent = parent.getParent()) {
+            if (Files.isSymbolicLink(parent)) {
+                throw new IOException(String.format("'%s' points through the symbolic link '%s'", this.target.relativize(path), this.target.relativize(parent)));
+            }
+        }
+    }
+
+    private static Set<PosixFilePermission> toPermissions(final int mode) {
+        final Set<PosixFilePermission> result = EnumSet.noneOf(PosixFilePermission.class);
+        final int bits = mode & PERMISSION_BITS;
+        for (int i = 0; i < PERMISSIONS.length; i++) {
+            if ((bits & (1 << i)) != 0) {
+                result.add(PERMISSIONS[i]);
+            }
+        }
+        return result;
+    }
+
+    private static class WriterThreadFactory implements ThreadFactory {
+        private final String prefix;
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        WriterThreadFactory(final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, this.prefix + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
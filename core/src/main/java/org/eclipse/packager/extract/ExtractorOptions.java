@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.extract;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options which control an {@link ExtractionPipeline}
+ * <p>
+ * The rule of thumb is that this class hosts only options for which a
+ * reasonable default can be given.
+ * </p>
+ */
+public class ExtractorOptions {
+    private static final int DEFAULT_BUFFER_SIZE = 128 * 1024;
+
+    private static final long DEFAULT_MAX_BUFFERED_BYTES = 64L * 1024L * 1024L;
+
+    private static final int DEFAULT_PENDING_FILES = 256;
+
+    private int writerThreads = Runtime.getRuntime().availableProcessors();
+
+    private Executor executor;
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private long maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+
+    private int pendingFiles = DEFAULT_PENDING_FILES;
+
+    private boolean verifyDigests;
+
+    private boolean restoreModes = true;
+
+    private boolean restoreModificationTimes = true;
+
+    public ExtractorOptions() {
+    }
+
+    public ExtractorOptions(final ExtractorOptions other) {
+        setWriterThreads(other.writerThreads);
+        setExecutor(other.executor);
+        setBufferSize(other.bufferSize);
+        setMaxBufferedBytes(other.maxBufferedBytes);
+        setPendingFiles(other.pendingFiles);
+        setVerifyDigests(other.verifyDigests);
+        setRestoreModes(other.restoreModes);
+        setRestoreModificationTimes(other.restoreModificationTimes);
+    }
+
+    public int getWriterThreads() {
+        return this.writerThreads;
+    }
+
+    /**
+     * Set the number of threads writing file content
+     *
+     * @param writerThreads the number of writer threads, values less than one
+     *            will be treated as one
+     */
+    public void setWriterThreads(final int writerThreads) {
+        this.writerThreads = Math.max(1, writerThreads);
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Set the executor running the writers
+     * <p>
+     * The executor must be able to run {@link #getWriterThreads()} tasks
+     * concurrently. If no executor is set, the extractor will create and
+     * dispose its own threads for each run.
+     * </p>
+     *
+     * @param executor the executor to use, may be <code>null</code>
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    public void setBufferSize(final int bufferSize) {
+        this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+    }
+
+    public long getMaxBufferedBytes() {
+        return this.maxBufferedBytes;
+    }
+
+    /**
+     * Set the maximum number of bytes which may be buffered between the reader
+     * and the writers
+     * <p>
+     * The limit is rounded up to a multiple of the buffer size. The reader
+     * will block until writers have released buffers.
+     * </p>
+     *
+     * @param maxBufferedBytes the maximum number of buffered bytes
+     */
+    public void setMaxBufferedBytes(final long maxBufferedBytes) {
+        this.maxBufferedBytes = maxBufferedBytes > 0 ? maxBufferedBytes : DEFAULT_MAX_BUFFERED_BYTES;
+    }
+
+    public int getPendingFiles() {
+        return this.pendingFiles;
+    }
+
+    public void setPendingFiles(final int pendingFiles) {
+        this.pendingFiles = pendingFiles > 0 ? pendingFiles : DEFAULT_PENDING_FILES;
+    }
+
+    public boolean isVerifyDigests() {
+        return this.verifyDigests;
+    }
+
+    /**
+     * Enable checking file content against the digests recorded in the
+     * package
+     *
+     * @param verifyDigests <code>true</code> to verify file digests
+     */
+    public void setVerifyDigests(final boolean verifyDigests) {
+        this.verifyDigests = verifyDigests;
+    }
+
+    public boolean isRestoreModes() {
+        return this.restoreModes;
+    }
+
+    public void setRestoreModes(final boolean restoreModes) {
+        this.restoreModes = restoreModes;
+    }
+
+    public boolean isRestoreModificationTimes() {
+        return this.restoreModificationTimes;
+    }
+
+    public void setRestoreModificationTimes(final boolean restoreModificationTimes) {
+        this.restoreModificationTimes = restoreModificationTimes;
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+/**
+ * Format independent extraction of package archives
+ * <p>
+ * The {@link org.eclipse.packager.extract.ExtractionPipeline} writes the
+ * entries handed over by a format specific reader to a directory.
+ * </p>
+ */
+package org.eclipse.packager.extract;
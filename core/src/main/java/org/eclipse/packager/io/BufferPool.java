@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of I/O buffers
+ * <p>
+ * All buffers of a pool have the same capacity. Buffers are created on demand,
+ * and at most <code>maxPooled</code> buffers are kept for re-use. Acquiring a
+ * buffer never blocks.
+ * </p>
+ * <p>
+ * The shared {@link #direct()} pool hands out direct buffers, sized for large
+ * sequential channel I/O. The shared {@link #heap()} pool hands out heap
+ * buffers, for copying between streams.
+ * </p>
+ */
+public final class BufferPool {
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    public static final int DEFAULT_HEAP_BUFFER_SIZE = 64 * 1024;
+
+    public static final int DEFAULT_MAX_POOLED = 16;
+
+    private static final BufferPool DIRECT = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED, true);
+
+    private static final BufferPool HEAP = new BufferPool(DEFAULT_HEAP_BUFFER_SIZE, DEFAULT_MAX_POOLED, false);
+
+    /**
+     * A buffer, borrowed from the pool until closed
+     */
+    public final class Lease implements AutoCloseable {
+        private ByteBuffer buffer;
+
+        private Lease(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public ByteBuffer getBuffer() {
+            if (this.buffer == null) {
+                throw new IllegalStateException("Buffer is already released");
+            }
+            return this.buffer;
+        }
+
+        @Override
+        public void close() {
+            final ByteBuffer buffer = this.buffer;
+            this.buffer = null;
+            release(buffer);
+        }
+    }
+
+    private final int bufferSize;
+
+    private final boolean direct;
+
+    private final BlockingQueue<ByteBuffer> pool;
+
+    public BufferPool(final int bufferSize, final int maxPooled, final boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be greater than zero");
+        }
+        if (maxPooled <= 0) {
+            throw new IllegalArgumentException("Maximum number of pooled buffers must be greater than zero");
+        }
+
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.pool = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    /**
+     * Get the shared pool of direct buffers
+     *
+     * @return the shared pool, of {@link #DEFAULT_BUFFER_SIZE} sized buffers
+     */
+    public static BufferPool direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Get the shared pool of heap buffers
+     *
+     * @return the shared pool, of {@link #DEFAULT_HEAP_BUFFER_SIZE} sized
+     *         buffers
+     */
+    public static BufferPool heap() {
+        return HEAP;
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    public boolean isDirect() {
+        return this.direct;
+    }
+
+    /**
+     * Acquire a buffer
+     *
+     * @return a cleared, big endian buffer of {@link #getBufferSize()} bytes
+     */
+    public ByteBuffer acquire() {
+        final ByteBuffer result = this.pool.poll();
+        if (result == null) {
+            return allocate(this.bufferSize);
+        }
+        result.clear();
+        result.order(ByteOrder.BIG_ENDIAN);
+        return result;
+    }
+
+    /**
+     * Acquire a buffer for a specific number of bytes
+     * <p>
+     * If the requested capacity exceeds the buffer size of the pool, a new
+     * buffer is allocated, which will not be pooled when released.
+     * </p>
+     *
+     * @param capacity the required capacity
+     * @return a cleared buffer, with its limit set to the capacity
+     */
+    public ByteBuffer acquire(final int capacity) {
+        if (capacity > this.bufferSize) {
+            return allocate(capacity);
+        }
+        final ByteBuffer result = acquire();
+        result.limit(capacity);
+        return result;
+    }
+
+    /**
+     * Return a buffer to the pool
+     * <p>
+     * Buffers which were not created by this pool are ignored. The buffer must
+     * not be used after it has been released.
+     * </p>
+     *
+     * @param buffer the buffer to release, may be <code>null</code>
+     */
+    public void release(final ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != this.bufferSize || buffer.isDirect() != this.direct || buffer.isReadOnly()) {
+            return;
+        }
+        this.pool.offer(buffer);
+    }
+
+    public Lease lease() {
+        return new Lease(acquire());
+    }
+
+    public Lease lease(final int capacity) {
+        return new Lease(acquire(capacity));
+    }
+
+    /**
+     * Copy all data from one channel to another
+     *
+     * @param in the channel to read from
+     * @param out the channel to write to
+     * @return the number of bytes copied
+     * @throws IOException if reading or writing fails
+     */
+    public long copy(final ReadableByteChannel in, final WritableByteChannel out) throws IOException {
+        long total = 0;
+        try (Lease lease = lease()) {
+            final ByteBuffer buffer = lease.getBuffer();
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                total += buffer.remaining();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Copy all data from one stream to another
+     * <p>
+     * Streams need array backed buffers, so a direct pool uses the shared
+     * {@link #heap()} pool for this.
+     * </p>
+     *
+     * @param in the stream to read from
+     * @param out the stream to write to
+     * @return the number of bytes copied
+     * @throws IOException if reading or writing fails
+     */
+    public long copy(final InputStream in, final OutputStream out) throws IOException {
+        if (this.direct) {
+            return HEAP.copy(in, out);
+        }
+
+        long total = 0;
+        try (Lease lease = lease()) {
+            final byte[] buffer = lease.getBuffer().array();
+            int rc;
+            while ((rc = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, rc);
+                total += rc;
+            }
+        }
+        return total;
+    }
+
+    private ByteBuffer allocate(final int capacity) {
+        return this.direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
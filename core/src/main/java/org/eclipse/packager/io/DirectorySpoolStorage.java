@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A spool storage, creating temporary files in a directory
+ */
+public class DirectorySpoolStorage implements SpoolStorage {
+    static final DirectorySpoolStorage DEFAULT = new DirectorySpoolStorage(null);
+
+    private final Path directory;
+
+    /**
+     * Create a new storage
+     *
+     * @param directory the directory to create files in, <code>null</code>
+     *            for the default temporary directory
+     */
+    public DirectorySpoolStorage(final Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    @Override
+    public SpoolFile create(final String prefix) throws IOException {
+        final Path file;
+        if (this.directory == null) {
+            file = Files.createTempFile(prefix, null);
+        } else {
+            Files.createDirectories(this.directory);
+            file = Files.createTempFile(this.directory, prefix, null);
+        }
+        return new FileSpoolFile(file);
+    }
+
+    private static class FileSpoolFile implements SpoolFile {
+        private final Path file;
+
+        FileSpoolFile(final Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public OutputStream openOutputStream() throws IOException {
+            return Files.newOutputStream(this.file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        @Override
+        public long size() throws IOException {
+            return Files.size(this.file);
+        }
+
+        @Override
+        public FileChannel openChannel() throws IOException {
+            return FileChannel.open(this.file, StandardOpenOption.READ);
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(this.file);
+        }
+
+        @Override
+        public String toString() {
+            return this.file.toString();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * A spool storage, keeping small files in one storage, and spilling larger
+ * ones to another
+ * <p>
+ * Content is written to the primary storage, until it exceeds the threshold.
+ * The content written so far is then copied to the overflow storage, which
+ * receives all further content.
+ * </p>
+ */
+public class HybridSpoolStorage implements SpoolStorage {
+    private final long threshold;
+
+    private final SpoolStorage primary;
+
+    private final SpoolStorage overflow;
+
+    /**
+     * Create a new storage
+     *
+     * @param threshold the maximum number of bytes stored in the primary
+     *            storage
+     * @param primary the primary storage, e.g. {@link MemorySpoolStorage}
+     * @param overflow the storage for larger files, e.g.
+     *            {@link DirectorySpoolStorage}
+     */
+    public HybridSpoolStorage(final long threshold, final SpoolStorage primary, final SpoolStorage overflow) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        this.threshold = threshold;
+        this.primary = Objects.requireNonNull(primary);
+        this.overflow = Objects.requireNonNull(overflow);
+    }
+
+    public long getThreshold() {
+        return this.threshold;
+    }
+
+    @Override
+    public SpoolFile create(final String prefix) throws IOException {
+        return new HybridSpoolFile(prefix, this.primary.create(prefix));
+    }
+
+    private class HybridSpoolFile implements SpoolFile {
+        private final String prefix;
+
+        private volatile SpoolFile current;
+
+        private boolean spilled;
+
+        HybridSpoolFile(final String prefix, final SpoolFile current) {
+            this.prefix = prefix;
+            this.current = current;
+        }
+
+        @Override
+        public OutputStream openOutputStream() throws IOException {
+            final OutputStream initial = this.current.openOutputStream();
+
+            return new OutputStream() {
+                private OutputStream out = initial;
+
+                private long count;
+
+                @Override
+                public void write(final int b) throws IOException {
+                    checkSpill(1);
+                    this.out.write(b);
+                    this.count++;
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    checkSpill(len);
+                    this.out.write(b, off, len);
+                    this.count += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    this.out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    this.out.close();
+                }
+
+                private void checkSpill(final int len) throws IOException {
+                    if (HybridSpoolFile.this.spilled || this.count + len <= HybridSpoolStorage.this.threshold) {
+                        return;
+                    }
+
+                    this.out.close();
+                    this.out = spill();
+                }
+            };
+        }
+
+        /**
+         * Move the content to the overflow storage
+         *
+         * @return the stream for writing the remaining content
+         */
+        private OutputStream spill() throws IOException {
+            final SpoolFile memory = this.current;
+            final SpoolFile disk = HybridSpoolStorage.this.overflow.create(this.prefix);
+
+            try {
+                final OutputStream out = disk.openOutputStream();
+                try (InputStream in = memory.openInputStream()) {
+                    BufferPool.heap().copy(in, out);
+                } catch (final IOException e) {
+                    out.close();
+                    throw e;
+                }
+
+                this.current = disk;
+                this.spilled = true;
+                memory.close();
+
+                return out;
+            } catch (final IOException e) {
+                disk.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public long size() throws IOException {
+            return this.current.size();
+        }
+
+        @Override
+        public ReadableByteChannel openChannel() throws IOException {
+            return this.current.openChannel();
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return this.current.openInputStream();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.current.close();
+        }
+
+        @Override
+        public String toString() {
+            return this.current.toString();
+        }
+    }
+}
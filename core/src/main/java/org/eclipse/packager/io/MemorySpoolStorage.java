@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A spool storage, keeping the content in memory
+ * <p>
+ * Content is stored in chunks of direct buffers, outside of the Java heap.
+ * Chunks of closed spool files are re-used for new spool files, up to a
+ * limit.
+ * </p>
+ */
+public class MemorySpoolStorage implements SpoolStorage {
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private static final int MAX_POOLED_CHUNKS = 16;
+
+    private final BufferPool chunks;
+
+    public MemorySpoolStorage(final int chunkSize) {
+        this.chunks = new BufferPool(chunkSize, MAX_POOLED_CHUNKS, true);
+    }
+
+    public int getChunkSize() {
+        return this.chunks.getBufferSize();
+    }
+
+    @Override
+    public SpoolFile create(final String prefix) {
+        return new MemorySpoolFile();
+    }
+
+    private class MemorySpoolFile implements SpoolFile {
+        private final List<ByteBuffer> data = new ArrayList<>();
+
+        private long size;
+
+        private boolean opened;
+
+        private boolean closed;
+
+        @Override
+        public synchronized OutputStream openOutputStream() throws IOException {
+            checkClosed();
+            if (this.opened) {
+                throw new IllegalStateException("Spool file was already opened for writing");
+            }
+            this.opened = true;
+
+            return new OutputStream() {
+                private ByteBuffer current;
+
+                @Override
+                public void write(final int b) throws IOException {
+                    ensureSpace().put((byte) b);
+                    MemorySpoolFile.this.size++;
+                }
+
+                @Override
+                public void write(final byte[] b, int off, int len) throws IOException {
+                    while (len > 0) {
+                        final ByteBuffer chunk = ensureSpace();
+                        final int n = Math.min(len, chunk.remaining());
+                        chunk.put(b, off, n);
+                        off += n;
+                        len -= n;
+                        MemorySpoolFile.this.size += n;
+                    }
+                }
+
+                private ByteBuffer ensureSpace() throws IOException {
+                    checkClosed();
+                    if (this.current == null || !this.current.hasRemaining()) {
+                        this.current = MemorySpoolStorage.this.chunks.acquire();
+                        MemorySpoolFile.this.data.add(this.current);
+                    }
+                    return this.current;
+                }
+            };
+        }
+
+        @Override
+        public synchronized long size() throws IOException {
+            checkClosed();
+            return this.size;
+        }
+
+        @Override
+        public synchronized ReadableByteChannel openChannel() throws IOException {
+            checkClosed();
+
+            final ByteBuffer[] views = new ByteBuffer[this.data.size()];
+            for (int i = 0; i < views.length; i++) {
+                views[i] = this.data.get(i).duplicate().flip();
+            }
+
+            return new ReadableByteChannel() {
+                private int index;
+
+                private boolean open = true;
+
+                @Override
+                public int read(final ByteBuffer dst) throws IOException {
+                    if (!this.open) {
+                        throw new ClosedChannelException();
+                    }
+                    checkClosed();
+
+                    while (this.index < views.length && !views[this.index].hasRemaining()) {
+                        this.index++;
+                    }
+                    if (this.index >= views.length) {
+                        return -1;
+                    }
+
+                    int total = 0;
+                    while (dst.hasRemaining() && this.index < views.length) {
+                        final ByteBuffer view = views[this.index];
+                        final int n = Math.min(dst.remaining(), view.remaining());
+                        final int limit = view.limit();
+                        view.limit(view.position() + n);
+                        dst.put(view);
+                        view.limit(limit);
+                        total += n;
+                        if (!view.hasRemaining()) {
+                            this.index++;
+                        }
+                    }
+                    return total;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return this.open;
+                }
+
+                @Override
+                public void close() {
+                    this.open = false;
+                }
+            };
+        }
+
+        @Override
+        public synchronized void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            for (final ByteBuffer chunk : this.data) {
+                MemorySpoolStorage.this.chunks.release(chunk);
+            }
+            this.data.clear();
+        }
+
+        private void checkClosed() throws IOException {
+            if (this.closed) {
+                throw new IOException("Spool file is already closed");
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ package org.eclipse.packager.io;
 
 import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
@@ -28,8 +29,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import org.eclipse.packager.security.digest.MultiDigest;
+import org.eclipse.packager.security.digest.MultiDigestOutputStream;
 import org.eclipse.packager.utils.Strings;
 
 public class OutputSpooler {
@@ -83,6 +91,41 @@ public class OutputSpooler {
 
     }
 
+    /**
+     * Records all digests, and the size, of a file when closed
+     */
+    private class RecordingMultiDigestOutputStream extends MultiDigestOutputStream {
+        private final String key;
+
+        private boolean closed;
+
+        RecordingMultiDigestOutputStream(final OutputStream out, final MultiDigest digest, final String key) {
+            super(out, digest);
+            this.key = key;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            try {
+                super.close();
+            } catch (final IOException e) {
+                getDigest().close();
+                throw e;
+            }
+
+            final long count = getDigest().getCount();
+            for (final Entry<String, byte[]> result : getDigest().finish().entrySet()) {
+                setResult(this.key + ":" + result.getKey(), result.getValue());
+            }
+            setResultSize(this.key, count);
+        }
+    }
+
     private class MultiplexStream extends OutputStream {
         private final OutputStream[] streams;
 
@@ -118,6 +161,204 @@ public class OutputSpooler {
         }
     }
 
+    /**
+     * A multiplexing stream, writing to each output on its own thread
+     * <p>
+     * Written data is collected in a buffer, which is handed over to one
+     * consumer thread per output, through a bounded queue. Buffers are
+     * shared between the outputs and never modified after they have been
+     * handed over. Errors of an output are reported on the next call of the
+     * writing thread.
+     * </p>
+     */
+    private class FanOutStream extends OutputStream {
+        private final Consumer[] consumers;
+
+        private byte[] buffer;
+
+        private int position;
+
+        private boolean closed;
+
+        public FanOutStream(final List<OutputStream> streams) {
+            this.consumers = new Consumer[streams.size()];
+            this.buffer = new byte[OutputSpooler.this.bufferSize];
+
+            int i = 0;
+            for (final OutputStream stream : streams) {
+                this.consumers[i++] = new Consumer(stream);
+            }
+
+            for (final Consumer consumer : this.consumers) {
+                consumer.start();
+            }
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (this.position == this.buffer.length) {
+                dispatch();
+            }
+            this.buffer[this.position++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (this.position == this.buffer.length) {
+                    dispatch();
+                }
+                final int n = Math.min(len, this.buffer.length - this.position);
+                System.arraycopy(b, off, this.buffer, this.position, n);
+                this.position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            dispatch();
+        }
+
+        private void dispatch() throws IOException {
+            checkErrors();
+
+            if (this.position == 0) {
+                return;
+            }
+
+            final byte[] data = this.position == this.buffer.length ? this.buffer : Arrays.copyOf(this.buffer, this.position);
+            for (final Consumer consumer : this.consumers) {
+                consumer.put(data);
+            }
+
+            this.buffer = new byte[OutputSpooler.this.bufferSize];
+            this.position = 0;
+        }
+
+        private void checkErrors() throws IOException {
+            for (final Consumer consumer : this.consumers) {
+                if (consumer.error != null) {
+                    throw new IOException("Failed to write output", consumer.error);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            IOException error = null;
+            try {
+                dispatch();
+            } catch (final IOException e) {
+                error = e;
+            }
+
+            for (final Consumer consumer : this.consumers) {
+                try {
+                    consumer.put(END);
+                } catch (final IOException e) {
+                    error = error == null ? e : error;
+                }
+            }
+
+            for (final Consumer consumer : this.consumers) {
+                try {
+                    consumer.join();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error = error == null ? new InterruptedIOException() : error;
+                }
+            }
+
+            if (error != null) {
+                throw error;
+            }
+
+            checkErrors();
+        }
+
+        private class Consumer extends Thread {
+            private final OutputStream stream;
+
+            private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(OutputSpooler.this.queueSize);
+
+            private volatile Throwable error;
+
+            Consumer(final OutputStream stream) {
+                super("output-spooler-" + THREAD_COUNTER.incrementAndGet());
+                setDaemon(true);
+                this.stream = stream;
+            }
+
+            /**
+             * Hand over data to the consumer
+             * <p>
+             * Waiting for space in the queue times out periodically, to
+             * fail instead of blocking forever if the consumer thread has
+             * terminated.
+             * </p>
+             */
+            void put(final byte[] data) throws IOException {
+                try {
+                    while (!this.queue.offer(data, PUT_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (!isAlive()) {
+                            throw new IOException("Output consumer terminated", this.error);
+                        }
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+
+            @Override
+            public void run() {
+                try {
+                    byte[] data;
+                    while ((data = this.queue.take()) != END) {
+                        if (this.error == null) {
+                            try {
+                                this.stream.write(data);
+                            } catch (final Throwable e) {
+                                // keep consuming, so that the writer doesn't block
+                                this.error = e;
+                            }
+                        }
+                    }
+                } catch (final Throwable e) {
+                    if (this.error == null) {
+                        this.error = e;
+                    }
+                } finally {
+                    // always close, releasing encoders and targets, but keep the first error
+                    try {
+                        this.stream.close();
+                    } catch (final Throwable e) {
+                        if (this.error == null) {
+                            this.error = e;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static final byte[] END = new byte[0];
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int DEFAULT_QUEUE_SIZE = 16;
+
+    private static final long PUT_CHECK_INTERVAL_MILLIS = 100;
+
     private static class OutputEntry {
         private final String mimeType;
 
@@ -143,14 +384,55 @@ public class OutputSpooler {
 
     private final Map<String, OutputEntry> outputs = new HashMap<>();
 
-    private final Map<String, String> checksums = new HashMap<>();
+    private final Map<String, String> checksums = new ConcurrentHashMap<>();
 
-    private final Map<String, Long> sizes = new HashMap<>();
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+    private boolean parallel;
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
 
     public OutputSpooler(final SpoolOutTarget target) {
         this.target = target;
     }
 
+    /**
+     * Write to the outputs in parallel
+     * <p>
+     * If enabled, each output (including its transformer, like a compressor,
+     * and digests) runs on its own thread. Data is passed on in buffers of
+     * {@link #setBufferSize(int)} bytes. At most {@link #setQueueSize(int)}
+     * buffers are queued per output, before the writer blocks.
+     * </p>
+     *
+     * @param parallel <code>true</code> to enable writing in parallel
+     */
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return this.parallel;
+    }
+
+    public void setBufferSize(final int bufferSize) {
+        this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize > 0 ? queueSize : DEFAULT_QUEUE_SIZE;
+    }
+
+    public int getQueueSize() {
+        return this.queueSize;
+    }
+
     public void addDigest(final String algorithm) {
         this.digests.add(algorithm);
     }
@@ -173,7 +455,7 @@ public class OutputSpooler {
         final Iterator<Entry<String, OutputEntry>> entries = this.outputs.entrySet().iterator();
 
         openNext(streams, entries, stream -> {
-            try (final MultiplexStream multiplexStream = new MultiplexStream(streams)) {
+            try (final OutputStream multiplexStream = this.parallel && streams.size() > 1 ? new FanOutStream(streams) : new MultiplexStream(streams)) {
                 consumer.accept(multiplexStream);
             }
         });
@@ -186,20 +468,16 @@ public class OutputSpooler {
             final Entry<String, OutputEntry> entry = entries.next();
             this.target.spoolOut(entry.getKey(), entry.getValue().getMimeType(), stream -> {
 
-                // add digesters
+                // add digesters and counter, in a single pass
 
-                for (final String algo : this.digests) {
-                    final String key = entry.getKey() + ":" + algo;
-                    try {
-                        stream = new RecordingDigestOutputStream(stream, MessageDigest.getInstance(algo), key);
-                    } catch (final NoSuchAlgorithmException e) {
-                        throw new IOException(e);
-                    }
+                final MultiDigest digest;
+                try {
+                    digest = MultiDigest.create(this.digests);
+                } catch (final NoSuchAlgorithmException e) {
+                    throw new IOException(e);
                 }
 
-                // add counter
-
-                stream = new CountingOutputStream(entry.getKey(), stream);
+                stream = new RecordingMultiDigestOutputStream(stream, digest, entry.getKey());
 
                 // apply transformer
 
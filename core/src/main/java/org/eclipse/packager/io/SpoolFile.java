@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A temporary file, created by a {@link SpoolStorage}
+ * <p>
+ * A spool file is written once, and may then be read any number of times.
+ * Closing the spool file releases its storage, it must not be used
+ * afterwards.
+ * </p>
+ */
+public interface SpoolFile extends Closeable {
+    /**
+     * Open the spool file for writing
+     * <p>
+     * This may only be called once. The content must be completely written,
+     * and the stream closed, before the spool file is read.
+     * </p>
+     *
+     * @return a new stream, which must be closed by the caller
+     * @throws IOException if opening the stream fails
+     */
+    OutputStream openOutputStream() throws IOException;
+
+    /**
+     * Get the number of bytes written
+     *
+     * @return the size of the content
+     * @throws IOException if the size cannot be determined
+     */
+    long size() throws IOException;
+
+    /**
+     * Open the content for reading
+     * <p>
+     * Spool files stored on disk return a
+     * {@link java.nio.channels.FileChannel}.
+     * </p>
+     *
+     * @return a new channel, which must be closed by the caller
+     * @throws IOException if opening the channel fails
+     */
+    ReadableByteChannel openChannel() throws IOException;
+
+    default InputStream openInputStream() throws IOException {
+        return Channels.newInputStream(openChannel());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A storage for temporary files, used while building packages
+ * <p>
+ * Implementations must be thread safe.
+ * </p>
+ */
+@FunctionalInterface
+public interface SpoolStorage {
+    /**
+     * Create a new, empty spool file
+     *
+     * @param prefix the prefix of the file name, if the storage uses file
+     *            names
+     * @return the new spool file, which must be closed by the caller
+     * @throws IOException if creating the file fails
+     */
+    SpoolFile create(String prefix) throws IOException;
+
+    /**
+     * Get the default storage
+     *
+     * @return a storage using the default temporary directory
+     */
+    static SpoolStorage defaultStorage() {
+        return DirectorySpoolStorage.DEFAULT;
+    }
+
+    /**
+     * Create a storage using a directory
+     *
+     * @param directory the directory to create files in, will be created if
+     *            it does not exist
+     * @return the new storage
+     */
+    static SpoolStorage directory(final Path directory) {
+        return new DirectorySpoolStorage(directory);
+    }
+
+    /**
+     * Create a storage keeping all content in off-heap memory
+     *
+     * @return the new storage
+     */
+    static SpoolStorage memory() {
+        return new MemorySpoolStorage(MemorySpoolStorage.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a storage keeping content in off-heap memory, up to a threshold
+     *
+     * @param threshold the maximum number of bytes of a spool file kept in
+     *            memory
+     * @param directory the directory used for larger spool files, may be
+     *            <code>null</code> for the default temporary directory
+     * @return the new storage
+     */
+    static SpoolStorage hybrid(final long threshold, final Path directory) {
+        return new HybridSpoolStorage(threshold, memory(), directory != null ? directory(directory) : defaultStorage());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.security.digest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pool of {@link MessageDigest} instances
+ * <p>
+ * Looking up a digest implementation through the security providers is
+ * comparatively expensive. This pool keeps a bounded number of released
+ * instances per algorithm for re-use.
+ * </p>
+ */
+public final class DigestPool {
+    private static final int MAX_POOLED = 32;
+
+    private static final ConcurrentMap<String, BlockingQueue<MessageDigest>> POOL = new ConcurrentHashMap<>();
+
+    private DigestPool() {
+    }
+
+    /**
+     * Get a digest instance
+     *
+     * @param algorithm the name of the algorithm
+     * @return a digest instance, in its initial state
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     */
+    public static MessageDigest acquire(final String algorithm) throws NoSuchAlgorithmException {
+        final BlockingQueue<MessageDigest> queue = POOL.get(algorithm);
+        if (queue != null) {
+            final MessageDigest result = queue.poll();
+            if (result != null) {
+                return result;
+            }
+        }
+        return MessageDigest.getInstance(algorithm);
+    }
+
+    /**
+     * Return a digest instance to the pool
+     * <p>
+     * The instance will be reset. It must not be used by the caller
+     * afterwards.
+     * </p>
+     *
+     * @param digest the digest to release, may be <code>null</code>
+     */
+    public static void release(final MessageDigest digest) {
+        if (digest == null) {
+            return;
+        }
+        digest.reset();
+        POOL.computeIfAbsent(digest.getAlgorithm(), k -> new ArrayBlockingQueue<>(MAX_POOLED)).offer(digest);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.security.digest;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Compute several message digests over the same data, in a single pass
+ * <p>
+ * Each chunk of data is fed to all digests, while it is still hot in the
+ * cache. If an executor is provided, large chunks are processed on parallel
+ * lanes, one per algorithm.
+ * </p>
+ * <p>
+ * Instances created by {@link #create(String...)} use the {@link DigestPool}
+ * and return their digests to the pool when they are finished or closed.
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class MultiDigest implements AutoCloseable {
+    /**
+     * The minimum chunk size for using parallel lanes
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024 * 1024;
+
+    private final String[] algorithms;
+
+    private final MessageDigest[] digests;
+
+    private final boolean pooled;
+
+    private final Executor lanes;
+
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private long count;
+
+    private boolean finished;
+
+    private MultiDigest(final String[] algorithms, final MessageDigest[] digests, final boolean pooled, final Executor lanes) {
+        this.algorithms = algorithms;
+        this.digests = digests;
+        this.pooled = pooled;
+        this.lanes = digests.length > 1 ? lanes : null;
+    }
+
+    /**
+     * Create a new instance, using pooled digests
+     *
+     * @param algorithms the algorithms to compute
+     * @return the new instance
+     * @throws NoSuchAlgorithmException if one of the algorithms is not
+     *             supported
+     */
+    public static MultiDigest create(final String... algorithms) throws NoSuchAlgorithmException {
+        return create(null, Arrays.asList(algorithms));
+    }
+
+    public static MultiDigest create(final Collection<String> algorithms) throws NoSuchAlgorithmException {
+        return create(null, algorithms);
+    }
+
+    /**
+     * Create a new instance, using pooled digests
+     *
+     * @param lanes the executor for processing large chunks in parallel, may
+     *            be <code>null</code> to always process on the calling thread
+     * @param algorithms the algorithms to compute
+     * @return the new instance
+     * @throws NoSuchAlgorithmException if one of the algorithms is not
+     *             supported
+     */
+    public static MultiDigest create(final Executor lanes, final Collection<String> algorithms) throws NoSuchAlgorithmException {
+        final String[] names = algorithms.toArray(new String[0]);
+        final MessageDigest[] digests = new MessageDigest[names.length];
+        try {
+            for (int i = 0; i < names.length; i++) {
+                digests[i] = DigestPool.acquire(names[i]);
+            }
+        } catch (final NoSuchAlgorithmException e) {
+            for (final MessageDigest digest : digests) {
+                DigestPool.release(digest);
+            }
+            throw e;
+        }
+        return new MultiDigest(names, digests, true, lanes);
+    }
+
+    /**
+     * Wrap existing digest instances
+     * <p>
+     * The digests are keyed by {@link MessageDigest#getAlgorithm()} and not
+     * returned to the pool.
+     * </p>
+     *
+     * @param digests the digests to wrap
+     * @return the new instance
+     */
+    public static MultiDigest wrap(final MessageDigest... digests) {
+        final String[] names = new String[digests.length];
+        for (int i = 0; i < digests.length; i++) {
+            names[i] = digests[i].getAlgorithm();
+        }
+        return new MultiDigest(names, digests.clone(), false, null);
+    }
+
+    /**
+     * Set the minimum size of a chunk for using parallel lanes
+     *
+     * @param parallelThreshold the number of bytes
+     */
+    public void setParallelThreshold(final int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold > 0 ? parallelThreshold : DEFAULT_PARALLEL_THRESHOLD;
+    }
+
+    public List<String> getAlgorithms() {
+        return Collections.unmodifiableList(Arrays.asList(this.algorithms));
+    }
+
+    /**
+     * Get the number of bytes processed
+     *
+     * @return the number of bytes processed so far
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    public void update(final byte b) {
+        checkFinished();
+        for (final MessageDigest digest : this.digests) {
+            digest.update(b);
+        }
+        this.count++;
+    }
+
+    public void update(final byte[] data) {
+        update(data, 0, data.length);
+    }
+
+    public void update(final byte[] data, final int offset, final int length) {
+        checkFinished();
+
+        if (this.lanes != null && length >= this.parallelThreshold) {
+            runLanes(digest -> digest.update(data, offset, length));
+        } else {
+            for (final MessageDigest digest : this.digests) {
+                digest.update(data, offset, length);
+            }
+        }
+
+        this.count += length;
+    }
+
+    /**
+     * Process the remaining bytes of a buffer
+     * <p>
+     * The position of the buffer will be advanced to its limit.
+     * </p>
+     *
+     * @param data the data to process
+     */
+    public void update(final ByteBuffer data) {
+        checkFinished();
+
+        final int length = data.remaining();
+
+        if (this.lanes != null && length >= this.parallelThreshold) {
+            runLanes(digest -> digest.update(data.duplicate()));
+        } else {
+            for (final MessageDigest digest : this.digests) {
+                digest.update(data.duplicate());
+            }
+        }
+
+        data.position(data.limit());
+        this.count += length;
+    }
+
+    private interface Lane {
+        void run(MessageDigest digest);
+    }
+
+    private void runLanes(final Lane lane) {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[this.digests.length - 1];
+        for (int i = 1; i < this.digests.length; i++) {
+            final MessageDigest digest = this.digests[i];
+            futures[i - 1] = CompletableFuture.runAsync(() -> lane.run(digest), this.lanes);
+        }
+
+        // the first lane runs on the calling thread
+
+        lane.run(this.digests[0]);
+
+        CompletableFuture.allOf(futures).join();
+    }
+
+    /**
+     * Complete all digests
+     * <p>
+     * After this call, no more data can be processed. Pooled digests are
+     * returned to the pool.
+     * </p>
+     *
+     * @return the digests, by algorithm name, in the order of the algorithms
+     */
+    public Map<String, byte[]> finish() {
+        checkFinished();
+
+        final Map<String, byte[]> result = new LinkedHashMap<>(this.digests.length * 2);
+        for (int i = 0; i < this.digests.length; i++) {
+            result.put(this.algorithms[i], this.digests[i].digest());
+        }
+
+        release();
+
+        return result;
+    }
+
+    /**
+     * Complete the digest of a single algorithm instance
+     *
+     * @return the digest of the only algorithm
+     * @throws IllegalStateException if this instance does not compute exactly
+     *             one algorithm
+     */
+    public byte[] finishSingle() {
+        if (this.digests.length != 1) {
+            throw new IllegalStateException(String.format("Expected a single algorithm, but got: %s", this.digests.length));
+        }
+        return finish().get(this.algorithms[0]);
+    }
+
+    /**
+     * Release the digests without completing them
+     */
+    @Override
+    public void close() {
+        if (!this.finished) {
+            release();
+        }
+    }
+
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    private void release() {
+        this.finished = true;
+        if (this.pooled) {
+            for (final MessageDigest digest : this.digests) {
+                DigestPool.release(digest);
+            }
+        }
+    }
+
+    private void checkFinished() {
+        if (this.finished) {
+            throw new IllegalStateException("Digest is already finished");
+        }
+    }
+}
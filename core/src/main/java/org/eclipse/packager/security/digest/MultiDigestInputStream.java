@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.security.digest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream, feeding all read data into a {@link MultiDigest}
+ * <p>
+ * Skipped data is read, so that it is part of the digest. Mark and reset are
+ * not supported. Closing the stream does not finish the digest.
+ * </p>
+ */
+public class MultiDigestInputStream extends FilterInputStream {
+    private final MultiDigest digest;
+
+    public MultiDigestInputStream(final InputStream in, final MultiDigest digest) {
+        super(in);
+        this.digest = digest;
+    }
+
+    public MultiDigest getDigest() {
+        return this.digest;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int rc = this.in.read();
+        if (rc >= 0) {
+            this.digest.update((byte) rc);
+        }
+        return rc;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int rc = this.in.read(b, off, len);
+        if (rc > 0) {
+            this.digest.update(b, off, rc);
+        }
+        return rc;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long remaining = n;
+        while (remaining > 0) {
+            final int rc = read(buffer, 0, (int) Math.min(remaining, buffer.length));
+            if (rc < 0) {
+                break;
+            }
+            remaining -= rc;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(final int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
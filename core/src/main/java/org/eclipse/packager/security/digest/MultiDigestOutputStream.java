@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.security.digest;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream, feeding all written data into a {@link MultiDigest}
+ * <p>
+ * Closing the stream does not finish the digest.
+ * </p>
+ */
+public class MultiDigestOutputStream extends FilterOutputStream {
+    private final MultiDigest digest;
+
+    /**
+     * Create a new stream
+     *
+     * @param out the stream to write to, may be <code>null</code> to only
+     *            compute the digests
+     * @param digest the digest to update
+     */
+    public MultiDigestOutputStream(final OutputStream out, final MultiDigest digest) {
+        super(out);
+        this.digest = digest;
+    }
+
+    public MultiDigest getDigest() {
+        return this.digest;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (this.out != null) {
+            this.out.write(b);
+        }
+        this.digest.update((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (this.out != null) {
+            this.out.write(b, off, len);
+        }
+        this.digest.update(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.out != null) {
+            this.out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.out != null) {
+            this.out.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+/**
+ * Computing message digests
+ * <p>
+ * The {@link org.eclipse.packager.security.digest.MultiDigest} class computes
+ * several digest algorithms in a single pass over the data, using pooled
+ * {@link java.security.MessageDigest} instances.
+ * </p>
+ */
+package org.eclipse.packager.security.digest;
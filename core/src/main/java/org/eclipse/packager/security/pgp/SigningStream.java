@@ -13,6 +13,7 @@
 
 package org.eclipse.packager.security.pgp;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Objects;
@@ -26,6 +27,15 @@ import org.bouncycastle.openpgp.PGPSignature;
 import org.bouncycastle.openpgp.PGPSignatureGenerator;
 import org.bouncycastle.openpgp.operator.bc.BcPGPContentSignerBuilder;
 
+/**
+ * An output stream creating an armored PGP signature of its content
+ * <p>
+ * In inline mode, the content is written as clear signed text, and the
+ * signature is created over the canonical text form of the content: trailing
+ * whitespace is removed from each line, line endings are converted to
+ * <code>CR LF</code> and the final line ending is not signed.
+ * </p>
+ */
 public class SigningStream extends OutputStream {
     private final OutputStream stream;
 
@@ -43,6 +53,10 @@ public class SigningStream extends OutputStream {
 
     private final int digestAlgorithm;
 
+    private final ByteArrayOutputStream pendingWhitespace = new ByteArrayOutputStream();
+
+    private int pendingLineEnds;
+
     /**
      * Create a new signing stream
      *
@@ -83,7 +97,7 @@ public class SigningStream extends OutputStream {
 
         try {
             this.signatureGenerator = new PGPSignatureGenerator(new BcPGPContentSignerBuilder(this.privateKey.getPublicKeyPacket().getAlgorithm(), this.digestAlgorithm));
-            this.signatureGenerator.init(PGPSignature.BINARY_DOCUMENT, this.privateKey);
+            this.signatureGenerator.init(this.inline ? PGPSignature.CANONICAL_TEXT_DOCUMENT : PGPSignature.BINARY_DOCUMENT, this.privateKey);
 
             final ArmoredOutputStream.Builder builder = ArmoredOutputStream.builder();
             if (this.version != null) {
@@ -113,15 +127,65 @@ public class SigningStream extends OutputStream {
 
         if (this.inline) {
             this.armoredOutput.write(b, off, len);
+            updateCanonical(b, off, len);
+        } else {
+            this.signatureGenerator.update(b, off, len);
+        }
+    }
+
+    private void updateCanonical(final byte[] b, final int off, final int len) {
+        int start = off;
+        for (int i = off; i < off + len; i++) {
+            final byte c = b[i];
+            if (c != '\r' && c != '\n' && c != ' ' && c != '\t') {
+                continue;
+            }
+
+            // flush regular content
+
+            updateContent(b, start, i - start);
+            start = i + 1;
+
+            if (c == '\n') {
+                // drop trailing whitespace, defer the line ending
+                this.pendingWhitespace.reset();
+                this.pendingLineEnds++;
+            } else if (c != '\r') {
+                this.pendingWhitespace.write(c);
+            }
         }
+        updateContent(b, start, off + len - start);
+    }
+
+    private void updateContent(final byte[] b, final int off, final int len) {
+        if (len <= 0) {
+            return;
+        }
+
+        updateLineEnds(this.pendingLineEnds);
+        if (this.pendingWhitespace.size() > 0) {
+            this.signatureGenerator.update(this.pendingWhitespace.toByteArray());
+            this.pendingWhitespace.reset();
+        }
+
         this.signatureGenerator.update(b, off, len);
     }
 
+    private void updateLineEnds(final int count) {
+        for (int i = 0; i < count; i++) {
+            this.signatureGenerator.update(new byte[] { '\r', '\n' });
+        }
+        this.pendingLineEnds = 0;
+    }
+
     @Override
     public void close() throws IOException {
         testInit();
 
         if (this.inline) {
+            // only the line ending of the last line is not signed (RFC 4880, section 7.1),
+            // trailing whitespace without a line ending belongs to an empty last line
+            updateLineEnds(this.pendingWhitespace.size() > 0 ? this.pendingLineEnds : this.pendingLineEnds - 1);
             this.armoredOutput.endClearText();
         }
 
@@ -17,13 +17,36 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public final class ControlFileParser {
+    /**
+     * Receives the paragraphs of a multi paragraph control file, one at a
+     * time
+     */
+    @FunctionalInterface
+    public interface ParagraphHandler {
+        /**
+         * Handle a paragraph
+         *
+         * @param paragraph the fields of the paragraph, in the order of the
+         *            file. The map is owned by the handler.
+         * @return <code>true</code> to continue parsing, <code>false</code>
+         *         to stop
+         */
+        boolean handle(Map<String, String> paragraph) throws IOException, ParserException;
+    }
+
     private ControlFileParser() {
     }
 
@@ -45,6 +68,307 @@ public final class ControlFileParser {
         return result;
     }
 
+    /**
+     * Parse a multi paragraph control file, like a <code>Packages</code> or
+     * <code>status</code> file, one paragraph at a time
+     *
+     * @see #parseMulti(Reader, Set, ParagraphHandler)
+     */
+    public static void parseMulti(final InputStream stream, final Set<String> fields, final ParagraphHandler handler) throws IOException, ParserException {
+        parseMulti(new InputStreamReader(stream, StandardCharsets.UTF_8), fields, handler);
+    }
+
+    /**
+     * Parse a multi paragraph control file, one paragraph at a time
+     * <p>
+     * Paragraphs are handed over to the handler as soon as they are parsed,
+     * so that memory consumption does not depend on the size of the file.
+     * Paragraphs without any fields (e.g. only comments) are skipped.
+     * </p>
+     *
+     * @param inputReader the reader to parse
+     * @param fields the fields to materialize, <code>null</code> for all
+     *            fields. Paragraphs are reported even if they don't contain
+     *            any of the requested fields.
+     * @param handler the handler receiving the paragraphs
+     */
+    public static void parseMulti(final Reader inputReader, final Set<String> fields, final ParagraphHandler handler) throws IOException, ParserException {
+        final BufferedReader reader = inputReader instanceof BufferedReader ? (BufferedReader) inputReader : new BufferedReader(inputReader);
+
+        final StringBuilder value = new StringBuilder();
+
+        Map<String, String> paragraph = new LinkedHashMap<>();
+        boolean found = false;
+        String currentKey = null;
+
+        while (true) {
+            final String line = reader.readLine();
+
+            if (line == null || line.isEmpty()) {
+                if (currentKey != null) {
+                    paragraph.put(currentKey, value.toString());
+                    currentKey = null;
+                }
+                if (found) {
+                    if (!handler.handle(paragraph)) {
+                        return;
+                    }
+                    paragraph = new LinkedHashMap<>();
+                    found = false;
+                }
+                if (line == null) {
+                    return;
+                }
+                continue;
+            }
+
+            final char first = line.charAt(0);
+
+            if (first == '#') {
+                // comment line
+                continue;
+            }
+
+            if (first == ' ' || first == '\t') {
+                // multiline
+                if (currentKey != null) {
+                    value.append('\n');
+                    if (line.length() != 2 || line.charAt(1) != '.') {
+                        value.append(line, 1, line.length());
+                    }
+                }
+                continue;
+            }
+
+            final int idx = line.indexOf(':');
+            if (idx <= 0) {
+                throw new ParserException(String.format("Missing ':' field delimiter in line: '%s'", line));
+            }
+
+            if (currentKey != null) {
+                paragraph.put(currentKey, value.toString());
+            }
+            found = true;
+
+            final String key = line.substring(0, idx);
+            if (fields == null || fields.contains(key)) {
+                currentKey = key;
+                value.setLength(0);
+                int start = idx + 1;
+                if (start < line.length() && line.charAt(start) == ' ') {
+                    start++;
+                }
+                value.append(line, start, line.length());
+            } else {
+                currentKey = null;
+            }
+        }
+    }
+
+    /**
+     * Parse a multi paragraph control file, one paragraph at a time
+     * <p>
+     * The file is memory mapped and parsed on the byte level. Strings are
+     * only created for the requested fields, lines of other fields are only
+     * scanned. The file must be UTF-8 encoded.
+     * </p>
+     *
+     * @param file the file to parse
+     * @param fields the fields to materialize, <code>null</code> for all
+     *            fields
+     * @param handler the handler receiving the paragraphs
+     * @see #parseMulti(Reader, Set, ParagraphHandler)
+     */
+    public static void parseMulti(final Path file, final Set<String> fields, final ParagraphHandler handler) throws IOException, ParserException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                // too large for a single mapping
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    parseMulti(reader, fields, handler);
+                }
+                return;
+            }
+            new BufferParser(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), fields).parse(handler);
+        }
+    }
+
+    /**
+     * A byte level parser of multi paragraph files
+     */
+    private static class BufferParser {
+        private final ByteBuffer buffer;
+
+        /**
+         * A view for relative bulk reads
+         */
+        private final ByteBuffer view;
+
+        private final String[] names;
+
+        private final byte[][] keys;
+
+        private byte[] value = new byte[256];
+
+        private int valueLength;
+
+        BufferParser(final ByteBuffer buffer, final Set<String> fields) {
+            this.buffer = buffer;
+            this.view = buffer.duplicate();
+
+            if (fields != null) {
+                this.names = fields.toArray(new String[0]);
+                this.keys = new byte[this.names.length][];
+                for (int i = 0; i < this.names.length; i++) {
+                    this.keys[i] = this.names[i].getBytes(StandardCharsets.UTF_8);
+                }
+            } else {
+                this.names = null;
+                this.keys = null;
+            }
+        }
+
+        void parse(final ParagraphHandler handler) throws IOException, ParserException {
+            final ByteBuffer buffer = this.buffer;
+            final int limit = buffer.limit();
+
+            Map<String, String> paragraph = new LinkedHashMap<>();
+            boolean found = false;
+            String currentKey = null;
+
+            int pos = buffer.position();
+            while (true) {
+                final boolean eof = pos >= limit;
+
+                int end = eof ? pos : indexOf((byte) '\n', pos, limit);
+                final int next = end + 1;
+                if (end > pos && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+
+                if (end == pos) {
+                    // empty line or end of file
+                    if (currentKey != null) {
+                        paragraph.put(currentKey, new String(this.value, 0, this.valueLength, StandardCharsets.UTF_8));
+                        currentKey = null;
+                    }
+                    if (found) {
+                        if (!handler.handle(paragraph)) {
+                            return;
+                        }
+                        paragraph = new LinkedHashMap<>();
+                        found = false;
+                    }
+                    if (eof) {
+                        return;
+                    }
+                    pos = next;
+                    continue;
+                }
+
+                final byte first = buffer.get(pos);
+
+                if (first == '#') {
+                    // comment line
+                } else if (first == ' ' || first == '\t') {
+                    // multiline
+                    if (currentKey != null) {
+                        append((byte) '\n');
+                        if (end - pos != 2 || buffer.get(pos + 1) != '.') {
+                            append(pos + 1, end);
+                        }
+                    }
+                } else {
+                    final int idx = indexOf((byte) ':', pos, end);
+                    if (idx <= pos || idx >= end) {
+                        throw new ParserException(String.format("Missing ':' field delimiter in line: '%s'", decode(pos, end)));
+                    }
+
+                    if (currentKey != null) {
+                        paragraph.put(currentKey, new String(this.value, 0, this.valueLength, StandardCharsets.UTF_8));
+                    }
+                    found = true;
+
+                    currentKey = matchKey(pos, idx);
+                    if (currentKey != null) {
+                        this.valueLength = 0;
+                        int start = idx + 1;
+                        if (start < end && buffer.get(start) == ' ') {
+                            start++;
+                        }
+                        append(start, end);
+                    }
+                }
+
+                pos = next;
+            }
+        }
+
+        /**
+         * Find a byte, or return the end of the range
+         */
+        private int indexOf(final byte b, final int start, final int end) {
+            for (int i = start; i < end; i++) {
+                if (this.buffer.get(i) == b) {
+                    return i;
+                }
+            }
+            return end;
+        }
+
+        /**
+         * Get the name of the field, if it was requested
+         */
+        private String matchKey(final int start, final int end) {
+            if (this.keys == null) {
+                return decode(start, end);
+            }
+
+            final int len = end - start;
+            for (int i = 0; i < this.keys.length; i++) {
+                final byte[] key = this.keys[i];
+                if (key.length != len) {
+                    continue;
+                }
+                int j = 0;
+                while (j < len && this.buffer.get(start + j) == key[j]) {
+                    j++;
+                }
+                if (j == len) {
+                    return this.names[i];
+                }
+            }
+            return null;
+        }
+
+        private String decode(final int start, final int end) {
+            final byte[] data = new byte[end - start];
+            this.view.position(start);
+            this.view.get(data);
+            return new String(data, StandardCharsets.UTF_8);
+        }
+
+        private void append(final byte b) {
+            ensureCapacity(1);
+            this.value[this.valueLength++] = b;
+        }
+
+        private void append(final int start, final int end) {
+            final int len = end - start;
+            ensureCapacity(len);
+            this.view.position(start);
+            this.view.get(this.value, this.valueLength, len);
+            this.valueLength += len;
+        }
+
+        private void ensureCapacity(final int additional) {
+            final int required = this.valueLength + additional;
+            if (required > this.value.length) {
+                this.value = Arrays.copyOf(this.value, Math.max(required, this.value.length * 2));
+            }
+        }
+    }
+
     public static LinkedHashMap<String, String> parse(final InputStream stream) throws IOException, ParserException {
         return parse(new InputStreamReader(stream));
     }
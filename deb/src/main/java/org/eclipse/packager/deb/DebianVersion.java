@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb;
+
+/**
+ * A Debian package version, in the form of
+ * <code>[epoch:]upstream_version[-debian_revision]</code>
+ * <p>
+ * Versions are ordered the same way as <code>dpkg --compare-versions</code>
+ * does. The parts of the version are located once, when the version is
+ * parsed, and stored as offsets into the original string. Comparing two
+ * versions does not allocate.
+ * </p>
+ * <p>
+ * Equality is consistent with the ordering: versions like <code>0:1.0</code>
+ * and <code>1.0</code>, or <code>1.01</code> and <code>1.1</code>, are equal,
+ * although their string representations differ.
+ * </p>
+ */
+public final class DebianVersion implements Comparable<DebianVersion> {
+    private final String value;
+
+    private final int epoch;
+
+    private final int upstreamStart;
+
+    private final int upstreamEnd;
+
+    private DebianVersion(final String value, final int epoch, final int upstreamStart, final int upstreamEnd) {
+        this.value = value;
+        this.epoch = epoch;
+        this.upstreamStart = upstreamStart;
+        this.upstreamEnd = upstreamEnd;
+    }
+
+    /**
+     * Parse a version
+     *
+     * @param version the version to parse
+     * @return the version, or <code>null</code> if the input was
+     *         <code>null</code> or empty
+     * @throws IllegalArgumentException if the epoch is not a number
+     */
+    public static DebianVersion valueOf(final String version) {
+        if (version == null || version.isEmpty()) {
+            return null;
+        }
+
+        final int colon = version.indexOf(':');
+        final int epoch = parseEpoch(version, colon);
+        return new DebianVersion(version, epoch, colon + 1, upstreamEnd(version, colon));
+    }
+
+    public int getEpoch() {
+        return this.epoch;
+    }
+
+    public String getUpstreamVersion() {
+        return this.value.substring(this.upstreamStart, this.upstreamEnd);
+    }
+
+    /**
+     * Get the Debian revision
+     *
+     * @return the revision, or an empty string if the version has none
+     */
+    public String getRevision() {
+        return this.upstreamEnd < this.value.length() ? this.value.substring(this.upstreamEnd + 1) : "";
+    }
+
+    @Override
+    public int compareTo(final DebianVersion that) {
+        final int i = Integer.compare(this.epoch, that.epoch);
+        if (i != 0) {
+            return i;
+        }
+
+        final int j = compareRevisions(this.value, this.upstreamStart, this.upstreamEnd, that.value, that.upstreamStart, that.upstreamEnd);
+        if (j != 0) {
+            return j;
+        }
+
+        return compareRevisions(this.value, revisionStart(this.value, this.upstreamEnd), this.value.length(), that.value, revisionStart(that.value, that.upstreamEnd), that.value.length());
+    }
+
+    /**
+     * Compare two version strings, like <code>dpkg --compare-versions</code>
+     * <p>
+     * The strings are compared in place, without allocating.
+     * </p>
+     *
+     * @param a the first version
+     * @param b the second version
+     * @return a negative value, zero, or a positive value if the first
+     *         version is lower, equal, or higher than the second
+     * @throws IllegalArgumentException if the epoch of a version is not a
+     *             number
+     */
+    public static int compare(final String a, final String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+
+        final int colonA = a.indexOf(':');
+        final int colonB = b.indexOf(':');
+
+        final int i = Integer.compare(parseEpoch(a, colonA), parseEpoch(b, colonB));
+        if (i != 0) {
+            return i;
+        }
+
+        final int endA = upstreamEnd(a, colonA);
+        final int endB = upstreamEnd(b, colonB);
+
+        final int j = compareRevisions(a, colonA + 1, endA, b, colonB + 1, endB);
+        if (j != 0) {
+            return j;
+        }
+
+        return compareRevisions(a, revisionStart(a, endA), a.length(), b, revisionStart(b, endB), b.length());
+    }
+
+    /**
+     * Compare a single part of two versions
+     * <p>
+     * This follows the <code>verrevcmp</code> function of dpkg. Non-digit
+     * runs are compared character by character, with letters sorting before
+     * non-letters, and the tilde sorting before anything, even the end of the
+     * part. Digit runs are compared numerically.
+     * </p>
+     */
+    private static int compareRevisions(final String a, int i, final int endA, final String b, int j, final int endB) {
+        while (i < endA || j < endB) {
+            while ((i < endA && !isDigit(a.charAt(i))) || (j < endB && !isDigit(b.charAt(j)))) {
+                final int ac = order(a, i, endA);
+                final int bc = order(b, j, endB);
+                if (ac != bc) {
+                    return ac < bc ? -1 : 1;
+                }
+                i++;
+                j++;
+            }
+
+            while (i < endA && a.charAt(i) == '0') {
+                i++;
+            }
+            while (j < endB && b.charAt(j) == '0') {
+                j++;
+            }
+
+            int firstDiff = 0;
+            while (i < endA && j < endB && isDigit(a.charAt(i)) && isDigit(b.charAt(j))) {
+                if (firstDiff == 0) {
+                    firstDiff = a.charAt(i) - b.charAt(j);
+                }
+                i++;
+                j++;
+            }
+
+            if (i < endA && isDigit(a.charAt(i))) {
+                return 1;
+            }
+            if (j < endB && isDigit(b.charAt(j))) {
+                return -1;
+            }
+            if (firstDiff != 0) {
+                return firstDiff < 0 ? -1 : 1;
+            }
+        }
+
+        return 0;
+    }
+
+    private static int order(final String s, final int i, final int end) {
+        if (i >= end) {
+            return 0;
+        }
+
+        final char c = s.charAt(i);
+        if (isDigit(c)) {
+            return 0;
+        }
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+            return c;
+        }
+        if (c == '~') {
+            return -1;
+        }
+        return c + 256;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int parseEpoch(final String version, final int colon) {
+        if (colon < 0) {
+            return 0;
+        }
+        if (colon == 0 || colon > 9) {
+            throw new IllegalArgumentException(String.format("Invalid epoch in version: '%s'", version));
+        }
+
+        int result = 0;
+        for (int i = 0; i < colon; i++) {
+            final char c = version.charAt(i);
+            if (!isDigit(c)) {
+                throw new IllegalArgumentException(String.format("Invalid epoch in version: '%s'", version));
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Find the end of the upstream version, which is the last dash, or the
+     * end of the string
+     */
+    private static int upstreamEnd(final String version, final int colon) {
+        final int dash = version.lastIndexOf('-');
+        return dash > colon ? dash : version.length();
+    }
+
+    private static int revisionStart(final String version, final int upstreamEnd) {
+        return Math.min(upstreamEnd + 1, version.length());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return compareTo((DebianVersion) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.epoch;
+        result = hashPart(this.value, this.upstreamStart, this.upstreamEnd, result);
+        result = 31 * result + '-';
+        return hashPart(this.value, revisionStart(this.value, this.upstreamEnd), this.value.length(), result);
+    }
+
+    /**
+     * Hash a part of the version, consistent with
+     * {@link #compareRevisions(String, int, int, String, int, int)}
+     * <p>
+     * Leading zeros of numbers are skipped, and a number without a preceding
+     * non-digit run is skipped if it is zero, as both compare equal to their
+     * absence.
+     * </p>
+     */
+    private static int hashPart(final String s, final int start, final int end, int result) {
+        int i = start;
+        while (i < end) {
+            final int nonDigitStart = i;
+            while (i < end && !isDigit(s.charAt(i))) {
+                result = 31 * result + s.charAt(i);
+                i++;
+            }
+
+            final boolean hasNonDigits = i != nonDigitStart;
+
+            while (i < end && s.charAt(i) == '0') {
+                i++;
+            }
+
+            final int digitStart = i;
+            while (i < end && isDigit(s.charAt(i))) {
+                result = 31 * result + s.charAt(i);
+                i++;
+            }
+
+            if (hasNonDigits || i != digitStart) {
+                // terminate the non-empty pair
+                result = 31 * result + '.';
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
@@ -16,19 +16,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.GZIPInputStream;
 
-import org.apache.commons.compress.archivers.ArchiveEntry;
-import org.apache.commons.compress.archivers.ar.ArArchiveInputStream;
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.eclipse.packager.deb.internal.BinarySectionPackagesFile;
+import org.eclipse.packager.deb.parse.DebianPackageReader;
 
 import com.google.common.io.BaseEncoding;
 
@@ -37,28 +32,9 @@ public final class Packages {
     }
 
     public static Map<String, String> parseControlFile(final Path packageFile) throws IOException, ParserException {
-        try (final ArArchiveInputStream in = new ArArchiveInputStream(Files.newInputStream(packageFile))) {
-            ArchiveEntry ar;
-            while ((ar = in.getNextEntry()) != null) {
-                if (!ar.getName().equals("control.tar.gz")) {
-                    continue;
-                }
-                try (final TarArchiveInputStream inputStream = new TarArchiveInputStream(new GZIPInputStream(in))) {
-                    TarArchiveEntry te;
-                    while ((te = inputStream.getNextEntry()) != null) {
-                        String name = te.getName();
-                        if (name.startsWith("./")) {
-                            name = name.substring(2);
-                        }
-                        if (!name.equals("control")) {
-                            continue;
-                        }
-                        return parseControlFile(inputStream);
-                    }
-                }
-            }
+        try (final DebianPackageReader reader = new DebianPackageReader(packageFile)) {
+            return reader.readControlFile();
         }
-        return null;
     }
 
     public static Map<String, String> parseControlFile(final InputStream inputStream) throws IOException, ParserException {
@@ -12,26 +12,46 @@
  */
 package org.eclipse.packager.deb.build;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.compress.archivers.ar.ArArchiveEntry;
 import org.apache.commons.compress.archivers.ar.ArArchiveOutputStream;
@@ -41,6 +61,12 @@ import org.bouncycastle.util.encoders.Hex;
 import org.eclipse.packager.deb.ControlFileWriter;
 import org.eclipse.packager.deb.control.BinaryPackageControlFile;
 import org.eclipse.packager.deb.internal.ChecksumInputStream;
+import org.eclipse.packager.deb.internal.ChecksumOutputStream;
+import org.eclipse.packager.io.BufferPool;
+import org.eclipse.packager.io.SpoolFile;
+import org.eclipse.packager.security.digest.MultiDigest;
+import org.eclipse.packager.security.digest.MultiDigestInputStream;
+import org.eclipse.packager.utils.Strings;
 
 import com.google.common.io.ByteStreams;
 
@@ -49,13 +75,90 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
 
     private static final int AR_ARCHIVE_DEFAULT_MODE = 33188; // see ArArchive
 
+    private static final byte[] AR_MAGIC = "!<arch>\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int AR_HEADER_SIZE = 60;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] DIGEST_ALGORITHMS = { "MD5", "SHA-1", "SHA-256" };
+
+    /**
+     * Files up to this size are kept in memory between hashing and writing
+     */
+    private static final int MAX_TREE_BUFFER_SIZE = 1024 * 1024;
+
+    private static final AtomicInteger TREE_THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * The size and checksums of the written package file
+     */
+    public static class Result {
+        private final long size;
+
+        private final Map<String, String> checksums;
+
+        private Result(final long size, final Map<String, String> checksums) {
+            this.size = size;
+            this.checksums = Collections.unmodifiableMap(checksums);
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        /**
+         * Get a checksum of the package file
+         *
+         * @param algorithm the digest algorithm, e.g. <code>SHA-256</code>
+         * @return the lower case hex encoded checksum, or <code>null</code> if
+         *         the algorithm was not used
+         */
+        public String getChecksum(final String algorithm) {
+            return this.checksums.get(algorithm);
+        }
+
+        /**
+         * Get all checksums
+         *
+         * @return a map of digest algorithm to lower case hex encoded checksum
+         */
+        public Map<String, String> getChecksums() {
+            return this.checksums;
+        }
+
+        public String getMd5() {
+            return getChecksum("MD5");
+        }
+
+        public String getSha1() {
+            return getChecksum("SHA-1");
+        }
+
+        public String getSha256() {
+            return getChecksum("SHA-256");
+        }
+    }
+
     private final ArArchiveOutputStream ar;
 
+    private final ChecksumOutputStream checksumStream;
+
+    private final SeekableByteChannel channel;
+
+    private final long packageOffset;
+
+    private final long controlOffset;
+
+    private final long dataOffset;
+
     private final byte[] binaryHeader = "2.0\n".getBytes();
 
     private final Supplier<Instant> timestampSupplier;
 
-    private final Path dataTemp;
+    private final WriterOptions options;
+
+    private final SpoolFile dataSpool;
 
     private final TarArchiveOutputStream dataStream;
 
@@ -67,7 +170,7 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
 
     private final Set<String> confFiles = new TreeSet<>();
 
-    private final Set<String> paths = new HashSet<>();
+    private final DirectoryNode directories = new DirectoryNode();
 
     private ContentProvider preinstScript;
 
@@ -77,29 +180,142 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
 
     private ContentProvider postrmScript;
 
+    private Result result;
+
     public DebianPackageWriter(final OutputStream stream, final BinaryPackageControlFile packageControlFile) throws IOException {
         this(stream, packageControlFile, Instant::now);
     }
 
     public DebianPackageWriter(final OutputStream stream, final BinaryPackageControlFile packageControlFile, final Supplier<Instant> timestampSupplier) throws IOException {
+        this(stream, packageControlFile, timestampSupplier, new WriterOptions());
+    }
+
+    public DebianPackageWriter(final OutputStream stream, final BinaryPackageControlFile packageControlFile, final Supplier<Instant> timestampSupplier, final WriterOptions options) throws IOException {
         Objects.requireNonNull(timestampSupplier);
+        Objects.requireNonNull(options);
 
         this.timestampSupplier = timestampSupplier;
+        this.options = new WriterOptions(options);
         this.packageControlFile = packageControlFile;
         BinaryPackageControlFile.validate(packageControlFile);
 
-        this.ar = new ArArchiveOutputStream(stream);
+        this.checksumStream = new ChecksumOutputStream(stream, new HashMap<>(), createDigests());
+        this.ar = new ArArchiveOutputStream(this.checksumStream);
+        this.channel = null;
+        this.packageOffset = -1;
+        this.controlOffset = -1;
+        this.dataOffset = -1;
 
         this.ar.putArchiveEntry(new ArArchiveEntry("debian-binary", this.binaryHeader.length, 0, 0, AR_ARCHIVE_DEFAULT_MODE, timestampSupplier.get().getEpochSecond()));
         this.ar.write(this.binaryHeader);
         this.ar.closeArchiveEntry();
 
-        this.dataTemp = Files.createTempFile("data", null);
-
-        this.dataStream = new TarArchiveOutputStream(new GZIPOutputStream(Files.newOutputStream(this.dataTemp)));
+        this.dataSpool = this.options.getSpoolStorage().create("data");
+        try {
+            this.dataStream = new TarArchiveOutputStream(this.options.getDataCompression().createOutputStream(this.dataSpool.openOutputStream(), this.options.getCompressionLevel(), this.options.getThreads()));
+        } catch (final IOException | RuntimeException e) {
+            this.dataSpool.close();
+            throw e;
+        }
         this.dataStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
     }
 
+    /**
+     * Create a new writer, writing directly to a file
+     *
+     * @see #DebianPackageWriter(SeekableByteChannel, BinaryPackageControlFile,
+     *      Supplier, WriterOptions)
+     */
+    public DebianPackageWriter(final Path file, final BinaryPackageControlFile packageControlFile, final Supplier<Instant> timestampSupplier, final WriterOptions options) throws IOException {
+        this(openChannel(file, packageControlFile, timestampSupplier, options), packageControlFile, timestampSupplier, options, true);
+    }
+
+    /**
+     * Open the target file, after the arguments have been validated, so that
+     * an invalid package doesn't truncate an existing file
+     */
+    private static SeekableByteChannel openChannel(final Path file, final BinaryPackageControlFile packageControlFile, final Supplier<Instant> timestampSupplier, final WriterOptions options) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(timestampSupplier);
+        Objects.requireNonNull(options);
+        BinaryPackageControlFile.validate(packageControlFile);
+
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Create a new writer, writing directly to a seekable channel
+     * <p>
+     * The data member is written directly into the channel, after the space
+     * reserved for the control member (see
+     * {@link WriterOptions#setControlReservation(int)}). The ar member headers
+     * are filled in when the writer is closed. This avoids spooling the
+     * payload to a temporary file and copying it afterwards.
+     * </p>
+     * <p>
+     * The package starts at the current position of the channel. The channel
+     * must be readable, as the data member needs to be moved in case the
+     * control member does not fit into the reserved space, and the checksums
+     * of the {@link #getResult()} are read back from it. The channel gets
+     * closed when the writer is closed.
+     * </p>
+     */
+    public DebianPackageWriter(final SeekableByteChannel channel, final BinaryPackageControlFile packageControlFile, final Supplier<Instant> timestampSupplier, final WriterOptions options) throws IOException {
+        this(channel, packageControlFile, timestampSupplier, options, false);
+    }
+
+    /**
+     * Create a new writer, writing directly to a seekable channel
+     *
+     * @param ownsChannel <code>true</code> if the channel was opened by the
+     *            writer, and must be closed if the constructor fails
+     */
+    private DebianPackageWriter(final SeekableByteChannel channel, final BinaryPackageControlFile packageControlFile, final Supplier<Instant> timestampSupplier, final WriterOptions options, final boolean ownsChannel) throws IOException {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(timestampSupplier);
+        Objects.requireNonNull(options);
+
+        this.timestampSupplier = timestampSupplier;
+        this.options = new WriterOptions(options);
+        this.packageControlFile = packageControlFile;
+        BinaryPackageControlFile.validate(packageControlFile);
+
+        this.ar = null;
+        this.checksumStream = null;
+        this.channel = channel;
+        this.dataSpool = null;
+
+        try {
+            final long start = channel.position();
+            this.packageOffset = start;
+
+            final ByteBuffer lead = ByteBuffer.allocate(AR_MAGIC.length + AR_HEADER_SIZE + this.binaryHeader.length);
+            lead.put(AR_MAGIC);
+            lead.put(arHeader("debian-binary", this.binaryHeader.length, timestampSupplier.get().getEpochSecond()));
+            lead.put(this.binaryHeader);
+            lead.flip();
+            writeFully(lead, start);
+
+            this.controlOffset = start + lead.capacity();
+            this.dataOffset = this.controlOffset + this.options.getControlReservation();
+
+            channel.position(this.dataOffset + AR_HEADER_SIZE);
+
+            final OutputStream out = new BufferedOutputStream(channelStream(channel), BUFFER_SIZE);
+            this.dataStream = new TarArchiveOutputStream(this.options.getDataCompression().createOutputStream(out, this.options.getCompressionLevel(), this.options.getThreads()));
+            this.dataStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
+        } catch (final IOException | RuntimeException e) {
+            if (ownsChannel) {
+                try {
+                    channel.close();
+                } catch (final IOException e2) {
+                    e.addSuppressed(e2);
+                }
+            }
+            throw e;
+        }
+    }
+
     public void addFile(final Path file, final String fileName, final EntryInformation entryInformation) throws IOException {
         addFile(new FileContentProvider(file), fileName, entryInformation, Optional.of(() -> {
             if (file == null || !Files.isReadable(file)) {
@@ -163,7 +379,7 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
 
             final Map<String, byte[]> results = new HashMap<>();
             try (final ChecksumInputStream in = new ChecksumInputStream(contentProvider.createInputStream(), results, MessageDigest.getInstance("MD5"))) {
-                this.installedSize += ByteStreams.copy(in, this.dataStream);
+                this.installedSize += BufferPool.heap().copy(in, this.dataStream);
             }
 
             this.dataStream.closeArchiveEntry();
@@ -175,6 +391,256 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
         }
     }
 
+    /**
+     * Add a directory tree to the package
+     * <p>
+     * The tree is scanned first, then its entries are added in sorted order.
+     * Small files are read and hashed on a pool of
+     * {@link WriterOptions#getThreads()} threads, ahead of writing them to the
+     * data member, and are kept in memory until they are written. Larger
+     * files are hashed while they are copied into the data member. Every file
+     * is read only once. Symbolic links to files are added as regular files,
+     * other file types are skipped.
+     * </p>
+     * <p>
+     * The modification times of the entries are taken from the file system.
+     * </p>
+     *
+     * @param source the directory to add
+     * @param target the name of the target directory in the package
+     * @param entryInformationProvider provides the entry information for a
+     *            file or directory of the source tree, may be <code>null</code>
+     *            or return <code>null</code> to use the defaults
+     * @return the number of files added
+     * @throws IOException if reading the tree or writing the package fails
+     */
+    public long addTree(final Path source, final String target, final Function<Path, EntryInformation> entryInformationProvider) throws IOException {
+        final List<TreeEntry> entries = scanTree(source, target);
+        entries.sort((a, b) -> compareTreeNames(a.name, b.name));
+
+        final int threads = this.options.getThreads();
+        final ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "deb-tree-hash-" + TREE_THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        try {
+            final int window = threads * 4;
+
+            // buffered files are read in the order they are written
+            final Deque<Future<TreeContent>> pending = new ArrayDeque<>(window);
+            int submitted = 0;
+
+            long files = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                // keep the workers busy, ahead of the writer
+
+                if (executor != null) {
+                    for (; submitted < entries.size() && submitted < i + window; submitted++) {
+                        final TreeEntry entry = entries.get(submitted);
+                        if (isBufferedTreeFile(entry)) {
+                            pending.add(executor.submit(() -> readTreeFile(entry)));
+                        }
+                    }
+                }
+
+                final TreeEntry entry = entries.get(i);
+                final EntryInformation info = entryInformationProvider != null ? entryInformationProvider.apply(entry.source) : null;
+                final Optional<Supplier<Instant>> timestamp = Optional.of(() -> entry.lastModified);
+
+                if (entry.directory) {
+                    addTreeDirectory(entry, info != null ? info : EntryInformation.DEFAULT_DIRECTORY, timestamp);
+                } else {
+                    TreeContent content = null;
+                    if (isBufferedTreeFile(entry)) {
+                        content = executor != null ? await(pending.poll()) : readTreeFile(entry);
+                    }
+                    addTreeFile(entry, content, info != null ? info : defaultFileInformation(entry.source), timestamp);
+                    files++;
+                }
+            }
+
+            return files;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static EntryInformation defaultFileInformation(final Path file) {
+        return Files.isExecutable(file) ? EntryInformation.DEFAULT_FILE_EXEC : EntryInformation.DEFAULT_FILE;
+    }
+
+    private static class TreeEntry {
+        private final Path source;
+
+        private final String name;
+
+        private final boolean directory;
+
+        private final long size;
+
+        private final Instant lastModified;
+
+        TreeEntry(final Path source, final String name, final boolean directory, final long size, final Instant lastModified) {
+            this.source = source;
+            this.name = name;
+            this.directory = directory;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static class TreeContent {
+        private final byte[] data;
+
+        private final byte[] md5;
+
+        TreeContent(final byte[] data, final byte[] md5) {
+            this.data = data;
+            this.md5 = md5;
+        }
+    }
+
+    private List<TreeEntry> scanTree(final Path source, final String target) throws IOException {
+        final String base = cleanupPath(target.endsWith("/") ? target : target + "/");
+        final List<TreeEntry> result = new ArrayList<>();
+
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                final String relative = source.relativize(dir).toString().replace('\\', '/');
+                if (!relative.isEmpty()) {
+                    result.add(new TreeEntry(dir, base + relative + "/", true, 0, attrs.lastModifiedTime().toInstant()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isSymbolicLink() && Files.isRegularFile(file)) {
+                    attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                }
+                if (attrs.isRegularFile()) {
+                    final String relative = source.relativize(file).toString().replace('\\', '/');
+                    result.add(new TreeEntry(file, base + relative, false, attrs.size(), attrs.lastModifiedTime().toInstant()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Compare entry names, ordering a directory directly before its content
+     */
+    private static int compareTreeNames(final String a, final String b) {
+        final int len = Math.min(a.length(), b.length());
+        for (int i = 0; i < len; i++) {
+            final char ca = a.charAt(i);
+            final char cb = b.charAt(i);
+            if (ca != cb) {
+                if (ca == '/') {
+                    return -1;
+                }
+                if (cb == '/') {
+                    return 1;
+                }
+                return Character.compare(ca, cb);
+            }
+        }
+        return Integer.compare(a.length(), b.length());
+    }
+
+    private static boolean isBufferedTreeFile(final TreeEntry entry) {
+        return !entry.directory && entry.size <= MAX_TREE_BUFFER_SIZE;
+    }
+
+    /**
+     * Read and hash a small file, ahead of writing it
+     */
+    private static TreeContent readTreeFile(final TreeEntry entry) throws IOException {
+        try (MultiDigest md5 = createMd5()) {
+            final byte[] data = Files.readAllBytes(entry.source);
+            md5.update(data);
+            return new TreeContent(data, md5.finishSingle());
+        }
+    }
+
+    private static MultiDigest createMd5() throws IOException {
+        try {
+            return MultiDigest.create("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static TreeContent await(final Future<TreeContent> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hashing files");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void addTreeDirectory(final TreeEntry entry, final EntryInformation entryInformation, final Optional<Supplier<Instant>> timestampSupplier) throws IOException {
+        if (this.directories.resolve(entry.name).created) {
+            return;
+        }
+        checkCreateParents(entry.name, timestampSupplier);
+        internalAddDirectory(entry.name, entryInformation, timestampSupplier);
+    }
+
+    /**
+     * Add a file of a tree
+     *
+     * @param content the content read ahead, or <code>null</code> if the
+     *            file is copied and hashed in a single pass
+     */
+    private void addTreeFile(final TreeEntry entry, final TreeContent content, final EntryInformation entryInformation, final Optional<Supplier<Instant>> timestampSupplier) throws IOException {
+        if (entryInformation.isConfigurationFile()) {
+            this.confFiles.add(entry.name.substring(1)); // without the leading dot
+        }
+
+        final long size = content != null ? content.data.length : entry.size;
+
+        final TarArchiveEntry tarEntry = new TarArchiveEntry(entry.name);
+        tarEntry.setSize(size);
+        applyInfo(tarEntry, entryInformation);
+        applyTimestamp(tarEntry, timestampSupplier);
+
+        checkCreateParents(entry.name, timestampSupplier);
+
+        final byte[] md5;
+
+        this.dataStream.putArchiveEntry(tarEntry);
+        if (content != null) {
+            this.dataStream.write(content.data);
+            md5 = content.md5;
+        } else {
+            try (MultiDigest digest = createMd5(); InputStream in = new MultiDigestInputStream(Files.newInputStream(entry.source), digest)) {
+                final long copied = BufferPool.heap().copy(ByteStreams.limit(in, size), this.dataStream);
+                if (copied != size) {
+                    throw new IOException(String.format("File changed while adding: %s", entry.source));
+                }
+                md5 = digest.finishSingle();
+            }
+        }
+        this.dataStream.closeArchiveEntry();
+
+        this.installedSize += size;
+        recordChecksum(entry.name, md5);
+    }
+
     /**
      * clean up the path so that is looks like "./usr/local/file"
      */
@@ -213,7 +679,7 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
         this.dataStream.putArchiveEntry(entry);
         this.dataStream.closeArchiveEntry();
 
-        this.paths.add(path);
+        this.directories.mark(path);
     }
 
     private static void applyTimestamp(final TarArchiveEntry entry, final Optional<Supplier<Instant>> timestampSupplier) {
@@ -235,19 +701,77 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
     }
 
     private void checkCreateParents(final String fileName, final Optional<Supplier<Instant>> timestampSupplier) throws IOException {
-        final String toks[] = fileName.split("/+");
+        // the last segment is the entry itself
+
+        int end = fileName.length();
+        while (end > 0 && fileName.charAt(end - 1) == '/') {
+            end--;
+        }
+        end = fileName.lastIndexOf('/', end - 1);
 
-        String current = "";
+        DirectoryNode node = this.directories;
+        final StringBuilder current = new StringBuilder();
 
-        for (int i = 0; i < toks.length - 1; i++) {
-            if (toks[i].isEmpty()) {
-                continue;
+        int start = 0;
+        while (start < end) {
+            int idx = fileName.indexOf('/', start);
+            if (idx < 0 || idx > end) {
+                idx = end;
             }
 
-            current += toks[i] + "/";
-            if (!this.paths.contains(current)) {
-                internalAddDirectory(current, EntryInformation.DEFAULT_DIRECTORY, timestampSupplier);
+            if (idx > start) {
+                final String segment = fileName.substring(start, idx);
+                current.append(segment).append('/');
+
+                node = node.child(segment);
+                if (!node.created) {
+                    internalAddDirectory(current.toString(), EntryInformation.DEFAULT_DIRECTORY, timestampSupplier);
+                }
             }
+
+            start = idx + 1;
+        }
+    }
+
+    /**
+     * A trie of the directories added to the data member
+     */
+    private static class DirectoryNode {
+        private Map<String, DirectoryNode> children;
+
+        private boolean created;
+
+        DirectoryNode child(final String segment) {
+            if (this.children == null) {
+                this.children = new HashMap<>();
+            }
+            return this.children.computeIfAbsent(segment, k -> new DirectoryNode());
+        }
+
+        /**
+         * Find the node of a directory, creating missing nodes
+         *
+         * @param path the path of the directory, segments separated by one
+         *            or more slashes
+         */
+        DirectoryNode resolve(final String path) {
+            DirectoryNode node = this;
+            int start = 0;
+            while (start < path.length()) {
+                int idx = path.indexOf('/', start);
+                if (idx < 0) {
+                    idx = path.length();
+                }
+                if (idx > start) {
+                    node = node.child(path.substring(start, idx));
+                }
+                start = idx + 1;
+            }
+            return node;
+        }
+
+        void mark(final String path) {
+            resolve(path).created = true;
         }
     }
 
@@ -257,24 +781,226 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
 
     @Override
     public void close() throws IOException {
-        try {
+        if (this.channel != null) {
+            try {
+                finishChannel();
+            } finally {
+                this.channel.close();
+            }
+            return;
+        }
+
+        try (SpoolFile data = this.dataSpool) {
             try {
                 buildAndAddControlFile(this.timestampSupplier);
                 this.dataStream.close();
-                addArFile(this.dataTemp, "data.tar.gz", this.timestampSupplier);
+                addArFile(data, dataMemberName(), this.timestampSupplier);
             } finally {
                 this.ar.close();
             }
-        } finally {
-            Files.delete(this.dataTemp);
+            this.result = createResult(this.checksumStream.getCount(), this.checksumStream.getResults());
+        }
+    }
+
+    /**
+     * Get the size and checksums of the package file
+     * <p>
+     * When writing to a stream, these are calculated while writing. When
+     * writing to a channel, the package is read back once when the writer is
+     * closed, as the members are not written in order.
+     * </p>
+     *
+     * @return the result
+     * @throws IllegalStateException if the writer was not closed successfully
+     */
+    public Result getResult() {
+        if (this.result == null) {
+            throw new IllegalStateException("Package writer is not closed");
         }
+        return this.result;
+    }
+
+    private static MessageDigest[] createDigests() throws IOException {
+        final MessageDigest[] result = new MessageDigest[DIGEST_ALGORITHMS.length];
+        try {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = MessageDigest.getInstance(DIGEST_ALGORITHMS[i]);
+            }
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        return result;
+    }
+
+    private static Result createResult(final long size, final Map<String, byte[]> digests) {
+        final Map<String, String> checksums = new LinkedHashMap<>();
+        for (final String algorithm : DIGEST_ALGORITHMS) {
+            checksums.put(algorithm, Strings.hex(digests.get(algorithm)));
+        }
+        return new Result(size, checksums);
+    }
+
+    private String dataMemberName() {
+        return "data.tar" + this.options.getDataCompression().getExtension();
+    }
+
+    private String controlMemberName() {
+        return "control.tar" + this.options.getControlCompression().getExtension();
+    }
+
+    private void finishChannel() throws IOException {
+        this.dataStream.close();
+
+        final long timestamp = this.timestampSupplier.get().getEpochSecond();
+
+        // data member
+
+        long end = this.channel.position();
+        final long dataSize = end - this.dataOffset - AR_HEADER_SIZE;
+        if ((dataSize & 1) != 0) {
+            writeFully(ByteBuffer.wrap(new byte[] { '\n' }), end);
+            end++;
+        }
+        writeFully(ByteBuffer.wrap(arHeader(dataMemberName(), dataSize, timestamp)), this.dataOffset);
+
+        // control member
+
+        try (SpoolFile controlFile = buildControlFile(this.timestampSupplier)) {
+            final long controlSize = controlFile.size();
+            final long controlLength = AR_HEADER_SIZE + controlSize + (controlSize & 1);
+
+            // close the gap, or make room, keeping the canonical three member layout
+            final long delta = this.controlOffset + controlLength - this.dataOffset;
+            if (delta != 0) {
+                moveData(this.dataOffset, end, delta);
+                end += delta;
+            }
+
+            this.channel.position(this.controlOffset);
+            writeFully(ByteBuffer.wrap(arHeader(controlMemberName(), controlSize, timestamp)));
+            try (OutputStream out = new BufferedOutputStream(channelStream(this.channel), BUFFER_SIZE);
+                    InputStream in = controlFile.openInputStream()) {
+                BufferPool.heap().copy(in, out);
+                if ((controlSize & 1) != 0) {
+                    out.write('\n');
+                }
+            }
+        }
+
+        this.channel.truncate(end);
+
+        this.result = digestChannel(this.packageOffset, end);
+
+        this.channel.position(end);
+    }
+
+    private Result digestChannel(final long start, final long end) throws IOException {
+        final MultiDigest digest = MultiDigest.wrap(createDigests());
+
+        this.channel.position(start);
+
+        try (BufferPool.Lease lease = BufferPool.direct().lease()) {
+            final ByteBuffer buffer = lease.getBuffer();
+
+            long remaining = end - start;
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                final int rc = this.channel.read(buffer);
+                if (rc < 0) {
+                    throw new IOException("Unexpected end of channel");
+                }
+                buffer.flip();
+                digest.update(buffer);
+                remaining -= rc;
+            }
+        }
+
+        return createResult(end - start, digest.finish());
+    }
+
+    /**
+     * Move the region from <code>start</code> to <code>end</code> by
+     * <code>delta</code> bytes
+     * <p>
+     * Moving forward copies starting from the end, moving backward copies
+     * starting from the start, so that overlapping regions are not
+     * overwritten before they are read.
+     * </p>
+     */
+    private void moveData(final long start, final long end, final long delta) throws IOException {
+        try (BufferPool.Lease lease = BufferPool.direct().lease()) {
+            final ByteBuffer buffer = lease.getBuffer();
+
+            long remaining = end - start;
+            while (remaining > 0) {
+                final int len = (int) Math.min(buffer.capacity(), remaining);
+                remaining -= len;
+                final long position = delta > 0 ? start + remaining : end - remaining - len;
+
+                buffer.clear().limit(len);
+                this.channel.position(position);
+                while (buffer.hasRemaining()) {
+                    if (this.channel.read(buffer) < 0) {
+                        throw new IOException("Unexpected end of channel");
+                    }
+                }
+                buffer.flip();
+                writeFully(buffer, position + delta);
+            }
+        }
+    }
+
+    private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+        this.channel.position(position);
+        writeFully(buffer);
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+
+    private static byte[] arHeader(final String name, final long size, final long timestamp) throws IOException {
+        if (size > 9_999_999_999L) {
+            throw new IOException(String.format("Archive member too large: %s (%s bytes)", name, size));
+        }
+        final String header = String.format("%-16s%-12d%-6d%-6d%-8o%-10d`\n", name, timestamp, 0, 0, AR_ARCHIVE_DEFAULT_MODE, size);
+        return header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Create a stream writing at the current position of the channel, which
+     * does not close the channel
+     */
+    private static OutputStream channelStream(final SeekableByteChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        };
     }
 
     private void buildAndAddControlFile(final Supplier<Instant> timestampSupplier) throws IOException {
-        final Path controlFile = Files.createTempFile("control", null);
+        try (SpoolFile controlFile = buildControlFile(timestampSupplier)) {
+            addArFile(controlFile, controlMemberName(), timestampSupplier);
+        }
+    }
+
+    private SpoolFile buildControlFile(final Supplier<Instant> timestampSupplier) throws IOException {
+        final SpoolFile controlFile = this.options.getSpoolStorage().create("control");
         try {
-            try (GZIPOutputStream gout = new GZIPOutputStream(Files.newOutputStream(controlFile));
-                    TarArchiveOutputStream tout = new TarArchiveOutputStream(gout)) {
+            try (OutputStream cout = this.options.getControlCompression().createOutputStream(controlFile.openOutputStream(), this.options.getCompressionLevel(), 1);
+                    TarArchiveOutputStream tout = new TarArchiveOutputStream(cout)) {
                 tout.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
 
                 addControlContent(tout, "control", createControlContent(), -1, timestampSupplier);
@@ -285,9 +1011,10 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
                 addControlContent(tout, "postinst", this.postinstScript, EntryInformation.DEFAULT_FILE_EXEC.getMode(), timestampSupplier);
                 addControlContent(tout, "postrm", this.postrmScript, EntryInformation.DEFAULT_FILE_EXEC.getMode(), timestampSupplier);
             }
-            addArFile(controlFile, "control.tar.gz", timestampSupplier);
-        } finally {
-            Files.delete(controlFile);
+            return controlFile;
+        } catch (final IOException | RuntimeException e) {
+            controlFile.close();
+            throw e;
         }
     }
 
@@ -307,7 +1034,7 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
         entry.setModTime(timestampSupplier.get().toEpochMilli());
         out.putArchiveEntry(entry);
         try (InputStream stream = content.createInputStream()) {
-            ByteStreams.copy(stream, out);
+            BufferPool.heap().copy(stream, out);
         }
         out.closeArchiveEntry();
     }
@@ -359,11 +1086,13 @@ public class DebianPackageWriter implements AutoCloseable, BinaryPackageBuilder
         return new StaticContentProvider(sw.toString());
     }
 
-    private void addArFile(final Path file, final String entryName, final Supplier<Instant> timestampSupplier) throws IOException {
-        final ArArchiveEntry entry = new ArArchiveEntry(entryName, Files.size(file), 0, 0, AR_ARCHIVE_DEFAULT_MODE, timestampSupplier.get().getEpochSecond());
+    private void addArFile(final SpoolFile file, final String entryName, final Supplier<Instant> timestampSupplier) throws IOException {
+        final ArArchiveEntry entry = new ArArchiveEntry(entryName, file.size(), 0, 0, AR_ARCHIVE_DEFAULT_MODE, timestampSupplier.get().getEpochSecond());
         this.ar.putArchiveEntry(entry);
 
-        Files.copy(file, this.ar);
+        try (InputStream in = file.openInputStream()) {
+            BufferPool.heap().copy(in, this.ar);
+        }
 
         this.ar.closeArchiveEntry();
     }
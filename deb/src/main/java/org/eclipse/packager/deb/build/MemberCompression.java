@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.build;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * Compression of the tar members of a Debian package
+ */
+public enum MemberCompression {
+    NONE("") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out, final Integer level, final int threads) {
+            return out;
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) {
+            return in;
+        }
+    },
+    GZIP(".gz") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out, final Integer level, final int threads) throws IOException {
+            if (level == null) {
+                return new GZIPOutputStream(out);
+            }
+            return new GZIPOutputStream(out) {
+                {
+                    this.def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    },
+    /**
+     * XZ compression
+     * <p>
+     * With more than one thread, blocks are compressed in parallel.
+     * </p>
+     */
+    XZ(".xz") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out, final Integer level, final int threads) throws IOException {
+            final int preset = level != null ? level : LZMA2Options.PRESET_DEFAULT;
+            if (threads > 1) {
+                return new ParallelXZOutputStream(out, preset, threads);
+            }
+            return new XZOutputStream(out, new LZMA2Options(preset));
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            return XZCompressorInputStream.builder()
+                    .setInputStream(in)
+                    .setDecompressConcatenated(true)
+                    .get();
+        }
+    },
+    /**
+     * Zstandard compression
+     * <p>
+     * This requires the <code>zstd-jni</code> library to be present at
+     * runtime. With more than one thread, the native multi-threaded encoder is
+     * used.
+     * </p>
+     */
+    ZSTD(".zst") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out, final Integer level, final int threads) throws IOException {
+            checkAvailable();
+            final ZstdCompressorOutputStream.Builder builder = new ZstdCompressorOutputStream.Builder().setOutputStream(out);
+            if (level != null) {
+                builder.setLevel(level);
+            }
+            if (threads > 1) {
+                builder.setWorkers(threads);
+            }
+            return builder.get();
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            checkAvailable();
+            return new ZstdCompressorInputStream(in);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return ZstdUtils.isZstdCompressionAvailable();
+        }
+    },
+    /**
+     * BZip2 compression
+     * <p>
+     * This is only supported for the data member.
+     * </p>
+     */
+    BZIP2(".bz2") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out, final Integer level, final int threads) throws IOException {
+            return new BZip2CompressorOutputStream(out, level != null ? level : BZip2CompressorOutputStream.MAX_BLOCKSIZE);
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            return new BZip2CompressorInputStream(in, true);
+        }
+    };
+
+    private final String extension;
+
+    MemberCompression(final String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Get the file name extension
+     *
+     * @return the extension, including the leading dot, or an empty string
+     *         for uncompressed members
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+
+    public boolean isAvailable() {
+        return true;
+    }
+
+    protected void checkAvailable() throws IOException {
+        if (!isAvailable()) {
+            throw new IOException(String.format("Compression format is not available: %s", this));
+        }
+    }
+
+    /**
+     * Create a compressing stream
+     *
+     * @param out the stream to write the compressed data to
+     * @param level the compression level, <code>null</code> for the default
+     *            level of the format
+     * @param threads the number of threads to use, if supported by the format
+     * @return the compressing stream
+     * @throws IOException if the stream cannot be created
+     */
+    public abstract OutputStream createOutputStream(OutputStream out, Integer level, int threads) throws IOException;
+
+    public abstract InputStream createInputStream(InputStream in) throws IOException;
+
+    /**
+     * Find the compression of a tar member by its name
+     *
+     * @param name the name of the member, e.g. <code>data.tar.xz</code>
+     * @return the compression, or <code>null</code> if the name is not a
+     *         (compressed) tar file
+     */
+    public static MemberCompression fromFileName(final String name) {
+        for (final MemberCompression compression : values()) {
+            if (compression != NONE && name.endsWith(".tar" + compression.extension)) {
+                return compression;
+            }
+        }
+        if (name.endsWith(".tar")) {
+            return NONE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import org.tukaani.xz.FinishableOutputStream;
+import org.tukaani.xz.FinishableWrapperOutputStream;
+import org.tukaani.xz.LZMA2Options;
+
+/**
+ * An XZ output stream compressing blocks in parallel
+ * <p>
+ * The input is split into blocks of three times the dictionary size (but at
+ * least 1 MiB), which are compressed independently on a pool of threads. The
+ * result is a single standard XZ stream with multiple blocks, using CRC32
+ * checks, as produced by <code>xz -T</code>.
+ * </p>
+ */
+class ParallelXZOutputStream extends OutputStream {
+    private static final byte[] HEADER_MAGIC = { (byte) 0xFD, '7', 'z', 'X', 'Z', 0 };
+
+    private static final byte[] FOOTER_MAGIC = { 'Y', 'Z' };
+
+    private static final byte[] STREAM_FLAGS = { 0x00, 0x01 }; // CRC32
+
+    private static final int FILTER_LZMA2 = 0x21;
+
+    private static final int MIN_BLOCK_SIZE = 1024 * 1024;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final class Block {
+        private final byte[] data;
+
+        private final long uncompressedSize;
+
+        private final long check;
+
+        private Block(final byte[] data, final long uncompressedSize, final long check) {
+            this.data = data;
+            this.uncompressedSize = uncompressedSize;
+            this.check = check;
+        }
+    }
+
+    private final OutputStream out;
+
+    private final LZMA2Options options;
+
+    private final int blockSize;
+
+    private final int maxInFlight;
+
+    private final ExecutorService executor;
+
+    private final Deque<Future<Block>> pending = new ArrayDeque<>();
+
+    private final List<long[]> records = new ArrayList<>();
+
+    private byte[] buffer;
+
+    private int count;
+
+    private boolean closed;
+
+    ParallelXZOutputStream(final OutputStream out, final int preset, final int threads) throws IOException {
+        this.out = out;
+        this.options = new LZMA2Options(preset);
+        this.blockSize = Math.max(MIN_BLOCK_SIZE, this.options.getDictSize() * 3);
+        this.maxInFlight = threads;
+        this.buffer = new byte[this.blockSize];
+
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "xz-encoder-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        writeStreamHeader();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream is already closed");
+        }
+
+        while (len > 0) {
+            final int n = Math.min(len, this.blockSize - this.count);
+            System.arraycopy(b, off, this.buffer, this.count, n);
+            this.count += n;
+            off += n;
+            len -= n;
+
+            if (this.count == this.blockSize) {
+                submit();
+            }
+        }
+    }
+
+    private void submit() throws IOException {
+        final byte[] data = this.buffer;
+        final int length = this.count;
+
+        this.buffer = new byte[this.blockSize];
+        this.count = 0;
+
+        if (this.pending.size() >= this.maxInFlight) {
+            writeBlock(await(this.pending.poll()));
+        }
+
+        this.pending.add(this.executor.submit(() -> compress(data, length)));
+    }
+
+    private Block compress(final byte[] data, final int length) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+
+        final FinishableOutputStream lzma2 = this.options.getOutputStream(new FinishableWrapperOutputStream(result));
+        lzma2.write(data, 0, length);
+        lzma2.finish();
+
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+
+        return new Block(result.toByteArray(), length, crc.getValue());
+    }
+
+    private void writeBlock(final Block block) throws IOException {
+        // block header: size, flags, filter flags, padding, CRC32
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream(12);
+        header.write(0); // size, set below
+        header.write(0); // one filter, no optional sizes
+        writeVarint(header, FILTER_LZMA2);
+        writeVarint(header, 1);
+        header.write(dictionaryProperties(this.options.getDictSize()));
+        while (header.size() % 4 != 0) {
+            header.write(0);
+        }
+
+        final byte[] headerData = header.toByteArray();
+        headerData[0] = (byte) ((headerData.length + 4) / 4 - 1);
+
+        this.out.write(headerData);
+        writeCrc32(this.out, headerData);
+
+        // compressed data, padding, check
+
+        this.out.write(block.data);
+        for (int i = block.data.length; i % 4 != 0; i++) {
+            this.out.write(0);
+        }
+        writeInt32(this.out, block.check);
+
+        final long unpaddedSize = headerData.length + 4 + block.data.length + 4;
+        this.records.add(new long[] { unpaddedSize, block.uncompressedSize });
+    }
+
+    private void writeStreamHeader() throws IOException {
+        this.out.write(HEADER_MAGIC);
+        this.out.write(STREAM_FLAGS);
+        writeCrc32(this.out, STREAM_FLAGS);
+    }
+
+    private void writeIndexAndFooter() throws IOException {
+        final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        index.write(0); // index indicator
+        writeVarint(index, this.records.size());
+        for (final long[] record : this.records) {
+            writeVarint(index, record[0]);
+            writeVarint(index, record[1]);
+        }
+        while (index.size() % 4 != 0) {
+            index.write(0);
+        }
+
+        final byte[] indexData = index.toByteArray();
+        this.out.write(indexData);
+        writeCrc32(this.out, indexData);
+
+        // footer
+
+        final ByteArrayOutputStream footer = new ByteArrayOutputStream(6);
+        writeInt32(footer, (indexData.length + 4) / 4 - 1);
+        footer.write(STREAM_FLAGS);
+
+        final byte[] footerData = footer.toByteArray();
+        writeCrc32(this.out, footerData);
+        this.out.write(footerData);
+        this.out.write(FOOTER_MAGIC);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try {
+            if (this.count > 0) {
+                final byte[] data = this.buffer;
+                final int length = this.count;
+                this.count = 0;
+                this.pending.add(this.executor.submit(() -> compress(data, length)));
+            }
+
+            while (!this.pending.isEmpty()) {
+                writeBlock(await(this.pending.poll()));
+            }
+
+            writeIndexAndFooter();
+        } finally {
+            for (final Future<Block> future : this.pending) {
+                future.cancel(true);
+            }
+            this.executor.shutdownNow();
+            this.out.close();
+        }
+    }
+
+    private static Block await(final Future<Block> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Encode the LZMA2 dictionary size property
+     */
+    static int dictionaryProperties(final int dictSize) {
+        for (int i = 0; i < 40; i++) {
+            final long size = (2L | (i & 1)) << (i / 2 + 11);
+            if (size >= dictSize) {
+                return i;
+            }
+        }
+        return 40;
+    }
+
+    private static void writeVarint(final OutputStream out, long value) throws IOException {
+        while (value >= 0x80) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeCrc32(final OutputStream out, final byte[] data) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+        writeInt32(out, crc.getValue());
+    }
+
+    private static void writeInt32(final OutputStream out, final long value) throws IOException {
+        out.write((int) value & 0xFF);
+        out.write((int) (value >>> 8) & 0xFF);
+        out.write((int) (value >>> 16) & 0xFF);
+        out.write((int) (value >>> 24) & 0xFF);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.build;
+
+import org.eclipse.packager.io.SpoolStorage;
+
+/**
+ * Options which control the {@link DebianPackageWriter}
+ */
+public class WriterOptions {
+    private static final MemberCompression DEFAULT_COMPRESSION = MemberCompression.GZIP;
+
+    public static final int DEFAULT_CONTROL_RESERVATION = 16 * 1024;
+
+    private MemberCompression dataCompression = DEFAULT_COMPRESSION;
+
+    private MemberCompression controlCompression = DEFAULT_COMPRESSION;
+
+    private Integer compressionLevel;
+
+    private int threads = 1;
+
+    private int controlReservation = DEFAULT_CONTROL_RESERVATION;
+
+    private SpoolStorage spoolStorage = SpoolStorage.defaultStorage();
+
+    public WriterOptions() {
+    }
+
+    public WriterOptions(final WriterOptions other) {
+        setDataCompression(other.dataCompression);
+        setControlCompression(other.controlCompression);
+        setCompressionLevel(other.compressionLevel);
+        setThreads(other.threads);
+        setControlReservation(other.controlReservation);
+        setSpoolStorage(other.spoolStorage);
+    }
+
+    public MemberCompression getDataCompression() {
+        return this.dataCompression;
+    }
+
+    /**
+     * Set the compression of the <code>data.tar</code> member
+     *
+     * @param dataCompression the compression, <code>null</code> for the
+     *            default ({@link MemberCompression#GZIP})
+     */
+    public void setDataCompression(final MemberCompression dataCompression) {
+        this.dataCompression = dataCompression != null ? dataCompression : DEFAULT_COMPRESSION;
+    }
+
+    public MemberCompression getControlCompression() {
+        return this.controlCompression;
+    }
+
+    /**
+     * Set the compression of the <code>control.tar</code> member
+     *
+     * @param controlCompression the compression, <code>null</code> for the
+     *            default ({@link MemberCompression#GZIP})
+     * @throws IllegalArgumentException if the compression is not supported
+     *             for the control member
+     */
+    public void setControlCompression(final MemberCompression controlCompression) {
+        if (controlCompression == MemberCompression.BZIP2) {
+            throw new IllegalArgumentException(String.format("Compression is not supported for the control member: %s", controlCompression));
+        }
+        this.controlCompression = controlCompression != null ? controlCompression : DEFAULT_COMPRESSION;
+    }
+
+    public Integer getCompressionLevel() {
+        return this.compressionLevel;
+    }
+
+    /**
+     * Set the compression level
+     *
+     * @param compressionLevel the level, <code>null</code> for the default
+     *            level of the compression format
+     */
+    public void setCompressionLevel(final Integer compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Set the number of threads for compressing the data member
+     * <p>
+     * This is only used by the {@link MemberCompression#XZ} and
+     * {@link MemberCompression#ZSTD} formats, and for hashing files in
+     * {@link DebianPackageWriter#addTree(java.nio.file.Path, String, java.util.function.Function)}.
+     * </p>
+     *
+     * @param threads the number of threads, must be greater than zero
+     */
+    public void setThreads(final int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be greater than zero");
+        }
+        this.threads = threads;
+    }
+
+    public int getControlReservation() {
+        return this.controlReservation;
+    }
+
+    /**
+     * Set the space reserved for the <code>control.tar</code> member
+     * <p>
+     * This is only used when writing directly to a seekable channel. The data
+     * member is written after the reserved space, and the control member is
+     * filled in when the package is closed. Afterwards the data member gets
+     * moved right behind the control member, which costs an additional copy
+     * unless the reservation matches the size of the control member.
+     * </p>
+     *
+     * @param controlReservation the number of bytes to reserve, will be
+     *            rounded up to an even number
+     */
+    public void setControlReservation(final int controlReservation) {
+        if (controlReservation < 0) {
+            throw new IllegalArgumentException("Control reservation must not be negative");
+        }
+        this.controlReservation = controlReservation + (controlReservation & 1);
+    }
+
+    public SpoolStorage getSpoolStorage() {
+        return this.spoolStorage;
+    }
+
+    /**
+     * Set the storage for temporary files
+     * <p>
+     * The control member is always spooled. When writing to a stream, the
+     * data member is spooled as well.
+     * </p>
+     *
+     * @param spoolStorage the storage, <code>null</code> for the
+     *            {@link SpoolStorage#defaultStorage()}
+     */
+    public void setSpoolStorage(final SpoolStorage spoolStorage) {
+        this.spoolStorage = spoolStorage != null ? spoolStorage : SpoolStorage.defaultStorage();
+    }
+}
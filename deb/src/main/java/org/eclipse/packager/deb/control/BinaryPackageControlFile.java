@@ -58,6 +58,8 @@ public class BinaryPackageControlFile extends GenericControlFile {
         public static final String DEPENDS = "Depends"; //$NON-NLS-1$
 
         public static final String PRE_DEPENDS = "Pre-Depends"; //$NON-NLS-1$
+
+        public static final String PROVIDES = "Provides"; //$NON-NLS-1$
     }
 
     public void setPackage(final String value) {
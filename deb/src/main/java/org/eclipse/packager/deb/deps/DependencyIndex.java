@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.deps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.packager.deb.DebianVersion;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+
+/**
+ * An in-memory index for resolving dependencies between Debian packages
+ * <p>
+ * The index is built once from the paragraphs of a <code>Packages</code> or
+ * <code>status</code> file, as returned by
+ * {@link org.eclipse.packager.deb.ControlFileParser}. The
+ * <code>Depends</code>, <code>Pre-Depends</code> and <code>Provides</code>
+ * fields are parsed when the index is built. Package names are looked up in
+ * a hash map, and only the packages of that name, and the packages providing
+ * it, are checked for a matching version.
+ * </p>
+ * <p>
+ * Following the Debian policy, a versioned relation is only satisfied by a
+ * real package with a matching version, or by a versioned
+ * <code>Provides</code> entry. Architecture qualifiers are not taken into
+ * account.
+ * </p>
+ * <p>
+ * An index is immutable and thread safe.
+ * </p>
+ */
+public final class DependencyIndex {
+    private static final Provider[] NO_PROVIDERS = new Provider[0];
+
+    private static final class Provider {
+        private final int pkg;
+
+        private final DebianVersion version;
+
+        Provider(final int pkg, final DebianVersion version) {
+            this.pkg = pkg;
+            this.version = version;
+        }
+    }
+
+    public static class Builder {
+        private final List<Map<String, String>> packages = new ArrayList<>();
+
+        public Builder() {
+        }
+
+        public Builder addPackage(final Map<String, String> paragraph) {
+            this.packages.add(Objects.requireNonNull(paragraph));
+            return this;
+        }
+
+        public Builder addPackages(final Collection<? extends Map<String, String>> paragraphs) {
+            for (final Map<String, String> paragraph : paragraphs) {
+                addPackage(paragraph);
+            }
+            return this;
+        }
+
+        /**
+         * Build the index
+         *
+         * @return the new index
+         * @throws IllegalArgumentException if a relation field of a package
+         *             is malformed
+         */
+        public DependencyIndex build() {
+            return new DependencyIndex(this);
+        }
+    }
+
+    private final List<Map<String, String>> packages;
+
+    private final Map<Map<String, String>, Integer> ids;
+
+    private final List<List<List<Relation>>> dependencies;
+
+    private final Map<String, Provider[]> providers;
+
+    private DependencyIndex(final Builder builder) {
+        this.packages = new ArrayList<>(builder.packages);
+        this.ids = new IdentityHashMap<>(this.packages.size());
+        this.dependencies = new ArrayList<>(this.packages.size());
+
+        final Map<String, List<Provider>> providers = new HashMap<>();
+
+        for (int i = 0; i < this.packages.size(); i++) {
+            final Map<String, String> paragraph = this.packages.get(i);
+            this.ids.putIfAbsent(paragraph, i);
+
+            final String name = paragraph.get(BinaryPackageControlFile.Fields.PACKAGE);
+
+            try {
+                if (name != null) {
+                    add(providers, name, new Provider(i, DebianVersion.valueOf(paragraph.get(BinaryPackageControlFile.Fields.VERSION))));
+                }
+
+                for (final List<Relation> provides : Relation.parseField(paragraph.get(BinaryPackageControlFile.Fields.PROVIDES))) {
+                    for (final Relation provide : provides) {
+                        add(providers, provide.getName(), new Provider(i, provide.getVersion()));
+                    }
+                }
+
+                final List<List<Relation>> dependencies = new ArrayList<>();
+                dependencies.addAll(Relation.parseField(paragraph.get(BinaryPackageControlFile.Fields.PRE_DEPENDS)));
+                dependencies.addAll(Relation.parseField(paragraph.get(BinaryPackageControlFile.Fields.DEPENDS)));
+                this.dependencies.add(Collections.unmodifiableList(dependencies));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Failed to parse relations of package '%s'", name), e);
+            }
+        }
+
+        this.providers = new HashMap<>(providers.size() * 4 / 3 + 1);
+        for (final Map.Entry<String, List<Provider>> entry : providers.entrySet()) {
+            this.providers.put(entry.getKey(), entry.getValue().toArray(NO_PROVIDERS));
+        }
+    }
+
+    private static void add(final Map<String, List<Provider>> providers, final String name, final Provider provider) {
+        providers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(provider);
+    }
+
+    public int size() {
+        return this.packages.size();
+    }
+
+    /**
+     * Find the packages satisfying a relation
+     *
+     * @param relation the relation
+     * @return the packages, either having the name of the relation, or
+     *         providing it, in the order they were added to the index. Never
+     *         <code>null</code>.
+     */
+    public List<Map<String, String>> whatProvides(final Relation relation) {
+        final Provider[] candidates = this.providers.getOrDefault(relation.getName(), NO_PROVIDERS);
+
+        final List<Map<String, String>> result = new ArrayList<>(candidates.length);
+        int last = -1;
+        for (final Provider provider : candidates) {
+            if (provider.pkg != last && relation.matches(provider.version)) {
+                result.add(this.packages.get(provider.pkg));
+                last = provider.pkg;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check if a requirement can be satisfied by any package of the index
+     *
+     * @param alternatives the alternatives of the requirement
+     * @return <code>true</code> if at least one of the alternatives is
+     *         satisfied
+     */
+    public boolean isSatisfied(final List<Relation> alternatives) {
+        for (final Relation relation : alternatives) {
+            for (final Provider provider : this.providers.getOrDefault(relation.getName(), NO_PROVIDERS)) {
+                if (relation.matches(provider.version)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the parsed dependencies of a package
+     *
+     * @param paragraph the package, must be part of the index
+     * @return the requirements of the <code>Pre-Depends</code> and
+     *         <code>Depends</code> fields, each with its alternatives
+     * @throws IllegalArgumentException if the package is not part of the
+     *             index
+     */
+    public List<List<Relation>> getDependencies(final Map<String, String> paragraph) {
+        final Integer id = this.ids.get(paragraph);
+        if (id == null) {
+            throw new IllegalArgumentException(String.format("Package '%s' is not part of the index", paragraph.get(BinaryPackageControlFile.Fields.PACKAGE)));
+        }
+        return this.dependencies.get(id);
+    }
+
+    /**
+     * Find the dependencies of a package which can't be satisfied
+     *
+     * @param paragraph the package, must be part of the index
+     * @return the unsatisfied requirements, never <code>null</code>
+     * @throws IllegalArgumentException if the package is not part of the
+     *             index
+     */
+    public List<List<Relation>> getUnsatisfied(final Map<String, String> paragraph) {
+        List<List<Relation>> result = null;
+        for (final List<Relation> alternatives : getDependencies(paragraph)) {
+            if (!isSatisfied(alternatives)) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(alternatives);
+            }
+        }
+        return result != null ? result : Collections.emptyList();
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.deps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.packager.deb.DebianVersion;
+
+/**
+ * A single package relation, like <code>libc6 (&gt;= 2.36)</code>
+ * <p>
+ * Relation fields like <code>Depends</code> consist of a comma separated list
+ * of requirements, each of which is a list of alternatives separated by
+ * <code>|</code>. Use {@link #parseField(String)} to parse such a field.
+ * </p>
+ */
+public final class Relation {
+    public enum Operator {
+        LESS("<<"),
+        LESS_EQUAL("<="),
+        EQUAL("="),
+        GREATER_EQUAL(">="),
+        GREATER(">>");
+
+        private final String symbol;
+
+        private Operator(final String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return this.symbol;
+        }
+
+        /**
+         * Check if the result of a version comparison matches the operator
+         *
+         * @param rc the result of comparing the available version to the
+         *            required one
+         * @return <code>true</code> if the versions match
+         */
+        public boolean matches(final int rc) {
+            switch (this) {
+                case LESS:
+                    return rc < 0;
+                case LESS_EQUAL:
+                    return rc <= 0;
+                case EQUAL:
+                    return rc == 0;
+                case GREATER_EQUAL:
+                    return rc >= 0;
+                case GREATER:
+                    return rc > 0;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+
+        /**
+         * Parse an operator
+         * <p>
+         * The obsolete forms <code>&lt;</code> and <code>&gt;</code> are
+         * accepted, and treated as <code>&lt;=</code> and <code>&gt;=</code>,
+         * like dpkg does.
+         * </p>
+         *
+         * @param symbol the operator symbol
+         * @return the operator
+         * @throws IllegalArgumentException if the symbol is unknown
+         */
+        public static Operator parse(final String symbol) {
+            switch (symbol) {
+                case "<<":
+                    return LESS;
+                case "<=":
+                case "<":
+                    return LESS_EQUAL;
+                case "=":
+                    return EQUAL;
+                case ">=":
+                case ">":
+                    return GREATER_EQUAL;
+                case ">>":
+                    return GREATER;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown relation operator: '%s'", symbol));
+            }
+        }
+    }
+
+    private final String name;
+
+    private final String architecture;
+
+    private final Operator operator;
+
+    private final DebianVersion version;
+
+    public Relation(final String name, final String architecture, final Operator operator, final DebianVersion version) {
+        this.name = Objects.requireNonNull(name);
+        this.architecture = architecture;
+        if ((operator == null) != (version == null)) {
+            throw new IllegalArgumentException("Operator and version must be used together");
+        }
+        this.operator = operator;
+        this.version = version;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get the architecture qualifier
+     *
+     * @return the qualifier, e.g. <code>any</code> for
+     *         <code>python3:any</code>, or <code>null</code>
+     */
+    public String getArchitecture() {
+        return this.architecture;
+    }
+
+    public Operator getOperator() {
+        return this.operator;
+    }
+
+    public DebianVersion getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Check if a version satisfies the version constraint of this relation
+     *
+     * @param available the available version, <code>null</code> for an
+     *            unversioned package or provide
+     * @return <code>true</code> if the relation has no version constraint,
+     *         or the version matches it
+     */
+    public boolean matches(final DebianVersion available) {
+        if (this.operator == null) {
+            return true;
+        }
+        if (available == null) {
+            return false;
+        }
+        return this.operator.matches(available.compareTo(this.version));
+    }
+
+    /**
+     * Parse a relation field
+     * <p>
+     * Architecture restrictions (<code>[amd64]</code>) and build profile
+     * restrictions (<code>&lt;!nocheck&gt;</code>) are skipped.
+     * </p>
+     *
+     * @param field the content of the field, may be <code>null</code>
+     * @return the requirements, each with its list of alternatives, never
+     *         <code>null</code>
+     * @throws IllegalArgumentException if the field is malformed
+     */
+    public static List<List<Relation>> parseField(final String field) {
+        if (field == null) {
+            return Collections.emptyList();
+        }
+
+        final List<List<Relation>> result = new ArrayList<>();
+
+        for (final String requirement : field.split(",")) {
+            if (requirement.isBlank()) {
+                continue;
+            }
+
+            final List<Relation> alternatives = new ArrayList<>(1);
+            for (final String alternative : requirement.split("\\|")) {
+                alternatives.add(parse(alternative));
+            }
+            result.add(alternatives);
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a single relation
+     *
+     * @param relation the relation, e.g. <code>libc6 (&gt;= 2.36)</code>
+     * @return the relation
+     * @throws IllegalArgumentException if the relation is malformed
+     */
+    public static Relation parse(final String relation) {
+        final String s = relation.trim();
+        final int length = s.length();
+
+        int i = 0;
+        while (i < length && !isDelimiter(s.charAt(i))) {
+            i++;
+        }
+        if (i == 0) {
+            throw new IllegalArgumentException(String.format("Missing package name in relation: '%s'", relation));
+        }
+
+        String name = s.substring(0, i);
+        String architecture = null;
+        final int colon = name.indexOf(':');
+        if (colon >= 0) {
+            architecture = name.substring(colon + 1);
+            name = name.substring(0, colon);
+        }
+
+        Operator operator = null;
+        DebianVersion version = null;
+
+        i = skipWhitespace(s, i);
+        if (i < length && s.charAt(i) == '(') {
+            final int end = s.indexOf(')', i);
+            if (end < 0) {
+                throw new IllegalArgumentException(String.format("Missing ')' in relation: '%s'", relation));
+            }
+
+            final String constraint = s.substring(i + 1, end).trim();
+            int j = 0;
+            while (j < constraint.length() && isOperatorChar(constraint.charAt(j))) {
+                j++;
+            }
+            operator = Operator.parse(constraint.substring(0, j));
+            version = DebianVersion.valueOf(constraint.substring(j).trim());
+            if (version == null) {
+                throw new IllegalArgumentException(String.format("Missing version in relation: '%s'", relation));
+            }
+        }
+
+        return new Relation(name, architecture, operator, version);
+    }
+
+    private static boolean isDelimiter(final char c) {
+        return Character.isWhitespace(c) || c == '(' || c == '[' || c == '<';
+    }
+
+    private static boolean isOperatorChar(final char c) {
+        return c == '<' || c == '>' || c == '=';
+    }
+
+    private static int skipWhitespace(final String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Relation that = (Relation) o;
+        return this.name.equals(that.name) && Objects.equals(this.architecture, that.architecture) && this.operator == that.operator && Objects.equals(this.version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.name, this.architecture, this.operator, this.version);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(this.name);
+        if (this.architecture != null) {
+            sb.append(':').append(this.architecture);
+        }
+        if (this.operator != null) {
+            sb.append(" (").append(this.operator.getSymbol()).append(' ').append(this.version).append(')');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.extract;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.packager.deb.parse.DebianPackageReader;
+import org.eclipse.packager.extract.ExtractionPipeline;
+
+/**
+ * Extract the data member of a Debian package to a directory
+ * <p>
+ * The data member is decompressed and read on the calling thread, and written
+ * by an {@link ExtractionPipeline}, the same way as RPM payloads are. The
+ * amount of buffered data is limited by
+ * {@link ExtractorOptions#getMaxBufferedBytes()}.
+ * </p>
+ * <p>
+ * File modes, modification times, symbolic links and hard links are restored
+ * from the tar entries. Optionally the file content is verified against the
+ * <code>md5sums</code> control file.
+ * </p>
+ */
+public class DebianExtractor {
+    public static class Result extends ExtractionPipeline.Result {
+        private Result(final ExtractionPipeline.Result result) {
+            super(result);
+        }
+    }
+
+    private final ExtractorOptions options;
+
+    public DebianExtractor() {
+        this(null);
+    }
+
+    public DebianExtractor(final ExtractorOptions options) {
+        this.options = options == null ? new ExtractorOptions() : new ExtractorOptions(options);
+    }
+
+    /**
+     * Extract a Debian package file to a directory
+     *
+     * @param deb the package file to extract
+     * @param target the target directory, will be created if necessary
+     * @return the result of the extraction
+     * @throws IOException if extracting the file fails
+     */
+    public Result extract(final Path deb, final Path target) throws IOException {
+        try (DebianPackageReader reader = new DebianPackageReader(deb)) {
+            return extract(reader, target);
+        }
+    }
+
+    /**
+     * Extract the data member of a package to a directory
+     * <p>
+     * The reader will not be closed.
+     * </p>
+     *
+     * @param reader the package to extract
+     * @param target the target directory, will be created if necessary
+     * @return the result of the extraction
+     * @throws IOException if extracting the package fails
+     */
+    public Result extract(final DebianPackageReader reader, final Path target) throws IOException {
+        final Map<String, String> checksums = this.options.isVerifyDigests() ? readChecksums(reader) : Map.of();
+        final ExtractionPipeline pipeline = new ExtractionPipeline(target, this.options, "deb-extract-writer-");
+
+        return new Result(pipeline.run(p -> {
+            try (TarArchiveInputStream tar = reader.openData()) {
+                read(tar, checksums, p);
+            }
+        }));
+    }
+
+    private static void read(final TarArchiveInputStream tar, final Map<String, String> checksums, final ExtractionPipeline pipeline) throws IOException {
+        TarArchiveEntry entry;
+        while ((entry = tar.getNextEntry()) != null) {
+            final String name = DebianPackageReader.normalizeName(entry.getName());
+            final Path path = pipeline.resolve(entry.getName());
+
+            final int mode = entry.getMode();
+            final long mtime = entry.getModTime().getTime() / 1000L;
+
+            if (entry.isDirectory()) {
+                pipeline.addDirectory(path, mode, mtime);
+            } else if (entry.isSymbolicLink()) {
+                pipeline.addSymbolicLink(path, entry.getLinkName(), mtime);
+            } else if (entry.isLink()) {
+                pipeline.addHardLink(path, pipeline.resolve(entry.getLinkName()));
+            } else if (entry.isFile()) {
+                final String expected = checksums.get(name);
+                pipeline.addFile(tar, entry.getName(), path, entry.getSize(), mode, mtime, expected != null ? createDigest() : null, expected);
+            }
+            // skip devices, fifos, ...
+        }
+    }
+
+    private static MessageDigest createDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Read the <code>md5sums</code> control file
+     *
+     * @return a map of file names, without leading slash, to MD5 checksums
+     */
+    private static Map<String, String> readChecksums(final DebianPackageReader reader) throws IOException {
+        final byte[] data = reader.readControlEntry("md5sums");
+        if (data == null) {
+            return Map.of();
+        }
+
+        final Map<String, String> result = new HashMap<>();
+        for (final String line : new String(data, StandardCharsets.UTF_8).split("\n")) {
+            final int idx = line.indexOf("  ");
+            if (idx > 0) {
+                result.put(DebianPackageReader.normalizeName(line.substring(idx + 2)), line.substring(0, idx));
+            }
+        }
+        return result;
+    }
+}
@@ -18,19 +18,21 @@ import java.io.InputStream;
 import java.security.MessageDigest;
 import java.util.Map;
 
+import org.eclipse.packager.security.digest.MultiDigest;
+
 /**
  * A filter input stream which create multiple message digests while reading
  * <br>
  * Only the bytes actually read are processed.
  */
 public class ChecksumInputStream extends FilterInputStream {
-    private final MessageDigest[] digests;
+    private final MultiDigest digest;
 
     private final Map<String, byte[]> results;
 
     public ChecksumInputStream(final InputStream stream, final Map<String, byte[]> results, final MessageDigest... digests) {
         super(stream);
-        this.digests = digests;
+        this.digest = MultiDigest.wrap(digests);
         this.results = results;
     }
 
@@ -39,9 +41,7 @@ public class ChecksumInputStream extends FilterInputStream {
         final int result = super.read(b, off, len);
 
         if (result > 0) {
-            for (final MessageDigest d : this.digests) {
-                d.update(b, off, result);
-            }
+            this.digest.update(b, off, result);
         }
 
         return result;
@@ -50,20 +50,38 @@ public class ChecksumInputStream extends FilterInputStream {
     @Override
     public int read() throws IOException {
         final int result = super.read();
-        if (result > 0) {
-            for (final MessageDigest d : this.digests) {
-                d.update((byte) result);
-            }
+        if (result >= 0) {
+            this.digest.update((byte) result);
         }
         return result;
     }
 
+    /**
+     * Skip by reading, so that skipped bytes are processed as well
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+
+        final byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long remaining = n;
+        while (remaining > 0) {
+            final int rc = read(buffer, 0, (int) Math.min(remaining, buffer.length));
+            if (rc < 0) {
+                break;
+            }
+            remaining -= rc;
+        }
+        return n - remaining;
+    }
+
     @Override
     public void close() throws IOException {
         super.close();
-        for (final MessageDigest d : this.digests) {
-            final byte[] result = d.digest();
-            this.results.put(d.getAlgorithm(), result);
+        if (!this.digest.isFinished()) {
+            this.results.putAll(this.digest.finish());
         }
     }
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.packager.deb.internal;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import org.eclipse.packager.security.digest.MultiDigest;
+
+/**
+ * A filter output stream which creates multiple message digests and counts
+ * the bytes while writing
+ * <br>
+ * The digests are recorded, by algorithm name, when the stream is closed.
+ */
+public class ChecksumOutputStream extends FilterOutputStream {
+    private final MultiDigest digest;
+
+    private final Map<String, byte[]> results;
+
+    private boolean closed;
+
+    public ChecksumOutputStream(final OutputStream stream, final Map<String, byte[]> results, final MessageDigest... digests) {
+        super(stream);
+        this.digest = MultiDigest.wrap(digests);
+        this.results = results;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.out.write(b, off, len);
+        this.digest.update(b, off, len);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.out.write(b);
+        this.digest.update((byte) b);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        super.close();
+        this.results.putAll(this.digest.finish());
+    }
+
+    public Map<String, byte[]> getResults() {
+        return this.results;
+    }
+
+    /**
+     * Get the number of bytes written
+     *
+     * @return the number of bytes written so far
+     */
+    public long getCount() {
+        return this.digest.getCount();
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.parse;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.packager.deb.ControlFileParser;
+import org.eclipse.packager.deb.ParserException;
+import org.eclipse.packager.deb.build.MemberCompression;
+
+/**
+ * Read a Debian package file
+ * <p>
+ * The members of the <code>ar</code> container are indexed on first access,
+ * by reading only the member headers. Members are read directly from the
+ * underlying channel, on demand. The compression of the <code>control.tar</code>
+ * and <code>data.tar</code> members is detected from their names.
+ * </p>
+ * <p>
+ * Multiple members may be read at the same time, also from different
+ * threads.
+ * </p>
+ */
+public class DebianPackageReader implements Closeable {
+    private static final byte[] AR_MAGIC = "!<arch>\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int AR_HEADER_SIZE = 60;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CONTROL_PREFIX = "control.tar";
+
+    private static final String DATA_PREFIX = "data.tar";
+
+    /**
+     * A member of the <code>ar</code> container
+     */
+    public static final class Member {
+        private final String name;
+
+        private final long offset;
+
+        private final long size;
+
+        private final Instant timestamp;
+
+        private Member(final String name, final long offset, final long size, final Instant timestamp) {
+            this.name = name;
+            this.offset = offset;
+            this.size = size;
+            this.timestamp = timestamp;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * The offset of the member content in the package file
+         *
+         * @return the offset of the content, after the member header
+         */
+        public long getOffset() {
+            return this.offset;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public Instant getTimestamp() {
+            return this.timestamp;
+        }
+
+        /**
+         * Get the compression of a tar member
+         *
+         * @return the compression, or <code>null</code> if this member is not
+         *         a (compressed) tar file
+         */
+        public MemberCompression getCompression() {
+            return MemberCompression.fromFileName(this.name);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[Member - name: %s, offset: %s, size: %s]", this.name, this.offset, this.size);
+        }
+    }
+
+    private final SeekableByteChannel channel;
+
+    private List<Member> members;
+
+    public DebianPackageReader(final Path file) throws IOException {
+        this(FileChannel.open(file));
+    }
+
+    /**
+     * Create a new reader
+     * <p>
+     * The channel will be closed when the reader is closed.
+     * </p>
+     *
+     * @param channel the channel to read from
+     */
+    public DebianPackageReader(final SeekableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Get the members of the package
+     *
+     * @return the members, in the order of the container
+     * @throws IOException if the container cannot be read
+     */
+    public synchronized List<Member> getMembers() throws IOException {
+        if (this.members == null) {
+            this.members = Collections.unmodifiableList(scan());
+        }
+        return this.members;
+    }
+
+    public Optional<Member> getMember(final String name) throws IOException {
+        for (final Member member : getMembers()) {
+            if (member.getName().equals(name)) {
+                return Optional.of(member);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Member> findControlMember() throws IOException {
+        return findTarMember(CONTROL_PREFIX);
+    }
+
+    public Optional<Member> findDataMember() throws IOException {
+        return findTarMember(DATA_PREFIX);
+    }
+
+    private Optional<Member> findTarMember(final String prefix) throws IOException {
+        for (final Member member : getMembers()) {
+            if (member.getName().startsWith(prefix) && member.getCompression() != null) {
+                return Optional.of(member);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Member getTarMember(final String prefix) throws IOException {
+        return findTarMember(prefix).orElseThrow(() -> new IOException(String.format("Package has no '%s' member", prefix)));
+    }
+
+    /**
+     * Open the raw content of a member
+     *
+     * @param member the member to open
+     * @return a new stream of the content, which must be closed by the caller
+     */
+    public InputStream openMember(final Member member) {
+        return new BufferedInputStream(new MemberInputStream(member.getOffset(), member.getSize()), BUFFER_SIZE);
+    }
+
+    /**
+     * Open a tar member, decompressing it
+     *
+     * @param member the member to open
+     * @return a new tar stream, which must be closed by the caller
+     * @throws IOException if the member is not a tar file, or cannot be opened
+     */
+    public TarArchiveInputStream openTar(final Member member) throws IOException {
+        final MemberCompression compression = member.getCompression();
+        if (compression == null) {
+            throw new IOException(String.format("Member is not a tar file: %s", member.getName()));
+        }
+
+        final InputStream in = openMember(member);
+        try {
+            return new TarArchiveInputStream(compression.createInputStream(in));
+        } catch (final IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public TarArchiveInputStream openControl() throws IOException {
+        return openTar(getTarMember(CONTROL_PREFIX));
+    }
+
+    /**
+     * Open the data member, as a stream of tar entries
+     * <p>
+     * The entries are read while iterating over the stream, no content is
+     * buffered.
+     * </p>
+     *
+     * @return a new tar stream, which must be closed by the caller
+     * @throws IOException if the data member cannot be opened
+     */
+    public TarArchiveInputStream openData() throws IOException {
+        return openTar(getTarMember(DATA_PREFIX));
+    }
+
+    /**
+     * Read an entry of the control member
+     *
+     * @param name the name of the entry, e.g. <code>md5sums</code>
+     * @return the content, or <code>null</code> if the entry does not exist
+     * @throws IOException if reading fails
+     */
+    public byte[] readControlEntry(final String name) throws IOException {
+        if (findControlMember().isEmpty()) {
+            return null;
+        }
+        try (TarArchiveInputStream in = openControl()) {
+            TarArchiveEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (normalizeName(entry.getName()).equals(name)) {
+                    return in.readAllBytes();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the <code>control</code> file of the package
+     *
+     * @return the control fields, or <code>null</code> if the package has no
+     *         control file
+     */
+    public Map<String, String> readControlFile() throws IOException, ParserException {
+        if (findControlMember().isEmpty()) {
+            return null;
+        }
+        try (TarArchiveInputStream in = openControl()) {
+            TarArchiveEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (normalizeName(entry.getName()).equals("control")) {
+                    return ControlFileParser.parse(in);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Strip the leading <code>./</code> or <code>/</code> from a tar entry
+     * name
+     *
+     * @param name the name of the tar entry
+     * @return the name relative to the root of the package
+     */
+    public static String normalizeName(String name) {
+        if (name.startsWith("./")) {
+            name = name.substring(2);
+        }
+        while (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        return name;
+    }
+
+    private List<Member> scan() throws IOException {
+        final long size = this.channel.size();
+
+        final ByteBuffer magic = ByteBuffer.allocate(AR_MAGIC.length);
+        if (read(magic, 0) != AR_MAGIC.length || !magic.flip().equals(ByteBuffer.wrap(AR_MAGIC))) {
+            throw new IOException("Not an ar archive");
+        }
+
+        final List<Member> result = new ArrayList<>();
+
+        final ByteBuffer header = ByteBuffer.allocate(AR_HEADER_SIZE);
+        long position = AR_MAGIC.length;
+        while (position + AR_HEADER_SIZE <= size) {
+            header.clear();
+            if (read(header, position) != AR_HEADER_SIZE) {
+                throw new IOException("Unexpected end of ar archive");
+            }
+
+            final String data = new String(header.array(), StandardCharsets.US_ASCII);
+            if (!data.endsWith("`\n")) {
+                throw new IOException(String.format("Invalid ar member header at offset %s", position));
+            }
+
+            String name = data.substring(0, 16).trim();
+            if (name.endsWith("/")) {
+                // GNU style
+                name = name.substring(0, name.length() - 1);
+            }
+
+            final long timestamp = parseNumber(data.substring(16, 28), position);
+            final long memberSize = parseNumber(data.substring(48, 58), position);
+
+            final long offset = position + AR_HEADER_SIZE;
+            if (offset + memberSize > size) {
+                throw new IOException(String.format("Truncated ar member: %s", name));
+            }
+
+            result.add(new Member(name, offset, memberSize, Instant.ofEpochSecond(timestamp)));
+
+            position = offset + memberSize + (memberSize & 1);
+        }
+
+        return result;
+    }
+
+    private static long parseNumber(final String value, final long position) throws IOException {
+        final String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(trimmed);
+        } catch (final NumberFormatException e) {
+            throw new IOException(String.format("Invalid ar member header at offset %s", position), e);
+        }
+    }
+
+    /**
+     * Read from the channel at a position, as much as possible
+     */
+    private int read(final ByteBuffer buffer, final long position) throws IOException {
+        final int start = buffer.position();
+
+        if (this.channel instanceof FileChannel) {
+            final FileChannel fileChannel = (FileChannel) this.channel;
+            while (buffer.hasRemaining()) {
+                if (fileChannel.read(buffer, position + buffer.position() - start) < 0) {
+                    break;
+                }
+            }
+        } else {
+            synchronized (this.channel) {
+                this.channel.position(position);
+                while (buffer.hasRemaining()) {
+                    if (this.channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        return buffer.position() - start;
+    }
+
+    /**
+     * A stream over a region of the channel
+     */
+    private class MemberInputStream extends InputStream {
+        private long position;
+
+        private final long end;
+
+        MemberInputStream(final long offset, final long size) {
+            this.position = offset;
+            this.end = offset + size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            final int n = (int) Math.min(len, this.end - this.position);
+            if (n <= 0) {
+                return -1;
+            }
+
+            final int rc = DebianPackageReader.this.read(ByteBuffer.wrap(b, off, n), this.position);
+            if (rc <= 0) {
+                throw new IOException("Unexpected end of package file");
+            }
+            this.position += rc;
+            return rc;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final long skipped = Math.max(0, Math.min(n, this.end - this.position));
+            this.position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, this.end - this.position);
+        }
+    }
+}
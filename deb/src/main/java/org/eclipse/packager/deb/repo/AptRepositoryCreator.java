@@ -0,0 +1,784 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.repo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.openpgp.PGPPrivateKey;
+import org.eclipse.packager.deb.Packages;
+import org.eclipse.packager.deb.ParserException;
+import org.eclipse.packager.deb.parse.DebianPackageReader;
+import org.eclipse.packager.io.BufferPool;
+import org.eclipse.packager.io.IOConsumer;
+import org.eclipse.packager.io.IOFunction;
+import org.eclipse.packager.io.OutputSpooler;
+import org.eclipse.packager.io.SpoolFile;
+import org.eclipse.packager.io.SpoolOutTarget;
+import org.eclipse.packager.io.SpoolStorage;
+import org.eclipse.packager.security.digest.MultiDigest;
+import org.eclipse.packager.security.pgp.SigningStream;
+import org.eclipse.packager.utils.Strings;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * Create the index files of an APT repository
+ * <p>
+ * This creates the <code>Packages</code> and <code>Contents-&lt;arch&gt;</code>
+ * files (uncompressed, gzip and xz compressed) of one component, as well as
+ * the <code>Release</code> file of the distribution. If a signing key is set,
+ * the <code>Release</code> file is signed detached
+ * (<code>Release.gpg</code>) and inline (<code>InRelease</code>).
+ * </p>
+ * <p>
+ * Package files are parsed in parallel, using a {@link DebianPackageReader},
+ * and digested right afterwards, while their content is still cached. The
+ * index entries are written in the order of the input files. Index entries
+ * are spooled to a {@link SpoolStorage} while processing, only the file lists
+ * for the <code>Contents</code> files are kept in memory.
+ * </p>
+ * <p>
+ * Packages of architecture <code>all</code> are added to the index of every
+ * architecture.
+ * </p>
+ */
+public class AptRepositoryCreator {
+    private static final String ARCH_ALL = "all";
+
+    private static final String[] DIGESTS = { "MD5", "SHA-1", "SHA-256" };
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'UTC'", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+
+    private static final int CONTENTS_COLUMN = 60;
+
+    public static class Builder {
+        private SpoolOutTarget target;
+
+        private String distribution = "stable";
+
+        private String codename;
+
+        private String component = "main";
+
+        private String origin;
+
+        private String label;
+
+        private String description;
+
+        private Set<String> architectures = Collections.emptySet();
+
+        private boolean contents = true;
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        private Executor executor;
+
+        private Supplier<Instant> timestampSupplier = Instant::now;
+
+        private PGPPrivateKey signingKey;
+
+        private int digestAlgorithm = HashAlgorithmTags.SHA256;
+
+        private SpoolStorage spoolStorage = SpoolStorage.defaultStorage();
+
+        public Builder() {
+        }
+
+        public Builder setTarget(final SpoolOutTarget target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * Set the distribution (suite) name
+         *
+         * @param distribution the name of the distribution, defaults to
+         *            <code>stable</code>
+         * @return the builder
+         */
+        public Builder setDistribution(final String distribution) {
+            this.distribution = Objects.requireNonNull(distribution);
+            return this;
+        }
+
+        public Builder setCodename(final String codename) {
+            this.codename = codename;
+            return this;
+        }
+
+        /**
+         * Set the component name
+         *
+         * @param component the name of the component, defaults to
+         *            <code>main</code>
+         * @return the builder
+         */
+        public Builder setComponent(final String component) {
+            this.component = Objects.requireNonNull(component);
+            return this;
+        }
+
+        public Builder setOrigin(final String origin) {
+            this.origin = origin;
+            return this;
+        }
+
+        public Builder setLabel(final String label) {
+            this.label = label;
+            return this;
+        }
+
+        public Builder setDescription(final String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Set the architectures which will always be indexed
+         * <p>
+         * Architectures of added packages are indexed anyway. Setting the
+         * architectures ensures that the index files are present, even if
+         * there are no packages for an architecture.
+         * </p>
+         *
+         * @param architectures the architectures
+         * @return the builder
+         */
+        public Builder setArchitectures(final String... architectures) {
+            this.architectures = new TreeSet<>(Arrays.asList(architectures));
+            return this;
+        }
+
+        /**
+         * Write <code>Contents-&lt;arch&gt;</code> files
+         *
+         * @param contents <code>false</code> to skip the contents files,
+         *            defaults to <code>true</code>
+         * @return the builder
+         */
+        public Builder setContents(final boolean contents) {
+            this.contents = contents;
+            return this;
+        }
+
+        public Builder setThreads(final int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Number of threads must be greater than zero");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Set the executor for parsing package files
+         *
+         * @param executor the executor, if <code>null</code> a thread pool
+         *            will be created for each run
+         * @return the builder
+         */
+        public Builder setExecutor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the storage for the index entries spooled while processing
+         *
+         * @param spoolStorage the storage, <code>null</code> for the
+         *            {@link SpoolStorage#defaultStorage()}
+         * @return the builder
+         */
+        public Builder setSpoolStorage(final SpoolStorage spoolStorage) {
+            this.spoolStorage = spoolStorage != null ? spoolStorage : SpoolStorage.defaultStorage();
+            return this;
+        }
+
+        public Builder setTimestampSupplier(final Supplier<Instant> timestampSupplier) {
+            this.timestampSupplier = Objects.requireNonNull(timestampSupplier);
+            return this;
+        }
+
+        public Builder setSigning(final PGPPrivateKey privateKey) {
+            return setSigning(privateKey, HashAlgorithmTags.SHA256);
+        }
+
+        /**
+         * Set the key for signing the release file
+         *
+         * @param privateKey the private key, <code>null</code> to disable
+         *            signing
+         * @param digestAlgorithm the digest algorithm, from
+         *            {@link HashAlgorithmTags}
+         * @return the builder
+         */
+        public Builder setSigning(final PGPPrivateKey privateKey, final int digestAlgorithm) {
+            this.signingKey = privateKey;
+            this.digestAlgorithm = digestAlgorithm;
+            return this;
+        }
+
+        public AptRepositoryCreator build() {
+            return new AptRepositoryCreator(this);
+        }
+    }
+
+    private static final class PackageEntry {
+        private final String architecture;
+
+        private final String location;
+
+        private final byte[] stanza;
+
+        private final List<String> files;
+
+        private PackageEntry(final String architecture, final String location, final byte[] stanza, final List<String> files) {
+            this.architecture = architecture;
+            this.location = location;
+            this.stanza = stanza;
+            this.files = files;
+        }
+    }
+
+    private static final class IndexFile {
+        private final String name;
+
+        private final long size;
+
+        private final String[] checksums;
+
+        private IndexFile(final String name, final long size, final String[] checksums) {
+            this.name = name;
+            this.size = size;
+            this.checksums = checksums;
+        }
+    }
+
+    private final SpoolOutTarget target;
+
+    private final String distribution;
+
+    private final String codename;
+
+    private final String component;
+
+    private final String origin;
+
+    private final String label;
+
+    private final String description;
+
+    private final Set<String> architectures;
+
+    private final boolean contents;
+
+    private final int threads;
+
+    private final Executor executor;
+
+    private final Supplier<Instant> timestampSupplier;
+
+    private final PGPPrivateKey signingKey;
+
+    private final int digestAlgorithm;
+
+    private final SpoolStorage spoolStorage;
+
+    private AptRepositoryCreator(final Builder builder) {
+        this.target = Objects.requireNonNull(builder.target);
+        this.distribution = builder.distribution;
+        this.codename = builder.codename;
+        this.component = builder.component;
+        this.origin = builder.origin;
+        this.label = builder.label;
+        this.description = builder.description;
+        this.architectures = new TreeSet<>(builder.architectures);
+        this.contents = builder.contents;
+        this.threads = builder.threads;
+        this.executor = builder.executor;
+        this.timestampSupplier = builder.timestampSupplier;
+        this.signingKey = builder.signingKey;
+        this.digestAlgorithm = builder.digestAlgorithm;
+        this.spoolStorage = builder.spoolStorage;
+    }
+
+    /**
+     * Index all <code>.deb</code> files of a directory tree
+     *
+     * @param baseDirectory the base directory of the repository, package
+     *            locations are relative to this directory
+     * @return the number of packages
+     * @throws IOException if processing fails
+     */
+    public long process(final Path baseDirectory) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> walk = Files.walk(baseDirectory)) {
+            files = walk
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(".deb"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return process(baseDirectory, files);
+    }
+
+    /**
+     * Index a list of package files
+     *
+     * @param baseDirectory the base directory of the repository, package
+     *            locations are relative to this directory
+     * @param files the package files, the index will use this order
+     * @return the number of packages
+     * @throws IOException if processing fails
+     */
+    public long process(final Path baseDirectory, final Iterable<Path> files) throws IOException {
+        final Path base = baseDirectory.toAbsolutePath();
+
+        try (Indexes indexes = new Indexes()) {
+            final long count = scan(files.iterator(), file -> parse(base, file), indexes::add);
+            final List<IndexFile> indexFiles = indexes.write();
+            writeRelease(indexFiles, indexes.getArchitectures());
+            return count;
+        }
+    }
+
+    private long scan(final Iterator<Path> files, final IOFunction<Path, PackageEntry> parser, final IOConsumer<PackageEntry> consumer) throws IOException {
+        Executor executor = this.executor;
+        ExecutorService ownExecutor = null;
+
+        if (executor == null) {
+            ownExecutor = Executors.newFixedThreadPool(this.threads, new CreatorThreadFactory());
+            executor = ownExecutor;
+        }
+
+        final int maxInFlight = this.threads * 2;
+        final Deque<CompletableFuture<PackageEntry>> pending = new ArrayDeque<>(maxInFlight);
+
+        long count = 0;
+
+        try {
+            while (files.hasNext()) {
+                if (pending.size() >= maxInFlight) {
+                    consumer.accept(await(pending.poll()));
+                    count++;
+                }
+
+                final Path file = files.next();
+                pending.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return parser.apply(file);
+                    } catch (final IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            while (!pending.isEmpty()) {
+                consumer.accept(await(pending.poll()));
+                count++;
+            }
+        } finally {
+            for (final CompletableFuture<PackageEntry> future : pending) {
+                future.cancel(false);
+            }
+            if (ownExecutor != null) {
+                ownExecutor.shutdownNow();
+            }
+        }
+
+        return count;
+    }
+
+    private PackageEntry parse(final Path base, final Path file) throws IOException {
+        final Map<String, String> control;
+        final List<String> files = new ArrayList<>();
+        final Map<String, byte[]> results;
+
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try (DebianPackageReader reader = new DebianPackageReader(channel)) {
+            control = reader.readControlFile();
+            if (this.contents && reader.findDataMember().isPresent()) {
+                try (TarArchiveInputStream tar = reader.openData()) {
+                    readFiles(tar, files);
+                }
+            }
+            results = digest(channel);
+        } catch (final ParserException e) {
+            throw new IOException(String.format("Failed to parse control file: %s", file), e);
+        }
+
+        if (control == null) {
+            throw new IOException(String.format("Missing control file: %s", file));
+        }
+
+        final String packageName = control.get("Package");
+        final String architecture = control.get("Architecture");
+        if (packageName == null || architecture == null) {
+            throw new IOException(String.format("Missing package name or architecture: %s", file));
+        }
+
+        // create the index entry
+
+        final Map<String, String> values = new LinkedHashMap<>();
+        for (final Map.Entry<String, String> field : control.entrySet()) {
+            if ("Description".equals(field.getKey())) {
+                addFileFields(values, base, file, results);
+            }
+            values.put(field.getKey(), field.getValue());
+        }
+        if (!values.containsKey("Filename")) {
+            addFileFields(values, base, file, results);
+        }
+
+        final StringWriter sw = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(sw)) {
+            Packages.writeBinaryPackageValues(writer, values);
+            writer.append('\n');
+        }
+
+        final String section = control.get("Section");
+        final String location = section != null && !section.isEmpty() ? section + "/" + packageName : packageName;
+
+        return new PackageEntry(architecture, location, sw.toString().getBytes(StandardCharsets.UTF_8), files);
+    }
+
+    private static void addFileFields(final Map<String, String> values, final Path base, final Path file, final Map<String, byte[]> results) throws IOException {
+        values.put("Filename", base.relativize(file.toAbsolutePath()).toString().replace(file.getFileSystem().getSeparator(), "/"));
+        values.put("Size", Long.toString(Files.size(file)));
+        values.put("MD5sum", Strings.hex(results.get("MD5")));
+        values.put("SHA1", Strings.hex(results.get("SHA-1")));
+        values.put("SHA256", Strings.hex(results.get("SHA-256")));
+    }
+
+    /**
+     * Digest the whole package file
+     */
+    private static Map<String, byte[]> digest(final FileChannel channel) throws IOException {
+        try (MultiDigest digest = MultiDigest.create(DIGESTS);
+                BufferPool.Lease lease = BufferPool.direct().lease()) {
+            final ByteBuffer buffer = lease.getBuffer();
+            long position = 0;
+            int rc;
+            while ((rc = channel.read(buffer.clear(), position)) >= 0) {
+                position += rc;
+                digest.update(buffer.flip());
+            }
+            return digest.finish();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void readFiles(final TarArchiveInputStream tar, final List<String> files) throws IOException {
+        TarArchiveEntry entry;
+        while ((entry = tar.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            final String name = DebianPackageReader.normalizeName(entry.getName());
+            if (!name.isEmpty()) {
+                files.add(name);
+            }
+        }
+    }
+
+    /**
+     * The state of the index files while processing
+     * <p>
+     * The index entries of all architectures are spooled to a single file,
+     * in the order they were added. Each <code>Packages</code> file is then
+     * written by filtering the spooled entries for its architecture.
+     * </p>
+     */
+    private class Indexes implements AutoCloseable {
+        private final SpoolFile spool;
+
+        private final OutputStream out;
+
+        private final List<String> entryArchitectures = new ArrayList<>();
+
+        private final List<Integer> entryLengths = new ArrayList<>();
+
+        private final Set<String> architectures = new TreeSet<>(AptRepositoryCreator.this.architectures);
+
+        private final Map<String, NavigableMap<String, Set<String>>> contentFiles = new TreeMap<>();
+
+        Indexes() throws IOException {
+            this.spool = AptRepositoryCreator.this.spoolStorage.create("Packages-");
+            try {
+                this.out = new BufferedOutputStream(this.spool.openOutputStream());
+            } catch (final IOException e) {
+                this.spool.close();
+                throw e;
+            }
+        }
+
+        void add(final PackageEntry entry) throws IOException {
+            this.out.write(entry.stanza);
+            this.entryArchitectures.add(entry.architecture);
+            this.entryLengths.add(entry.stanza.length);
+            this.architectures.add(entry.architecture);
+
+            final NavigableMap<String, Set<String>> files = this.contentFiles.computeIfAbsent(entry.architecture, x -> new TreeMap<>());
+            for (final String file : entry.files) {
+                files.computeIfAbsent(file, x -> new TreeSet<>()).add(entry.location);
+            }
+        }
+
+        /**
+         * Get the indexed architectures
+         * <p>
+         * The architecture <code>all</code> is only indexed on its own if
+         * there is no other architecture.
+         * </p>
+         */
+        Set<String> getArchitectures() {
+            final Set<String> result = new TreeSet<>(this.architectures);
+            if (result.size() > 1) {
+                result.remove(ARCH_ALL);
+            }
+            return result;
+        }
+
+        List<IndexFile> write() throws IOException {
+            this.out.close();
+
+            final List<IndexFile> result = new ArrayList<>();
+            final String prefix = "dists/" + AptRepositoryCreator.this.distribution + "/";
+            final String componentPrefix = AptRepositoryCreator.this.component + "/";
+
+            for (final String architecture : getArchitectures()) {
+                final String name = componentPrefix + "binary-" + architecture + "/Packages";
+                writeIndex(prefix, name, out -> writePackages(architecture, out), result);
+
+                if (AptRepositoryCreator.this.contents) {
+                    final NavigableMap<String, Set<String>> files = merge(this.contentFiles.get(architecture), ARCH_ALL.equals(architecture) ? null : this.contentFiles.get(ARCH_ALL));
+                    writeIndex(prefix, componentPrefix + "Contents-" + architecture, out -> writeContents(files, out), result);
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Copy the spooled entries of an architecture, including the
+         * packages of architecture <code>all</code>
+         */
+        private void writePackages(final String architecture, final OutputStream target) throws IOException {
+            byte[] buffer = new byte[0];
+            try (InputStream in = new BufferedInputStream(this.spool.openInputStream())) {
+                for (int i = 0; i < this.entryLengths.size(); i++) {
+                    final int length = this.entryLengths.get(i);
+                    if (buffer.length < length) {
+                        buffer = new byte[length];
+                    }
+                    if (in.readNBytes(buffer, 0, length) != length) {
+                        throw new IOException("Unexpected end of spooled index entries");
+                    }
+
+                    final String entryArchitecture = this.entryArchitectures.get(i);
+                    if (architecture.equals(entryArchitecture) || ARCH_ALL.equals(entryArchitecture)) {
+                        target.write(buffer, 0, length);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.out.close();
+            } finally {
+                this.spool.close();
+            }
+        }
+    }
+
+    private static NavigableMap<String, Set<String>> merge(final NavigableMap<String, Set<String>> files, final NavigableMap<String, Set<String>> allFiles) {
+        if (allFiles == null || allFiles.isEmpty()) {
+            return files != null ? files : Collections.emptyNavigableMap();
+        }
+        if (files == null || files.isEmpty()) {
+            return allFiles;
+        }
+
+        final NavigableMap<String, Set<String>> result = new TreeMap<>(files);
+        for (final Map.Entry<String, Set<String>> entry : allFiles.entrySet()) {
+            result.merge(entry.getKey(), entry.getValue(), (a, b) -> {
+                final Set<String> merged = new TreeSet<>(a);
+                merged.addAll(b);
+                return merged;
+            });
+        }
+        return result;
+    }
+
+    private static void writeContents(final NavigableMap<String, Set<String>> files, final OutputStream out) throws IOException {
+        final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        final StringBuilder line = new StringBuilder();
+        for (final Map.Entry<String, Set<String>> entry : files.entrySet()) {
+            line.setLength(0);
+            line.append(entry.getKey());
+            do {
+                line.append(' ');
+            } while (line.length() < CONTENTS_COLUMN);
+            line.append(String.join(",", entry.getValue()));
+            line.append('\n');
+            writer.write(line.toString());
+        }
+        writer.flush();
+    }
+
+    private void writeIndex(final String prefix, final String name, final IOConsumer<OutputStream> content, final List<IndexFile> indexFiles) throws IOException {
+        final OutputSpooler spooler = new OutputSpooler(this.target);
+        for (final String digest : DIGESTS) {
+            spooler.addDigest(digest);
+        }
+
+        spooler.addOutput(prefix + name, "text/plain");
+        spooler.addOutput(prefix + name + ".gz", "application/x-gzip", GZIPOutputStream::new);
+        spooler.addOutput(prefix + name + ".xz", "application/x-xz", out -> new XZOutputStream(out, new LZMA2Options()));
+
+        spooler.open(content);
+
+        for (final String suffix : new String[] { "", ".gz", ".xz" }) {
+            final String file = prefix + name + suffix;
+            final String[] checksums = new String[DIGESTS.length];
+            for (int i = 0; i < DIGESTS.length; i++) {
+                checksums[i] = spooler.getChecksum(file, DIGESTS[i]);
+            }
+            indexFiles.add(new IndexFile(name + suffix, spooler.getSize(file), checksums));
+        }
+    }
+
+    private void writeRelease(final List<IndexFile> indexFiles, final Set<String> architectures) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+
+        addField(sb, "Origin", this.origin);
+        addField(sb, "Label", this.label);
+        addField(sb, "Suite", this.distribution);
+        addField(sb, "Codename", this.codename);
+        addField(sb, "Date", DATE_FORMAT.format(this.timestampSupplier.get()));
+        addField(sb, "Architectures", String.join(" ", architectures));
+        addField(sb, "Components", this.component);
+        addField(sb, "Description", this.description);
+
+        indexFiles.sort((a, b) -> a.name.compareTo(b.name));
+
+        final String[] sections = { "MD5Sum", "SHA1", "SHA256" };
+        for (int i = 0; i < sections.length; i++) {
+            sb.append(sections[i]).append(":\n");
+            for (final IndexFile file : indexFiles) {
+                sb.append(String.format(" %s %16d %s\n", file.checksums[i], file.size, file.name));
+            }
+        }
+
+        final byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        final String prefix = "dists/" + this.distribution + "/";
+        final OutputSpooler spooler = new OutputSpooler(this.target);
+        spooler.addOutput(prefix + "Release", "text/plain");
+        if (this.signingKey != null) {
+            spooler.addOutput(prefix + "Release.gpg", "application/pgp-signature", out -> new SigningStream(out, this.signingKey, this.digestAlgorithm, false));
+            spooler.addOutput(prefix + "InRelease", "text/plain", out -> new SigningStream(out, this.signingKey, this.digestAlgorithm, true));
+        }
+        spooler.open(out -> out.write(data));
+    }
+
+    private static void addField(final StringBuilder sb, final String name, final String value) {
+        if (value != null && !value.isEmpty()) {
+            sb.append(name).append(": ").append(value).append('\n');
+        }
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for package");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static class CreatorThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "apt-repository-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.bouncycastle.bcpg.ArmoredInputStream;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
+import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.PGPSignatureList;
+import org.bouncycastle.openpgp.bc.BcPGPObjectFactory;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentVerifierBuilderProvider;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
+import org.eclipse.packager.deb.ControlFileParser;
+import org.eclipse.packager.deb.build.DebianPackageWriter;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+import org.eclipse.packager.deb.repo.AptRepositoryCreator;
+import org.eclipse.packager.io.FileSystemSpoolOutTarget;
+import org.eclipse.packager.io.SpoolStorage;
+import org.eclipse.packager.security.pgp.SigningStream;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AptRepositoryCreatorTest {
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testCreate() throws Exception {
+        final Path pool = Files.createDirectories(this.base.resolve("pool/main"));
+        createDeb(pool.resolve("a_1.0_amd64.deb"), "a", "amd64");
+        createDeb(pool.resolve("b_1.0_all.deb"), "b", "all");
+        createDeb(pool.resolve("c_1.0_i386.deb"), "c", "i386");
+
+        final BcPGPKeyPair key = createKey();
+
+        final AptRepositoryCreator creator = new AptRepositoryCreator.Builder()
+                .setTarget(new FileSystemSpoolOutTarget(this.base))
+                .setDistribution("test")
+                .setOrigin("Eclipse Packager")
+                .setTimestampSupplier(() -> NOW)
+                .setThreads(2)
+                .setSigning(key.getPrivateKey())
+                .setSpoolStorage(SpoolStorage.memory())
+                .build();
+
+        assertThat(creator.process(this.base)).isEqualTo(3);
+
+        final Path dist = this.base.resolve("dists/test");
+
+        // packages
+
+        final List<Map<String, String>> amd64 = ControlFileParser.parseMulti(new ByteArrayInputStream(Files.readAllBytes(dist.resolve("main/binary-amd64/Packages"))));
+        assertThat(amd64).extracting(p -> p.get("Package")).containsExactly("a", "b");
+
+        final List<Map<String, String>> i386 = ControlFileParser.parseMulti(new ByteArrayInputStream(Files.readAllBytes(dist.resolve("main/binary-i386/Packages"))));
+        assertThat(i386).extracting(p -> p.get("Package")).containsExactly("b", "c");
+
+        final Map<String, String> a = amd64.get(0);
+        assertThat(a.get("Filename")).isEqualTo("pool/main/a_1.0_amd64.deb");
+        assertThat(a.get("Size")).isEqualTo(Long.toString(Files.size(pool.resolve("a_1.0_amd64.deb"))));
+        assertThat(a.get("SHA256")).isEqualTo(digest("SHA-256", Files.readAllBytes(pool.resolve("a_1.0_amd64.deb"))));
+        assertThat(a.get("MD5sum")).isEqualTo(digest("MD5", Files.readAllBytes(pool.resolve("a_1.0_amd64.deb"))));
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(dist.resolve("main/binary-amd64/Packages.gz")))) {
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(dist.resolve("main/binary-amd64/Packages")));
+        }
+
+        // contents
+
+        final List<String> contents = Files.readAllLines(dist.resolve("main/Contents-amd64"));
+        assertThat(contents).hasSize(2);
+        assertThat(contents.get(0)).startsWith("usr/share/a/readme.txt ").endsWith(" utils/a");
+        assertThat(contents.get(1)).startsWith("usr/share/b/readme.txt ").endsWith(" utils/b");
+
+        // release
+
+        final String release = Files.readString(dist.resolve("Release"));
+        assertThat(release).contains("Suite: test\n", "Date: Fri, 02 Jan 2026 03:04:05 UTC\n", "Architectures: amd64 i386\n", "Components: main\n");
+
+        final Map<String, String> sha256 = release.substring(release.indexOf("SHA256:\n") + 8).lines()
+                .map(String::trim)
+                .map(line -> line.split("\\s+"))
+                .collect(Collectors.toMap(line -> line[2], line -> line[0]));
+        assertThat(sha256).hasSize(12);
+        for (final Map.Entry<String, String> entry : sha256.entrySet()) {
+            assertThat(entry.getValue()).as(entry.getKey()).isEqualTo(digest("SHA-256", Files.readAllBytes(dist.resolve(entry.getKey()))));
+        }
+
+        // detached signature
+
+        final PGPSignature detached = readSignature(Files.readAllBytes(dist.resolve("Release.gpg")));
+        detached.init(new BcPGPContentVerifierBuilderProvider(), key.getPublicKey());
+        detached.update(release.getBytes(StandardCharsets.UTF_8));
+        assertThat(detached.verify()).isTrue();
+
+        // inline signature
+
+        final String inRelease = Files.readString(dist.resolve("InRelease"));
+        assertThat(inRelease).startsWith("-----BEGIN PGP SIGNED MESSAGE-----\nHash: SHA256\n\n");
+
+        final int textStart = inRelease.indexOf("\n\n") + 2;
+        final int signatureStart = inRelease.indexOf("-----BEGIN PGP SIGNATURE-----");
+        final String text = inRelease.substring(textStart, signatureStart);
+        assertThat(text).isEqualTo(release);
+
+        final String canonical = release.lines().map(String::stripTrailing).collect(Collectors.joining("\r\n"));
+
+        final PGPSignature inline = readSignature(inRelease.substring(signatureStart).getBytes(StandardCharsets.US_ASCII));
+        assertThat(inline.getSignatureType()).isEqualTo(PGPSignature.CANONICAL_TEXT_DOCUMENT);
+        inline.init(new BcPGPContentVerifierBuilderProvider(), key.getPublicKey());
+        inline.update(canonical.getBytes(StandardCharsets.UTF_8));
+        assertThat(inline.verify()).isTrue();
+    }
+
+    /**
+     * Check the inline signature against hand written canonical forms, with
+     * <code>|</code> standing for <code>LF</code> in the content, and for
+     * <code>CR LF</code> in the canonical form
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "text;text",
+            "text|;text",
+            "text||;text|",
+            "text|||;text||",
+            "a  |b\t||;a|b|",
+            "'a||  ';a||",
+    })
+    void testInlineSignatureLineEnds(final String content, final String canonical) throws Exception {
+        final BcPGPKeyPair key = createKey();
+        final byte[] data = content.replace("|", "\n").getBytes(StandardCharsets.UTF_8);
+
+        for (final boolean bytewise : new boolean[] { false, true }) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (SigningStream signing = new SigningStream(out, key.getPrivateKey(), HashAlgorithmTags.SHA256, true)) {
+                if (bytewise) {
+                    for (final byte b : data) {
+                        signing.write(b);
+                    }
+                } else {
+                    signing.write(data);
+                }
+            }
+
+            final String armored = out.toString(StandardCharsets.US_ASCII);
+            final PGPSignature signature = readSignature(armored.substring(armored.indexOf("-----BEGIN PGP SIGNATURE-----")).getBytes(StandardCharsets.US_ASCII));
+            signature.init(new BcPGPContentVerifierBuilderProvider(), key.getPublicKey());
+            signature.update(canonical.replace("|", "\r\n").getBytes(StandardCharsets.UTF_8));
+            assertThat(signature.verify()).as("bytewise: %s", bytewise).isTrue();
+        }
+    }
+
+    private static void createDeb(final Path file, final String name, final String architecture) throws IOException {
+        final BinaryPackageControlFile packageFile = new BinaryPackageControlFile();
+        packageFile.setPackage(name);
+        packageFile.setVersion("1.0");
+        packageFile.setArchitecture(architecture);
+        packageFile.setSection("utils");
+        packageFile.setMaintainer("Eclipse Packager <packager@example.com>");
+        packageFile.setDescription("Test package\nThis is just a test package");
+
+        try (DebianPackageWriter deb = new DebianPackageWriter(Files.newOutputStream(file), packageFile, () -> NOW)) {
+            deb.addFile("Hello World\n".getBytes(StandardCharsets.UTF_8), "/usr/share/" + name + "/readme.txt", null, Optional.of(() -> NOW));
+        }
+    }
+
+    private static BcPGPKeyPair createKey() throws Exception {
+        final RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
+        generator.init(new RSAKeyGenerationParameters(BigInteger.valueOf(0x10001), new SecureRandom(), 2048, 12));
+        return new BcPGPKeyPair(PublicKeyAlgorithmTags.RSA_GENERAL, generator.generateKeyPair(), new Date());
+    }
+
+    private static PGPSignature readSignature(final byte[] data) throws Exception {
+        try (InputStream in = new ArmoredInputStream(new ByteArrayInputStream(data))) {
+            final PGPSignatureList list = (PGPSignatureList) new BcPGPObjectFactory(in).nextObject();
+            return list.get(0);
+        }
+    }
+
+    private static String digest(final String algorithm, final byte[] data) throws Exception {
+        return Strings.hex(MessageDigest.getInstance(algorithm).digest(data));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.ar.ArArchiveEntry;
+import org.apache.commons.compress.archivers.ar.ArArchiveInputStream;
+import org.eclipse.packager.deb.build.DebianPackageWriter;
+import org.eclipse.packager.deb.build.WriterOptions;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ChannelWriterTest {
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testDefaultReservation() throws IOException {
+        assertThat(compare(new WriterOptions())).containsOnlyKeys("debian-binary", "control.tar.gz", "data.tar.gz");
+    }
+
+    @Test
+    void testNoReservation() throws IOException {
+        final WriterOptions options = new WriterOptions();
+        options.setControlReservation(0);
+
+        assertThat(compare(options)).containsOnlyKeys("debian-binary", "control.tar.gz", "data.tar.gz");
+    }
+
+    @Test
+    void testSmallGap() throws IOException {
+        final int controlLength = createPackage(new WriterOptions()).get("control.tar.gz").length;
+
+        final WriterOptions options = new WriterOptions();
+        options.setControlReservation(60 + controlLength + 10);
+
+        assertThat(compare(options)).containsOnlyKeys("debian-binary", "control.tar.gz", "data.tar.gz");
+    }
+
+    @Test
+    void testExactReservation() throws IOException {
+        final int controlLength = createPackage(new WriterOptions()).get("control.tar.gz").length;
+
+        final WriterOptions options = new WriterOptions();
+        options.setControlReservation(60 + controlLength);
+
+        assertThat(compare(options)).containsOnlyKeys("debian-binary", "control.tar.gz", "data.tar.gz");
+    }
+
+    @Test
+    void testInvalidControlFileKeepsFile() throws IOException {
+        final Path file = this.base.resolve("existing.deb");
+        Files.writeString(file, "existing");
+
+        assertThatThrownBy(() -> new DebianPackageWriter(file, new BinaryPackageControlFile(), () -> NOW, new WriterOptions()))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(file).hasContent("existing");
+    }
+
+    /**
+     * Write the package to a stream and to a channel, and compare the members
+     */
+    private Map<String, byte[]> compare(final WriterOptions options) throws IOException {
+        final Path streamFile = this.base.resolve("stream.deb");
+        try (DebianPackageWriter deb = new DebianPackageWriter(Files.newOutputStream(streamFile), createControlFile(), () -> NOW, options)) {
+            fill(deb);
+        }
+
+        final Map<String, byte[]> expected = readMembers(Files.readAllBytes(streamFile));
+        final Map<String, byte[]> actual = createPackage(options);
+
+        assertThat(actual).containsExactlyEntriesOf(expected);
+        assertThat(this.base.resolve("channel.deb")).hasSameBinaryContentAs(streamFile);
+
+        return actual;
+    }
+
+    private Map<String, byte[]> createPackage(final WriterOptions options) throws IOException {
+        final Path file = this.base.resolve("channel.deb");
+        // pre-fill, to ensure the file gets truncated
+        Files.write(file, new byte[1024 * 1024]);
+
+        try (DebianPackageWriter deb = new DebianPackageWriter(file, createControlFile(), () -> NOW, options)) {
+            fill(deb);
+        }
+
+        return readMembers(Files.readAllBytes(file));
+    }
+
+    private static void fill(final DebianPackageWriter deb) throws IOException {
+        final Random random = new Random(0);
+        for (int i = 0; i < 50; i++) {
+            final byte[] data = new byte[random.nextInt(8 * 1024)];
+            random.nextBytes(data);
+            deb.addFile(data, "/usr/share/test/file" + i + ".bin", null, Optional.of(() -> NOW));
+        }
+        deb.addFile("Hello World\n".getBytes(StandardCharsets.UTF_8), "/usr/share/test/readme.txt", null, Optional.of(() -> NOW));
+    }
+
+    private static Map<String, byte[]> readMembers(final byte[] data) throws IOException {
+        final Map<String, byte[]> result = new LinkedHashMap<>();
+        try (ArArchiveInputStream in = new ArArchiveInputStream(new ByteArrayInputStream(data))) {
+            ArArchiveEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                result.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return result;
+    }
+
+
+    private static BinaryPackageControlFile createControlFile() {
+        final BinaryPackageControlFile packageFile = new BinaryPackageControlFile();
+        packageFile.setPackage("test");
+        packageFile.setVersion("1.0");
+        packageFile.setArchitecture("all");
+        packageFile.setMaintainer("Eclipse Packager <packager@example.com>");
+        packageFile.setDescription("Test package\nThis is just a test package");
+        return packageFile;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.packager.deb.internal.ChecksumInputStream;
+import org.eclipse.packager.deb.internal.ChecksumOutputStream;
+import org.eclipse.packager.security.digest.MultiDigest;
+import org.junit.jupiter.api.Test;
+
+class ChecksumStreamTest {
+    private static final String[] ALGORITHMS = { "MD5", "SHA-1", "SHA-256" };
+
+    private static byte[] data(final int size) {
+        final byte[] result = new byte[size];
+        new Random(size).nextBytes(result);
+        return result;
+    }
+
+    private static byte[] expected(final String algorithm, final byte[] data) throws Exception {
+        return MessageDigest.getInstance(algorithm).digest(data);
+    }
+
+    private static MessageDigest[] digests() throws Exception {
+        final MessageDigest[] result = new MessageDigest[ALGORITHMS.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = MessageDigest.getInstance(ALGORITHMS[i]);
+        }
+        return result;
+    }
+
+    @Test
+    void testInputStream() throws Exception {
+        final byte[] data = data(100_000);
+        final Map<String, byte[]> results = new HashMap<>();
+
+        try (ChecksumInputStream in = new ChecksumInputStream(new ByteArrayInputStream(data), results, digests())) {
+            assertThat(in.read()).isEqualTo(data[0] & 0xFF);
+            assertThat(in.skip(1000)).isEqualTo(1000);
+            in.readAllBytes();
+        }
+
+        for (final String algorithm : ALGORITHMS) {
+            assertThat(results.get(algorithm)).isEqualTo(expected(algorithm, data));
+        }
+    }
+
+    @Test
+    void testOutputStream() throws Exception {
+        final byte[] data = data(100_000);
+        final Map<String, byte[]> results = new HashMap<>();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ChecksumOutputStream out = new ChecksumOutputStream(bytes, results, digests())) {
+            out.write(data[0]);
+            out.write(data, 1, data.length - 1);
+            assertThat(out.getCount()).isEqualTo(data.length);
+        }
+
+        assertThat(bytes.toByteArray()).isEqualTo(data);
+        for (final String algorithm : ALGORITHMS) {
+            assertThat(results.get(algorithm)).isEqualTo(expected(algorithm, data));
+        }
+    }
+
+    @Test
+    void testParallelLanes() throws Exception {
+        final byte[] data = data(3 * 1024 * 1024 + 17);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Map<String, byte[]> result;
+            try (MultiDigest digest = MultiDigest.create(executor, Arrays.asList(ALGORITHMS))) {
+                digest.setParallelThreshold(64 * 1024);
+
+                final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+                buffer.put(data).flip();
+                digest.update(buffer);
+                assertThat(buffer.hasRemaining()).isFalse();
+
+                assertThat(digest.getCount()).isEqualTo(data.length);
+                result = digest.finish();
+            }
+
+            assertThat(result.keySet()).containsExactly(ALGORITHMS);
+            for (final String algorithm : ALGORITHMS) {
+                assertThat(result.get(algorithm)).isEqualTo(expected(algorithm, data));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFinished() throws Exception {
+        final MultiDigest digest = MultiDigest.create("SHA-256");
+        digest.update(new byte[] { 1, 2, 3 });
+        assertThat(digest.finishSingle()).isEqualTo(expected("SHA-256", new byte[] { 1, 2, 3 }));
+
+        assertThatThrownBy(() -> digest.update((byte) 4)).isInstanceOf(IllegalStateException.class);
+
+        // pooled instances start fresh
+
+        try (MultiDigest next = MultiDigest.create("SHA-256")) {
+            assertThat(next.finishSingle()).isEqualTo(expected("SHA-256", new byte[0]));
+        }
+    }
+
+    @Test
+    void testUnknownAlgorithm() {
+        assertThatThrownBy(() -> MultiDigest.create("MD5", "NO-SUCH-DIGEST")).isInstanceOf(NoSuchAlgorithmException.class);
+    }
+}
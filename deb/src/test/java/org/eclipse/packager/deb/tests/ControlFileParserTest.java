@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.packager.deb.ControlFileParser;
+import org.eclipse.packager.deb.ParserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ControlFileParserTest {
+    private static final String CONTENT = "# comment\n"
+            + "Package: a\n"
+            + "Version: 1.0\n"
+            + "Description: Package a\n"
+            + " Line one\n"
+            + " .\n"
+            + " Line three\n"
+            + "\n"
+            + "\n"
+            + "Package: b\r\n"
+            + "Version:2.0\r\n"
+            + "Depends: a (>= 1.0)\r\n"
+            + "\r\n"
+            + "# only a comment\n"
+            + "\n"
+            + "Package: c\n"
+            + "Description: Ünïcödé";
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testAllFields() throws Exception {
+        final List<Map<String, String>> reader = parseReader(CONTENT, null);
+        final List<Map<String, String>> mapped = parseMapped(CONTENT, null);
+
+        assertThat(reader).hasSize(3);
+        assertThat(reader.get(0)).containsExactly(
+                Map.entry("Package", "a"),
+                Map.entry("Version", "1.0"),
+                Map.entry("Description", "Package a\nLine one\n\nLine three"));
+        assertThat(reader.get(1)).containsEntry("Version", "2.0").containsEntry("Depends", "a (>= 1.0)");
+        assertThat(reader.get(2)).containsEntry("Description", "Ünïcödé");
+
+        assertThat(mapped).isEqualTo(reader);
+    }
+
+    @Test
+    void testProjection() throws Exception {
+        final Set<String> fields = Set.of("Package", "Depends");
+
+        final List<Map<String, String>> reader = parseReader(CONTENT, fields);
+        assertThat(reader).hasSize(3);
+        assertThat(reader.get(0)).containsExactly(Map.entry("Package", "a"));
+        assertThat(reader.get(1)).containsExactly(Map.entry("Package", "b"), Map.entry("Depends", "a (>= 1.0)"));
+
+        assertThat(parseMapped(CONTENT, fields)).isEqualTo(reader);
+        assertThat(parseMapped(CONTENT, Set.of("Missing"))).hasSize(3).allSatisfy(p -> assertThat(p).isEmpty());
+    }
+
+    @Test
+    void testCompatible() throws Exception {
+        final String content;
+        try (InputStream is = ControlFileParserTest.class.getResourceAsStream("data/test3")) {
+            content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        final List<Map<String, String>> expected = ControlFileParser.parseMulti(new StringReader(content));
+        assertThat(expected).hasSize(2);
+
+        assertThat(parseReader(content, null)).isEqualTo(expected);
+        assertThat(parseMapped(content, null)).isEqualTo(expected);
+    }
+
+    @Test
+    void testStop() throws Exception {
+        final Path file = write(CONTENT);
+
+        final List<String> names = new ArrayList<>();
+        ControlFileParser.parseMulti(file, Set.of("Package"), p -> {
+            names.add(p.get("Package"));
+            return !p.get("Package").equals("b");
+        });
+        assertThat(names).containsExactly("a", "b");
+    }
+
+    @Test
+    void testInvalid() throws Exception {
+        final String content = "Package: a\nInvalid\n";
+
+        assertThatThrownBy(() -> parseReader(content, null)).isInstanceOf(ParserException.class).hasMessageContaining("'Invalid'");
+        assertThatThrownBy(() -> parseMapped(content, null)).isInstanceOf(ParserException.class).hasMessageContaining("'Invalid'");
+    }
+
+    private static List<Map<String, String>> parseReader(final String content, final Set<String> fields) throws IOException, ParserException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        ControlFileParser.parseMulti(new StringReader(content), fields, result::add);
+        return result;
+    }
+
+    private List<Map<String, String>> parseMapped(final String content, final Set<String> fields) throws IOException, ParserException {
+        final List<Map<String, String>> result = new ArrayList<>();
+        ControlFileParser.parseMulti(write(content), fields, result::add);
+        return result;
+    }
+
+    private Path write(final String content) throws IOException {
+        final Path file = Files.createTempFile(this.base, "Packages", null);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
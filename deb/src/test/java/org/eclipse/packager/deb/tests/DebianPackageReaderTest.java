@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.ar.ArArchiveEntry;
+import org.apache.commons.compress.archivers.ar.ArArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarConstants;
+import org.eclipse.packager.deb.Packages;
+import org.eclipse.packager.deb.build.DebianPackageWriter;
+import org.eclipse.packager.deb.build.EntryInformation;
+import org.eclipse.packager.deb.build.MemberCompression;
+import org.eclipse.packager.deb.build.WriterOptions;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+import org.eclipse.packager.deb.extract.DebianExtractor;
+import org.eclipse.packager.deb.extract.ExtractorOptions;
+import org.eclipse.packager.deb.parse.DebianPackageReader;
+import org.eclipse.packager.io.IOConsumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DebianPackageReaderTest {
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testRead() throws Exception {
+        final byte[] large = createData(1024 * 1024 + 17);
+        final Path file = createPackage(MemberCompression.XZ, MemberCompression.ZSTD, large);
+
+        try (DebianPackageReader reader = new DebianPackageReader(file)) {
+            assertThat(reader.getMembers()).extracting(DebianPackageReader.Member::getName).containsExactly("debian-binary", "control.tar.zst", "data.tar.xz");
+            assertThat(reader.findControlMember()).get().extracting(DebianPackageReader.Member::getCompression).isEqualTo(MemberCompression.ZSTD);
+            assertThat(reader.findDataMember()).get().extracting(DebianPackageReader.Member::getCompression).isEqualTo(MemberCompression.XZ);
+
+            final Map<String, String> control = reader.readControlFile();
+            assertThat(control).containsEntry("Package", "test").containsEntry("Version", "1.0");
+
+            assertThat(new String(reader.readControlEntry("md5sums"), StandardCharsets.UTF_8)).contains("  opt/test/small.txt\n");
+            assertThat(reader.readControlEntry("missing")).isNull();
+
+            final List<String> names = new ArrayList<>();
+            try (TarArchiveInputStream in = reader.openData()) {
+                TarArchiveEntry entry;
+                while ((entry = in.getNextEntry()) != null) {
+                    names.add(entry.getName());
+                    if (entry.getName().equals("./opt/test/data/large.bin")) {
+                        assertThat(in.readAllBytes()).isEqualTo(large);
+                    }
+                }
+            }
+            assertThat(names).contains("./opt/test/small.txt", "./opt/test/data/large.bin", "./opt/test/empty");
+        }
+
+        assertThat(Packages.parseControlFile(file)).containsEntry("Package", "test");
+    }
+
+    @Test
+    void testExtract() throws Exception {
+        final byte[] large = createData(1024 * 1024 + 17);
+        final Path file = createPackage(MemberCompression.GZIP, MemberCompression.GZIP, large);
+
+        final ExtractorOptions options = new ExtractorOptions();
+        options.setWriterThreads(3);
+        options.setBufferSize(4096);
+        options.setMaxBufferedBytes(16 * 4096);
+        options.setVerifyDigests(true);
+
+        final Path target = this.base.resolve("target");
+        final DebianExtractor.Result result = new DebianExtractor(options).extract(file, target);
+
+        assertThat(result.getFiles()).isEqualTo(3);
+        assertThat(result.getBytes()).isEqualTo(large.length + 11);
+
+        final Path base = target.resolve("opt/test");
+        assertThat(base.resolve("small.txt")).hasContent("Hello World");
+        assertThat(Files.readAllBytes(base.resolve("data/large.bin"))).isEqualTo(large);
+        assertThat(base.resolve("empty")).isEmptyFile();
+        assertThat(Files.getLastModifiedTime(base.resolve("small.txt")).toInstant()).isEqualTo(NOW);
+
+        if (target.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(base.resolve("small.txt")))).isEqualTo("rw-r-----");
+        }
+    }
+
+    @Test
+    void testExtractSymbolicLinkEscape() throws Exception {
+        final Path outside = Files.createDirectory(this.base.resolve("outside"));
+
+        final Path file = createRawPackage("symlink", tar -> {
+            addSymbolicLink(tar, "./a", outside.toString());
+            addFile(tar, "./a/x", "evil");
+        });
+
+        assertThatThrownBy(() -> new DebianExtractor().extract(file, this.base.resolve("target")))
+                .isInstanceOf(IOException.class);
+
+        assertThat(outside.resolve("x")).doesNotExist();
+    }
+
+    @Test
+    void testExtractHardLinkEscape() throws Exception {
+        final Path outside = Files.createDirectory(this.base.resolve("outside"));
+        Files.writeString(outside.resolve("secret"), "secret");
+
+        final Path file = createRawPackage("hardlink", tar -> {
+            addSymbolicLink(tar, "./a", outside.toString());
+            final TarArchiveEntry entry = new TarArchiveEntry("./x", TarConstants.LF_LINK);
+            entry.setLinkName("./a/secret");
+            tar.putArchiveEntry(entry);
+            tar.closeArchiveEntry();
+        });
+
+        final Path target = this.base.resolve("target");
+        assertThatThrownBy(() -> new DebianExtractor().extract(file, target))
+                .isInstanceOf(IOException.class);
+
+        assertThat(target.resolve("x")).doesNotExist();
+    }
+
+    @Test
+    void testExtractExistingSymbolicLink() throws Exception {
+        final Path outside = Files.createDirectory(this.base.resolve("outside"));
+        final Path target = Files.createDirectory(this.base.resolve("target"));
+        Files.createSymbolicLink(target.resolve("a"), outside);
+
+        final Path file = createRawPackage("existing", tar -> addFile(tar, "./a/x", "evil"));
+
+        assertThatThrownBy(() -> new DebianExtractor().extract(file, target))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("symbolic link");
+
+        assertThat(outside.resolve("x")).doesNotExist();
+    }
+
+    /**
+     * Create a package with a hand crafted data member, bypassing the checks
+     * of the {@link DebianPackageWriter}
+     */
+    private Path createRawPackage(final String name, final IOConsumer<TarArchiveOutputStream> data) throws IOException {
+        final Path file = this.base.resolve(name + ".deb");
+        try (ArArchiveOutputStream ar = new ArArchiveOutputStream(Files.newOutputStream(file))) {
+            addMember(ar, "debian-binary", "2.0\n".getBytes(StandardCharsets.US_ASCII));
+            addMember(ar, "control.tar", createTar(tar -> addFile(tar, "./control", "Package: test\n")));
+            addMember(ar, "data.tar", createTar(data));
+        }
+        return file;
+    }
+
+    private static byte[] createTar(final IOConsumer<TarArchiveOutputStream> content) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(result)) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            content.accept(tar);
+        }
+        return result.toByteArray();
+    }
+
+    private static void addMember(final ArArchiveOutputStream ar, final String name, final byte[] data) throws IOException {
+        ar.putArchiveEntry(new ArArchiveEntry(name, data.length));
+        ar.write(data);
+        ar.closeArchiveEntry();
+    }
+
+    private static void addFile(final TarArchiveOutputStream tar, final String name, final String content) throws IOException {
+        final byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        final TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(data.length);
+        tar.putArchiveEntry(entry);
+        tar.write(data);
+        tar.closeArchiveEntry();
+    }
+
+    private static void addSymbolicLink(final TarArchiveOutputStream tar, final String name, final String linkTo) throws IOException {
+        final TarArchiveEntry entry = new TarArchiveEntry(name, TarConstants.LF_SYMLINK);
+        entry.setLinkName(linkTo);
+        tar.putArchiveEntry(entry);
+        tar.closeArchiveEntry();
+    }
+
+    private Path createPackage(final MemberCompression data, final MemberCompression control, final byte[] large) throws IOException {
+        final BinaryPackageControlFile packageFile = new BinaryPackageControlFile();
+        packageFile.setPackage("test");
+        packageFile.setVersion("1.0");
+        packageFile.setArchitecture("all");
+        packageFile.setMaintainer("Eclipse Packager <packager@example.com>");
+        packageFile.setDescription("Test package\nThis is just a test package");
+
+        final WriterOptions options = new WriterOptions();
+        options.setDataCompression(data);
+        options.setControlCompression(control);
+
+        final Path file = this.base.resolve("test_" + data + ".deb");
+        try (DebianPackageWriter deb = new DebianPackageWriter(Files.newOutputStream(file), packageFile, () -> NOW, options)) {
+            final EntryInformation small = new EntryInformation("root", "root", 0640, false);
+            deb.addFile("Hello World".getBytes(StandardCharsets.UTF_8), "/opt/test/small.txt", small, Optional.of(() -> NOW));
+            deb.addFile(large, "/opt/test/data/large.bin", null, Optional.of(() -> NOW));
+            deb.addFile(new byte[0], "/opt/test/empty", null, Optional.of(() -> NOW));
+        }
+        return file;
+    }
+
+    private static byte[] createData(final int size) {
+        final byte[] result = new byte[size];
+        new Random(42).nextBytes(result);
+        return result;
+    }
+}
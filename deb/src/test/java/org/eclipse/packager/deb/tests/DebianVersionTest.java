@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.eclipse.packager.deb.DebianVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class DebianVersionTest {
+    private static final String ALPHABET = "0019aZ.+~-:";
+
+    @ParameterizedTest
+    @CsvSource(value = { "1.0,1.0,0", "1.0,1.1,-1", "1.10,1.9,1", "1.0,1.0-0,0", "1.0-1,1.0-2,-1", "1.0-1,1.0-1.1,-1", "1:1.0,2.0,1", "0:1.0,1.0,0", "1.0~rc1,1.0,-1", "1.0~~,1.0~,-1", "1.0~,1.0,-1", "1.0,1.0+b1,-1", "1.0a,1.0+,-1", "1.0a,1.0.,-1", "1.0-1,1.0-1~bpo1,1", "2.30-1ubuntu1,2.30-1,1", "007,7,0", "1.0.0,1.0,1", "1.0-a-1,1.0-a-2,-1", "a,b,-1", "A,a,-1", "1.0-,1.0,0", "10:1.0,9:2.0,1" })
+    void testCompare(final String version1, final String version2, final int expected) {
+        assertThat(DebianVersion.compare(version1, version2)).isEqualTo(expected);
+        assertThat(DebianVersion.compare(version2, version1)).isEqualTo(-expected);
+        assertThat(DebianVersion.valueOf(version1).compareTo(DebianVersion.valueOf(version2))).isEqualTo(expected);
+        assertThat(DebianVersion.valueOf(version1).equals(DebianVersion.valueOf(version2))).isEqualTo(expected == 0);
+    }
+
+    @Test
+    void testEquals() {
+        assertThat(DebianVersion.valueOf("0:1.0")).isEqualTo(DebianVersion.valueOf("1.0")).hasSameHashCodeAs(DebianVersion.valueOf("1.0"));
+        assertThat(DebianVersion.valueOf("1.01-0")).isEqualTo(DebianVersion.valueOf("1.1")).hasSameHashCodeAs(DebianVersion.valueOf("1.1"));
+        assertThat(DebianVersion.valueOf("1.0a0")).isEqualTo(DebianVersion.valueOf("1.0a")).hasSameHashCodeAs(DebianVersion.valueOf("1.0a"));
+        assertThat(DebianVersion.valueOf("1.0")).isNotEqualTo(DebianVersion.valueOf("1.0.0"));
+    }
+
+    @Test
+    void testParts() {
+        final DebianVersion version = DebianVersion.valueOf("2:1.0-rc1-3ubuntu1");
+        assertThat(version.getEpoch()).isEqualTo(2);
+        assertThat(version.getUpstreamVersion()).isEqualTo("1.0-rc1");
+        assertThat(version.getRevision()).isEqualTo("3ubuntu1");
+        assertThat(version).hasToString("2:1.0-rc1-3ubuntu1");
+
+        final DebianVersion plain = DebianVersion.valueOf("1.0");
+        assertThat(plain.getEpoch()).isZero();
+        assertThat(plain.getUpstreamVersion()).isEqualTo("1.0");
+        assertThat(plain.getRevision()).isEmpty();
+
+        assertThat(DebianVersion.valueOf(null)).isNull();
+        assertThat(DebianVersion.valueOf("")).isNull();
+
+        assertThatThrownBy(() -> DebianVersion.valueOf("x:1.0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DebianVersion.valueOf(":1.0")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testConsistency() {
+        final Random random = new Random(49);
+
+        for (int i = 0; i < 100_000; i++) {
+            final String a = randomVersion(random);
+            final String b = randomVersion(random);
+
+            final int rc = DebianVersion.compare(a, b);
+            assertThat(DebianVersion.compare(b, a)).as("compare(%s, %s)", b, a).isEqualTo(-rc);
+            assertThat(DebianVersion.valueOf(a).compareTo(DebianVersion.valueOf(b))).as("compareTo(%s, %s)", a, b).isEqualTo(rc);
+            assertThat(DebianVersion.valueOf(a).equals(DebianVersion.valueOf(b))).as("equals(%s, %s)", a, b).isEqualTo(rc == 0);
+            if (rc == 0) {
+                assertThat(DebianVersion.valueOf(a).hashCode()).as("hashCode(%s, %s)", a, b).isEqualTo(DebianVersion.valueOf(b).hashCode());
+            }
+        }
+    }
+
+    private static String randomVersion(final Random random) {
+        final StringBuilder sb = new StringBuilder();
+        if (random.nextInt(4) == 0) {
+            sb.append(random.nextInt(3)).append(':');
+        }
+        sb.append(random.nextInt(10));
+        final int length = random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            final char c = ALPHABET.charAt(random.nextInt(ALPHABET.length() - 1));
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.packager.deb.ControlFileParser;
+import org.eclipse.packager.deb.DebianVersion;
+import org.eclipse.packager.deb.deps.DependencyIndex;
+import org.eclipse.packager.deb.deps.Relation;
+import org.junit.jupiter.api.Test;
+
+class DependencyIndexTest {
+    private static final String PACKAGES = "Package: libc6\n"
+            + "Version: 2.36-9\n"
+            + "\n"
+            + "Package: mail-transport\n"
+            + "Version: 1.0\n"
+            + "Provides: mail-transport-agent, mta-api (= 2)\n"
+            + "Pre-Depends: libc6 (>= 2.34)\n"
+            + "\n"
+            + "Package: app\n"
+            + "Version: 1:1.0~rc1-1\n"
+            + "Depends: libc6 (>= 2.36), python3:any | python2 [amd64], mail-transport-agent <!nocheck>, mta-api (>> 1)\n"
+            + "\n"
+            + "Package: broken\n"
+            + "Version: 1\n"
+            + "Depends: libc6 (<< 2.0), mail-transport-agent (>= 1.0), missing\n";
+
+    private static List<Map<String, String>> parse() throws Exception {
+        final List<Map<String, String>> result = new ArrayList<>();
+        ControlFileParser.parseMulti(new StringReader(PACKAGES), null, result::add);
+        return result;
+    }
+
+    @Test
+    void testParseRelations() {
+        final List<List<Relation>> relations = Relation.parseField("libc6 (>= 2.36), python3:any | python2 [amd64], foo(<<1.0), bar (> 1)");
+
+        assertThat(relations).hasSize(4);
+        assertThat(relations.get(0)).containsExactly(new Relation("libc6", null, Relation.Operator.GREATER_EQUAL, DebianVersion.valueOf("2.36")));
+        assertThat(relations.get(1)).containsExactly(new Relation("python3", "any", null, null), new Relation("python2", null, null, null));
+        assertThat(relations.get(2)).containsExactly(new Relation("foo", null, Relation.Operator.LESS, DebianVersion.valueOf("1.0")));
+        // obsolete form
+        assertThat(relations.get(3).get(0).getOperator()).isEqualTo(Relation.Operator.GREATER_EQUAL);
+        assertThat(relations.get(0).get(0)).hasToString("libc6 (>= 2.36)");
+
+        assertThat(Relation.parseField(null)).isEmpty();
+        assertThatThrownBy(() -> Relation.parse("foo (!= 1)")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Relation.parse("foo (>= 1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testIndex() throws Exception {
+        final List<Map<String, String>> packages = parse();
+        final DependencyIndex index = new DependencyIndex.Builder().addPackages(packages).build();
+
+        final Map<String, String> libc = packages.get(0);
+        final Map<String, String> mta = packages.get(1);
+        final Map<String, String> app = packages.get(2);
+        final Map<String, String> broken = packages.get(3);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.whatProvides(Relation.parse("libc6 (>= 2.36)"))).containsExactly(libc);
+        assertThat(index.whatProvides(Relation.parse("libc6 (>> 2.36-9)"))).isEmpty();
+        assertThat(index.whatProvides(Relation.parse("mail-transport-agent"))).containsExactly(mta);
+        assertThat(index.whatProvides(Relation.parse("mta-api (>= 2)"))).containsExactly(mta);
+
+        assertThat(index.getDependencies(mta)).hasSize(1);
+        assertThat(index.getDependencies(app)).hasSize(4);
+
+        assertThat(index.getUnsatisfied(libc)).isEmpty();
+        assertThat(index.getUnsatisfied(mta)).isEmpty();
+        // none of the alternatives is available
+        assertThat(index.getUnsatisfied(app)).containsExactly(Relation.parseField("python3:any | python2").get(0));
+        // an unversioned provide doesn't satisfy a versioned dependency
+        assertThat(index.getUnsatisfied(broken)).containsExactlyElementsOf(Relation.parseField("libc6 (<< 2.0), mail-transport-agent (>= 1.0), missing"));
+
+        assertThatThrownBy(() -> index.getDependencies(Map.of("Package", "other"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.ar.ArArchiveEntry;
+import org.apache.commons.compress.archivers.ar.ArArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.packager.deb.build.DebianPackageWriter;
+import org.eclipse.packager.deb.build.MemberCompression;
+import org.eclipse.packager.deb.build.WriterOptions;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tukaani.xz.XZInputStream;
+
+class MemberCompressionTest {
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testParallelXz() throws IOException {
+        final byte[] data = createData(5 * 1024 * 1024);
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = MemberCompression.XZ.createOutputStream(bos, 0, 4)) {
+            out.write(data);
+        }
+
+        // must be a single stream, readable without support for concatenated streams
+
+        try (InputStream in = new XZInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void testParallelXzEmpty() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        MemberCompression.XZ.createOutputStream(bos, null, 2).close();
+
+        try (InputStream in = new XZInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    void testPackages() throws IOException {
+        assertPackage(MemberCompression.XZ, MemberCompression.XZ, 4);
+        assertPackage(MemberCompression.ZSTD, MemberCompression.ZSTD, 2);
+        assertPackage(MemberCompression.BZIP2, MemberCompression.NONE, 1);
+        assertPackage(MemberCompression.NONE, MemberCompression.GZIP, 1);
+    }
+
+    @Test
+    void testControlBzip2() {
+        assertThatThrownBy(() -> new WriterOptions().setControlCompression(MemberCompression.BZIP2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertPackage(final MemberCompression data, final MemberCompression control, final int threads) throws IOException {
+        final WriterOptions options = new WriterOptions();
+        options.setDataCompression(data);
+        options.setControlCompression(control);
+        options.setThreads(threads);
+
+        final byte[] content = createData(256 * 1024);
+
+        final BinaryPackageControlFile packageFile = new BinaryPackageControlFile();
+        packageFile.setPackage("test");
+        packageFile.setVersion("1.0");
+        packageFile.setArchitecture("all");
+        packageFile.setMaintainer("Eclipse Packager <packager@example.com>");
+        packageFile.setDescription("Test package");
+
+        final Path file = this.base.resolve("test-" + data + ".deb");
+        try (DebianPackageWriter deb = new DebianPackageWriter(Files.newOutputStream(file), packageFile, () -> NOW, options)) {
+            deb.addFile(content, "/usr/share/test/data.bin", null, Optional.of(() -> NOW));
+        }
+
+        final List<String> members = new ArrayList<>();
+        final Map<String, byte[]> files = new HashMap<>();
+
+        try (ArArchiveInputStream ar = new ArArchiveInputStream(Files.newInputStream(file))) {
+            ArArchiveEntry entry;
+            while ((entry = ar.getNextEntry()) != null) {
+                members.add(entry.getName());
+
+                final MemberCompression compression = MemberCompression.fromFileName(entry.getName());
+                if (compression == null) {
+                    continue;
+                }
+
+                final byte[] tar = compression.createInputStream(new ByteArrayInputStream(ar.readAllBytes())).readAllBytes();
+                try (TarArchiveInputStream in = new TarArchiveInputStream(new ByteArrayInputStream(tar))) {
+                    TarArchiveEntry te;
+                    while ((te = in.getNextEntry()) != null) {
+                        if (te.isFile()) {
+                            files.put(te.getName(), in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        }
+
+        assertThat(members).containsExactly("debian-binary", "control.tar" + control.getExtension(), "data.tar" + data.getExtension());
+        assertThat(files).containsKey("control");
+        assertThat(new String(files.get("control"), StandardCharsets.UTF_8)).contains("Package: test");
+        assertThat(files.get("./usr/share/test/data.bin")).isEqualTo(content);
+    }
+
+    private static byte[] createData(final int size) {
+        // compressible, but not trivially
+        final Random random = new Random(42);
+        final byte[] result = new byte[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return result;
+    }
+}
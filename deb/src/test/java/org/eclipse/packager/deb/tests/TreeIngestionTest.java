@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.eclipse.packager.deb.build.DebianPackageWriter;
+import org.eclipse.packager.deb.build.EntryInformation;
+import org.eclipse.packager.deb.build.WriterOptions;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+import org.eclipse.packager.deb.parse.DebianPackageReader;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TreeIngestionTest {
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testAddTree() throws Exception {
+        final Path tree = Files.createDirectories(this.base.resolve("tree"));
+        final byte[] large = new byte[2 * 1024 * 1024 + 3];
+        new Random(42).nextBytes(large);
+
+        write(tree.resolve("b.txt"), "b".getBytes(StandardCharsets.UTF_8));
+        write(tree.resolve("a/z.txt"), "z".getBytes(StandardCharsets.UTF_8));
+        write(tree.resolve("a/b/large.bin"), large);
+        write(tree.resolve("a-b/c.txt"), "c".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(tree.resolve("empty"));
+        for (int i = 0; i < 100; i++) {
+            write(tree.resolve(String.format("many/file%03d.txt", i)), Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final Path parallel = createPackage(tree, 4);
+        final Path serial = createPackage(tree, 1);
+
+        final List<String> names = new ArrayList<>();
+        try (DebianPackageReader reader = new DebianPackageReader(parallel); TarArchiveInputStream in = reader.openData()) {
+            TarArchiveEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                names.add(entry.getName());
+                if (entry.getName().equals("./opt/app/a/b/large.bin")) {
+                    assertThat(in.readAllBytes()).isEqualTo(large);
+                }
+            }
+        }
+
+        assertThat(names).doesNotHaveDuplicates();
+        assertThat(names.subList(0, 12)).containsExactly(
+                "./", "./opt/", "./opt/other.txt", "./opt/app/",
+                "./opt/app/a/", "./opt/app/a/b/", "./opt/app/a/b/large.bin", "./opt/app/a/z.txt",
+                "./opt/app/a-b/", "./opt/app/a-b/c.txt",
+                "./opt/app/b.txt", "./opt/app/empty/");
+        assertThat(names).hasSize(12 + 1 + 100);
+
+        try (DebianPackageReader reader = new DebianPackageReader(parallel)) {
+            final String md5sums = new String(reader.readControlEntry("md5sums"), StandardCharsets.UTF_8);
+            assertThat(md5sums).contains(Strings.hex(MessageDigest.getInstance("MD5").digest(large)) + "  opt/app/a/b/large.bin\n");
+            assertThat(md5sums.lines()).hasSize(1 + 3 + 1 + 100);
+        }
+
+        // the result must not depend on the number of threads
+
+        assertThat(Files.readAllBytes(parallel)).isEqualTo(Files.readAllBytes(serial));
+    }
+
+    private Path createPackage(final Path tree, final int threads) throws IOException {
+        final BinaryPackageControlFile packageFile = new BinaryPackageControlFile();
+        packageFile.setPackage("test");
+        packageFile.setVersion("1.0");
+        packageFile.setArchitecture("all");
+        packageFile.setMaintainer("Eclipse Packager <packager@example.com>");
+        packageFile.setDescription("Test package\nThis is just a test package");
+
+        final WriterOptions options = new WriterOptions();
+        options.setThreads(threads);
+
+        final Path file = this.base.resolve("test-" + threads + ".deb");
+        try (DebianPackageWriter deb = new DebianPackageWriter(Files.newOutputStream(file), packageFile, () -> NOW, options)) {
+            deb.addFile("other".getBytes(StandardCharsets.UTF_8), "/opt/other.txt", null, Optional.of(() -> NOW));
+            assertThat(deb.addTree(tree, "/opt/app", path -> path.getFileName().toString().equals("b.txt") ? EntryInformation.DEFAULT_FILE_CONF : null)).isEqualTo(104);
+        }
+        return file;
+    }
+
+    private static void write(final Path file, final byte[] data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, data);
+        Files.setLastModifiedTime(file, FileTime.from(NOW));
+    }
+}
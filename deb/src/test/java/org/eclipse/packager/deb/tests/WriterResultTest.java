@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.deb.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.eclipse.packager.deb.build.DebianPackageWriter;
+import org.eclipse.packager.deb.build.WriterOptions;
+import org.eclipse.packager.deb.control.BinaryPackageControlFile;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriterResultTest {
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testStream() throws Exception {
+        final Path file = this.base.resolve("stream.deb");
+
+        final DebianPackageWriter writer = new DebianPackageWriter(Files.newOutputStream(file), createControlFile(), () -> NOW);
+        try (DebianPackageWriter deb = writer) {
+            fill(deb);
+            assertThatThrownBy(deb::getResult).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertResult(writer.getResult(), file);
+    }
+
+    @Test
+    void testChannel() throws Exception {
+        final Path file = this.base.resolve("channel.deb");
+
+        final DebianPackageWriter writer = new DebianPackageWriter(file, createControlFile(), () -> NOW, new WriterOptions());
+        try (DebianPackageWriter deb = writer) {
+            fill(deb);
+        }
+
+        assertResult(writer.getResult(), file);
+    }
+
+    private static void assertResult(final DebianPackageWriter.Result result, final Path file) throws Exception {
+        final byte[] data = Files.readAllBytes(file);
+
+        assertThat(result.getSize()).isEqualTo(data.length);
+        assertThat(result.getMd5()).isEqualTo(digest("MD5", data));
+        assertThat(result.getSha1()).isEqualTo(digest("SHA-1", data));
+        assertThat(result.getSha256()).isEqualTo(digest("SHA-256", data));
+        assertThat(result.getChecksums()).containsOnlyKeys("MD5", "SHA-1", "SHA-256");
+    }
+
+    private static void fill(final DebianPackageWriter deb) throws IOException {
+        deb.addFile("Hello World\n".getBytes(StandardCharsets.UTF_8), "/usr/share/test/readme.txt", null, Optional.of(() -> NOW));
+    }
+
+    private static BinaryPackageControlFile createControlFile() {
+        final BinaryPackageControlFile packageFile = new BinaryPackageControlFile();
+        packageFile.setPackage("test");
+        packageFile.setVersion("1.0");
+        packageFile.setArchitecture("all");
+        packageFile.setMaintainer("Eclipse Packager <packager@example.com>");
+        packageFile.setDescription("Test package\nThis is just a test package");
+        return packageFile;
+    }
+
+    private static String digest(final String algorithm, final byte[] data) throws Exception {
+        return Strings.hex(MessageDigest.getInstance(algorithm).digest(data));
+    }
+}
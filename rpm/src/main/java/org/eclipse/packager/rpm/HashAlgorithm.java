@@ -13,20 +13,26 @@
 
 package org.eclipse.packager.rpm;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import org.bouncycastle.bcpg.HashAlgorithmTags;
 
 public enum HashAlgorithm {
-    SHA1(HashAlgorithmTags.SHA1, "sha"),
-    SHA256(HashAlgorithmTags.SHA256, "sha256"),
-    SHA512(HashAlgorithmTags.SHA512, "sha512");
+    SHA1(HashAlgorithmTags.SHA1, "sha", "SHA-1"),
+    SHA256(HashAlgorithmTags.SHA256, "sha256", "SHA-256"),
+    SHA512(HashAlgorithmTags.SHA512, "sha512", "SHA-512");
 
     private final int value;
 
     private final String id;
 
-    HashAlgorithm(final int value, final String id) {
+    private final String algorithm;
+
+    HashAlgorithm(final int value, final String id, final String algorithm) {
         this.value = value;
         this.id = id;
+        this.algorithm = algorithm;
     }
 
     public int getValue() {
@@ -37,6 +43,14 @@ public enum HashAlgorithm {
         return this.id;
     }
 
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    public MessageDigest createDigest() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(this.algorithm);
+    }
+
     /**
      * Get a hash algorithm from a string
      * <p>
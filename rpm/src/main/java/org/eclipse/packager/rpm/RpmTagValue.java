@@ -105,6 +105,22 @@ public class RpmTagValue<T> {
         return Optional.empty();
     }
 
+    public Optional<Short[]> asShortArray() {
+        if (this.value == null) {
+            return Optional.empty();
+        }
+
+        if (this.value instanceof Short) {
+            return Optional.of(new Short[] { (Short) this.value });
+        }
+
+        if (this.value instanceof Short[]) {
+            return Optional.of((Short[]) this.value);
+        }
+
+        return Optional.empty();
+    }
+
     public Optional<Long[]> asLongArray() {
         if (this.value == null) {
             return Optional.empty();
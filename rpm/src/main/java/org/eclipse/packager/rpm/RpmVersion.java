@@ -27,6 +27,8 @@ public class RpmVersion implements Comparable<RpmVersion> {
 
     private final Optional<String> release;
 
+    private volatile RpmVersionKey key;
+
     public RpmVersion(final String version) {
         this(version, null);
     }
@@ -102,95 +104,20 @@ public class RpmVersion implements Comparable<RpmVersion> {
         return new RpmVersion(epoch, ver, rel);
     }
 
+    /**
+     * Compare two version strings, following the rules of
+     * <code>rpmvercmp</code>
+     * <p>
+     * The strings are compared in place, without allocating.
+     * </p>
+     *
+     * @param a the first version
+     * @param b the second version
+     * @return a negative value, zero, or a positive value if the first
+     *         version is lower, equal, or higher than the second
+     */
     public static int compare(final String a, final String b) {
-        if (a.equals(b)) {
-            return 0;
-        }
-
-        final RpmVersionScanner scanner1 = new RpmVersionScanner(a);
-        final RpmVersionScanner scanner2 = new RpmVersionScanner(b);
-
-        while (scanner1.hasNext() || scanner2.hasNext()) {
-            if (scanner1.hasNextTilde() || scanner2.hasNextTilde()) {
-                if (!scanner1.hasNextTilde()) {
-                    return 1;
-                }
-
-                if (!scanner2.hasNextTilde()) {
-                    return -1;
-                }
-
-                scanner1.next();
-                scanner2.next();
-                continue;
-            }
-
-            if (scanner1.hasNextCarat() || scanner2.hasNextCarat()) {
-                if (!scanner1.hasNext()) {
-                    return -1;
-                }
-
-                if (!scanner2.hasNext()) {
-                    return 1;
-                }
-
-                if (!scanner1.hasNextCarat()) {
-                    return 1;
-                }
-
-                if (!scanner2.hasNextCarat()) {
-                    return -1;
-                }
-
-                scanner1.next();
-                scanner2.next();
-                continue;
-            }
-
-            if (scanner1.hasNextAlpha() && scanner2.hasNextAlpha()) {
-                final CharSequence one = scanner1.next();
-                final CharSequence two = scanner2.next();
-                final int i = CharSequence.compare(one, two);
-
-                if (i != 0) {
-                    return i < 0 ? -1 : 1;
-                }
-            } else {
-                final boolean digit1 = scanner1.hasNextDigit();
-                final boolean digit2 = scanner2.hasNextDigit();
-
-                if (digit1 && digit2) {
-                    final CharSequence one = scanner1.next();
-                    final CharSequence two = scanner2.next();
-                    final int oneLength = one.length();
-                    final int twoLength = two.length();
-
-                    if (oneLength > twoLength) {
-                        return 1;
-                    }
-
-                    if (twoLength > oneLength) {
-                        return -1;
-                    }
-
-                    final int i = CharSequence.compare(one, two);
-
-                    if (i != 0) {
-                        return i < 0 ? -1 : 1;
-                    }
-                } else if (digit1) {
-                    return 1;
-                } else if (digit2) {
-                    return -1;
-                } else if (scanner1.hasNext()) {
-                    return 1;
-                } else {
-                    return -1;
-                }
-            }
-        }
-
-        return 0;
+        return RpmVersionKey.compare(a, b);
     }
 
     @Override
@@ -208,25 +135,25 @@ public class RpmVersion implements Comparable<RpmVersion> {
         return Objects.hash(this.epoch, this.version, this.release);
     }
 
-    @Override
-    public int compareTo(final RpmVersion that) {
-        // RPM currently treats no epoch as 0
-        final int i = Integer.compare(epoch.orElse(0), that.epoch.orElse(0));
-
-        if (i != 0) {
-            return i;
-        }
-
-        final int j =  compare(this.version, that.version);
-
-        if (j != 0) {
-            return j;
-        }
-
-        if (this.release.isPresent() || that.release.isPresent()) {
-            return this.release.map(rel -> that.release.map(otherRel -> compare(rel, otherRel)).orElse(1)).orElse(-1);
+    /**
+     * Get the pre-parsed sort key of this version
+     * <p>
+     * The key is created on first use, and cached afterwards.
+     * </p>
+     *
+     * @return the sort key
+     */
+    public RpmVersionKey getKey() {
+        RpmVersionKey result = this.key;
+        if (result == null) {
+            result = new RpmVersionKey(this.epoch.orElse(0), this.version, this.release.orElse(null));
+            this.key = result;
         }
+        return result;
+    }
 
-        return 0;
+    @Override
+    public int compareTo(final RpmVersion that) {
+        return getKey().compareTo(that.getKey());
     }
 }
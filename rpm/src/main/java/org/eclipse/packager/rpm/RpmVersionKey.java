@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm;
+
+import java.util.Objects;
+
+/**
+ * A pre-parsed RPM version, for repeated comparisons
+ * <p>
+ * The segments of version and release are located once, and stored as
+ * offsets into the original strings. Comparing two keys does not allocate.
+ * The ordering is the same as {@link RpmVersion#compareTo(RpmVersion)}.
+ * </p>
+ *
+ * @see RpmVersion#getKey()
+ */
+public final class RpmVersionKey implements Comparable<RpmVersionKey> {
+    private static final int[] NO_SEGMENTS = new int[0];
+
+    private final int epoch;
+
+    private final String version;
+
+    private final int[] versionSegments;
+
+    private final String release;
+
+    private final int[] releaseSegments;
+
+    RpmVersionKey(final int epoch, final String version, final String release) {
+        this.epoch = epoch;
+        this.version = Objects.requireNonNull(version);
+        this.versionSegments = segments(version);
+        this.release = release;
+        this.releaseSegments = release != null ? segments(release) : null;
+    }
+
+    /**
+     * Create a key from a version
+     *
+     * @param version the version
+     * @return the key
+     */
+    public static RpmVersionKey of(final RpmVersion version) {
+        return version.getKey();
+    }
+
+    /**
+     * Create a key from the parts of a version
+     * <p>
+     * Unlike {@link RpmVersion}, the parts are not validated. This allows
+     * processing versions found in existing repositories.
+     * </p>
+     *
+     * @param epoch the epoch, <code>null</code> is treated as zero
+     * @param version the version
+     * @param release the release, may be <code>null</code>
+     * @return the key
+     */
+    public static RpmVersionKey of(final Integer epoch, final String version, final String release) {
+        return new RpmVersionKey(epoch != null ? epoch : 0, version, release);
+    }
+
+    /**
+     * Parse a version string, in the form of
+     * <code>[epoch:]version[-release]</code>
+     * <p>
+     * Like RPM, the release is split off at the last dash. A prefix which is
+     * not a number is not treated as epoch. The string is not validated.
+     * </p>
+     *
+     * @param evr the string to parse
+     * @return the key, or <code>null</code> if the string is
+     *         <code>null</code> or empty
+     */
+    public static RpmVersionKey parse(final String evr) {
+        if (evr == null || evr.isEmpty()) {
+            return null;
+        }
+
+        int epoch = 0;
+        int start = 0;
+
+        final int colon = evr.indexOf(':');
+        if (colon >= 0 && isNumber(evr, 0, colon)) {
+            epoch = colon > 0 ? Integer.parseInt(evr.substring(0, colon)) : 0;
+            start = colon + 1;
+        }
+
+        final int dash = evr.lastIndexOf('-');
+        if (dash >= start) {
+            return new RpmVersionKey(epoch, evr.substring(start, dash), evr.substring(dash + 1));
+        }
+        return new RpmVersionKey(epoch, evr.substring(start), null);
+    }
+
+    public int getEpoch() {
+        return this.epoch;
+    }
+
+    public String getVersion() {
+        return this.version;
+    }
+
+    public String getRelease() {
+        return this.release;
+    }
+
+    /**
+     * Compare two versions, the way RPM does when matching dependencies
+     * <p>
+     * The release is only compared if both sides have one. So a requirement
+     * on version <code>1.0</code> is satisfied by <code>1.0-1</code> and
+     * <code>1.0-2</code> alike.
+     * </p>
+     *
+     * @param that the other version
+     * @return a negative value, zero, or a positive value if this version is
+     *         lower, equal, or higher than the other one
+     */
+    public int compareForDependency(final RpmVersionKey that) {
+        if (this.release == null || that.release == null) {
+            final int i = Integer.compare(this.epoch, that.epoch);
+            if (i != 0) {
+                return i;
+            }
+            return compareSegments(this.version, this.versionSegments, that.version, that.versionSegments);
+        }
+        return compareTo(that);
+    }
+
+    @Override
+    public int compareTo(final RpmVersionKey that) {
+        // RPM currently treats no epoch as 0
+        final int i = Integer.compare(this.epoch, that.epoch);
+        if (i != 0) {
+            return i;
+        }
+
+        final int j = compareSegments(this.version, this.versionSegments, that.version, that.versionSegments);
+        if (j != 0) {
+            return j;
+        }
+
+        if (this.release != null || that.release != null) {
+            if (this.release == null) {
+                return -1;
+            }
+            if (that.release == null) {
+                return 1;
+            }
+            return compareSegments(this.release, this.releaseSegments, that.release, that.releaseSegments);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[RpmVersionKey - epoch: %s, version: %s, release: %s]", this.epoch, this.version, this.release);
+    }
+
+    /**
+     * Locate the segments of a version string
+     *
+     * @return pairs of start (inclusive) and end (exclusive) offsets of the
+     *         segments, leading zeros of numeric segments are skipped
+     */
+    private static int[] segments(final String s) {
+        final int length = s.length();
+
+        // count first, so that only the result gets allocated
+
+        int count = 0;
+        for (int i = skip(s, 0); i < length; i = skip(s, segmentEnd(s, i))) {
+            count++;
+        }
+        if (count == 0) {
+            return NO_SEGMENTS;
+        }
+
+        final int[] result = new int[count * 2];
+        int n = 0;
+        for (int i = skip(s, 0); i < length; i = skip(s, result[n - 1])) {
+            result[n++] = isDigit(s.charAt(i)) ? skipLeadingZeros(s, i) : i;
+            result[n++] = segmentEnd(s, i);
+        }
+        return result;
+    }
+
+    private static int compareSegments(final String a, final int[] sa, final String b, final int[] sb) {
+        if (a.equals(b)) {
+            return 0;
+        }
+
+        int p = 0;
+        int q = 0;
+
+        while (p < sa.length || q < sb.length) {
+            final boolean has1 = p < sa.length;
+            final boolean has2 = q < sb.length;
+            final char c1 = has1 ? a.charAt(sa[p]) : 0;
+            final char c2 = has2 ? b.charAt(sb[q]) : 0;
+
+            final int rc = compareSegment(a, has1, c1, has1 ? sa[p] : 0, has1 ? sa[p + 1] : 0, b, has2, c2, has2 ? sb[q] : 0, has2 ? sb[q + 1] : 0);
+            if (rc != 0) {
+                return rc;
+            }
+
+            p += 2;
+            q += 2;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Compare two version strings, walking them in place
+     *
+     * @see RpmVersion#compare(String, String)
+     */
+    static int compare(final String a, final String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+
+        final int la = a.length();
+        final int lb = b.length();
+
+        int i = skip(a, 0);
+        int j = skip(b, 0);
+
+        while (i < la || j < lb) {
+            final boolean has1 = i < la;
+            final boolean has2 = j < lb;
+            final char c1 = has1 ? a.charAt(i) : 0;
+            final char c2 = has2 ? b.charAt(j) : 0;
+
+            final int e1 = has1 ? segmentEnd(a, i) : i;
+            final int e2 = has2 ? segmentEnd(b, j) : j;
+
+            final int s1 = has1 && isDigit(c1) ? skipLeadingZeros(a, i) : i;
+            final int s2 = has2 && isDigit(c2) ? skipLeadingZeros(b, j) : j;
+
+            final int rc = compareSegment(a, has1, c1, s1, e1, b, has2, c2, s2, e2);
+            if (rc != 0) {
+                return rc;
+            }
+
+            i = skip(a, e1);
+            j = skip(b, e2);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Compare the next segment of both versions
+     * <p>
+     * This follows the logic of <code>rpmvercmp</code>. A missing segment is
+     * indicated by <code>has</code> being <code>false</code>.
+     * </p>
+     *
+     * @return the result, or zero to continue with the next segments
+     */
+    private static int compareSegment(final String a, final boolean has1, final char c1, final int s1, final int e1, final String b, final boolean has2, final char c2, final int s2, final int e2) {
+        final boolean tilde1 = has1 && c1 == RpmVersionValidator.TILDE_CHAR;
+        final boolean tilde2 = has2 && c2 == RpmVersionValidator.TILDE_CHAR;
+
+        if (tilde1 || tilde2) {
+            if (!tilde1) {
+                return 1;
+            }
+            if (!tilde2) {
+                return -1;
+            }
+            return 0;
+        }
+
+        final boolean carat1 = has1 && c1 == RpmVersionValidator.CARAT_CHAR;
+        final boolean carat2 = has2 && c2 == RpmVersionValidator.CARAT_CHAR;
+
+        if (carat1 || carat2) {
+            if (!has1) {
+                return -1;
+            }
+            if (!has2) {
+                return 1;
+            }
+            if (!carat1) {
+                return 1;
+            }
+            if (!carat2) {
+                return -1;
+            }
+            return 0;
+        }
+
+        final boolean alpha1 = has1 && isAlpha(c1);
+        final boolean alpha2 = has2 && isAlpha(c2);
+
+        if (alpha1 && alpha2) {
+            return compareChars(a, s1, e1, b, s2, e2);
+        }
+
+        final boolean digit1 = has1 && isDigit(c1);
+        final boolean digit2 = has2 && isDigit(c2);
+
+        if (digit1 && digit2) {
+            final int len1 = e1 - s1;
+            final int len2 = e2 - s2;
+            if (len1 != len2) {
+                return len1 > len2 ? 1 : -1;
+            }
+            return compareChars(a, s1, e1, b, s2, e2);
+        }
+
+        if (digit1) {
+            return 1;
+        }
+        if (digit2) {
+            return -1;
+        }
+        return has1 ? 1 : -1;
+    }
+
+    private static int compareChars(final String a, final int s1, final int e1, final String b, final int s2, final int e2) {
+        final int len1 = e1 - s1;
+        final int len2 = e2 - s2;
+        final int len = Math.min(len1, len2);
+
+        for (int k = 0; k < len; k++) {
+            final char x = a.charAt(s1 + k);
+            final char y = b.charAt(s2 + k);
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+        }
+
+        return Integer.compare(len1, len2);
+    }
+
+    /**
+     * Skip insignificant characters
+     *
+     * @return the position of the next significant character, or the length
+     *         of the string
+     */
+    private static int skip(final String s, int i) {
+        final int length = s.length();
+        while (i < length && !isSignificant(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Find the end of the segment starting at the given position
+     */
+    private static int segmentEnd(final String s, int i) {
+        final char c = s.charAt(i);
+        if (c == RpmVersionValidator.TILDE_CHAR || c == RpmVersionValidator.CARAT_CHAR) {
+            return i + 1;
+        }
+
+        final int length = s.length();
+        if (isDigit(c)) {
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+            }
+        } else {
+            while (i < length && isAlpha(s.charAt(i))) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static int skipLeadingZeros(final String s, int i) {
+        final int length = s.length();
+        while (i + 1 < length && s.charAt(i) == '0' && isDigit(s.charAt(i + 1))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isNumber(final String s, final int start, final int end) {
+        if (end - start > 9) {
+            // would overflow
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlpha(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isSignificant(final char c) {
+        return isDigit(c) || isAlpha(c) || c == RpmVersionValidator.TILDE_CHAR || c == RpmVersionValidator.CARAT_CHAR;
+    }
+}
@@ -79,7 +79,7 @@ public class Dumper {
         }
 
         if (!SKIP_PAYLOAD) {
-            final CpioArchiveInputStream cpio = in.getCpioStream();
+            final CpioArchiveInputStream cpio = in.getPayloadArchiveStream();
             CpioArchiveEntry entry;
             while ((entry = cpio.getNextEntry()) != null) {
                 dumpEntry(entry);
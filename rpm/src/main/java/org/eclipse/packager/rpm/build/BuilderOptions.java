@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.eclipse.packager.io.SpoolStorage;
 import org.eclipse.packager.rpm.coding.PayloadCoding;
 import org.eclipse.packager.rpm.coding.PayloadFlags;
 
@@ -55,6 +56,8 @@ public class BuilderOptions {
 
     private List<PayloadProcessor> payloadProcessors = new LinkedList<>();
 
+    private SpoolStorage spoolStorage = SpoolStorage.defaultStorage();
+
     public BuilderOptions() {
         try {
             this.payloadProcessors.add(PayloadProcessors.payloadDigest(DigestAlgorithm.SHA256));
@@ -72,6 +75,7 @@ public class BuilderOptions {
         setFileDigestAlgorithm(other.fileDigestAlgorithm);
         setHeaderCharset(other.headerCharset);
         setPayloadProcessors(other.payloadProcessors);
+        setSpoolStorage(other.spoolStorage);
     }
 
     public LongMode getLongMode() {
@@ -151,4 +155,24 @@ public class BuilderOptions {
     public void clearPayloadProcessors() {
         this.payloadProcessors.clear();
     }
+
+    public SpoolStorage getSpoolStorage() {
+        return this.spoolStorage;
+    }
+
+    /**
+     * Set the storage for temporary files
+     * <p>
+     * The compressed payload is spooled before the package file is written,
+     * and so are files added from streams. A {@link SpoolStorage#memory()} or
+     * {@link SpoolStorage#hybrid(long, java.nio.file.Path)} storage avoids
+     * touching the disk for small packages.
+     * </p>
+     *
+     * @param spoolStorage the storage, <code>null</code> for the
+     *            {@link SpoolStorage#defaultStorage()}
+     */
+    public void setSpoolStorage(final SpoolStorage spoolStorage) {
+        this.spoolStorage = spoolStorage != null ? spoolStorage : SpoolStorage.defaultStorage();
+    }
 }
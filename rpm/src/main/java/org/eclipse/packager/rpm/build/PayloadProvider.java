@@ -34,6 +34,26 @@ public interface PayloadProvider {
      */
     ReadableByteChannel openChannel() throws IOException;
 
+    /**
+     * Open a new channel to the payload data, for reading it once from start
+     * to end
+     * <p>
+     * This is what the writer uses for reading the payload. Implementations
+     * which can provide a more efficient channel for this case, than the one
+     * returned by {@link #openChannel()}, should override this. The default
+     * implementation delegates to {@link #openChannel()}.
+     * </p>
+     * <p>
+     * The caller is responsible for closing the resource
+     * </p>
+     *
+     * @return the newly created channel
+     * @throws IOException if opening the channels fails
+     */
+    default ReadableByteChannel openPayloadChannel() throws IOException {
+        return openChannel();
+    }
+
     /**
      * The number of bytes of the compressed archive file
      *
@@ -22,13 +22,12 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -39,12 +38,16 @@ import java.util.function.Consumer;
 import org.apache.commons.compress.archivers.cpio.CpioArchiveEntry;
 import org.apache.commons.compress.archivers.cpio.CpioArchiveOutputStream;
 import org.apache.commons.compress.archivers.cpio.CpioConstants;
+import org.eclipse.packager.io.BufferPool;
+import org.eclipse.packager.io.SpoolFile;
+import org.eclipse.packager.io.SpoolStorage;
 import org.eclipse.packager.rpm.RpmTag;
 import org.eclipse.packager.rpm.coding.PayloadCoding;
 import org.eclipse.packager.rpm.coding.PayloadFlags;
 import org.eclipse.packager.rpm.header.Header;
+import org.eclipse.packager.security.digest.MultiDigest;
+import org.eclipse.packager.security.digest.MultiDigestInputStream;
 
-import com.google.common.io.ByteStreams;
 import com.google.common.io.CountingOutputStream;
 
 public class PayloadRecorder implements AutoCloseable {
@@ -77,6 +80,12 @@ public class PayloadRecorder implements AutoCloseable {
     private static class ProcessorStream extends FilterOutputStream {
         private final Consumer<ByteBuffer> consumer;
 
+        private final byte[] single = new byte[1];
+
+        private byte[] wrappedArray;
+
+        private ByteBuffer wrapped;
+
         ProcessorStream(final OutputStream out, final Consumer<ByteBuffer> consumer) {
             super(out);
             this.consumer = consumer;
@@ -84,23 +93,39 @@ public class PayloadRecorder implements AutoCloseable {
 
         @Override
         public void write(int b) throws IOException {
-            this.consumer.accept(ByteBuffer.wrap(new byte[] { (byte) b }));
+            this.single[0] = (byte) b;
+            this.consumer.accept(wrap(this.single, 0, 1));
 
             this.out.write(b);
         }
 
         @Override
         public void write(byte[] b, int off, int len) throws IOException {
-            this.consumer.accept(ByteBuffer.wrap(b, off, len));
+            this.consumer.accept(wrap(b, off, len));
 
             this.out.write(b, off, len);
         }
+
+        /**
+         * Wrap an array, re-using the wrapper when the caller re-uses its
+         * buffer, which is the common case
+         */
+        private ByteBuffer wrap(final byte[] b, final int off, final int len) {
+            if (this.wrappedArray != b) {
+                this.wrappedArray = b;
+                this.wrapped = ByteBuffer.wrap(b);
+            }
+            this.wrapped.limit(off + len).position(off);
+            return this.wrapped;
+        }
     }
 
     private final DigestAlgorithm fileDigestAlgorithm;
 
     private final List<PayloadProcessor> processors;
 
+    private final SpoolStorage spoolStorage;
+
     private Finished finished;
 
     public PayloadRecorder() throws IOException {
@@ -108,12 +133,24 @@ public class PayloadRecorder implements AutoCloseable {
     }
 
     public PayloadRecorder(final PayloadCoding payloadCoding, final PayloadFlags payloadFlags, final DigestAlgorithm fileDigestAlgorithm, final List<PayloadProcessor> processors) throws IOException {
+        this(payloadCoding, payloadFlags, fileDigestAlgorithm, processors, null);
+    }
+
+    /**
+     * Create a new recorder
+     *
+     * @param spoolStorage the storage for the payload and for spooling
+     *            streamed content, may be <code>null</code> for the
+     *            {@link SpoolStorage#defaultStorage()}
+     */
+    public PayloadRecorder(final PayloadCoding payloadCoding, final PayloadFlags payloadFlags, final DigestAlgorithm fileDigestAlgorithm, final List<PayloadProcessor> processors, final SpoolStorage spoolStorage) throws IOException {
         this.fileDigestAlgorithm = fileDigestAlgorithm;
         if (processors == null) {
             this.processors = Collections.emptyList();
         } else {
             this.processors = new ArrayList<>(processors);
         }
+        this.spoolStorage = spoolStorage != null ? spoolStorage : SpoolStorage.defaultStorage();
 
         this.finished = new Finished(payloadCoding, payloadFlags);
 
@@ -132,8 +169,12 @@ public class PayloadRecorder implements AutoCloseable {
     public Result addFile(final String targetPath, final Path path, final Consumer<CpioArchiveEntry> customizer) throws IOException {
         checkFinished();
 
-        final long size = Files.size(path);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return addFile(targetPath, Files.size(path), in, customizer);
+        }
+    }
 
+    private Result addFile(final String targetPath, final long size, final InputStream in, final Consumer<CpioArchiveEntry> customizer) throws IOException {
         final CpioArchiveEntry entry = new CpioArchiveEntry(CpioConstants.FORMAT_NEW, targetPath);
         entry.setSize(size);
 
@@ -143,20 +184,15 @@ public class PayloadRecorder implements AutoCloseable {
 
         this.finished.archiveStream.putArchiveEntry(entry);
 
-        MessageDigest digest;
-        try {
-            digest = this.fileDigestAlgorithm.createDigest();
-        } catch (final NoSuchAlgorithmException e) {
-            throw new IOException(e);
-        }
-
-        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
-            ByteStreams.copy(new DigestInputStream(in, digest), this.finished.archiveStream);
+        final byte[] digest;
+        try (MultiDigest md = createFileDigest()) {
+            BufferPool.heap().copy(new MultiDigestInputStream(in, md), this.finished.archiveStream);
+            digest = md.finishSingle();
         }
 
         this.finished.archiveStream.closeArchiveEntry();
 
-        return new Result(size, digest.digest());
+        return new Result(size, digest);
     }
 
     public Result addFile(final String targetPath, final ByteBuffer data) throws IOException {
@@ -179,12 +215,10 @@ public class PayloadRecorder implements AutoCloseable {
 
         // record digest
 
-        MessageDigest digest;
-        try {
-            digest = this.fileDigestAlgorithm.createDigest();
-            digest.update(data.slice());
-        } catch (final NoSuchAlgorithmException e) {
-            throw new IOException(e);
+        final byte[] digest;
+        try (MultiDigest md = createFileDigest()) {
+            md.update(data.slice());
+            digest = md.finishSingle();
         }
 
         // write data
@@ -198,7 +232,15 @@ public class PayloadRecorder implements AutoCloseable {
 
         this.finished.archiveStream.closeArchiveEntry();
 
-        return new Result(size, digest.digest());
+        return new Result(size, digest);
+    }
+
+    private MultiDigest createFileDigest() throws IOException {
+        try {
+            return MultiDigest.create(this.fileDigestAlgorithm.getAlgorithm());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
     }
 
     public Result addFile(final String targetPath, final InputStream stream) throws IOException {
@@ -208,15 +250,16 @@ public class PayloadRecorder implements AutoCloseable {
     public Result addFile(final String targetPath, final InputStream stream, final Consumer<CpioArchiveEntry> customizer) throws IOException {
         checkFinished();
 
-        final Path tmpFile = Files.createTempFile("rpm-payload-", null);
-        try {
-            try (OutputStream os = Files.newOutputStream(tmpFile)) {
-                ByteStreams.copy(stream, os);
+        // spool, as the size must be known in advance
+
+        try (SpoolFile spool = this.spoolStorage.create("rpm-payload-")) {
+            try (OutputStream os = spool.openOutputStream()) {
+                BufferPool.heap().copy(stream, os);
             }
 
-            return addFile(targetPath, tmpFile, customizer);
-        } finally {
-            Files.deleteIfExists(tmpFile);
+            try (InputStream in = spool.openInputStream()) {
+                return addFile(targetPath, spool.size(), in, customizer);
+            }
         }
     }
 
@@ -323,7 +366,7 @@ public class PayloadRecorder implements AutoCloseable {
     }
 
     public class Finished implements AutoCloseable, PayloadProvider {
-        private final Path tempFile;
+        private final SpoolFile spool;
 
         private final CountingOutputStream payloadCounter;
 
@@ -338,10 +381,10 @@ public class PayloadRecorder implements AutoCloseable {
         private Header<RpmTag> additionalHeader = new Header<>();
 
         private Finished(final PayloadCoding payloadCoding, final PayloadFlags payloadFlags) throws IOException {
-            this.tempFile = Files.createTempFile("rpm-", null);
+            this.spool = PayloadRecorder.this.spoolStorage.create("rpm-");
 
             try {
-                final OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(this.tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+                final OutputStream fileStream = new BufferedOutputStream(this.spool.openOutputStream());
                 this.payloadCounter = new CountingOutputStream(new ProcessorStream(fileStream, PayloadRecorder.this::forEachCompressedData));
                 this.payloadCoding = payloadCoding;
                 this.payloadFlags = payloadFlags;
@@ -352,15 +395,18 @@ public class PayloadRecorder implements AutoCloseable {
 
                 this.archiveStream = new CpioArchiveOutputStream(this.archiveCounter, CpioConstants.FORMAT_NEW, 4, StandardCharsets.UTF_8.name());
             } catch (final IOException e) {
-                Files.deleteIfExists(this.tempFile);
+                this.spool.close();
                 throw e;
             }
         }
 
         @Override
         public void close() throws IOException {
-            this.archiveStream.close();
-            Files.deleteIfExists(this.tempFile);
+            try {
+                this.archiveStream.close();
+            } finally {
+                this.spool.close();
+            }
         }
 
         @Override
@@ -388,9 +434,45 @@ public class PayloadRecorder implements AutoCloseable {
             return PayloadRecorder.this.fileDigestAlgorithm;
         }
 
+        /**
+         * Open a new file channel to the payload data
+         * <p>
+         * If the payload is not stored in a file, e.g. when using a
+         * {@link org.eclipse.packager.io.MemorySpoolStorage}, it is copied to
+         * a temporary file first, which gets deleted when the channel is
+         * closed.
+         * </p>
+         *
+         * @deprecated use {@link #openPayloadChannel()}, which doesn't require
+         *             the payload to be stored in a file
+         */
+        @Deprecated
         @Override
         public FileChannel openChannel() throws IOException {
-            return FileChannel.open(this.tempFile, StandardOpenOption.READ);
+            final ReadableByteChannel channel = this.spool.openChannel();
+            if (channel instanceof FileChannel) {
+                return (FileChannel) channel;
+            }
+
+            try (ReadableByteChannel in = channel) {
+                final FileChannel file = FileChannel.open(Files.createTempFile("rpm-", null), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                try {
+                    long position = 0;
+                    long rc;
+                    while ((rc = file.transferFrom(in, position, Long.MAX_VALUE)) > 0) {
+                        position += rc;
+                    }
+                    return file;
+                } catch (final IOException e) {
+                    file.close();
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public ReadableByteChannel openPayloadChannel() throws IOException {
+            return this.spool.openChannel();
         }
 
         @Override
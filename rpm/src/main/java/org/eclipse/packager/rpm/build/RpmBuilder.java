@@ -662,7 +662,7 @@ public class RpmBuilder implements AutoCloseable {
 
         this.targetFile = makeTargetFile(targetFile);
 
-        this.recorder = new PayloadRecorder(this.options.getPayloadCoding(), this.options.getPayloadFlags(), this.options.getFileDigestAlgorithm(), this.options.getPayloadProcessors());
+        this.recorder = new PayloadRecorder(this.options.getPayloadCoding(), this.options.getPayloadFlags(), this.options.getFileDigestAlgorithm(), this.options.getPayloadProcessors(), this.options.getSpoolStorage());
 
         addDefaultSignatureProcessors();
     }
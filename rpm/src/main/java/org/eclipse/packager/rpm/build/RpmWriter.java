@@ -30,6 +30,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Supplier;
 
+import org.eclipse.packager.io.BufferPool;
 import org.eclipse.packager.rpm.RpmLead;
 import org.eclipse.packager.rpm.RpmSignatureTag;
 import org.eclipse.packager.rpm.RpmTag;
@@ -40,8 +41,6 @@ import org.eclipse.packager.rpm.signature.SignatureProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.io.ByteStreams;
-
 /**
  * A low level RPM file writer
  * <p>
@@ -170,14 +169,19 @@ public class RpmWriter implements AutoCloseable {
     private void writeSignatureHeader(final Header<?> header) throws IOException {
         // render header
 
-        final ByteBuffer buffer = Headers.render(header.makeEntries(), true, Rpms.IMMUTABLE_TAG_SIGNATURE);
+        final BufferPool pool = BufferPool.direct();
+        final ByteBuffer buffer = Headers.render(header.makeEntries(), true, Rpms.IMMUTABLE_TAG_SIGNATURE, pool::acquire);
 
         final int payloadSize = buffer.remaining();
 
         // header
 
         debug("start header - offset: %s, len: %s", this.file.position(), payloadSize);
-        safeWrite(buffer);
+        try {
+            safeWrite(buffer);
+        } finally {
+            pool.release(buffer);
+        }
 
         // padding
 
@@ -238,12 +242,12 @@ public class RpmWriter implements AutoCloseable {
 
         // now append payload data
 
-        try (ReadableByteChannel payloadChannel = this.payloadProvider.openChannel()) {
+        try (ReadableByteChannel payloadChannel = this.payloadProvider.openPayloadChannel()) {
             if (payloadChannel instanceof FileChannel && !isForceCopy()) {
                 final long count = copyFileChannel((FileChannel) payloadChannel, this.file);
                 debug("transferred - %s", count);
             } else {
-                final long count = ByteStreams.copy(payloadChannel, this.file);
+                final long count = BufferPool.direct().copy(payloadChannel, this.file);
                 debug("copied - %s", count);
             }
         }
@@ -315,8 +319,9 @@ public class RpmWriter implements AutoCloseable {
 
         // feed payload data
 
-        try (ReadableByteChannel channel = this.payloadProvider.openChannel()) {
-            final ByteBuffer buf = ByteBuffer.wrap(new byte[4096]);
+        try (ReadableByteChannel channel = this.payloadProvider.openPayloadChannel();
+                BufferPool.Lease lease = BufferPool.direct().lease()) {
+            final ByteBuffer buf = lease.getBuffer();
 
             while (channel.read(buf) >= 0) {
                 buf.flip();
@@ -0,0 +1,539 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.deps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.eclipse.packager.rpm.RpmVersionKey;
+import org.eclipse.packager.rpm.info.RpmInformation;
+
+/**
+ * An in-memory index for resolving dependencies between packages
+ * <p>
+ * The index is built once from the {@link RpmInformation} of a set of
+ * packages, e.g. the content of a repository. Capabilities are looked up by
+ * name in a hash map, and only the providers of that name are checked for a
+ * matching version. Versions are parsed once, when the index is built.
+ * </p>
+ * <p>
+ * Each package implicitly provides its own name, in the version of the
+ * package. Files and directories of the packages are indexed as unversioned
+ * capabilities, so that file requirements can be resolved, unless disabled
+ * using {@link Builder#setFileProvides(boolean)}.
+ * </p>
+ * <p>
+ * Requirements on <code>rpmlib(...)</code> features are provided by RPM
+ * itself, not by packages. If no features were registered using
+ * {@link Builder#addRpmlibFeature(String, String)}, they are considered
+ * satisfied. Otherwise they are checked against the registered features.
+ * </p>
+ * <p>
+ * An index is immutable and thread safe.
+ * </p>
+ */
+public final class DependencyIndex {
+    private static final int SENSE_LESS = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.LESS));
+
+    private static final int SENSE_GREATER = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.GREATER));
+
+    private static final int SENSE_EQUAL = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.EQUAL));
+
+    private static final int SENSE_MASK = SENSE_LESS | SENSE_GREATER | SENSE_EQUAL;
+
+    private static final int FLAG_RPMLIB = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.RPMLIB));
+
+    private static final String RPMLIB_PREFIX = "rpmlib(";
+
+    /**
+     * Number of packages resolved by a single task, when computing a closure
+     * in parallel
+     */
+    private static final int CLOSURE_BATCH_SIZE = 64;
+
+    private static final Provider[] NO_PROVIDERS = new Provider[0];
+
+    private static final class Provider {
+        private final int pkg;
+
+        private final int sense;
+
+        private final RpmVersionKey version;
+
+        Provider(final int pkg, final int sense, final RpmVersionKey version) {
+            this.pkg = pkg;
+            this.sense = sense;
+            this.version = version;
+        }
+    }
+
+    public static class Builder {
+        private final List<RpmInformation> packages = new ArrayList<>();
+
+        private final Map<String, RpmVersionKey> rpmlibFeatures = new HashMap<>();
+
+        private boolean fileProvides = true;
+
+        public Builder() {
+        }
+
+        public Builder addPackage(final RpmInformation information) {
+            this.packages.add(Objects.requireNonNull(information));
+            return this;
+        }
+
+        public Builder addPackages(final Collection<RpmInformation> informations) {
+            for (final RpmInformation information : informations) {
+                addPackage(information);
+            }
+            return this;
+        }
+
+        /**
+         * Register a feature provided by RPM itself
+         *
+         * @param name the name of the feature, e.g.
+         *            <code>rpmlib(PayloadIsZstd)</code>
+         * @param version the version of the feature, may be <code>null</code>
+         * @return the builder
+         */
+        public Builder addRpmlibFeature(final String name, final String version) {
+            this.rpmlibFeatures.put(Objects.requireNonNull(name), RpmVersionKey.parse(version));
+            return this;
+        }
+
+        /**
+         * Index the files and directories of the packages as capabilities
+         * <p>
+         * This is enabled by default.
+         * </p>
+         *
+         * @param fileProvides <code>true</code> to resolve file requirements
+         * @return the builder
+         */
+        public Builder setFileProvides(final boolean fileProvides) {
+            this.fileProvides = fileProvides;
+            return this;
+        }
+
+        public DependencyIndex build() {
+            return new DependencyIndex(this);
+        }
+    }
+
+    /**
+     * The result of a closure computation
+     */
+    public static class Closure {
+        private final List<RpmInformation> packages;
+
+        private final Map<RpmInformation, List<RpmInformation.Dependency>> unresolved;
+
+        Closure(final List<RpmInformation> packages, final Map<RpmInformation, List<RpmInformation.Dependency>> unresolved) {
+            this.packages = Collections.unmodifiableList(packages);
+            this.unresolved = Collections.unmodifiableMap(unresolved);
+        }
+
+        /**
+         * Get the packages of the closure
+         *
+         * @return the root packages, followed by the packages they pull in,
+         *         in breadth-first order
+         */
+        public List<RpmInformation> getPackages() {
+            return this.packages;
+        }
+
+        /**
+         * Get the requirements which could not be resolved
+         *
+         * @return the unresolved requirements, by requiring package
+         */
+        public Map<RpmInformation, List<RpmInformation.Dependency>> getUnresolved() {
+            return this.unresolved;
+        }
+
+        public boolean isComplete() {
+            return this.unresolved.isEmpty();
+        }
+    }
+
+    private final RpmInformation[] packages;
+
+    private final RpmVersionKey[] versions;
+
+    private final Map<RpmInformation, Integer> ids;
+
+    private final Map<String, Provider[]> providers;
+
+    private final Map<String, RpmVersionKey> rpmlibFeatures;
+
+    private DependencyIndex(final Builder builder) {
+        this.packages = builder.packages.toArray(new RpmInformation[0]);
+        this.versions = new RpmVersionKey[this.packages.length];
+        this.ids = new IdentityHashMap<>(this.packages.length);
+        this.rpmlibFeatures = new HashMap<>(builder.rpmlibFeatures);
+
+        final Map<String, List<Provider>> providers = new HashMap<>();
+
+        for (int i = 0; i < this.packages.length; i++) {
+            final RpmInformation information = this.packages[i];
+            this.ids.putIfAbsent(information, i);
+
+            final RpmInformation.Version version = information.getVersion();
+            final RpmVersionKey key = version != null && version.getVersion() != null ? RpmVersionKey.of(version.getEpoch(), version.getVersion(), version.getRelease()) : null;
+            this.versions[i] = key;
+
+            if (information.getName() != null) {
+                add(providers, information.getName(), new Provider(i, key != null ? SENSE_EQUAL : 0, key));
+            }
+
+            for (final RpmInformation.Dependency provide : information.getProvides()) {
+                final int sense = (int) provide.getFlags() & SENSE_MASK;
+                add(providers, provide.getName(), new Provider(i, sense, sense != 0 ? RpmVersionKey.parse(provide.getVersion()) : null));
+            }
+
+            if (builder.fileProvides) {
+                final Provider file = new Provider(i, 0, null);
+                for (final String path : information.getFiles()) {
+                    add(providers, path, file);
+                }
+                for (final String path : information.getDirectories()) {
+                    add(providers, path, file);
+                }
+            }
+        }
+
+        this.providers = new HashMap<>(providers.size() * 4 / 3 + 1);
+        for (final Map.Entry<String, List<Provider>> entry : providers.entrySet()) {
+            this.providers.put(entry.getKey(), entry.getValue().toArray(NO_PROVIDERS));
+        }
+    }
+
+    private static void add(final Map<String, List<Provider>> providers, final String name, final Provider provider) {
+        final List<Provider> list = providers.computeIfAbsent(name, k -> new ArrayList<>(1));
+        // a package may provide a name several times, e.g. as name and as file
+        if (!list.isEmpty()) {
+            final Provider last = list.get(list.size() - 1);
+            if (last.pkg == provider.pkg && last.sense == 0 && provider.sense == 0) {
+                return;
+            }
+        }
+        list.add(provider);
+    }
+
+    public int size() {
+        return this.packages.length;
+    }
+
+    /**
+     * Find the packages providing a capability
+     *
+     * @param dependency the required capability
+     * @return the providing packages, in the order they were added to the
+     *         index, never <code>null</code>
+     */
+    public List<RpmInformation> whatProvides(final RpmInformation.Dependency dependency) {
+        return whatProvides(dependency.getName(), dependency.getVersion(), dependency.getFlags());
+    }
+
+    /**
+     * Find the packages providing a capability
+     *
+     * @param dependency the required capability
+     * @return the providing packages, in the order they were added to the
+     *         index, never <code>null</code>
+     */
+    public List<RpmInformation> whatProvides(final Dependency dependency) {
+        return whatProvides(dependency.getName(), dependency.getVersion(), RpmDependencyFlags.encode(dependency.getFlags()));
+    }
+
+    /**
+     * Find the packages providing a capability
+     *
+     * @param name the name of the capability
+     * @param version the required version, may be <code>null</code>
+     * @param flags the flags of the requirement, see
+     *            {@link RpmDependencyFlags}
+     * @return the providing packages, in the order they were added to the
+     *         index, never <code>null</code>
+     */
+    public List<RpmInformation> whatProvides(final String name, final String version, final long flags) {
+        final int sense = (int) flags & SENSE_MASK;
+        final RpmVersionKey key = sense != 0 ? RpmVersionKey.parse(version) : null;
+
+        final Provider[] candidates = this.providers.getOrDefault(name, NO_PROVIDERS);
+
+        final List<RpmInformation> result = new ArrayList<>(candidates.length);
+        int last = -1;
+        for (final Provider provider : candidates) {
+            if (provider.pkg != last && matches(provider.sense, provider.version, sense, key)) {
+                result.add(this.packages[provider.pkg]);
+                last = provider.pkg;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check if a requirement is satisfied by any package of the index, or by
+     * RPM itself
+     *
+     * @param dependency the requirement
+     * @return <code>true</code> if the requirement is satisfied
+     */
+    public boolean isSatisfied(final RpmInformation.Dependency dependency) {
+        final int flags = (int) dependency.getFlags();
+        if (isRpmlib(dependency.getName(), flags)) {
+            return isRpmlibSatisfied(dependency.getName(), dependency.getVersion(), flags);
+        }
+
+        final int sense = flags & SENSE_MASK;
+        final RpmVersionKey key = sense != 0 ? RpmVersionKey.parse(dependency.getVersion()) : null;
+
+        for (final Provider provider : this.providers.getOrDefault(dependency.getName(), NO_PROVIDERS)) {
+            if (matches(provider.sense, provider.version, sense, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the install closure of a set of packages, on the calling thread
+     *
+     * @param roots the packages to start with, must be part of the index
+     * @return the closure
+     * @see #closure(Collection, Executor)
+     */
+    public Closure closure(final Collection<RpmInformation> roots) {
+        return closure(roots, null);
+    }
+
+    /**
+     * Compute the install closure of a set of packages
+     * <p>
+     * The closure is computed breadth-first. The requirements of all packages
+     * of one level are resolved in parallel, using the executor. Then the
+     * providers are selected in the order of the packages and their
+     * requirements, so the result does not depend on the number of threads.
+     * </p>
+     * <p>
+     * A requirement is considered resolved if any of its providers is part of
+     * the closure already. Otherwise, the provider with the highest version
+     * is added. On a tie, the provider added to the index first wins.
+     * </p>
+     *
+     * @param roots the packages to start with, must be part of the index
+     * @param executor the executor for resolving requirements,
+     *            <code>null</code> to resolve on the calling thread
+     * @return the closure
+     * @throws IllegalArgumentException if a root package is not part of the
+     *             index
+     */
+    public Closure closure(final Collection<RpmInformation> roots, final Executor executor) {
+        final BitSet selected = new BitSet(this.packages.length);
+        final List<RpmInformation> result = new ArrayList<>();
+        final Map<RpmInformation, List<RpmInformation.Dependency>> unresolved = new LinkedHashMap<>();
+
+        List<Integer> level = new ArrayList<>();
+        for (final RpmInformation root : roots) {
+            final Integer id = this.ids.get(root);
+            if (id == null) {
+                throw new IllegalArgumentException(String.format("Package '%s' is not part of the index", root.getName()));
+            }
+            if (!selected.get(id)) {
+                selected.set(id);
+                result.add(root);
+                level.add(id);
+            }
+        }
+
+        while (!level.isEmpty()) {
+            final List<int[][]> resolved = resolve(level, executor);
+
+            final List<Integer> next = new ArrayList<>();
+            for (int i = 0; i < level.size(); i++) {
+                final RpmInformation information = this.packages[level.get(i)];
+                final List<RpmInformation.Dependency> requires = information.getRequires();
+                final int[][] candidates = resolved.get(i);
+
+                for (int j = 0; j < candidates.length; j++) {
+                    final int[] c = candidates[j];
+                    if (c == null) {
+                        // rpmlib requirement, satisfied
+                        continue;
+                    }
+                    if (c.length == 0) {
+                        unresolved.computeIfAbsent(information, k -> new ArrayList<>()).add(requires.get(j));
+                        continue;
+                    }
+                    if (anySelected(selected, c)) {
+                        continue;
+                    }
+
+                    final int best = best(c);
+                    selected.set(best);
+                    result.add(this.packages[best]);
+                    next.add(best);
+                }
+            }
+
+            level = next;
+        }
+
+        return new Closure(result, unresolved);
+    }
+
+    /**
+     * Resolve the requirements of a level of packages
+     *
+     * @return for each package, for each requirement, the providing
+     *         packages, or <code>null</code> for satisfied rpmlib
+     *         requirements
+     */
+    private List<int[][]> resolve(final List<Integer> level, final Executor executor) {
+        if (executor == null || level.size() <= CLOSURE_BATCH_SIZE) {
+            final List<int[][]> result = new ArrayList<>(level.size());
+            for (final Integer id : level) {
+                result.add(resolvePackage(id));
+            }
+            return result;
+        }
+
+        final List<CompletableFuture<List<int[][]>>> batches = new ArrayList<>();
+        for (int start = 0; start < level.size(); start += CLOSURE_BATCH_SIZE) {
+            final List<Integer> batch = level.subList(start, Math.min(start + CLOSURE_BATCH_SIZE, level.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> resolve(batch, null), executor));
+        }
+
+        final List<int[][]> result = new ArrayList<>(level.size());
+        try {
+            for (final CompletableFuture<List<int[][]>> batch : batches) {
+                result.addAll(batch.join());
+            }
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    private int[][] resolvePackage(final int id) {
+        final List<RpmInformation.Dependency> requires = this.packages[id].getRequires();
+        final int[][] result = new int[requires.size()][];
+
+        int i = 0;
+        for (final RpmInformation.Dependency require : requires) {
+            final int flags = (int) require.getFlags();
+            if (isRpmlib(require.getName(), flags)) {
+                result[i++] = isRpmlibSatisfied(require.getName(), require.getVersion(), flags) ? null : new int[0];
+                continue;
+            }
+
+            final int sense = flags & SENSE_MASK;
+            final RpmVersionKey key = sense != 0 ? RpmVersionKey.parse(require.getVersion()) : null;
+
+            final Provider[] candidates = this.providers.getOrDefault(require.getName(), NO_PROVIDERS);
+            final int[] matches = new int[candidates.length];
+            int n = 0;
+            for (final Provider provider : candidates) {
+                if ((n == 0 || matches[n - 1] != provider.pkg) && matches(provider.sense, provider.version, sense, key)) {
+                    matches[n++] = provider.pkg;
+                }
+            }
+            result[i++] = n == matches.length ? matches : Arrays.copyOf(matches, n);
+        }
+
+        return result;
+    }
+
+    private static boolean anySelected(final BitSet selected, final int[] candidates) {
+        for (final int candidate : candidates) {
+            if (selected.get(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int best(final int[] candidates) {
+        int best = candidates[0];
+        for (int i = 1; i < candidates.length; i++) {
+            final int candidate = candidates[i];
+            final RpmVersionKey a = this.versions[candidate];
+            final RpmVersionKey b = this.versions[best];
+            if (a != null && (b == null || a.compareTo(b) > 0)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isRpmlib(final String name, final int flags) {
+        return (flags & FLAG_RPMLIB) != 0 || name.startsWith(RPMLIB_PREFIX);
+    }
+
+    private boolean isRpmlibSatisfied(final String name, final String version, final int flags) {
+        if (this.rpmlibFeatures.isEmpty()) {
+            return true;
+        }
+        if (!this.rpmlibFeatures.containsKey(name)) {
+            return false;
+        }
+
+        final RpmVersionKey provided = this.rpmlibFeatures.get(name);
+        final int sense = flags & SENSE_MASK;
+        return matches(provided != null ? SENSE_EQUAL : 0, provided, sense, sense != 0 ? RpmVersionKey.parse(version) : null);
+    }
+
+    /**
+     * Check if a provided capability satisfies a requirement
+     * <p>
+     * This follows <code>rpmdsCompare</code>: unversioned capabilities and
+     * requirements always match. Otherwise the ranges described by the
+     * comparison flags must overlap.
+     * </p>
+     */
+    private static boolean matches(final int provideSense, final RpmVersionKey provideVersion, final int requireSense, final RpmVersionKey requireVersion) {
+        if (provideSense == 0 || provideVersion == null || requireSense == 0 || requireVersion == null) {
+            return true;
+        }
+
+        final int rc = provideVersion.compareForDependency(requireVersion);
+
+        if (rc < 0) {
+            return (provideSense & SENSE_GREATER) != 0 || (requireSense & SENSE_LESS) != 0;
+        }
+        if (rc > 0) {
+            return (provideSense & SENSE_LESS) != 0 || (requireSense & SENSE_GREATER) != 0;
+        }
+        return (provideSense & requireSense) != 0;
+    }
+}
@@ -0,0 +1,785 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.deps;
+
+import static org.eclipse.packager.rpm.RpmTag.BASENAMES;
+import static org.eclipse.packager.rpm.RpmTag.DIRNAMES;
+import static org.eclipse.packager.rpm.RpmTag.DIR_INDEXES;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.eclipse.packager.rpm.RpmTag;
+import org.eclipse.packager.rpm.parse.InputHeader;
+
+/**
+ * An index of the paths owned by a set of packages
+ * <p>
+ * The index answers "which package owns this path" without scanning the file
+ * lists of all packages. Directories are stored in a trie, shared by all
+ * packages, and each path is stored as a pair of its directory node and its
+ * interned base name, which is how the header file table
+ * (<code>DIRNAMES</code>, <code>BASENAMES</code>, <code>DIR_INDEXES</code>)
+ * stores them as well. A Bloom filter over all paths lets most lookups of
+ * unknown paths return without walking the trie.
+ * </p>
+ * <p>
+ * Paths are matched exactly, they are not normalized, except for a trailing
+ * slash being ignored. Ghost entries are indexed too, as RPM considers them
+ * owned by the package.
+ * </p>
+ * <p>
+ * An index is immutable and thread safe. It can be saved to a file, and
+ * loaded again later.
+ * </p>
+ */
+public final class PathIndex {
+    private static final int MAGIC = 0x52504D50; // RPMP
+
+    private static final int VERSION = 1;
+
+    private static final int ROOT = 0;
+
+    private static final int BLOOM_BITS_PER_PATH = 10;
+
+    private static final int BLOOM_HASHES = 7;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public static class Builder {
+        private final List<String> packages = new ArrayList<>();
+
+        private final Map<String, Integer> nameIds = new HashMap<>();
+
+        private final List<String> names = new ArrayList<>();
+
+        private final IntList dirParents = new IntList();
+
+        private final IntList dirNames = new IntList();
+
+        private final LongIntMap children = new LongIntMap();
+
+        private final IntList pathDirs = new IntList();
+
+        private final IntList pathNames = new IntList();
+
+        private final LongIntMap paths = new LongIntMap();
+
+        private final IntList ownerPaths = new IntList();
+
+        private final IntList ownerPackages = new IntList();
+
+        public Builder() {
+            // the root directory
+            this.dirParents.add(-1);
+            this.dirNames.add(-1);
+        }
+
+        /**
+         * Add a package, reading the file table from its header
+         *
+         * @param label the label reported for the package, e.g. its file name
+         * @param header the payload header of the package
+         * @return the builder
+         * @throws IllegalArgumentException if the file table is inconsistent
+         */
+        public Builder addPackage(final String label, final InputHeader<RpmTag> header) {
+            final int pkg = addLabel(label);
+
+            final List<String> baseNames = header.getStringList(BASENAMES);
+            if (baseNames == null) {
+                return this;
+            }
+
+            final List<String> dirNames = header.getStringList(DIRNAMES);
+            final Integer[] dirIndexes = header.getOptionalTag(DIR_INDEXES, Integer[].class).flatMap(value -> value.getValue().asIntegerArray()).orElse(null);
+
+            final int size = baseNames.size();
+            if (dirNames == null || dirIndexes == null || dirIndexes.length != size) {
+                throw new IllegalArgumentException(String.format("Invalid size of directory index array [%s] - expected: %s", DIR_INDEXES, size));
+            }
+
+            // resolve each directory only once
+
+            final int[] dirs = new int[dirNames.size()];
+            for (int i = 0; i < dirs.length; i++) {
+                dirs[i] = directory(dirNames.get(i));
+            }
+
+            for (int i = 0; i < size; i++) {
+                final int dirIndex = dirIndexes[i];
+                if (dirIndex < 0 || dirIndex >= dirs.length) {
+                    throw new IllegalArgumentException(String.format("Invalid directory index %s for file %s", dirIndex, baseNames.get(i)));
+                }
+                addPath(pkg, dirs[dirIndex], baseNames.get(i));
+            }
+
+            return this;
+        }
+
+        /**
+         * Add a package, with a list of paths
+         * <p>
+         * This can be used with the file and directory lists of
+         * {@link org.eclipse.packager.rpm.info.RpmInformation}, or the
+         * <code>filelists</code> metadata of a repository.
+         * </p>
+         *
+         * @param label the label reported for the package, e.g. its file name
+         * @param paths the absolute paths owned by the package
+         * @return the builder
+         * @throws IllegalArgumentException if a path is not absolute
+         */
+        public Builder addPackage(final String label, final Collection<String> paths) {
+            final int pkg = addLabel(label);
+
+            String lastDir = null;
+            int lastNode = ROOT;
+
+            for (final String path : paths) {
+                final String p = stripTrailingSlash(path);
+                final int slash = p.lastIndexOf('/');
+                if (slash < 0) {
+                    throw new IllegalArgumentException(String.format("Path must be absolute: '%s'", path));
+                }
+
+                // paths are usually grouped by directory
+                if (lastDir == null || lastDir.length() != slash + 1 || !p.startsWith(lastDir)) {
+                    lastDir = p.substring(0, slash + 1);
+                    lastNode = directory(lastDir);
+                }
+
+                addPath(pkg, lastNode, p.substring(slash + 1));
+            }
+
+            return this;
+        }
+
+        private int addLabel(final String label) {
+            this.packages.add(Objects.requireNonNull(label));
+            return this.packages.size() - 1;
+        }
+
+        private int intern(final String name) {
+            Integer id = this.nameIds.get(name);
+            if (id == null) {
+                id = this.names.size();
+                this.names.add(name);
+                this.nameIds.put(name, id);
+            }
+            return id;
+        }
+
+        /**
+         * Get the trie node of a directory, creating missing nodes
+         *
+         * @param dirName the directory, as found in <code>DIRNAMES</code>,
+         *            e.g. <code>/usr/bin/</code>
+         */
+        private int directory(final String dirName) {
+            if (dirName.isEmpty() || dirName.charAt(0) != '/') {
+                throw new IllegalArgumentException(String.format("Directory must be absolute: '%s'", dirName));
+            }
+
+            int node = ROOT;
+            int start = 1;
+            while (start < dirName.length()) {
+                int end = dirName.indexOf('/', start);
+                if (end < 0) {
+                    end = dirName.length();
+                }
+                if (end > start) {
+                    final int name = intern(dirName.substring(start, end));
+                    final long key = key(node, name);
+                    int child = this.children.get(key);
+                    if (child < 0) {
+                        child = this.dirParents.size();
+                        this.dirParents.add(node);
+                        this.dirNames.add(name);
+                        this.children.put(key, child);
+                    }
+                    node = child;
+                }
+                start = end + 1;
+            }
+            return node;
+        }
+
+        private void addPath(final int pkg, final int dir, final String baseName) {
+            if (baseName.isEmpty()) {
+                return;
+            }
+
+            final int name = intern(baseName);
+            final long key = key(dir, name);
+
+            int path = this.paths.get(key);
+            if (path < 0) {
+                path = this.pathDirs.size();
+                this.pathDirs.add(dir);
+                this.pathNames.add(name);
+                this.paths.put(key, path);
+            }
+
+            this.ownerPaths.add(path);
+            this.ownerPackages.add(pkg);
+        }
+
+        public PathIndex build() {
+            final int pathCount = this.pathDirs.size();
+
+            // sort the owners by path, keeping the order of the packages
+
+            final int[] offsets = new int[pathCount + 1];
+            for (int i = 0; i < this.ownerPaths.size(); i++) {
+                offsets[this.ownerPaths.get(i) + 1]++;
+            }
+            for (int i = 0; i < pathCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            final int[] owners = new int[this.ownerPaths.size()];
+            final int[] fill = Arrays.copyOf(offsets, pathCount);
+            for (int i = 0; i < this.ownerPaths.size(); i++) {
+                owners[fill[this.ownerPaths.get(i)]++] = this.ownerPackages.get(i);
+            }
+
+            // remove duplicates, a package may list a path more than once
+
+            int n = 0;
+            int start = 0;
+            for (int i = 0; i < pathCount; i++) {
+                final int end = offsets[i + 1];
+                offsets[i] = n;
+                for (int j = start; j < end; j++) {
+                    if (j == start || owners[j] != owners[j - 1]) {
+                        owners[n++] = owners[j];
+                    }
+                }
+                start = end;
+            }
+            offsets[pathCount] = n;
+
+            return new PathIndex(this.packages.toArray(new String[0]), this.names.toArray(new String[0]), this.dirParents.toArray(), this.dirNames.toArray(), this.pathDirs.toArray(), this.pathNames.toArray(), offsets, Arrays.copyOf(owners, n));
+        }
+    }
+
+    private final String[] packages;
+
+    private final String[] names;
+
+    private final Map<String, Integer> nameIds;
+
+    private final int[] dirParents;
+
+    private final int[] dirNames;
+
+    private final LongIntMap children;
+
+    private final int[] pathDirs;
+
+    private final int[] pathNames;
+
+    private final LongIntMap paths;
+
+    private final int[] offsets;
+
+    private final int[] owners;
+
+    private final long[] bloom;
+
+    private final long bloomBits;
+
+    private PathIndex(final String[] packages, final String[] names, final int[] dirParents, final int[] dirNames, final int[] pathDirs, final int[] pathNames, final int[] offsets, final int[] owners) {
+        this.packages = packages;
+        this.names = names;
+        this.dirParents = dirParents;
+        this.dirNames = dirNames;
+        this.pathDirs = pathDirs;
+        this.pathNames = pathNames;
+        this.offsets = offsets;
+        this.owners = owners;
+
+        this.nameIds = new HashMap<>(names.length * 4 / 3 + 1);
+        for (int i = 0; i < names.length; i++) {
+            this.nameIds.put(names[i], i);
+        }
+
+        this.children = new LongIntMap();
+        for (int i = 1; i < dirParents.length; i++) {
+            this.children.put(key(dirParents[i], dirNames[i]), i);
+        }
+
+        // hash the directories once, then continue with the base names
+
+        final long[] dirHashes = new long[dirParents.length];
+        dirHashes[ROOT] = hash(FNV_OFFSET, "/");
+        for (int i = 1; i < dirParents.length; i++) {
+            // parents are always created before their children
+            dirHashes[i] = hash(hash(dirHashes[dirParents[i]], names[dirNames[i]]), "/");
+        }
+
+        this.paths = new LongIntMap();
+        this.bloomBits = Math.max(64L, (long) pathDirs.length * BLOOM_BITS_PER_PATH);
+        this.bloom = new long[(int) ((this.bloomBits + 63) / 64)];
+
+        for (int i = 0; i < pathDirs.length; i++) {
+            this.paths.put(key(pathDirs[i], pathNames[i]), i);
+
+            final long hash = hash(dirHashes[pathDirs[i]], names[pathNames[i]]);
+            for (int k = 0; k < BLOOM_HASHES; k++) {
+                final long bit = bloomBit(hash, k);
+                this.bloom[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    public int getPackageCount() {
+        return this.packages.length;
+    }
+
+    public int getPathCount() {
+        return this.pathDirs.length;
+    }
+
+    /**
+     * Check if a path is owned by any package
+     *
+     * @param path the absolute path
+     * @return <code>true</code> if the path is owned by at least one package
+     */
+    public boolean contains(final String path) {
+        return find(path) >= 0;
+    }
+
+    /**
+     * Find the packages owning a path
+     *
+     * @param path the absolute path, e.g. <code>/usr/bin/bash</code>
+     * @return the labels of the owning packages, in the order they were
+     *         added, never <code>null</code>
+     */
+    public List<String> getOwners(final String path) {
+        final int id = find(path);
+        if (id < 0) {
+            return Collections.emptyList();
+        }
+        return owners(id);
+    }
+
+    /**
+     * Find all paths owned by more than one package
+     * <p>
+     * Shared directories are reported as well, so callers checking for file
+     * conflicts may need to filter these.
+     * </p>
+     *
+     * @return the owners, by path, sorted by path
+     */
+    public Map<String, List<String>> getSharedPaths() {
+        final Map<String, List<String>> result = new TreeMap<>();
+        for (int i = 0; i < this.pathDirs.length; i++) {
+            if (this.offsets[i + 1] - this.offsets[i] > 1) {
+                result.put(pathOf(i), owners(i));
+            }
+        }
+        return result;
+    }
+
+    private List<String> owners(final int id) {
+        final int start = this.offsets[id];
+        final int end = this.offsets[id + 1];
+        final List<String> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(this.packages[this.owners[i]]);
+        }
+        return result;
+    }
+
+    private String pathOf(final int id) {
+        final StringBuilder sb = new StringBuilder(this.names[this.pathNames[id]]);
+        for (int dir = this.pathDirs[id]; dir != ROOT; dir = this.dirParents[dir]) {
+            sb.insert(0, '/').insert(0, this.names[this.dirNames[dir]]);
+        }
+        return sb.insert(0, '/').toString();
+    }
+
+    /**
+     * Find the id of a path
+     *
+     * @return the id, or <code>-1</code> if the path is unknown
+     */
+    private int find(final String path) {
+        final String p = stripTrailingSlash(path);
+        final int slash = p.lastIndexOf('/');
+        if (slash < 0 || slash == p.length() - 1) {
+            return -1;
+        }
+
+        // check the Bloom filter first
+
+        final long hash = hash(FNV_OFFSET, p);
+        for (int k = 0; k < BLOOM_HASHES; k++) {
+            final long bit = bloomBit(hash, k);
+            if ((this.bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return -1;
+            }
+        }
+
+        // walk the directory trie
+
+        int node = ROOT;
+        int start = 1;
+        while (start <= slash) {
+            final int end = p.indexOf('/', start);
+            if (end > start) {
+                final Integer name = this.nameIds.get(p.substring(start, end));
+                if (name == null) {
+                    return -1;
+                }
+                node = this.children.get(key(node, name));
+                if (node < 0) {
+                    return -1;
+                }
+            }
+            start = end + 1;
+        }
+
+        final Integer name = this.nameIds.get(p.substring(slash + 1));
+        if (name == null) {
+            return -1;
+        }
+        return this.paths.get(key(node, name));
+    }
+
+    private long bloomBit(final long hash, final int k) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        return ((h1 + (long) k * h2) & 0xFFFFFFFFFFFFL) % this.bloomBits;
+    }
+
+    private static long hash(long hash, final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long key(final int parent, final int name) {
+        return ((long) parent << 32) | (name & 0xFFFFFFFFL);
+    }
+
+    private static String stripTrailingSlash(final String path) {
+        if (path.length() > 1 && path.charAt(path.length() - 1) == '/') {
+            return path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    /**
+     * Load an index from a file
+     *
+     * @param file the file to load
+     * @return the index
+     * @throws IOException if reading the file fails, or the file is corrupt
+     */
+    public static PathIndex load(final Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(new DataInputStream(in));
+        }
+    }
+
+    /**
+     * Save the index to a file
+     * <p>
+     * The index is written to a temporary file first, which then replaces
+     * the target file.
+     * </p>
+     *
+     * @param file the file to write to
+     * @throws IOException if writing fails
+     */
+    public void save(final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        final Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                final DataOutputStream data = new DataOutputStream(out);
+                write(data);
+                data.flush();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void write(final DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        writeStrings(out, this.packages);
+        writeStrings(out, this.names);
+
+        writeVarInt(out, this.dirParents.length);
+        for (int i = 1; i < this.dirParents.length; i++) {
+            writeVarInt(out, this.dirParents[i]);
+            writeVarInt(out, this.dirNames[i]);
+        }
+
+        writeVarInt(out, this.pathDirs.length);
+        for (int i = 0; i < this.pathDirs.length; i++) {
+            writeVarInt(out, this.pathDirs[i]);
+            writeVarInt(out, this.pathNames[i]);
+            writeVarInt(out, this.offsets[i + 1] - this.offsets[i]);
+        }
+
+        writeVarInt(out, this.owners.length);
+        for (final int owner : this.owners) {
+            writeVarInt(out, owner);
+        }
+    }
+
+    private static PathIndex read(final DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid path index file");
+        }
+        if (in.readInt() != VERSION) {
+            throw new IOException("Unsupported path index file version");
+        }
+
+        final String[] packages = readStrings(in);
+        final String[] names = readStrings(in);
+
+        final int dirCount = readVarInt(in);
+        if (dirCount < 1) {
+            throw new IOException("Invalid path index file: missing root directory");
+        }
+        final int[] dirParents = new int[dirCount];
+        final int[] dirNames = new int[dirCount];
+        dirParents[ROOT] = -1;
+        dirNames[ROOT] = -1;
+        for (int i = 1; i < dirCount; i++) {
+            dirParents[i] = readIndex(in, i);
+            dirNames[i] = readIndex(in, names.length);
+        }
+
+        final int pathCount = readVarInt(in);
+        final int[] pathDirs = new int[pathCount];
+        final int[] pathNames = new int[pathCount];
+        final int[] offsets = new int[pathCount + 1];
+        for (int i = 0; i < pathCount; i++) {
+            pathDirs[i] = readIndex(in, dirCount);
+            pathNames[i] = readIndex(in, names.length);
+            offsets[i + 1] = offsets[i] + readVarInt(in);
+        }
+
+        final int ownerCount = readVarInt(in);
+        if (ownerCount != offsets[pathCount]) {
+            throw new IOException("Invalid path index file: owner count mismatch");
+        }
+        final int[] owners = new int[ownerCount];
+        for (int i = 0; i < ownerCount; i++) {
+            owners[i] = readIndex(in, packages.length);
+        }
+
+        return new PathIndex(packages, names, dirParents, dirNames, pathDirs, pathNames, offsets, owners);
+    }
+
+    private static void writeStrings(final DataOutputStream out, final String[] values) throws IOException {
+        writeVarInt(out, values.length);
+        for (final String value : values) {
+            final byte[] data = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, data.length);
+            out.write(data);
+        }
+    }
+
+    private static String[] readStrings(final DataInputStream in) throws IOException {
+        final String[] result = new String[readVarInt(in)];
+        for (int i = 0; i < result.length; i++) {
+            final byte[] data = new byte[readVarInt(in)];
+            in.readFully(data);
+            result[i] = new String(data, StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    private static int readIndex(final DataInputStream in, final int limit) throws IOException {
+        final int value = readVarInt(in);
+        if (value >= limit) {
+            throw new IOException("Invalid path index file: index out of range");
+        }
+        return value;
+    }
+
+    private static void writeVarInt(final DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(final DataInputStream in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (result < 0) {
+                    throw new IOException("Invalid path index file: value out of range");
+                }
+                return result;
+            }
+        }
+        throw new IOException("Invalid path index file: malformed number");
+    }
+
+    /**
+     * A growable list of primitive integers
+     */
+    private static class IntList {
+        private int[] data = new int[16];
+
+        private int size;
+
+        void add(final int value) {
+            if (this.size == this.data.length) {
+                this.data = Arrays.copyOf(this.data, this.size * 2);
+            }
+            this.data[this.size++] = value;
+        }
+
+        int get(final int index) {
+            return this.data[index];
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.data, this.size);
+        }
+    }
+
+    /**
+     * An open addressing hash map from non-negative long keys to
+     * non-negative int values, without boxing
+     */
+    private static class LongIntMap {
+        private static final long EMPTY = -1;
+
+        private long[] keys;
+
+        private int[] values;
+
+        private int size;
+
+        LongIntMap() {
+            this.keys = new long[64];
+            this.values = new int[64];
+            Arrays.fill(this.keys, EMPTY);
+        }
+
+        /**
+         * Get a value
+         *
+         * @return the value, or <code>-1</code> if the key is not present
+         */
+        int get(final long key) {
+            final int mask = this.keys.length - 1;
+            for (int i = slot(key, mask);; i = (i + 1) & mask) {
+                final long k = this.keys[i];
+                if (k == key) {
+                    return this.values[i];
+                }
+                if (k == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(final long key, final int value) {
+            if ((this.size + 1) * 2 > this.keys.length) {
+                grow();
+            }
+
+            final int mask = this.keys.length - 1;
+            for (int i = slot(key, mask);; i = (i + 1) & mask) {
+                final long k = this.keys[i];
+                if (k == EMPTY) {
+                    this.keys[i] = key;
+                    this.values[i] = value;
+                    this.size++;
+                    return;
+                }
+                if (k == key) {
+                    this.values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        private void grow() {
+            final long[] oldKeys = this.keys;
+            final int[] oldValues = this.values;
+
+            this.keys = new long[oldKeys.length * 2];
+            this.values = new int[oldValues.length * 2];
+            Arrays.fill(this.keys, EMPTY);
+            this.size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(final long key, final int mask) {
+            // the finalizer of MurmurHash3
+            long h = key;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb34fe1a85ec3L;
+            h ^= h >>> 33;
+            return (int) h & mask;
+        }
+    }
+}
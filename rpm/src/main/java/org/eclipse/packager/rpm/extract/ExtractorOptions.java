@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.extract;
+
+/**
+ * Options which control the extraction process of the {@link RpmExtractor}
+ * <p>
+ * When digests are verified, file content is checked against the
+ * <code>FILE_DIGESTS</code> header entries.
+ * </p>
+ */
+public class ExtractorOptions extends org.eclipse.packager.extract.ExtractorOptions {
+    public ExtractorOptions() {
+    }
+
+    public ExtractorOptions(final ExtractorOptions other) {
+        super(other);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.extract;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.compress.archivers.cpio.CpioArchiveEntry;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveInputStream;
+import org.eclipse.packager.extract.ExtractionPipeline;
+import org.eclipse.packager.rpm.parse.FileTable;
+import org.eclipse.packager.rpm.parse.RpmInputStream;
+
+/**
+ * Extract the payload of an RPM file to a directory
+ * <p>
+ * The payload is decompressed and read on the calling thread, and written by
+ * an {@link ExtractionPipeline}. The amount of buffered data is limited by
+ * {@link ExtractorOptions#getMaxBufferedBytes()}.
+ * </p>
+ * <p>
+ * File modes, modification times, symbolic links and hard links are restored
+ * from the header file table. Optionally the file content is verified against
+ * the <code>FILE_DIGESTS</code> of the header.
+ * </p>
+ */
+public class RpmExtractor {
+    public static class Result extends ExtractionPipeline.Result {
+        private Result(final ExtractionPipeline.Result result) {
+            super(result);
+        }
+    }
+
+    /**
+     * The state of reading a single payload
+     */
+    private class Reader {
+        private final FileTable table;
+
+        private final Set<String> hardLinkSets = new HashSet<>();
+
+        private final Map<String, Path> hardLinkMasters = new HashMap<>();
+
+        private final Map<Path, String> hardLinkMembers = new LinkedHashMap<>();
+
+        Reader(final FileTable table) {
+            this.table = table;
+
+            // find regular files sharing the same inode
+
+            final Set<String> seen = new HashSet<>();
+            for (int i = 0; i < table.size(); i++) {
+                if (table.isRegularFile(i) && table.getInode(i) != 0) {
+                    final String key = table.getDevice(i) + ":" + table.getInode(i);
+                    if (!seen.add(key)) {
+                        this.hardLinkSets.add(key);
+                    }
+                }
+            }
+        }
+
+        void read(final CpioArchiveInputStream cpio, final ExtractionPipeline pipeline) throws IOException {
+            CpioArchiveEntry entry;
+            while ((entry = cpio.getNextEntry()) != null) {
+                final int index = this.table.indexOf(entry.getName());
+                final Path path = pipeline.resolve(entry.getName());
+
+                final int mode = index >= 0 ? this.table.getMode(index) : (int) entry.getMode();
+                final long mtime = index >= 0 ? this.table.getModificationTime(index) : entry.getTime() / 1000L;
+
+                switch (mode & FileTable.S_IFMT) {
+                case FileTable.S_IFDIR:
+                    pipeline.addDirectory(path, mode, mtime);
+                    break;
+                case FileTable.S_IFLNK:
+                    pipeline.addSymbolicLink(path, readLinkTo(cpio, entry, index), mtime);
+                    break;
+                case FileTable.S_IFREG:
+                    readFile(cpio, entry, index, path, mode, mtime, pipeline);
+                    break;
+                default:
+                    // skip devices, fifos, ...
+                    break;
+                }
+            }
+
+            // hard links: all but one entry of a link set carry no data
+
+            for (final Map.Entry<Path, String> member : this.hardLinkMembers.entrySet()) {
+                final Path master = this.hardLinkMasters.get(member.getValue());
+                if (master == null) {
+                    throw new IOException(String.format("Missing content for hard link '%s'", member.getKey()));
+                }
+                pipeline.addHardLink(member.getKey(), master);
+            }
+        }
+
+        private void readFile(final CpioArchiveInputStream cpio, final CpioArchiveEntry entry, final int index, final Path path, final int mode, final long mtime, final ExtractionPipeline pipeline) throws IOException {
+            final long size = entry.getSize();
+
+            final String linkKey = hardLinkKey(index);
+            if (linkKey != null) {
+                if (size == 0 && this.table.getSize(index) > 0) {
+                    this.hardLinkMembers.put(path, linkKey);
+                    return;
+                }
+                if (this.hardLinkMasters.putIfAbsent(linkKey, path) != null) {
+                    this.hardLinkMembers.put(path, linkKey);
+                    return;
+                }
+            }
+
+            final MessageDigest digest = createDigest(index);
+            pipeline.addFile(cpio, index >= 0 ? this.table.getName(index) : entry.getName(), path, size, mode, mtime, digest, digest != null ? this.table.getDigest(index) : null);
+        }
+
+        private String readLinkTo(final CpioArchiveInputStream cpio, final CpioArchiveEntry entry, final int index) throws IOException {
+            final String linkTo = index >= 0 ? this.table.getLinkTo(index) : null;
+            if (linkTo != null) {
+                return linkTo;
+            }
+
+            final byte[] data = new byte[(int) entry.getSize()];
+            int total = 0;
+            while (total < data.length) {
+                final int rc = cpio.read(data, total, data.length - total);
+                if (rc < 0) {
+                    throw new IOException(String.format("Unexpected end of payload for '%s'", entry.getName()));
+                }
+                total += rc;
+            }
+            return new String(data, StandardCharsets.UTF_8);
+        }
+
+        private String hardLinkKey(final int index) {
+            if (index < 0 || this.table.getInode(index) == 0) {
+                return null;
+            }
+
+            final String key = this.table.getDevice(index) + ":" + this.table.getInode(index);
+            return this.hardLinkSets.contains(key) ? key : null;
+        }
+
+        private MessageDigest createDigest(final int index) throws IOException {
+            if (!RpmExtractor.this.options.isVerifyDigests() || index < 0 || this.table.getDigest(index) == null) {
+                return null;
+            }
+
+            try {
+                return this.table.getDigestAlgorithm().createDigest();
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private final ExtractorOptions options;
+
+    public RpmExtractor() {
+        this(null);
+    }
+
+    public RpmExtractor(final ExtractorOptions options) {
+        this.options = options == null ? new ExtractorOptions() : new ExtractorOptions(options);
+    }
+
+    /**
+     * Extract an RPM file to a directory
+     *
+     * @param rpm the RPM file to extract
+     * @param target the target directory, will be created if necessary
+     * @return the result of the extraction
+     * @throws IOException if extracting the file fails
+     */
+    public Result extract(final Path rpm, final Path target) throws IOException {
+        try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(rpm)))) {
+            return extract(in, target);
+        }
+    }
+
+    /**
+     * Extract the payload of an RPM stream to a directory
+     * <p>
+     * The stream will be consumed, but not closed.
+     * </p>
+     *
+     * @param in the RPM stream to extract
+     * @param target the target directory, will be created if necessary
+     * @return the result of the extraction
+     * @throws IOException if extracting the file fails
+     */
+    public Result extract(final RpmInputStream in, final Path target) throws IOException {
+        final Reader reader = new Reader(FileTable.fromHeader(in.getPayloadHeader()));
+        final ExtractionPipeline pipeline = new ExtractionPipeline(target, this.options, "rpm-extract-writer-");
+        return new Result(pipeline.run(p -> reader.read(in.getPayloadArchiveStream(), p)));
+    }
+}
@@ -19,6 +19,7 @@ import static java.util.Comparator.comparingInt;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.IntFunction;
 
 import org.eclipse.packager.rpm.Rpms;
 
@@ -32,7 +33,27 @@ public final class Headers {
     }
 
     public static ByteBuffer render(final HeaderEntry<?>[] entries, final boolean sorted, final Integer immutableTag) {
+        return render(entries, sorted, immutableTag, ByteBuffer::allocate);
+    }
+
+    /**
+     * Render a header into a buffer provided by the caller
+     * <p>
+     * This allows rendering into pooled buffers. The allocator is called once,
+     * with the maximum size of the rendered header. The buffer it returns must
+     * have at least this number of bytes remaining, starting at position zero.
+     * </p>
+     *
+     * @param entries the entries to render
+     * @param sorted whether the entries should get sorted by tag
+     * @param immutableTag the immutable tag to add, may be <code>null</code>
+     * @param allocator the allocator for the target buffer
+     * @return the buffer returned by the allocator, flipped for reading the
+     *         rendered header
+     */
+    public static ByteBuffer render(final HeaderEntry<?>[] entries, final boolean sorted, final Integer immutableTag, final IntFunction<ByteBuffer> allocator) {
         Objects.requireNonNull(entries);
+        Objects.requireNonNull(allocator);
 
         // sorted header
 
@@ -59,7 +80,7 @@ public final class Headers {
         }
         len += numEntries * 8; // over allocate for paddings
 
-        final ByteBuffer buffer = ByteBuffer.allocate(len);
+        final ByteBuffer buffer = allocator.apply(len);
 
         // header magic
 
@@ -117,24 +138,19 @@ public final class Headers {
         }
 
         if (immutableTag != null) {
-            final ByteBuffer tagData = ByteBuffer.wrap(new byte[16]);
+            // get the index in the payload section ... we are last now
+
+            final int index = buffer.position() - startPayloadPosition;
 
             /*
              * create the data section for the immutable tag
              * this is indeed another tag record structure, stored inside the
-             * payload data of the immutable tag entry
+             * payload data of the immutable tag entry, written in place
              */
 
             final int numImmutable = entries.length + 1; // we want all entries to be immutable
-            fillEntryRecordAt(tagData, 0, immutableTag, Type.BLOB.type(), -numImmutable * 16, 16);
-
-            // get the index in the payload section ... we are last now
-
-            final int index = buffer.position() - startPayloadPosition;
-
-            // but the data of the immutable tag into the payload section
-
-            buffer.put(tagData.array());
+            fillEntryRecordAt(buffer, buffer.position(), immutableTag, Type.BLOB.type(), -numImmutable * 16, 16);
+            buffer.position(buffer.position() + 16);
 
             // write the entry record of the immutable tag
 
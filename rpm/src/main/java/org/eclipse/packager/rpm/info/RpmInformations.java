@@ -27,6 +27,7 @@ import org.eclipse.packager.rpm.RpmSignatureTag;
 import org.eclipse.packager.rpm.RpmTag;
 import org.eclipse.packager.rpm.RpmTagValue;
 import org.eclipse.packager.rpm.info.RpmInformation.Dependency;
+import org.eclipse.packager.rpm.parse.FileTable;
 import org.eclipse.packager.rpm.parse.InputHeader;
 import org.eclipse.packager.rpm.parse.RpmInputStream;
 
@@ -79,6 +80,28 @@ public final class RpmInformations {
      * @throws IllegalArgumentException if there are any problems reading the headers
      */
     public static RpmInformation makeInformation(final RpmInputStream in) throws IOException {
+        return makeInformation(in, false);
+    }
+
+    /**
+     * Returns the RPM information for the given RPM input stream.
+     * <p>
+     * If <code>headerOnly</code> is <code>true</code>, the list of files and
+     * directories is reconstructed from the header file table
+     * (<code>BASENAMES</code>, <code>DIRNAMES</code>, <code>DIR_INDEXES</code>
+     * and <code>FILE_MODES</code>) and the payload will never be read or
+     * decompressed. Ghost entries are skipped, as they are not part of the
+     * payload either.
+     * </p>
+     *
+     * @param in the RPM input stream
+     * @param headerOnly whether to only use the header for collecting the
+     *            file list
+     * @return the RPM information for the given RPM input stream
+     * @throws IOException if an error occurs while reading from the given RPM input stream
+     * @throws IllegalArgumentException if there are any problems reading the headers
+     */
+    public static RpmInformation makeInformation(final RpmInputStream in, final boolean headerOnly) throws IOException {
         final InputHeader<RpmTag> header = in.getPayloadHeader();
         final InputHeader<RpmSignatureTag> signature = in.getSignatureHeader();
 
@@ -141,7 +164,12 @@ public final class RpmInformations {
 
         // files
 
-        final CpioArchiveInputStream cpio = in.getCpioStream();
+        if (headerOnly) {
+            fillFilesFromHeader(header, result);
+            return result;
+        }
+
+        final CpioArchiveInputStream cpio = in.getPayloadArchiveStream();
         CpioArchiveEntry cpioEntry;
         while ((cpioEntry = cpio.getNextEntry()) != null) {
             final String name = normalize(cpioEntry.getName());
@@ -157,6 +185,30 @@ public final class RpmInformations {
         return result;
     }
 
+    /**
+     * Fill the files and directories of the RPM information from the header
+     * file table.
+     *
+     * @param header the payload header to read from
+     * @param result the information to fill
+     * @throws IOException if the file table is inconsistent
+     */
+    public static void fillFilesFromHeader(final InputHeader<RpmTag> header, final RpmInformation result) throws IOException {
+        final FileTable table = FileTable.fromHeader(header);
+
+        for (int i = 0; i < table.size(); i++) {
+            if (table.isGhost(i)) {
+                continue;
+            }
+
+            if (table.isRegularFile(i)) {
+                result.getFiles().add(table.getName(i));
+            } else if (table.isDirectory(i)) {
+                result.getDirectories().add(table.getName(i));
+            }
+        }
+    }
+
     public static List<Dependency> makeDependencies(final InputHeader<RpmTag> header, final RpmTag namesTag, final RpmTag versionsTag, final RpmTag flagsTag) {
         final List<String> names = header.getStringList(namesTag);
         final List<String> versions = header.getStringList(versionsTag);
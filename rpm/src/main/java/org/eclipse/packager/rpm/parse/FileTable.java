@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.parse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.packager.rpm.FileFlags;
+import org.eclipse.packager.rpm.RpmTag;
+import org.eclipse.packager.rpm.build.DigestAlgorithm;
+
+/**
+ * The file table of an RPM package header
+ * <p>
+ * This gives index based access to the per-file arrays of the payload header
+ * (names, modes, sizes, digests, ...) and allows to look up the index of an
+ * entry by the name used in the CPIO payload.
+ * </p>
+ */
+public class FileTable {
+    public static final int S_IFMT = 0170000;
+
+    public static final int S_IFDIR = 0040000;
+
+    public static final int S_IFREG = 0100000;
+
+    public static final int S_IFLNK = 0120000;
+
+    private final String[] names;
+
+    private final int[] modes;
+
+    private final long[] sizes;
+
+    private final long[] mtimes;
+
+    private final String[] digests;
+
+    private final String[] linkTos;
+
+    private final int[] flags;
+
+    private final long[] inodes;
+
+    private final long[] devices;
+
+    private final DigestAlgorithm digestAlgorithm;
+
+    private final Map<String, Integer> index;
+
+    private FileTable(final String[] names, final int[] modes, final long[] sizes, final long[] mtimes, final String[] digests, final String[] linkTos, final int[] flags, final long[] inodes, final long[] devices, final DigestAlgorithm digestAlgorithm) {
+        this.names = names;
+        this.modes = modes;
+        this.sizes = sizes;
+        this.mtimes = mtimes;
+        this.digests = digests;
+        this.linkTos = linkTos;
+        this.flags = flags;
+        this.inodes = inodes;
+        this.devices = devices;
+        this.digestAlgorithm = digestAlgorithm;
+
+        this.index = new HashMap<>(names.length * 4 / 3 + 1);
+        for (int i = 0; i < names.length; i++) {
+            this.index.put(names[i], i);
+        }
+    }
+
+    /**
+     * Create a file table from a payload header
+     *
+     * @param header the payload header
+     * @return the file table, may be empty, but never <code>null</code>
+     * @throws IOException if the file table is inconsistent, or the digest
+     *             algorithm is unknown
+     */
+    public static FileTable fromHeader(final InputHeader<RpmTag> header) throws IOException {
+        final List<String> baseNames = header.getStringList(RpmTag.BASENAMES);
+
+        final Integer digestAlgo = header.getInteger(RpmTag.FILE_DIGESTALGO);
+        final DigestAlgorithm digestAlgorithm = digestAlgo != null ? DigestAlgorithm.fromTag(digestAlgo) : DigestAlgorithm.MD5;
+
+        if (baseNames == null) {
+            return new FileTable(new String[0], new int[0], new long[0], new long[0], new String[0], new String[0], new int[0], new long[0], new long[0], digestAlgorithm);
+        }
+
+        final int size = baseNames.size();
+
+        final List<String> dirNames = header.getStringList(RpmTag.DIRNAMES);
+        final long[] dirIndexes = longs(header, RpmTag.DIR_INDEXES, size, true);
+
+        if (dirNames == null) {
+            throw new IOException(String.format("Missing directory names [%s]", RpmTag.DIRNAMES));
+        }
+
+        final String[] names = new String[size];
+        for (int i = 0; i < size; i++) {
+            final long dirIndex = dirIndexes[i];
+            if (dirIndex < 0 || dirIndex >= dirNames.size()) {
+                throw new IOException(String.format("Invalid directory index %s for file %s", dirIndex, baseNames.get(i)));
+            }
+            names[i] = dirNames.get((int) dirIndex) + baseNames.get(i);
+        }
+
+        final int[] modes = new int[size];
+        final Short[] rawModes = header.getOptionalTag(RpmTag.FILE_MODES.getValue(), Short[].class).flatMap(value -> value.getValue().asShortArray()).orElse(null);
+        checkSize(RpmTag.FILE_MODES, rawModes == null ? -1 : rawModes.length, size);
+        for (int i = 0; i < size; i++) {
+            modes[i] = rawModes[i] & 0xFFFF;
+        }
+
+        final int[] flags = new int[size];
+        final List<Integer> rawFlags = header.getIntegerList(RpmTag.FILE_FLAGS);
+        if (rawFlags != null) {
+            checkSize(RpmTag.FILE_FLAGS, rawFlags.size(), size);
+            for (int i = 0; i < size; i++) {
+                flags[i] = rawFlags.get(i);
+            }
+        }
+
+        return new FileTable(names, modes,
+                longs(header, RpmTag.FILE_SIZES, size, true),
+                longs(header, RpmTag.FILE_MTIMES, size, false),
+                strings(header, RpmTag.FILE_DIGESTS, size),
+                strings(header, RpmTag.FILE_LINKTO, size),
+                flags,
+                longs(header, RpmTag.FILE_INODES, size, false),
+                longs(header, RpmTag.FILE_DEVICES, size, false),
+                digestAlgorithm);
+    }
+
+    private static void checkSize(final RpmTag tag, final int actual, final int expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Invalid size of file table array [%s] - expected: %s, actual: %s", tag, expected, actual));
+        }
+    }
+
+    private static long[] longs(final InputHeader<RpmTag> header, final RpmTag tag, final int size, final boolean required) throws IOException {
+        final HeaderValue<?> value = header.getRawTags().get(tag.getValue());
+        final Long[] raw = value != null ? value.getValue().asLongArray().orElse(null) : null;
+
+        if (raw == null) {
+            if (required) {
+                throw new IOException(String.format("Missing file table array [%s]", tag));
+            }
+            return new long[size];
+        }
+
+        checkSize(tag, raw.length, size);
+
+        final long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = raw[i];
+        }
+        return result;
+    }
+
+    private static String[] strings(final InputHeader<RpmTag> header, final RpmTag tag, final int size) throws IOException {
+        final List<String> raw = header.getStringList(tag);
+
+        if (raw == null) {
+            return new String[size];
+        }
+
+        checkSize(tag, raw.size(), size);
+
+        return raw.toArray(new String[size]);
+    }
+
+    /**
+     * Normalize a CPIO payload entry name to the name used in the header
+     *
+     * @param name the name of the CPIO entry
+     * @return the absolute path name, as used in the file table
+     */
+    public static String normalize(final String name) {
+        if (name.startsWith("./")) {
+            return name.substring(1);
+        }
+        if (!name.startsWith("/")) {
+            return "/" + name;
+        }
+        return name;
+    }
+
+    /**
+     * Find the file table index of a CPIO payload entry
+     *
+     * @param cpioName the name of the CPIO entry
+     * @return the index, or <code>-1</code> if the file table doesn't have a
+     *         matching entry
+     */
+    public int indexOf(final String cpioName) {
+        final Integer result = this.index.get(normalize(cpioName));
+        return result != null ? result : -1;
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    public DigestAlgorithm getDigestAlgorithm() {
+        return this.digestAlgorithm;
+    }
+
+    public String getName(final int i) {
+        return this.names[i];
+    }
+
+    public int getMode(final int i) {
+        return this.modes[i];
+    }
+
+    public long getSize(final int i) {
+        return this.sizes[i];
+    }
+
+    public long getModificationTime(final int i) {
+        return this.mtimes[i];
+    }
+
+    /**
+     * Get the file digest
+     *
+     * @param i the index
+     * @return the hex encoded digest, or <code>null</code> if there is none
+     *         (e.g. for directories)
+     */
+    public String getDigest(final int i) {
+        final String digest = this.digests[i];
+        return digest == null || digest.isEmpty() ? null : digest;
+    }
+
+    public String getLinkTo(final int i) {
+        final String linkTo = this.linkTos[i];
+        return linkTo == null || linkTo.isEmpty() ? null : linkTo;
+    }
+
+    public int getFlags(final int i) {
+        return this.flags[i];
+    }
+
+    public long getInode(final int i) {
+        return this.inodes[i];
+    }
+
+    public long getDevice(final int i) {
+        return this.devices[i];
+    }
+
+    public boolean isRegularFile(final int i) {
+        return (this.modes[i] & S_IFMT) == S_IFREG;
+    }
+
+    public boolean isDirectory(final int i) {
+        return (this.modes[i] & S_IFMT) == S_IFDIR;
+    }
+
+    public boolean isSymbolicLink(final int i) {
+        return (this.modes[i] & S_IFMT) == S_IFLNK;
+    }
+
+    public boolean isGhost(final int i) {
+        return (this.flags[i] & FileFlags.GHOST.getValue()) != 0;
+    }
+}
@@ -16,6 +16,7 @@ package org.eclipse.packager.rpm.parse;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -66,7 +67,12 @@ public class RpmInputStream extends InputStream {
         }
     }
 
-    protected void ensureInit() throws IOException {
+    /**
+     * Read the lead and both headers, but do not touch the payload.
+     *
+     * @throws IOException if reading the headers fails
+     */
+    protected void ensureHeaders() throws IOException {
         if (this.lead == null) {
             this.lead = readLead();
         }
@@ -78,6 +84,10 @@ public class RpmInputStream extends InputStream {
         if (this.payloadHeader == null) {
             this.payloadHeader = readHeader(false);
         }
+    }
+
+    protected void ensureInit() throws IOException {
+        ensureHeaders();
 
         // set up content stream
 
@@ -106,22 +116,52 @@ public class RpmInputStream extends InputStream {
         return coding.createProvider().createInputStream(this.in);
     }
 
-    public CpioArchiveInputStream getCpioStream() {
+    /**
+     * Get the payload as CPIO stream
+     * <p>
+     * The payload stream is set up lazily, when this method (or one of the
+     * read methods) is called for the first time. Only reading the lead or
+     * headers will not start decoding the payload.
+     * </p>
+     *
+     * @return the CPIO stream of the payload
+     * @throws IOException if setting up the payload stream fails
+     */
+    public CpioArchiveInputStream getPayloadArchiveStream() throws IOException {
+        ensureInit();
         return this.cpioStream;
     }
 
+    /**
+     * Get the payload as CPIO stream
+     *
+     * @return the CPIO stream of the payload
+     * @throws UncheckedIOException if setting up the payload stream fails
+     * @deprecated use {@link #getPayloadArchiveStream()}, which reports
+     *             failures setting up the payload stream as
+     *             {@link IOException}
+     */
+    @Deprecated
+    public CpioArchiveInputStream getCpioStream() {
+        try {
+            return getPayloadArchiveStream();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public RpmLead getLead() throws IOException {
-        ensureInit();
+        ensureHeaders();
         return this.lead;
     }
 
     public InputHeader<RpmSignatureTag> getSignatureHeader() throws IOException {
-        ensureInit();
+        ensureHeaders();
         return this.signatureHeader;
     }
 
     public InputHeader<RpmTag> getPayloadHeader() throws IOException {
-        ensureInit();
+        ensureHeaders();
         return this.payloadHeader;
     }
 
@@ -260,6 +300,7 @@ public class RpmInputStream extends InputStream {
 
     @Override
     public int read(final byte[] b, final int off, final int len) throws IOException {
+        ensureInit();
         return this.payloadStream.read(b, off, len);
     }
 
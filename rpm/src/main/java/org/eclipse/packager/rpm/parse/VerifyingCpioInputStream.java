@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.compress.archivers.cpio.CpioArchiveEntry;
+import org.apache.commons.compress.archivers.cpio.CpioArchiveInputStream;
+import org.eclipse.packager.utils.Strings;
+
+/**
+ * A CPIO payload stream which verifies entries against the header file table
+ * <p>
+ * Each payload entry is mapped to its entry in the header file table. While
+ * the content of a regular file is read, it is fed into the digest algorithm
+ * indicated by <code>FILE_DIGESTALGO</code>. When the entry is finished (by
+ * moving to the next entry, or reaching the end of the payload) the digest
+ * and size are compared with <code>FILE_DIGESTS</code> and
+ * <code>FILE_SIZES</code>. Content which isn't read by the caller is consumed
+ * and verified as well. Nothing gets buffered beyond a small skip buffer.
+ * </p>
+ * <p>
+ * Mismatches don't fail the stream, they are collected and can optionally be
+ * reported to a listener as soon as they are detected.
+ * </p>
+ */
+public class VerifyingCpioInputStream extends InputStream {
+    public enum Kind {
+        /**
+         * The digest of the content doesn't match the header
+         */
+        DIGEST,
+        /**
+         * The size of the entry doesn't match the header
+         */
+        SIZE,
+        /**
+         * The payload entry has no entry in the header
+         */
+        UNKNOWN_ENTRY,
+        /**
+         * The header lists a file which is missing in the payload
+         */
+        MISSING_ENTRY;
+    }
+
+    public static class Mismatch {
+        private final String name;
+
+        private final Kind kind;
+
+        private final String expected;
+
+        private final String actual;
+
+        public Mismatch(final String name, final Kind kind, final String expected, final String actual) {
+            this.name = name;
+            this.kind = kind;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        public String getExpected() {
+            return this.expected;
+        }
+
+        public String getActual() {
+            return this.actual;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s: %s - expected: %s, actual: %s]", this.kind, this.name, this.expected, this.actual);
+        }
+    }
+
+    private final CpioArchiveInputStream cpio;
+
+    private final FileTable table;
+
+    private final Consumer<Mismatch> listener;
+
+    private final List<Mismatch> mismatches = new ArrayList<>();
+
+    private final boolean[] seen;
+
+    private final byte[] skipBuffer = new byte[8192];
+
+    private final byte[] single = new byte[1];
+
+    private MessageDigest digest;
+
+    private CpioArchiveEntry current;
+
+    private int currentIndex = -1;
+
+    private long currentSize;
+
+    private boolean hashing;
+
+    private boolean finished;
+
+    public VerifyingCpioInputStream(final RpmInputStream in) throws IOException {
+        this(in, null);
+    }
+
+    /**
+     * Create a new verifying stream
+     *
+     * @param in the RPM stream, must be positioned before the payload
+     * @param listener an optional listener, being called for each mismatch as
+     *            soon as it is detected
+     * @throws IOException if reading the header fails, or the digest
+     *             algorithm is not supported
+     */
+    public VerifyingCpioInputStream(final RpmInputStream in, final Consumer<Mismatch> listener) throws IOException {
+        this.table = FileTable.fromHeader(in.getPayloadHeader());
+        this.cpio = in.getPayloadArchiveStream();
+        this.listener = listener;
+        this.seen = new boolean[this.table.size()];
+    }
+
+    public FileTable getFileTable() {
+        return this.table;
+    }
+
+    /**
+     * Get the file table index of the current entry
+     *
+     * @return the index, or <code>-1</code> if there is no current entry or
+     *         the entry is not part of the file table
+     */
+    public int getCurrentIndex() {
+        return this.currentIndex;
+    }
+
+    /**
+     * Move to the next payload entry
+     * <p>
+     * This will finish and verify the current entry first.
+     * </p>
+     *
+     * @return the next entry, or <code>null</code> if the end of the payload
+     *         was reached
+     * @throws IOException if reading the payload fails
+     */
+    public CpioArchiveEntry getNextEntry() throws IOException {
+        finishEntry();
+
+        this.current = this.cpio.getNextEntry();
+        this.currentSize = 0;
+        this.hashing = false;
+
+        if (this.current == null) {
+            finish();
+            return null;
+        }
+
+        this.currentIndex = this.table.indexOf(this.current.getName());
+
+        if (this.currentIndex < 0) {
+            report(new Mismatch(FileTable.normalize(this.current.getName()), Kind.UNKNOWN_ENTRY, null, null));
+        } else {
+            this.seen[this.currentIndex] = true;
+            if (this.table.isRegularFile(this.currentIndex) && this.table.getDigest(this.currentIndex) != null && !isHardLinkPlaceholder()) {
+                startDigest();
+                this.hashing = true;
+            }
+        }
+
+        return this.current;
+    }
+
+    private void startDigest() throws IOException {
+        if (this.digest == null) {
+            try {
+                this.digest = this.table.getDigestAlgorithm().createDigest();
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+        } else {
+            this.digest.reset();
+        }
+    }
+
+    /**
+     * Check if the current entry is a hard link, not carrying the content
+     * <p>
+     * All but one entry of a set of hard links are stored without content.
+     * </p>
+     */
+    private boolean isHardLinkPlaceholder() {
+        return this.current.getNumberOfLinks() > 1 && this.current.getSize() == 0;
+    }
+
+    private void finishEntry() throws IOException {
+        if (this.current == null) {
+            return;
+        }
+
+        // consume remaining content
+
+        while (read(this.skipBuffer, 0, this.skipBuffer.length) >= 0) {
+            // just consume
+        }
+
+        if (this.currentIndex >= 0 && this.table.isRegularFile(this.currentIndex) && !isHardLinkPlaceholder()) {
+            final String name = this.table.getName(this.currentIndex);
+            final long expectedSize = this.table.getSize(this.currentIndex);
+            if (expectedSize != this.currentSize) {
+                report(new Mismatch(name, Kind.SIZE, Long.toString(expectedSize), Long.toString(this.currentSize)));
+            }
+
+            final String expectedDigest = this.table.getDigest(this.currentIndex);
+            if (this.hashing) {
+                final String actual = Strings.hex(this.digest.digest());
+                if (!actual.equalsIgnoreCase(expectedDigest)) {
+                    report(new Mismatch(name, Kind.DIGEST, expectedDigest, actual));
+                }
+            }
+        }
+
+        this.current = null;
+        this.currentIndex = -1;
+        this.hashing = false;
+    }
+
+    private void finish() {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+
+        for (int i = 0; i < this.seen.length; i++) {
+            if (!this.seen[i] && !this.table.isGhost(i)) {
+                report(new Mismatch(this.table.getName(i), Kind.MISSING_ENTRY, null, null));
+            }
+        }
+    }
+
+    private void report(final Mismatch mismatch) {
+        this.mismatches.add(mismatch);
+        if (this.listener != null) {
+            this.listener.accept(mismatch);
+        }
+    }
+
+    /**
+     * Read all remaining entries, verifying them
+     *
+     * @return the list of all mismatches
+     * @throws IOException if reading the payload fails
+     */
+    public List<Mismatch> verifyRemaining() throws IOException {
+        while (getNextEntry() != null) {
+            // getNextEntry consumes and verifies
+        }
+        return getMismatches();
+    }
+
+    /**
+     * Get the mismatches detected so far
+     *
+     * @return an unmodifiable list of mismatches, never <code>null</code>
+     */
+    public List<Mismatch> getMismatches() {
+        return Collections.unmodifiableList(this.mismatches);
+    }
+
+    /**
+     * Check if there have been no mismatches so far
+     * <p>
+     * The result is only final after the end of the payload was reached.
+     * </p>
+     *
+     * @return <code>true</code> if no mismatch was detected
+     */
+    public boolean isValid() {
+        return this.mismatches.isEmpty();
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int rc = read(this.single, 0, 1);
+        return rc < 0 ? -1 : this.single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (this.current == null) {
+            return -1;
+        }
+
+        final int rc = this.cpio.read(b, off, len);
+        if (rc > 0) {
+            this.currentSize += rc;
+            if (this.hashing) {
+                this.digest.update(b, off, rc);
+            }
+        }
+        return rc;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.cpio.close();
+    }
+}
@@ -0,0 +1,582 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.scan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.packager.rpm.HashAlgorithm;
+import org.eclipse.packager.rpm.info.RpmInformation;
+import org.eclipse.packager.rpm.info.RpmInformation.Changelog;
+import org.eclipse.packager.rpm.info.RpmInformation.Dependency;
+import org.eclipse.packager.rpm.info.RpmInformation.Version;
+
+/**
+ * A persistent cache of RPM metadata
+ * <p>
+ * The cache stores the {@link RpmInformation} and file checksums of RPM files,
+ * keyed on the path of the file. An entry is only considered valid if size,
+ * modification timestamp and file key (if provided by the file system) of
+ * the file are still the same as when the entry was stored.
+ * </p>
+ * <p>
+ * The cache is held in memory and can be loaded from and saved to a file,
+ * using a compact binary format. Repeating strings (like dependency names or
+ * directory names) are only stored once per file. The format is versioned,
+ * loading a file of a different version results in an empty cache.
+ * </p>
+ * <p>
+ * Instances of this class are thread safe.
+ * </p>
+ */
+public class MetadataCache {
+    private static final int MAGIC = 0x52504D43; // RPMC
+
+    private static final int VERSION = 1;
+
+    public static class Entry {
+        private final RpmInformation information;
+
+        private final Map<HashAlgorithm, String> checksums;
+
+        public Entry(final RpmInformation information, final Map<HashAlgorithm, String> checksums) {
+            this.information = Objects.requireNonNull(information);
+            this.checksums = checksums == null || checksums.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(checksums));
+        }
+
+        public RpmInformation getInformation() {
+            return this.information;
+        }
+
+        public Map<HashAlgorithm, String> getChecksums() {
+            return this.checksums;
+        }
+    }
+
+    private static class Key {
+        private final long size;
+
+        private final long seconds;
+
+        private final int nanos;
+
+        private final String fileKey;
+
+        Key(final long size, final long seconds, final int nanos, final String fileKey) {
+            this.size = size;
+            this.seconds = seconds;
+            this.nanos = nanos;
+            this.fileKey = fileKey;
+        }
+
+        static Key of(final BasicFileAttributes attributes) {
+            final Instant timestamp = attributes.lastModifiedTime().toInstant();
+            final Object fileKey = attributes.fileKey();
+            return new Key(attributes.size(), timestamp.getEpochSecond(), timestamp.getNano(), fileKey != null ? fileKey.toString() : null);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return this.size == that.size && this.seconds == that.seconds && this.nanos == that.nanos && Objects.equals(this.fileKey, that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.size, this.seconds, this.nanos, this.fileKey);
+        }
+    }
+
+    private static class Record {
+        final Key key;
+
+        final Entry entry;
+
+        volatile boolean used;
+
+        Record(final Key key, final Entry entry, final boolean used) {
+            this.key = key;
+            this.entry = entry;
+            this.used = used;
+        }
+    }
+
+    private final Map<String, Record> records = new ConcurrentHashMap<>();
+
+    public MetadataCache() {
+    }
+
+    /**
+     * Load a cache from a file
+     *
+     * @param file the file to load
+     * @return the cache, empty if the file doesn't exist or was written using
+     *         a different format version
+     * @throws IOException if reading the file fails, or the file is corrupt
+     */
+    public static MetadataCache load(final Path file) throws IOException {
+        final MetadataCache result = new MetadataCache();
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            result.read(new DataInputStream(in));
+        } catch (final NoSuchFileException e) {
+            // start with an empty cache
+        }
+
+        return result;
+    }
+
+    /**
+     * Save the cache to a file
+     * <p>
+     * The cache is written to a temporary file first, which then replaces
+     * the target file.
+     * </p>
+     *
+     * @param file the file to write to
+     * @throws IOException if writing fails
+     */
+    public void save(final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        final Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                final DataOutputStream data = new DataOutputStream(out);
+                write(data);
+                data.flush();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static String keyOf(final Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Look up an entry
+     * <p>
+     * The file attributes are read from the file system and compared with the
+     * stored values.
+     * </p>
+     *
+     * @param path the file to look up
+     * @return the entry, or <code>null</code> if there is no valid entry
+     * @throws IOException if reading the file attributes fails
+     */
+    public Entry get(final Path path) throws IOException {
+        return get(path, Files.readAttributes(path, BasicFileAttributes.class));
+    }
+
+    /**
+     * Look up an entry
+     *
+     * @param path the file to look up
+     * @param attributes the current attributes of the file
+     * @return the entry, or <code>null</code> if there is no valid entry
+     */
+    public Entry get(final Path path, final BasicFileAttributes attributes) {
+        final Record record = this.records.get(keyOf(path));
+        if (record == null || !record.key.equals(Key.of(attributes))) {
+            return null;
+        }
+        record.used = true;
+        return record.entry;
+    }
+
+    /**
+     * Store an entry
+     *
+     * @param path the file the information was read from
+     * @param attributes the attributes of the file, as read
+     *            <em>before</em> the file was parsed
+     * @param entry the entry to store
+     */
+    public void put(final Path path, final BasicFileAttributes attributes, final Entry entry) {
+        this.records.put(keyOf(path), new Record(Key.of(attributes), Objects.requireNonNull(entry), true));
+    }
+
+    public void remove(final Path path) {
+        this.records.remove(keyOf(path));
+    }
+
+    public int size() {
+        return this.records.size();
+    }
+
+    /**
+     * Remove all entries which have not been used
+     * <p>
+     * An entry is used if it was returned by a lookup, or stored, since it
+     * was loaded. Calling this method after a full scan drops entries of
+     * files which no longer exist.
+     * </p>
+     *
+     * @return the number of removed entries
+     */
+    public int prune() {
+        int removed = 0;
+        for (final Map.Entry<String, Record> entry : this.records.entrySet()) {
+            if (!entry.getValue().used && this.records.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void write(final DataOutputStream out) throws IOException {
+        final Map<String, Record> snapshot = new HashMap<>(this.records);
+        final StringWriter strings = new StringWriter(out);
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeVarInt(out, snapshot.size());
+
+        for (final Map.Entry<String, Record> entry : snapshot.entrySet()) {
+            final Key key = entry.getValue().key;
+            strings.write(entry.getKey());
+            writeVarLong(out, key.size);
+            out.writeLong(key.seconds);
+            out.writeInt(key.nanos);
+            strings.write(key.fileKey);
+
+            final Entry value = entry.getValue().entry;
+            writeVarInt(out, value.checksums.size());
+            for (final Map.Entry<HashAlgorithm, String> checksum : value.checksums.entrySet()) {
+                strings.write(checksum.getKey().name());
+                strings.write(checksum.getValue());
+            }
+
+            writeInformation(out, strings, value.information);
+        }
+    }
+
+    private void read(final DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid cache file");
+        }
+        if (in.readInt() != VERSION) {
+            return;
+        }
+
+        final StringReader strings = new StringReader(in);
+
+        final int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            final String path = strings.read();
+            final Key key = new Key(readVarLong(in), in.readLong(), in.readInt(), strings.read());
+
+            final int numChecksums = readVarInt(in);
+            final Map<HashAlgorithm, String> checksums = new EnumMap<>(HashAlgorithm.class);
+            for (int j = 0; j < numChecksums; j++) {
+                final String algorithm = strings.read();
+                final String value = strings.read();
+                try {
+                    checksums.put(HashAlgorithm.valueOf(algorithm), value);
+                } catch (final IllegalArgumentException e) {
+                    throw new IOException(String.format("Unknown hash algorithm: %s", algorithm), e);
+                }
+            }
+
+            this.records.put(path, new Record(key, new Entry(readInformation(in, strings), checksums), false));
+        }
+    }
+
+    private static void writeInformation(final DataOutputStream out, final StringWriter strings, final RpmInformation info) throws IOException {
+        strings.write(info.getName());
+
+        final Version version = info.getVersion();
+        out.writeBoolean(version != null);
+        if (version != null) {
+            strings.write(version.getVersion());
+            strings.write(version.getRelease());
+            writeNullableLong(out, version.getEpoch() != null ? Long.valueOf(version.getEpoch()) : null);
+        }
+
+        strings.write(info.getArchitecture());
+        strings.write(info.getLicense());
+        strings.write(info.getSummary());
+        strings.write(info.getDescription());
+        strings.write(info.getPackager());
+        strings.write(info.getVendor());
+        strings.write(info.getUrl());
+        strings.write(info.getBuildHost());
+        strings.write(info.getGroup());
+        strings.write(info.getSourcePackage());
+
+        writeNullableLong(out, info.getInstalledSize());
+        writeNullableLong(out, info.getArchiveSize());
+        writeNullableLong(out, info.getBuildTimestamp());
+        writeVarLong(out, info.getHeaderStart());
+        writeVarLong(out, info.getHeaderEnd());
+
+        writeVarInt(out, info.getChangelog().size());
+        for (final Changelog changelog : info.getChangelog()) {
+            out.writeLong(changelog.getTimestamp());
+            strings.write(changelog.getAuthor());
+            strings.write(changelog.getText());
+        }
+
+        writePaths(out, strings, info.getFiles());
+        writePaths(out, strings, info.getDirectories());
+
+        writeDependencies(out, strings, info.getProvides());
+        writeDependencies(out, strings, info.getRequires());
+        writeDependencies(out, strings, info.getObsoletes());
+        writeDependencies(out, strings, info.getConflicts());
+    }
+
+    private static RpmInformation readInformation(final DataInputStream in, final StringReader strings) throws IOException {
+        final RpmInformation info = new RpmInformation();
+
+        info.setName(strings.read());
+
+        if (in.readBoolean()) {
+            final String version = strings.read();
+            final String release = strings.read();
+            final Long epoch = readNullableLong(in);
+            info.setVersion(new Version(version, release, epoch != null ? epoch.intValue() : null));
+        }
+
+        info.setArchitecture(strings.read());
+        info.setLicense(strings.read());
+        info.setSummary(strings.read());
+        info.setDescription(strings.read());
+        info.setPackager(strings.read());
+        info.setVendor(strings.read());
+        info.setUrl(strings.read());
+        info.setBuildHost(strings.read());
+        info.setGroup(strings.read());
+        info.setSourcePackage(strings.read());
+
+        info.setInstalledSize(readNullableLong(in));
+        info.setArchiveSize(readNullableLong(in));
+        info.setBuildTimestamp(readNullableLong(in));
+        info.setHeaderStart(readVarLong(in));
+        info.setHeaderEnd(readVarLong(in));
+
+        final int numChangelog = readVarInt(in);
+        final List<Changelog> changelog = new LinkedList<>();
+        for (int i = 0; i < numChangelog; i++) {
+            final long timestamp = in.readLong();
+            changelog.add(new Changelog(timestamp, strings.read(), strings.read()));
+        }
+        info.setChangelog(changelog);
+
+        info.setFiles(readPaths(in, strings));
+        info.setDirectories(readPaths(in, strings));
+
+        info.setProvides(readDependencies(in, strings));
+        info.setRequires(readDependencies(in, strings));
+        info.setObsoletes(readDependencies(in, strings));
+        info.setConflicts(readDependencies(in, strings));
+
+        return info;
+    }
+
+    /**
+     * Write a set of paths, split into parent and name
+     * <p>
+     * This allows to share the parent directories between entries.
+     * </p>
+     */
+    private static void writePaths(final DataOutputStream out, final StringWriter strings, final Collection<String> paths) throws IOException {
+        writeVarInt(out, paths.size());
+        for (final String path : paths) {
+            final int idx = path.lastIndexOf('/');
+            strings.write(path.substring(0, idx + 1));
+            strings.write(path.substring(idx + 1));
+        }
+    }
+
+    private static Set<String> readPaths(final DataInputStream in, final StringReader strings) throws IOException {
+        final int size = readVarInt(in);
+        final Set<String> result = new HashSet<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            result.add(strings.read() + strings.read());
+        }
+        return result;
+    }
+
+    private static void writeDependencies(final DataOutputStream out, final StringWriter strings, final List<Dependency> dependencies) throws IOException {
+        writeVarInt(out, dependencies.size());
+        for (final Dependency dependency : dependencies) {
+            strings.write(dependency.getName());
+            strings.write(dependency.getVersion());
+            writeVarLong(out, dependency.getFlags());
+        }
+    }
+
+    private static List<Dependency> readDependencies(final DataInputStream in, final StringReader strings) throws IOException {
+        final int size = readVarInt(in);
+        final List<Dependency> result = new LinkedList<>();
+        for (int i = 0; i < size; i++) {
+            final String name = strings.read();
+            final String version = strings.read();
+            result.add(new Dependency(name, version, readVarLong(in)));
+        }
+        return result;
+    }
+
+    private static void writeNullableLong(final DataOutputStream out, final Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(final DataInputStream in) throws IOException {
+        final long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Invalid cache file: value out of range");
+        }
+        return (int) value;
+    }
+
+    private static void writeVarLong(final DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(final DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Invalid cache file: malformed number");
+    }
+
+    /**
+     * Writes strings, replacing repeated strings with a back reference
+     * <p>
+     * Each string is prefixed with a number: <code>0</code> for
+     * <code>null</code>, an odd number for a new string with the length of the
+     * UTF-8 encoded string in the upper bits, an even number for a reference
+     * to a previously written string, with its index plus one in the upper
+     * bits.
+     * </p>
+     */
+    private static class StringWriter {
+        private final DataOutputStream out;
+
+        private final Map<String, Integer> table = new HashMap<>();
+
+        StringWriter(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        void write(final String value) throws IOException {
+            if (value == null) {
+                writeVarLong(this.out, 0);
+                return;
+            }
+
+            final Integer idx = this.table.get(value);
+            if (idx != null) {
+                writeVarLong(this.out, (idx + 1L) << 1);
+                return;
+            }
+
+            this.table.put(value, this.table.size());
+
+            final byte[] data = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(this.out, ((long) data.length << 1) | 1);
+            this.out.write(data);
+        }
+    }
+
+    private static class StringReader {
+        private final DataInputStream in;
+
+        private final List<String> table = new ArrayList<>();
+
+        StringReader(final DataInputStream in) {
+            this.in = in;
+        }
+
+        String read() throws IOException {
+            final long tag = readVarLong(this.in);
+            if (tag == 0) {
+                return null;
+            }
+
+            if ((tag & 1) == 0) {
+                final long idx = (tag >>> 1) - 1;
+                if (idx >= this.table.size()) {
+                    throw new IOException("Invalid cache file: unknown string reference");
+                }
+                return this.table.get((int) idx);
+            }
+
+            final long length = tag >>> 1;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid cache file: string too long");
+            }
+
+            final byte[] data = new byte[(int) length];
+            this.in.readFully(data);
+            final String result = new String(data, StandardCharsets.UTF_8);
+            this.table.add(result);
+            return result;
+        }
+    }
+}
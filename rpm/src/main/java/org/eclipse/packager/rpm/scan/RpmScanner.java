@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.scan;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.packager.io.IOConsumer;
+import org.eclipse.packager.io.IOFunction;
+import org.eclipse.packager.rpm.HashAlgorithm;
+import org.eclipse.packager.rpm.info.RpmInformation;
+import org.eclipse.packager.rpm.info.RpmInformations;
+import org.eclipse.packager.rpm.parse.RpmInputStream;
+import org.eclipse.packager.utils.Strings;
+
+/**
+ * Scan a large number of RPM files
+ * <p>
+ * Files are parsed concurrently, but the results are passed on to the
+ * consumer in the order of the input, on the thread calling the scanner. The
+ * number of files in flight is limited by
+ * {@link ScannerOptions#getMaxInFlight()}, so that a slow consumer doesn't
+ * lead to an unbounded number of pending results.
+ * </p>
+ * <p>
+ * Errors parsing a single file don't abort the scan, they are reported as
+ * part of the {@link ScanResult}. Errors walking the directory tree, or
+ * thrown by the consumer, do abort the scan.
+ * </p>
+ * <p>
+ * If a {@link MetadataCache} is configured, unchanged files are not read
+ * again, and newly parsed files are added to the cache.
+ * </p>
+ * <p>
+ * An instance of this class is thread safe and can be used for multiple
+ * scans.
+ * </p>
+ */
+public class RpmScanner {
+    private final ScannerOptions options;
+
+    public RpmScanner() {
+        this(new ScannerOptions());
+    }
+
+    public RpmScanner(final ScannerOptions options) {
+        this.options = new ScannerOptions(options);
+    }
+
+    /**
+     * Scan a directory tree
+     * <p>
+     * Files are processed in the lexicographical order of their paths, which
+     * makes the order of results independent of the file system.
+     * </p>
+     *
+     * @param root the directory to scan
+     * @param consumer the consumer of the results
+     * @return the number of files scanned
+     * @throws IOException if walking the directory tree fails, or the
+     *             consumer failed
+     */
+    public long scan(final Path root, final IOConsumer<ScanResult> consumer) throws IOException {
+        final List<Path> files;
+
+        final FileVisitOption[] visitOptions = this.options.isFollowLinks() ? new FileVisitOption[] { FileVisitOption.FOLLOW_LINKS } : new FileVisitOption[0];
+        final LinkOption[] linkOptions = this.options.isFollowLinks() ? new LinkOption[0] : new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
+
+        try (Stream<Path> walk = Files.walk(root, visitOptions)) {
+            files = walk
+                    .filter(path -> Files.isRegularFile(path, linkOptions))
+                    .filter(this.options.getFilter())
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return scan(files, consumer);
+    }
+
+    /**
+     * Scan a list of files
+     *
+     * @param files the files to scan, results will be reported in this order
+     * @param consumer the consumer of the results
+     * @return the number of files scanned
+     * @throws IOException if the consumer failed
+     */
+    public long scan(final Iterable<Path> files, final IOConsumer<ScanResult> consumer) throws IOException {
+        return scan(files, result -> result, consumer);
+    }
+
+    /**
+     * Scan a list of files, post-processing results in parallel
+     * <p>
+     * The mapper is called on the thread which parsed the file, right after
+     * parsing, and must be thread safe. Its results are passed on to the
+     * consumer in the order of the input files.
+     * </p>
+     *
+     * @param <T> the type of the mapped results
+     * @param files the files to scan, results will be reported in this order
+     * @param mapper the function processing the scan results
+     * @param consumer the consumer of the mapped results
+     * @return the number of files scanned
+     * @throws IOException if the mapper or the consumer failed
+     */
+    public <T> long scan(final Iterable<Path> files, final IOFunction<ScanResult, T> mapper, final IOConsumer<T> consumer) throws IOException {
+        Executor executor = this.options.getExecutor();
+        ExecutorService ownExecutor = null;
+
+        if (executor == null) {
+            ownExecutor = Executors.newFixedThreadPool(this.options.getThreads(), new ScannerThreadFactory());
+            executor = ownExecutor;
+        }
+
+        try {
+            return run(files.iterator(), executor, mapper, consumer);
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private <T> long run(final Iterator<Path> files, final Executor executor, final IOFunction<ScanResult, T> mapper, final IOConsumer<T> consumer) throws IOException {
+        final int maxInFlight = this.options.getMaxInFlight();
+        final Deque<CompletableFuture<T>> pending = new ArrayDeque<>(maxInFlight);
+
+        long count = 0;
+
+        try {
+            while (files.hasNext()) {
+                if (pending.size() >= maxInFlight) {
+                    consumer.accept(await(pending.poll()));
+                    count++;
+                }
+
+                final Path file = files.next();
+                pending.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return mapper.apply(parse(file));
+                    } catch (final IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            while (!pending.isEmpty()) {
+                consumer.accept(await(pending.poll()));
+                count++;
+            }
+        } finally {
+            for (final CompletableFuture<T> future : pending) {
+                future.cancel(false);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Scan a single file, on the calling thread
+     * <p>
+     * This reads the file only once, calculating the checksums while the
+     * package is being parsed. The metadata cache is used, if configured.
+     * </p>
+     *
+     * @param file the file to scan
+     * @return the result, never <code>null</code>
+     */
+    public ScanResult scanFile(final Path file) {
+        return parse(file);
+    }
+
+    private ScanResult parse(final Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+            final MetadataCache cache = this.options.getCache();
+            if (cache != null) {
+                final MetadataCache.Entry entry = cache.get(file, attributes);
+                if (entry != null && entry.getChecksums().keySet().containsAll(this.options.getChecksums())) {
+                    return ScanResult.success(file, attributes, entry.getInformation(), entry.getChecksums(), true);
+                }
+            }
+
+            final Map<HashAlgorithm, MessageDigest> digests = new EnumMap<>(HashAlgorithm.class);
+            for (final HashAlgorithm algorithm : this.options.getChecksums()) {
+                digests.put(algorithm, algorithm.createDigest());
+            }
+
+            final RpmInformation information;
+            try (InputStream stream = openStream(file, digests.values());
+                    // reading the payload closes the stream, which must stay open for digesting the remainder
+                    RpmInputStream in = new RpmInputStream(new FilterInputStream(stream) {
+                        @Override
+                        public void close() {
+                        }
+                    })) {
+                information = RpmInformations.makeInformation(in, this.options.isHeaderOnly());
+                if (!digests.isEmpty()) {
+                    // digest the remainder of the file
+                    stream.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+
+            final Map<HashAlgorithm, String> checksums = new EnumMap<>(HashAlgorithm.class);
+            for (final Map.Entry<HashAlgorithm, MessageDigest> entry : digests.entrySet()) {
+                checksums.put(entry.getKey(), Strings.hex(entry.getValue().digest()));
+            }
+
+            if (cache != null) {
+                cache.put(file, attributes, new MetadataCache.Entry(information, checksums));
+            }
+
+            return ScanResult.success(file, attributes, information, checksums, false);
+        } catch (final Exception e) {
+            return ScanResult.failure(file, e);
+        }
+    }
+
+    private InputStream openStream(final Path file, final Iterable<MessageDigest> digests) throws IOException {
+        InputStream stream = new BufferedInputStream(Files.newInputStream(file), this.options.getBufferSize());
+        for (final MessageDigest digest : digests) {
+            stream = new DigestInputStream(stream, digest);
+        }
+        return stream;
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for scan result");
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static class ScannerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "rpm-scanner-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
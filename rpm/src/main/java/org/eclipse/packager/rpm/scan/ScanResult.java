@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.scan;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.packager.rpm.HashAlgorithm;
+import org.eclipse.packager.rpm.info.RpmInformation;
+
+/**
+ * The result of scanning a single file
+ * <p>
+ * A result either carries the information of the package, or the error which
+ * occurred while parsing it.
+ * </p>
+ */
+public class ScanResult {
+    private final Path path;
+
+    private final BasicFileAttributes attributes;
+
+    private final RpmInformation information;
+
+    private final Map<HashAlgorithm, String> checksums;
+
+    private final boolean cached;
+
+    private final Exception error;
+
+    private ScanResult(final Path path, final BasicFileAttributes attributes, final RpmInformation information, final Map<HashAlgorithm, String> checksums, final boolean cached, final Exception error) {
+        this.path = Objects.requireNonNull(path);
+        this.attributes = attributes;
+        this.information = information;
+        this.checksums = checksums != null ? checksums : Collections.emptyMap();
+        this.cached = cached;
+        this.error = error;
+    }
+
+    public static ScanResult success(final Path path, final RpmInformation information) {
+        return success(path, null, information, null, false);
+    }
+
+    public static ScanResult success(final Path path, final BasicFileAttributes attributes, final RpmInformation information, final Map<HashAlgorithm, String> checksums, final boolean cached) {
+        return new ScanResult(path, attributes, Objects.requireNonNull(information), checksums, cached, null);
+    }
+
+    public static ScanResult failure(final Path path, final Exception error) {
+        return new ScanResult(path, null, null, null, false, Objects.requireNonNull(error));
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Get the file attributes, as read before parsing the file
+     *
+     * @return the attributes, or <code>null</code> if they are unknown
+     */
+    public BasicFileAttributes getAttributes() {
+        return this.attributes;
+    }
+
+    /**
+     * Get the package information
+     *
+     * @return the information, or <code>null</code> if parsing failed
+     */
+    public RpmInformation getInformation() {
+        return this.information;
+    }
+
+    /**
+     * Get the checksums of the file
+     *
+     * @return the checksums, never <code>null</code>
+     */
+    public Map<HashAlgorithm, String> getChecksums() {
+        return this.checksums;
+    }
+
+    /**
+     * Check if the result was taken from the metadata cache
+     *
+     * @return <code>true</code> if the file was not parsed
+     */
+    public boolean isCached() {
+        return this.cached;
+    }
+
+    /**
+     * Get the error
+     *
+     * @return the error, or <code>null</code> if parsing was successful
+     */
+    public Exception getError() {
+        return this.error;
+    }
+
+    public boolean isSuccess() {
+        return this.error == null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[ScanResult - path: %s, success: %s]", this.path, isSuccess());
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.scan;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import org.eclipse.packager.rpm.HashAlgorithm;
+
+/**
+ * Options which control the scanning process of the {@link RpmScanner}
+ * <p>
+ * The rule of thumb is that this class hosts only options for which a
+ * reasonable default can be given.
+ * </p>
+ */
+public class ScannerOptions {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final Predicate<Path> DEFAULT_FILTER = path -> path.getFileName().toString().endsWith(".rpm");
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private Executor executor;
+
+    private int maxInFlight;
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    private boolean headerOnly = true;
+
+    private boolean followLinks;
+
+    private Predicate<Path> filter = DEFAULT_FILTER;
+
+    private Set<HashAlgorithm> checksums = EnumSet.noneOf(HashAlgorithm.class);
+
+    private MetadataCache cache;
+
+    public ScannerOptions() {
+    }
+
+    public ScannerOptions(final ScannerOptions other) {
+        setThreads(other.threads);
+        setExecutor(other.executor);
+        setMaxInFlight(other.maxInFlight);
+        setBufferSize(other.bufferSize);
+        setHeaderOnly(other.headerOnly);
+        setFollowLinks(other.followLinks);
+        setFilter(other.filter);
+        setChecksums(other.checksums);
+        setCache(other.cache);
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Set the number of threads parsing files
+     * <p>
+     * This is only used if no executor is set.
+     * </p>
+     *
+     * @param threads the number of threads, values less than one will be
+     *            treated as one
+     */
+    public void setThreads(final int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Set the executor running the parser tasks
+     * <p>
+     * If no executor is set, the scanner will create and dispose its own
+     * threads for each run. On Java 21 and later, an executor creating a
+     * virtual thread per task may be used.
+     * </p>
+     *
+     * @param executor the executor to use, may be <code>null</code>
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Get the effective maximum number of files in flight
+     *
+     * @return the maximum number of files being parsed, or waiting to be
+     *         passed on to the consumer
+     */
+    public int getMaxInFlight() {
+        return this.maxInFlight > 0 ? this.maxInFlight : this.threads * 2;
+    }
+
+    /**
+     * Set the maximum number of files in flight
+     * <p>
+     * This limits the number of files which are being parsed, or whose results
+     * are waiting for being passed on to the consumer in order. It bounds the
+     * memory consumption of the scanner, independent of the executor.
+     * </p>
+     *
+     * @param maxInFlight the maximum number of files in flight, values less
+     *            than one select the default of twice the number of threads
+     */
+    public void setMaxInFlight(final int maxInFlight) {
+        this.maxInFlight = Math.max(0, maxInFlight);
+    }
+
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    public void setBufferSize(final int bufferSize) {
+        this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+    }
+
+    public boolean isHeaderOnly() {
+        return this.headerOnly;
+    }
+
+    /**
+     * Only read the headers of the packages
+     * <p>
+     * The file list will be built from the header file table, and the payload
+     * will not be decompressed. This is the default.
+     * </p>
+     *
+     * @param headerOnly <code>false</code> to read the payload as well
+     */
+    public void setHeaderOnly(final boolean headerOnly) {
+        this.headerOnly = headerOnly;
+    }
+
+    public boolean isFollowLinks() {
+        return this.followLinks;
+    }
+
+    public void setFollowLinks(final boolean followLinks) {
+        this.followLinks = followLinks;
+    }
+
+    public Predicate<Path> getFilter() {
+        return this.filter;
+    }
+
+    /**
+     * Set the filter selecting the files to scan
+     * <p>
+     * The filter is only called for regular files. By default, all files
+     * ending with <code>.rpm</code> are selected.
+     * </p>
+     *
+     * @param filter the filter, <code>null</code> selects the default
+     */
+    public void setFilter(final Predicate<Path> filter) {
+        this.filter = filter != null ? filter : DEFAULT_FILTER;
+    }
+
+    public Set<HashAlgorithm> getChecksums() {
+        return Collections.unmodifiableSet(this.checksums);
+    }
+
+    /**
+     * Set the checksums to calculate over the complete RPM files
+     * <p>
+     * Calculating checksums requires reading the full file, even when
+     * {@link #isHeaderOnly()} is set. By default, no checksums are
+     * calculated.
+     * </p>
+     *
+     * @param checksums the checksum algorithms, may be <code>null</code>
+     */
+    public void setChecksums(final Collection<HashAlgorithm> checksums) {
+        this.checksums = checksums == null || checksums.isEmpty() ? EnumSet.noneOf(HashAlgorithm.class) : EnumSet.copyOf(checksums);
+    }
+
+    public MetadataCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Set a metadata cache
+     * <p>
+     * Files which have a valid entry in the cache, which also provides all
+     * requested checksums, will not be read. Parsed files will be stored in
+     * the cache. Loading and saving the cache is up to the caller.
+     * </p>
+     *
+     * @param cache the cache to use, may be <code>null</code>
+     */
+    public void setCache(final MetadataCache cache) {
+        this.cache = cache;
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+/**
+ * Scanning directories of RPM files
+ * <p>
+ * For reading the metadata of a large number of RPM files see the
+ * {@link org.eclipse.packager.rpm.scan.RpmScanner} class.
+ * </p>
+ */
+package org.eclipse.packager.rpm.scan;
@@ -33,6 +33,7 @@ import org.bouncycastle.openpgp.PGPSecretKeyRing;
 import org.bouncycastle.openpgp.bc.BcPGPSecretKeyRing;
 import org.bouncycastle.openpgp.operator.bc.BcPBESecretKeyDecryptorBuilder;
 import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+import org.eclipse.packager.io.BufferPool;
 import org.eclipse.packager.rpm.HashAlgorithm;
 import org.eclipse.packager.rpm.RpmSignatureTag;
 import org.eclipse.packager.rpm.Rpms;
@@ -74,7 +75,6 @@ public class RpmFileSignatureProcessor {
         long payloadHeaderLength;
         long payloadStart;
         long archiveSize;
-        long payloadSize;
         byte[] signatureHeader;
 
         if (!Files.exists(rpm)) {
@@ -102,13 +102,8 @@ public class RpmFileSignatureProcessor {
 
         // Build the signature header by digest payload header + payload
         try (FileChannel channelIn = FileChannel.open(rpm)) {
-            payloadSize = channelIn.size() - payloadStart;
             channelIn.position(leadLength + signatureHeaderLength);
-            ByteBuffer payloadHeaderBuff = ByteBuffer.allocate((int) payloadHeaderLength);
-            IOUtils.readFully(channelIn, payloadHeaderBuff);
-            ByteBuffer payloadBuff = ByteBuffer.allocate((int) payloadSize);
-            IOUtils.readFully(channelIn, payloadBuff);
-            signatureHeader = getSignature(privateKey, payloadHeaderBuff, payloadBuff, archiveSize, hashAlgorithm);
+            signatureHeader = getSignature(privateKey, channelIn, payloadHeaderLength, payloadStart, archiveSize, hashAlgorithm);
         }
 
         // Write to the OutputStream
@@ -116,7 +111,7 @@ public class RpmFileSignatureProcessor {
             IOUtils.copyLarge(in, out, 0, leadLength);
             IOUtils.skip(in, signatureHeaderLength);
             out.write(signatureHeader);
-            IOUtils.copy(in, out);
+            BufferPool.heap().copy(in, out);
         }
     }
 
@@ -125,25 +120,54 @@ public class RpmFileSignatureProcessor {
      * Sign the payload with its header with the given private key, see <a href=
      * "https://rpm-software-management.github.io/rpm/manual/format.html">https://rpm-software-management.github.io/rpm/manual/format.html</a>
      * </p>
+     * <p>
+     * The payload is streamed through pooled buffers, it is never held in
+     * memory as a whole.
+     * </p>
      *
      * @param privateKey : private key already extracted
-     * @param payloadHeader : Payload's header as {@link ByteBuffer}
-     * @param payload : Payload as {@link ByteBuffer}
+     * @param channel : channel positioned at the start of the payload's header
+     * @param payloadHeaderLength : length of the payload's header
+     * @param payloadStart : offset of the payload in the file
      * @param archiveSize : archiveSize retrieved in {@link RpmInformation}
      * @param hashAlgorithm
      * @return the signature header as a bytes array
      * @throws IOException
      */
-    private static byte[] getSignature(PGPPrivateKey privateKey, ByteBuffer payloadHeader, ByteBuffer payload,
-        long archiveSize, HashAlgorithm hashAlgorithm) throws IOException {
+    private static byte[] getSignature(PGPPrivateKey privateKey, FileChannel channel, long payloadHeaderLength,
+        long payloadStart, long archiveSize, HashAlgorithm hashAlgorithm) throws IOException {
         Header<RpmSignatureTag> signatureHeader = new Header<>();
         List<SignatureProcessor> signatureProcessors = getSignatureProcessors(privateKey, hashAlgorithm);
-        payloadHeader.flip();
-        payload.flip();
         for (SignatureProcessor processor : signatureProcessors) {
             processor.init(archiveSize);
-            processor.feedHeader(payloadHeader.slice());
-            processor.feedPayloadData(payload.slice());
+        }
+
+        final BufferPool pool = BufferPool.direct();
+
+        final ByteBuffer payloadHeader = pool.acquire((int) payloadHeaderLength);
+        try {
+            IOUtils.readFully(channel, payloadHeader);
+            payloadHeader.flip();
+            for (SignatureProcessor processor : signatureProcessors) {
+                processor.feedHeader(payloadHeader.slice());
+            }
+        } finally {
+            pool.release(payloadHeader);
+        }
+
+        channel.position(payloadStart);
+        try (BufferPool.Lease lease = pool.lease()) {
+            final ByteBuffer payload = lease.getBuffer();
+            while (channel.read(payload) >= 0) {
+                payload.flip();
+                for (SignatureProcessor processor : signatureProcessors) {
+                    processor.feedPayloadData(payload.slice());
+                }
+                payload.clear();
+            }
+        }
+
+        for (SignatureProcessor processor : signatureProcessors) {
             processor.finish(signatureHeader);
         }
         ByteBuffer signatureBuf = Headers.render(signatureHeader.makeEntries(), true, Rpms.IMMUTABLE_TAG_SIGNATURE);
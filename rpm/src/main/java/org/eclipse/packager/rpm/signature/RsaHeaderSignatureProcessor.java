@@ -62,7 +62,7 @@ public class RsaHeaderSignatureProcessor implements SignatureProcessor {
             signatureGenerator.init(PGPSignature.BINARY_DOCUMENT, this.privateKey);
 
             if (header.hasArray()) {
-                signatureGenerator.update(header.array(), header.position(), header.remaining());
+                signatureGenerator.update(header.array(), header.arrayOffset() + header.position(), header.remaining());
             } else {
                 final byte[] buffer = new byte[header.remaining()];
                 header.get(buffer);
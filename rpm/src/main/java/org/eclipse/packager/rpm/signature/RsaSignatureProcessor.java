@@ -33,8 +33,12 @@ import org.slf4j.LoggerFactory;
 public class RsaSignatureProcessor implements SignatureProcessor {
     private final static Logger logger = LoggerFactory.getLogger(RsaSignatureProcessor.class);
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private final PGPSignatureGenerator signatureGenerator;
 
+    private byte[] chunk;
+
     protected RsaSignatureProcessor(final PGPPrivateKey privateKey, final int hashAlgorithm) {
         Objects.requireNonNull(privateKey);
 
@@ -68,11 +72,18 @@ public class RsaSignatureProcessor implements SignatureProcessor {
 
     private void feedData(final ByteBuffer data) {
         if (data.hasArray()) {
-            this.signatureGenerator.update(data.array(), data.position(), data.remaining());
+            this.signatureGenerator.update(data.array(), data.arrayOffset() + data.position(), data.remaining());
         } else {
-            final byte[] buffer = new byte[data.remaining()];
-            data.get(buffer);
-            this.signatureGenerator.update(buffer);
+            // direct buffer, copy through a re-used chunk
+
+            if (this.chunk == null) {
+                this.chunk = new byte[CHUNK_SIZE];
+            }
+            while (data.hasRemaining()) {
+                final int len = Math.min(data.remaining(), this.chunk.length);
+                data.get(this.chunk, 0, len);
+                this.signatureGenerator.update(this.chunk, 0, len);
+            }
         }
     }
 
@@ -14,12 +14,12 @@
 package org.eclipse.packager.rpm.signature;
 
 import java.nio.ByteBuffer;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 import org.eclipse.packager.rpm.RpmSignatureTag;
 import org.eclipse.packager.rpm.Rpms;
 import org.eclipse.packager.rpm.header.Header;
+import org.eclipse.packager.security.digest.MultiDigest;
 
 public final class SignatureProcessors {
     private SignatureProcessors() {
@@ -81,10 +81,9 @@ public final class SignatureProcessors {
 
             @Override
             public void feedHeader(final ByteBuffer header) {
-                try {
-                    final MessageDigest md = MessageDigest.getInstance("SHA-256");
+                try (MultiDigest md = MultiDigest.create("SHA-256")) {
                     md.update(header.slice());
-                    this.value = Rpms.toHex(md.digest()).toLowerCase();
+                    this.value = Rpms.toHex(md.finishSingle()).toLowerCase();
                 } catch (final NoSuchAlgorithmException e) {
                     throw new RuntimeException(e);
                 }
@@ -109,10 +108,9 @@ public final class SignatureProcessors {
 
             @Override
             public void feedHeader(final ByteBuffer header) {
-                try {
-                    final MessageDigest md = MessageDigest.getInstance("SHA1");
+                try (MultiDigest md = MultiDigest.create("SHA1")) {
                     md.update(header.slice());
-                    this.value = Rpms.toHex(md.digest()).toLowerCase();
+                    this.value = Rpms.toHex(md.finishSingle()).toLowerCase();
                 } catch (final NoSuchAlgorithmException e) {
                     throw new RuntimeException(e);
                 }
@@ -133,12 +131,12 @@ public final class SignatureProcessors {
     public static SignatureProcessor md5() {
         return new SignatureProcessor() {
 
-            private MessageDigest digest;
+            private MultiDigest digest;
 
             @Override
             public void init(final long archiveSize) {
                 try {
-                    this.digest = MessageDigest.getInstance("MD5");
+                    this.digest = MultiDigest.create("MD5");
                 } catch (final NoSuchAlgorithmException e) {
                     throw new RuntimeException(e);
                 }
@@ -156,7 +154,7 @@ public final class SignatureProcessors {
 
             @Override
             public void finish(final Header<RpmSignatureTag> signature) {
-                signature.putBlob(RpmSignatureTag.MD5, this.digest.digest());
+                signature.putBlob(RpmSignatureTag.MD5, this.digest.finishSingle());
             }
         };
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.yum;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZOutputStream;
+
+/**
+ * Compression formats for repository metadata files
+ */
+public enum MetadataCompression {
+    GZIP("gz", "application/x-gzip") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out) throws IOException {
+            return new GZIPOutputStream(out);
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    },
+    XZ("xz", "application/x-xz") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out) throws IOException {
+            return new XZOutputStream(out, new LZMA2Options());
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            return new XZCompressorInputStream(in);
+        }
+    },
+    /**
+     * Zstandard compression
+     * <p>
+     * This requires the <code>zstd-jni</code> library to be present at
+     * runtime.
+     * </p>
+     */
+    ZSTD("zst", "application/zstd") {
+        @Override
+        public OutputStream createOutputStream(final OutputStream out) throws IOException {
+            checkAvailable();
+            return new ZstdCompressorOutputStream.Builder().setOutputStream(out).get();
+        }
+
+        @Override
+        public InputStream createInputStream(final InputStream in) throws IOException {
+            checkAvailable();
+            return new ZstdCompressorInputStream(in);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return ZstdUtils.isZstdCompressionAvailable();
+        }
+    };
+
+    private final String extension;
+
+    private final String mimeType;
+
+    MetadataCompression(final String extension, final String mimeType) {
+        this.extension = extension;
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * Get the file name extension, without the leading dot
+     *
+     * @return the file name extension
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+
+    public String getMimeType() {
+        return this.mimeType;
+    }
+
+    public boolean isAvailable() {
+        return true;
+    }
+
+    protected void checkAvailable() throws IOException {
+        if (!isAvailable()) {
+            throw new IOException(String.format("Compression format is not available: %s", this));
+        }
+    }
+
+    public abstract OutputStream createOutputStream(OutputStream out) throws IOException;
+
+    public abstract InputStream createInputStream(InputStream in) throws IOException;
+
+    /**
+     * Find the compression format by file name
+     *
+     * @param fileName the file name
+     * @return the compression format, or <code>null</code> if the file name
+     *         has no known compression extension
+     */
+    public static MetadataCompression fromFileName(final String fileName) {
+        for (final MetadataCompression compression : values()) {
+            if (fileName.endsWith("." + compression.extension)) {
+                return compression;
+            }
+        }
+        return null;
+    }
+}
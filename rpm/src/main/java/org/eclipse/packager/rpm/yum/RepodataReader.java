@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.yum;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.eclipse.packager.io.IOConsumer;
+
+/**
+ * Reading existing yum repository metadata
+ * <p>
+ * This is used for updating a repository, reusing the metadata of packages
+ * which didn't change. All documents are processed in a streaming fashion.
+ * </p>
+ */
+final class RepodataReader {
+
+    /**
+     * The relevant information of a package entry in the primary document
+     */
+    static final class PrimaryEntry {
+        private final int ordinal;
+
+        private String location;
+
+        private long size = -1;
+
+        private long time = -1;
+
+        private String pkgid;
+
+        private String firstChecksum;
+
+        PrimaryEntry(final int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        int getOrdinal() {
+            return this.ordinal;
+        }
+
+        String getLocation() {
+            return this.location;
+        }
+
+        long getSize() {
+            return this.size;
+        }
+
+        long getTime() {
+            return this.time;
+        }
+
+        String getPkgid() {
+            return this.pkgid != null ? this.pkgid : this.firstChecksum;
+        }
+    }
+
+    @FunctionalInterface
+    interface PackageFilter {
+        boolean accept(int ordinal, String pkgid);
+    }
+
+    private final XMLInputFactory inputFactory;
+
+    private final XMLOutputFactory outputFactory;
+
+    RepodataReader(final XMLOutputFactory outputFactory) {
+        this.inputFactory = XMLInputFactory.newFactory();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        this.outputFactory = outputFactory;
+    }
+
+    /**
+     * Read the data file locations from a <code>repomd.xml</code> file
+     *
+     * @param file the file to read
+     * @return a map of data type to location, empty if the file doesn't
+     *         exist
+     * @throws IOException if reading the file fails
+     */
+    Map<String, String> readRepoMd(final Path file) throws IOException {
+        final Map<String, String> result = new HashMap<>();
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final XMLStreamReader reader = this.inputFactory.createXMLStreamReader(in);
+            try {
+                String type = null;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        if ("data".equals(reader.getLocalName())) {
+                            type = reader.getAttributeValue(null, "type");
+                        } else if ("location".equals(reader.getLocalName()) && type != null) {
+                            result.put(type, reader.getAttributeValue(null, "href"));
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && "data".equals(reader.getLocalName())) {
+                        type = null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final NoSuchFileException e) {
+            return result;
+        } catch (final XMLStreamException e) {
+            throw new IOException(String.format("Failed to parse: %s", file), e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Open a data file
+     *
+     * @param base the base directory of the repository
+     * @param href the location of the file, relative to the base directory
+     * @return the uncompressed content
+     * @throws IOException if opening the file fails, or the compression
+     *             format is not supported
+     */
+    InputStream open(final Path base, final String href) throws IOException {
+        final InputStream in = new BufferedInputStream(Files.newInputStream(base.resolve(href)));
+        try {
+            final MetadataCompression compression = MetadataCompression.fromFileName(href);
+            if (compression != null) {
+                return compression.createInputStream(in);
+            } else if (href.endsWith(".xml")) {
+                return in;
+            }
+            throw new IOException(String.format("Unsupported compression format: %s", href));
+        } catch (final IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the package entries of a primary document
+     *
+     * @param in the uncompressed document
+     * @return the list of package entries, in document order
+     * @throws IOException if reading fails
+     */
+    List<PrimaryEntry> readPrimary(final InputStream in) throws IOException {
+        final List<PrimaryEntry> result = new ArrayList<>();
+
+        try {
+            final XMLStreamReader reader = this.inputFactory.createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                PrimaryEntry current = null;
+
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        final String name = reader.getLocalName();
+                        if (depth == 2 && "package".equals(name)) {
+                            current = new PrimaryEntry(result.size());
+                            result.add(current);
+                        } else if (depth == 3 && current != null) {
+                            readPrimaryElement(reader, name, current);
+                            if ("checksum".equals(name)) {
+                                // consumed the end element
+                                depth--;
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                        if (depth == 1) {
+                            current = null;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IOException("Failed to parse primary metadata", e);
+        }
+
+        return result;
+    }
+
+    private static void readPrimaryElement(final XMLStreamReader reader, final String name, final PrimaryEntry entry) throws XMLStreamException {
+        switch (name) {
+            case "location":
+                entry.location = reader.getAttributeValue(null, "href");
+                break;
+            case "size":
+                entry.size = parseLong(reader.getAttributeValue(null, "package"));
+                break;
+            case "time":
+                entry.time = parseLong(reader.getAttributeValue(null, "file"));
+                break;
+            case "checksum":
+                final boolean pkgid = "YES".equalsIgnoreCase(reader.getAttributeValue(null, "pkgid"));
+                final String value = reader.getElementText().trim();
+                if (pkgid) {
+                    entry.pkgid = value;
+                }
+                if (entry.firstChecksum == null) {
+                    entry.firstChecksum = value;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static long parseLong(final String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Copy selected package entries of a metadata document
+     * <p>
+     * Each selected package element is serialized on its own and passed on to
+     * the consumer. Namespace prefixes are kept as they are, so the
+     * fragments must be embedded in a root element declaring the same
+     * prefixes.
+     * </p>
+     *
+     * @param in the uncompressed document
+     * @param filter the filter selecting the packages, called with the
+     *            ordinal of the package in the document and its
+     *            <code>pkgid</code> attribute
+     * @param consumer the consumer of the serialized fragments
+     * @return the number of copied packages
+     * @throws IOException if reading or writing fails
+     */
+    long copyPackages(final InputStream in, final PackageFilter filter, final IOConsumer<byte[]> consumer) throws IOException {
+        long count = 0;
+
+        try {
+            final XMLStreamReader reader = this.inputFactory.createXMLStreamReader(in);
+            try {
+                int depth = 0;
+                int ordinal = 0;
+
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        if (depth == 2 && "package".equals(reader.getLocalName())) {
+                            if (filter.accept(ordinal++, reader.getAttributeValue(null, "pkgid"))) {
+                                consumer.accept(copyElement(reader));
+                                count++;
+                            } else {
+                                skipElement(reader);
+                            }
+                            depth--;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IOException("Failed to parse metadata", e);
+        }
+
+        return count;
+    }
+
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private byte[] copyElement(final XMLStreamReader reader) throws XMLStreamException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final XMLStreamWriter writer;
+        synchronized (this.outputFactory) {
+            writer = this.outputFactory.createXMLStreamWriter(out, "UTF-8");
+        }
+
+        int depth = 0;
+        do {
+            switch (reader.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    writeStartElement(reader, writer);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    writer.writeEndElement();
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    writer.writeCharacters(reader.getText());
+                    break;
+                default:
+                    break;
+            }
+            if (depth > 0) {
+                reader.next();
+            }
+        } while (depth > 0);
+
+        writer.writeCharacters("\n");
+        writer.close();
+
+        return out.toByteArray();
+    }
+
+    private static void writeStartElement(final XMLStreamReader reader, final XMLStreamWriter writer) throws XMLStreamException {
+        final String prefix = reader.getPrefix();
+        if (prefix == null || prefix.isEmpty()) {
+            writer.writeStartElement(reader.getLocalName());
+        } else {
+            writer.writeStartElement(prefix, reader.getLocalName(), reader.getNamespaceURI());
+        }
+
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String nsPrefix = reader.getNamespacePrefix(i);
+            if (nsPrefix == null || nsPrefix.isEmpty()) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(nsPrefix, reader.getNamespaceURI(i));
+            }
+        }
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final String attributePrefix = reader.getAttributePrefix(i);
+            if (attributePrefix == null || attributePrefix.isEmpty()) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(attributePrefix, reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+}
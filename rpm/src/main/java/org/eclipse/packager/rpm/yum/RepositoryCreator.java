@@ -13,24 +13,41 @@
 
 package org.eclipse.packager.rpm.yum;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
@@ -41,15 +58,22 @@ import javax.xml.transform.stream.StreamResult;
 
 import org.bouncycastle.bcpg.HashAlgorithmTags;
 import org.bouncycastle.openpgp.PGPPrivateKey;
+import org.eclipse.packager.io.BufferPool;
 import org.eclipse.packager.io.IOConsumer;
+import org.eclipse.packager.io.IOFunction;
 import org.eclipse.packager.io.OutputSpooler;
+import org.eclipse.packager.io.SpoolFile;
 import org.eclipse.packager.io.SpoolOutTarget;
+import org.eclipse.packager.io.SpoolStorage;
 import org.eclipse.packager.rpm.HashAlgorithm;
 import org.eclipse.packager.rpm.RpmVersion;
 import org.eclipse.packager.rpm.deps.RpmDependencyFlags;
 import org.eclipse.packager.rpm.info.RpmInformation;
 import org.eclipse.packager.rpm.info.RpmInformation.Changelog;
 import org.eclipse.packager.rpm.info.RpmInformation.Dependency;
+import org.eclipse.packager.rpm.scan.RpmScanner;
+import org.eclipse.packager.rpm.scan.ScanResult;
+import org.eclipse.packager.rpm.scan.ScannerOptions;
 import org.eclipse.packager.security.pgp.SigningStream;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -59,8 +83,36 @@ public class RepositoryCreator {
 
     private static final String MD_TAG = "sha256";
 
+    private static final String ZCHUNK_EXTENSION = "zck";
+
+    private static final String NS_COMMON = "http://linux.duke.edu/metadata/common";
+
+    private static final String NS_RPM = "http://linux.duke.edu/metadata/rpm";
+
+    private static final String NS_FILELISTS = "http://linux.duke.edu/metadata/filelists";
+
+    private static final String NS_OTHER = "http://linux.duke.edu/metadata/other";
+
     private final XmlContext xml;
 
+    private final XMLOutputFactory xmlOutputFactory;
+
+    private final boolean streaming;
+
+    private final SpoolStorage spoolStorage;
+
+    private final MetadataCompression compression;
+
+    private final boolean zchunk;
+
+    private final Map<String, ZchunkOutputStream> zchunkStreams = new ConcurrentHashMap<>();
+
+    private final HashAlgorithm packageIdType;
+
+    private final RpmScanner packageScanner;
+
+    private final Path baseDirectory;
+
     private final OutputSpooler primaryStreamBuilder;
 
     private final OutputSpooler filelistsStreamBuilder;
@@ -165,7 +217,25 @@ public class RepositoryCreator {
         }
     }
 
-    private class ContextImpl implements Context {
+    @FunctionalInterface
+    private interface ContextFactory<C extends ContextWriter> {
+        C create(OutputStream primaryStream, OutputStream filelistsStream, OutputStream otherStream) throws IOException;
+    }
+
+    private interface ContextWriter extends Context {
+        /**
+         * Write out the metadata, after all packages have been added
+         */
+        void close() throws IOException;
+
+        /**
+         * Release all resources, called in any case
+         */
+        default void dispose() throws IOException {
+        }
+    }
+
+    private class ContextImpl implements ContextWriter {
         private final OutputStream primaryStream;
 
         private final OutputStream filelistsStream;
@@ -196,30 +266,22 @@ public class RepositoryCreator {
             this.xml = xml;
 
             this.primary = xml.createDocument();
-            this.primaryRoot = this.primary.createElementNS("http://linux.duke.edu/metadata/common", "metadata");
-            this.primaryRoot.setAttribute("xmlns:rpm", "http://linux.duke.edu/metadata/rpm");
+            this.primaryRoot = this.primary.createElementNS(NS_COMMON, "metadata");
+            this.primaryRoot.setAttribute("xmlns:rpm", NS_RPM);
             this.primary.appendChild(this.primaryRoot);
 
             this.filelists = xml.createDocument();
-            this.filelistsRoot = this.filelists.createElementNS("http://linux.duke.edu/metadata/filelists", "filelists");
+            this.filelistsRoot = this.filelists.createElementNS(NS_FILELISTS, "filelists");
             this.filelists.appendChild(this.filelistsRoot);
 
             this.other = xml.createDocument();
-            this.otherRoot = this.other.createElementNS("http://linux.duke.edu/metadata/other", "otherdata");
+            this.otherRoot = this.other.createElementNS(NS_OTHER, "otherdata");
             this.other.appendChild(this.otherRoot);
         }
 
         @Override
-        public void addPackage(final FileInformation fileInformation, final RpmInformation info, final Map<HashAlgorithm, String> checksums, final HashAlgorithm idType) {
-            Objects.requireNonNull(fileInformation);
-            Objects.requireNonNull(info);
-            Objects.requireNonNull(checksums);
-            Objects.requireNonNull(idType);
-
-            final String id = checksums.get(idType);
-            if (id == null || id.isEmpty()) {
-                throw new IllegalArgumentException(String.format("Checksums map did not contain a value for the ID type: %s", idType));
-            }
+        public synchronized void addPackage(final FileInformation fileInformation, final RpmInformation info, final Map<HashAlgorithm, String> checksums, final HashAlgorithm idType) {
+            final String id = validatePackage(fileInformation, info, checksums, idType);
 
             this.count++;
 
@@ -349,18 +411,12 @@ public class RepositoryCreator {
                     version.getRelease().ifPresent(string -> entry.setAttribute("rel", string));
                 }
 
-                final boolean eq = flags.contains(RpmDependencyFlags.EQUAL);
-
-                if (flags.contains(RpmDependencyFlags.GREATER)) {
-                    entry.setAttribute("flags", eq ? "GE" : "GT");
-                } else if (flags.contains(RpmDependencyFlags.LESS)) {
-                    entry.setAttribute("flags", eq ? "LE" : "LT");
-                } else if (eq) {
-                    entry.setAttribute("flags", "EQ");
+                final String flagsValue = makeFlags(flags);
+                if (flagsValue != null) {
+                    entry.setAttribute("flags", flagsValue);
                 }
 
-                final boolean pre = flags.contains(RpmDependencyFlags.PREREQ) || flags.contains(RpmDependencyFlags.SCRIPT_PRE) || flags.contains(RpmDependencyFlags.SCRIPT_POST);
-                if (pre) {
+                if (isPre(flags)) {
                     entry.setAttribute("pre", "1");
                 }
             }
@@ -395,7 +451,8 @@ public class RepositoryCreator {
             return ver;
         }
 
-        public void close() throws IOException {
+        @Override
+        public synchronized void close() throws IOException {
             this.primaryRoot.setAttribute("packages", Long.toString(this.count));
             this.filelistsRoot.setAttribute("packages", Long.toString(this.count));
             this.otherRoot.setAttribute("packages", Long.toString(this.count));
@@ -412,11 +469,470 @@ public class RepositoryCreator {
         }
     }
 
+    /**
+     * A spool file for an XML document body
+     * <p>
+     * The body is written to a temporary file, and later copied to the target
+     * stream, enclosed by the root element. This allows to write the root
+     * element attributes after all entries are known.
+     * </p>
+     */
+    private static class XmlSpool {
+        private final SpoolFile file;
+
+        private final OutputStream out;
+
+        XmlSpool(final SpoolStorage storage) throws IOException {
+            this.file = storage.create("repodata-");
+            try {
+                this.out = new BufferedOutputStream(this.file.openOutputStream());
+            } catch (final IOException e) {
+                this.file.close();
+                throw e;
+            }
+        }
+
+        void append(final byte[] fragment) throws IOException {
+            this.out.write(fragment);
+        }
+
+        void transferTo(final OutputStream target, final String rootName, final String namespaces, final long count) throws IOException {
+            this.out.close();
+
+            final String start = String.format("<?xml version=\"1.0\" encoding=\"UTF-8\"?>%n<%s %s packages=\"%s\">%n", rootName, namespaces, count);
+            target.write(start.getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = this.file.openInputStream()) {
+                BufferPool.heap().copy(in, target);
+            }
+            target.write(String.format("</%s>%n", rootName).getBytes(StandardCharsets.UTF_8));
+        }
+
+        void dispose() throws IOException {
+            try {
+                this.out.close();
+            } finally {
+                this.file.close();
+            }
+        }
+    }
+
+    /**
+     * The rendered XML fragments of a single package
+     */
+    private static class PackageFragments {
+        private final byte[] primary;
+
+        private final byte[] filelists;
+
+        private final byte[] other;
+
+        PackageFragments(final byte[] primary, final byte[] filelists, final byte[] other) {
+            this.primary = primary;
+            this.filelists = filelists;
+            this.other = other;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FragmentWriter {
+        void write(XMLStreamWriter writer) throws XMLStreamException;
+    }
+
+    /**
+     * Renders the XML fragments of packages
+     * <p>
+     * Rendering is thread safe, and independent of the order in which the
+     * fragments are written later on.
+     * </p>
+     */
+    private class FragmentRenderer {
+        PackageFragments render(final FileInformation fileInformation, final RpmInformation info, final Map<HashAlgorithm, String> checksums, final HashAlgorithm idType) throws IOException {
+            final String id = validatePackage(fileInformation, info, checksums, idType);
+
+            final byte[] primary = render(writer -> writePrimary(writer, fileInformation, info, checksums, idType));
+
+            final byte[] filelists = render(writer -> {
+                startPackage(writer, id, info);
+                writeFiles(writer, info, null, null);
+                writer.writeEndElement();
+                writer.writeCharacters("\n");
+            });
+
+            final byte[] other = render(writer -> {
+                startPackage(writer, id, info);
+                for (final Changelog log : info.getChangelog()) {
+                    writer.writeStartElement("changelog");
+                    writeAttribute(writer, "author", log.getAuthor());
+                    writer.writeAttribute("date", Long.toString(log.getTimestamp()));
+                    writeText(writer, log.getText());
+                    writer.writeEndElement();
+                }
+                writer.writeEndElement();
+                writer.writeCharacters("\n");
+            });
+
+            return new PackageFragments(primary, filelists, other);
+        }
+
+        private byte[] render(final FragmentWriter fragmentWriter) throws IOException {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                final XMLStreamWriter writer;
+                // the factory is not guaranteed to be thread safe
+                synchronized (RepositoryCreator.this.xmlOutputFactory) {
+                    writer = RepositoryCreator.this.xmlOutputFactory.createXMLStreamWriter(out, "UTF-8");
+                }
+                fragmentWriter.write(writer);
+                writer.close();
+            } catch (final XMLStreamException e) {
+                throw new IOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private void writePrimary(final XMLStreamWriter writer, final FileInformation fileInformation, final RpmInformation info, final Map<HashAlgorithm, String> checksums, final HashAlgorithm idType) throws XMLStreamException {
+            writer.writeStartElement("package");
+            writer.writeAttribute("type", "rpm");
+
+            writeElement(writer, "name", info.getName());
+            writeElement(writer, "arch", info.getArchitecture());
+
+            writeVersion(writer, info.getVersion());
+
+            for (final Map.Entry<HashAlgorithm, String> entry : checksums.entrySet()) {
+                writer.writeStartElement("checksum");
+                writer.writeAttribute("type", entry.getKey().getId());
+                if (entry.getKey() == idType) {
+                    writer.writeAttribute("pkgid", "YES");
+                }
+                writeText(writer, entry.getValue());
+                writer.writeEndElement();
+            }
+
+            writeElement(writer, "summary", info.getSummary());
+            writeElement(writer, "description", info.getDescription());
+            writeElement(writer, "packager", info.getPackager());
+            writeElement(writer, "url", info.getUrl());
+
+            // time
+
+            writer.writeEmptyElement("time");
+            writer.writeAttribute("file", Long.toString(fileInformation.getTimestamp().getEpochSecond()));
+            if (info.getBuildTimestamp() != null) {
+                writer.writeAttribute("build", Long.toString(info.getBuildTimestamp()));
+            }
+
+            // size
+
+            writer.writeEmptyElement("size");
+            writer.writeAttribute("package", Long.toString(fileInformation.getSize()));
+            if (info.getInstalledSize() != null) {
+                writer.writeAttribute("installed", Long.toString(info.getInstalledSize()));
+            }
+            if (info.getArchiveSize() != null) {
+                writer.writeAttribute("archive", Long.toString(info.getArchiveSize()));
+            }
+
+            // location
+
+            writer.writeEmptyElement("location");
+            writeAttribute(writer, "href", fileInformation.getLocation());
+
+            // format section
+
+            writer.writeStartElement("format");
+            writeOptionalRpmElement(writer, "license", info.getLicense());
+            writeOptionalRpmElement(writer, "vendor", info.getVendor());
+            writeOptionalRpmElement(writer, "group", info.getGroup());
+            writeOptionalRpmElement(writer, "buildhost", info.getBuildHost());
+            writeOptionalRpmElement(writer, "sourcerpm", info.getSourcePackage());
+
+            writer.writeEmptyElement("rpm", "header-range", NS_RPM);
+            writer.writeAttribute("start", Long.toString(info.getHeaderStart()));
+            writer.writeAttribute("end", Long.toString(info.getHeaderEnd()));
+
+            writeDependencies(writer, "provides", info.getProvides());
+            writeDependencies(writer, "requires", info.getRequires());
+            writeDependencies(writer, "conflicts", info.getConflicts());
+            writeDependencies(writer, "obsoletes", info.getObsoletes());
+
+            writer.writeEndElement();
+
+            // primary files
+
+            writeFiles(writer, info, file -> matches(file, RepositoryCreator.this.primaryFiles), dir -> matches(dir, RepositoryCreator.this.primaryDirs));
+
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+        }
+
+        private void writeDependencies(final XMLStreamWriter writer, final String elementName, final List<Dependency> deps) throws XMLStreamException {
+            writer.writeStartElement("rpm", elementName, NS_RPM);
+
+            for (final Dependency dep : deps) {
+                final Set<RpmDependencyFlags> flags = RpmDependencyFlags.parse(dep.getFlags());
+                if (flags.contains(RpmDependencyFlags.RPMLIB)) {
+                    continue;
+                }
+
+                writer.writeEmptyElement("rpm", "entry", NS_RPM);
+                writeAttribute(writer, "name", dep.getName());
+                if (dep.getVersion() != null) {
+                    final RpmVersion version = RpmVersion.valueOf(dep.getVersion());
+                    writer.writeAttribute("epoch", Integer.toString(version.getEpoch().orElse(0)));
+                    writer.writeAttribute("ver", version.getVersion());
+                    if (version.getRelease().isPresent()) {
+                        writer.writeAttribute("rel", version.getRelease().get());
+                    }
+                }
+
+                final String flagsValue = makeFlags(flags);
+                if (flagsValue != null) {
+                    writer.writeAttribute("flags", flagsValue);
+                }
+
+                if (isPre(flags)) {
+                    writer.writeAttribute("pre", "1");
+                }
+            }
+
+            writer.writeEndElement();
+        }
+
+        private void writeFiles(final XMLStreamWriter writer, final RpmInformation info, final Predicate<String> fileFilter, final Predicate<String> dirFilter) throws XMLStreamException {
+            for (final String file : new TreeSet<>(info.getFiles())) {
+                if (fileFilter == null || fileFilter.test(file)) {
+                    writeElement(writer, "file", file);
+                }
+            }
+            for (final String dir : new TreeSet<>(info.getDirectories())) {
+                if (dirFilter == null || dirFilter.test(dir)) {
+                    writer.writeStartElement("file");
+                    writer.writeAttribute("type", "dir");
+                    writeText(writer, dir);
+                    writer.writeEndElement();
+                }
+            }
+        }
+
+        private void startPackage(final XMLStreamWriter writer, final String id, final RpmInformation info) throws XMLStreamException {
+            writer.writeStartElement("package");
+            writeAttribute(writer, "pkgid", id);
+            writeAttribute(writer, "name", info.getName());
+            writeAttribute(writer, "arch", info.getArchitecture());
+
+            writeVersion(writer, info.getVersion());
+        }
+
+        private void writeVersion(final XMLStreamWriter writer, final RpmInformation.Version version) throws XMLStreamException {
+            if (version == null) {
+                return;
+            }
+
+            writer.writeEmptyElement("version");
+            writer.writeAttribute("epoch", version.getEpoch() == null ? "0" : Integer.toString(version.getEpoch()));
+            writeAttribute(writer, "ver", version.getVersion());
+            writeAttribute(writer, "rel", version.getRelease());
+        }
+
+    }
+
+    /**
+     * A context writing packages as they are added
+     * <p>
+     * Packages are rendered using an {@link XMLStreamWriter} and written to
+     * spool files, so that memory consumption doesn't depend on the number of
+     * packages. Packages may be added concurrently, they are rendered in
+     * parallel and written in the order they were added.
+     * </p>
+     */
+    private class StreamingContextImpl implements ContextWriter {
+        private final OutputStream primaryStream;
+
+        private final OutputStream filelistsStream;
+
+        private final OutputStream otherStream;
+
+        private final FragmentRenderer renderer = new FragmentRenderer();
+
+        private final XmlSpool primary;
+
+        private final XmlSpool filelists;
+
+        private final XmlSpool other;
+
+        private long count;
+
+        public StreamingContextImpl(final OutputStream primaryStream, final OutputStream filelistsStream, final OutputStream otherStream) throws IOException {
+            this.primaryStream = primaryStream;
+            this.filelistsStream = filelistsStream;
+            this.otherStream = otherStream;
+
+            final XmlSpool[] spools = new XmlSpool[3];
+            try {
+                for (int i = 0; i < spools.length; i++) {
+                    spools[i] = new XmlSpool(RepositoryCreator.this.spoolStorage);
+                }
+            } catch (final IOException e) {
+                for (final XmlSpool spool : spools) {
+                    if (spool != null) {
+                        spool.dispose();
+                    }
+                }
+                throw e;
+            }
+
+            this.primary = spools[0];
+            this.filelists = spools[1];
+            this.other = spools[2];
+        }
+
+        FragmentRenderer getRenderer() {
+            return this.renderer;
+        }
+
+        @Override
+        public void addPackage(final FileInformation fileInformation, final RpmInformation info, final Map<HashAlgorithm, String> checksums, final HashAlgorithm idType) {
+            try {
+                append(this.renderer.render(fileInformation, info, checksums, idType));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized void append(final PackageFragments fragments) throws IOException {
+            this.primary.append(fragments.primary);
+            this.filelists.append(fragments.filelists);
+            this.other.append(fragments.other);
+            this.count++;
+        }
+
+        /**
+         * Copy existing package entries
+         * <p>
+         * The caller must ensure that the same packages are copied into each
+         * of the documents, in the same order.
+         * </p>
+         */
+        synchronized long copyExisting(final IOFunction<IOConsumer<byte[]>, Long> primary, final IOFunction<IOConsumer<byte[]>, Long> filelists, final IOFunction<IOConsumer<byte[]>, Long> other) throws IOException {
+            final long numPrimary = primary.apply(this.primary::append);
+            final long numFilelists = filelists.apply(this.filelists::append);
+            final long numOther = other.apply(this.other::append);
+
+            if (numPrimary != numFilelists || numPrimary != numOther) {
+                throw new IOException(String.format("Inconsistent repository metadata - primary: %s, filelists: %s, other: %s", numPrimary, numFilelists, numOther));
+            }
+
+            this.count += numPrimary;
+            return numPrimary;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            this.primary.transferTo(this.primaryStream, "metadata", String.format("xmlns=\"%s\" xmlns:rpm=\"%s\"", NS_COMMON, NS_RPM), this.count);
+            this.filelists.transferTo(this.filelistsStream, "filelists", String.format("xmlns=\"%s\"", NS_FILELISTS), this.count);
+            this.other.transferTo(this.otherStream, "otherdata", String.format("xmlns=\"%s\"", NS_OTHER), this.count);
+        }
+
+        @Override
+        public void dispose() throws IOException {
+            try {
+                this.primary.dispose();
+            } finally {
+                try {
+                    this.filelists.dispose();
+                } finally {
+                    this.other.dispose();
+                }
+            }
+        }
+    }
+
+    /**
+     * The result of updating a repository
+     */
+    public static class UpdateResult {
+        private final long reused;
+
+        private final long added;
+
+        private final long removed;
+
+        private final List<String> obsoleteFiles;
+
+        public UpdateResult(final long reused, final long added, final long removed, final List<String> obsoleteFiles) {
+            this.reused = reused;
+            this.added = added;
+            this.removed = removed;
+            this.obsoleteFiles = Collections.unmodifiableList(obsoleteFiles);
+        }
+
+        /**
+         * Get the number of packages which were taken from the existing
+         * metadata
+         *
+         * @return the number of reused packages
+         */
+        public long getReused() {
+            return this.reused;
+        }
+
+        /**
+         * Get the number of packages which were parsed, because they were new
+         * or changed
+         *
+         * @return the number of added packages
+         */
+        public long getAdded() {
+            return this.added;
+        }
+
+        /**
+         * Get the number of previous package entries which were not reused
+         *
+         * @return the number of removed or replaced packages
+         */
+        public long getRemoved() {
+            return this.removed;
+        }
+
+        /**
+         * Get the locations of the previous data files
+         * <p>
+         * These files are no longer referenced by the new metadata, and can
+         * be deleted.
+         * </p>
+         *
+         * @return the locations, relative to the base directory
+         */
+        public List<String> getObsoleteFiles() {
+            return this.obsoleteFiles;
+        }
+    }
+
     public static class Builder {
         private SpoolOutTarget target;
 
         private XmlContext xmlContext;
 
+        private XMLOutputFactory xmlOutputFactory;
+
+        private boolean streaming;
+
+        private SpoolStorage spoolStorage = SpoolStorage.defaultStorage();
+
+        private List<MetadataCompression> compressions = Collections.singletonList(MetadataCompression.GZIP);
+
+        private boolean parallelCompression;
+
+        private boolean zchunk;
+
+        private HashAlgorithm packageIdType = HashAlgorithm.SHA256;
+
+        private Set<HashAlgorithm> packageChecksums = EnumSet.noneOf(HashAlgorithm.class);
+
+        private Path baseDirectory;
+
         private Function<OutputStream, OutputStream> signingStreamCreator;
 
         public Builder() {
@@ -432,6 +948,134 @@ public class RepositoryCreator {
             return this;
         }
 
+        /**
+         * Write package metadata as packages are added
+         * <p>
+         * By default, the metadata documents are built in memory and written
+         * when all packages were added. In streaming mode, packages are
+         * written to temporary files right away, and the documents are
+         * assembled at the end. The {@link XmlContext} is then only used for
+         * the <code>repomd.xml</code> file.
+         * </p>
+         *
+         * @param streaming <code>true</code> to enable streaming mode
+         * @return the builder
+         */
+        public Builder setStreaming(final boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Set the storage for the package metadata spooled in streaming mode
+         *
+         * @param spoolStorage the storage, <code>null</code> for the
+         *            {@link SpoolStorage#defaultStorage()}
+         * @return the builder
+         */
+        public Builder setSpoolStorage(final SpoolStorage spoolStorage) {
+            this.spoolStorage = spoolStorage != null ? spoolStorage : SpoolStorage.defaultStorage();
+            return this;
+        }
+
+        /**
+         * Set the factory for XML writers used for rendering packages in
+         * streaming mode
+         *
+         * @param xmlOutputFactory the factory, <code>null</code> for the
+         *            default factory
+         * @return the builder
+         */
+        public Builder setXmlOutputFactory(final XMLOutputFactory xmlOutputFactory) {
+            this.xmlOutputFactory = xmlOutputFactory;
+            return this;
+        }
+
+        /**
+         * Set the compression formats of the metadata files
+         * <p>
+         * Each metadata file will be written once uncompressed, and once for
+         * each compression format. The first format is the one referenced
+         * from <code>repomd.xml</code>. The default is
+         * {@link MetadataCompression#GZIP}.
+         * </p>
+         *
+         * @param compressions the compression formats, must not be empty
+         * @return the builder
+         */
+        public Builder setCompressions(final MetadataCompression... compressions) {
+            if (compressions == null || compressions.length == 0) {
+                throw new IllegalArgumentException("At least one compression format is required");
+            }
+            this.compressions = Arrays.asList(compressions.clone());
+            return this;
+        }
+
+        /**
+         * Compress the metadata files in parallel
+         * <p>
+         * If enabled, each output of a metadata file is written, compressed
+         * and digested on its own thread, overlapping with the generation of
+         * the XML content.
+         * </p>
+         *
+         * @param parallelCompression <code>true</code> to enable parallel
+         *            compression
+         * @return the builder
+         */
+        public Builder setParallelCompression(final boolean parallelCompression) {
+            this.parallelCompression = parallelCompression;
+            return this;
+        }
+
+        /**
+         * Additionally write the metadata files in zchunk format
+         * <p>
+         * Each package is written to its own chunk, so that clients only need
+         * to download the chunks of changed packages. The zchunk files are
+         * referenced from <code>repomd.xml</code> as
+         * <code>primary_zck</code>, <code>filelists_zck</code> and
+         * <code>other_zck</code>.
+         * </p>
+         *
+         * @param zchunk <code>true</code> to enable zchunk output
+         * @return the builder
+         */
+        public Builder setZchunk(final boolean zchunk) {
+            this.zchunk = zchunk;
+            return this;
+        }
+
+        /**
+         * Set the checksums calculated for package files added by path
+         *
+         * @param idType the checksum used as package ID, defaults to
+         *            {@link HashAlgorithm#SHA256}
+         * @param additional additional checksums to record
+         * @return the builder
+         */
+        public Builder setPackageChecksums(final HashAlgorithm idType, final HashAlgorithm... additional) {
+            this.packageIdType = Objects.requireNonNull(idType);
+            this.packageChecksums = EnumSet.noneOf(HashAlgorithm.class);
+            this.packageChecksums.addAll(Arrays.asList(additional));
+            return this;
+        }
+
+        /**
+         * Set the base directory for package files added by path
+         * <p>
+         * The location of a package is then its path relative to this
+         * directory.
+         * </p>
+         *
+         * @param baseDirectory the base directory, may be <code>null</code>
+         * @return the builder
+         */
+        public Builder setBaseDirectory(final Path baseDirectory) {
+            this.baseDirectory = baseDirectory;
+            return this;
+        }
+
         public Builder setSigning(final Function<OutputStream, OutputStream> signingStreamCreator) {
             this.signingStreamCreator = signingStreamCreator;
             return this;
@@ -455,17 +1099,39 @@ public class RepositoryCreator {
         }
 
         public RepositoryCreator build() {
-            return new RepositoryCreator(this.target, this.xmlContext == null ? new DefaultXmlContext() : this.xmlContext, this.signingStreamCreator);
+            for (final MetadataCompression compression : this.compressions) {
+                if (!compression.isAvailable()) {
+                    throw new IllegalStateException(String.format("Compression format is not available: %s", compression));
+                }
+            }
+            return new RepositoryCreator(this.target, this.xmlContext == null ? new DefaultXmlContext() : this.xmlContext, this.xmlOutputFactory == null ? XMLOutputFactory.newFactory() : this.xmlOutputFactory, this.streaming, this.spoolStorage, this.compressions, this.parallelCompression, this.zchunk, this.packageIdType, this.packageChecksums, this.baseDirectory, this.signingStreamCreator);
         }
     }
 
-    private RepositoryCreator(final SpoolOutTarget target, final XmlContext xml, final Function<OutputStream, OutputStream> signingStreamCreator) {
+    private RepositoryCreator(final SpoolOutTarget target, final XmlContext xml, final XMLOutputFactory xmlOutputFactory, final boolean streaming, final SpoolStorage spoolStorage, final List<MetadataCompression> compressions, final boolean parallelCompression, final boolean zchunk, final HashAlgorithm packageIdType,
+            final Set<HashAlgorithm> packageChecksums, final Path baseDirectory, final Function<OutputStream, OutputStream> signingStreamCreator) {
         Objects.requireNonNull(target);
         Objects.requireNonNull(xml);
 
         // xml
 
         this.xml = xml;
+        this.xmlOutputFactory = xmlOutputFactory;
+        this.streaming = streaming;
+        this.spoolStorage = spoolStorage;
+        this.compression = compressions.get(0);
+        this.zchunk = zchunk;
+
+        // package files
+
+        this.packageIdType = packageIdType;
+        this.baseDirectory = baseDirectory != null ? baseDirectory.toAbsolutePath() : null;
+
+        final Set<HashAlgorithm> checksums = EnumSet.of(packageIdType);
+        checksums.addAll(packageChecksums);
+        final ScannerOptions scannerOptions = new ScannerOptions();
+        scannerOptions.setChecksums(checksums);
+        this.packageScanner = new RpmScanner(scannerOptions);
 
         // filters
 
@@ -481,30 +1147,15 @@ public class RepositoryCreator {
 
         // primary
 
-        this.primaryStreamBuilder = new OutputSpooler(target);
-
-        this.primaryStreamBuilder.addDigest(MD_NAME);
-
-        this.primaryStreamBuilder.addOutput(String.format("repodata/%s-primary.xml", this.primaryUniqueName), "application/xml");
-        this.primaryStreamBuilder.addOutput(String.format("repodata/%s-primary.xml.gz", this.primaryUniqueName), "application/x-gzip", GZIPOutputStream::new);
+        this.primaryStreamBuilder = makeDataSpooler(target, String.format("repodata/%s-primary.xml", this.primaryUniqueName), compressions, parallelCompression);
 
         // filelists
 
-        this.filelistsStreamBuilder = new OutputSpooler(target);
-
-        this.filelistsStreamBuilder.addDigest(MD_NAME);
-
-        this.filelistsStreamBuilder.addOutput(String.format("repodata/%s-filelists.xml", this.filelistsUniqueName), "application/xml");
-        this.filelistsStreamBuilder.addOutput(String.format("repodata/%s-filelists.xml.gz", this.filelistsUniqueName), "application/x-gzip", GZIPOutputStream::new);
+        this.filelistsStreamBuilder = makeDataSpooler(target, String.format("repodata/%s-filelists.xml", this.filelistsUniqueName), compressions, parallelCompression);
 
         // other
 
-        this.otherStreamBuilder = new OutputSpooler(target);
-
-        this.otherStreamBuilder.addDigest(MD_NAME);
-
-        this.otherStreamBuilder.addOutput(String.format("repodata/%s-other.xml", this.otherUniqueName), "application/xml");
-        this.otherStreamBuilder.addOutput(String.format("repodata/%s-other.xml.gz", this.otherUniqueName), "application/x-gzip", GZIPOutputStream::new);
+        this.otherStreamBuilder = makeDataSpooler(target, String.format("repodata/%s-other.xml", this.otherUniqueName), compressions, parallelCompression);
 
         // md
 
@@ -516,6 +1167,31 @@ public class RepositoryCreator {
         }
     }
 
+    private OutputSpooler makeDataSpooler(final SpoolOutTarget target, final String fileName, final List<MetadataCompression> compressions, final boolean parallel) {
+        final OutputSpooler result = new OutputSpooler(target);
+
+        result.addDigest(MD_NAME);
+        result.setParallel(parallel);
+
+        result.addOutput(fileName, "application/xml");
+        for (final MetadataCompression compression : compressions) {
+            result.addOutput(fileName + "." + compression.getExtension(), compression.getMimeType(), compression::createOutputStream);
+        }
+
+        if (this.zchunk) {
+            final String zchunkFileName = fileName + "." + ZCHUNK_EXTENSION;
+            result.addOutput(zchunkFileName, "application/zchunk", output -> {
+                final ZchunkOutputStream stream = new ZchunkOutputStream(output);
+                // one chunk per package
+                stream.setChunkStart("<package ");
+                this.zchunkStreams.put(zchunkFileName, stream);
+                return stream;
+            });
+        }
+
+        return result;
+    }
+
     private boolean matches(final String pathName, final List<Pattern> filterList) {
         for (final Pattern p : filterList) {
             if (p.matcher(pathName).find()) {
@@ -525,21 +1201,319 @@ public class RepositoryCreator {
         return false;
     }
 
+    /**
+     * Create the repository metadata, from the packages added to the context
+     * <p>
+     * The context passed to the consumer accepts concurrent calls to
+     * {@link Context#addPackage(FileInformation, RpmInformation, Map, HashAlgorithm)}.
+     * Packages are recorded in the order the calls were made.
+     * </p>
+     *
+     * @param consumer the consumer adding the packages
+     * @throws IOException if writing the metadata fails
+     */
     public void process(final IOConsumer<Context> consumer) throws IOException {
+        final ContextFactory<ContextWriter> factory;
+        if (this.streaming) {
+            factory = StreamingContextImpl::new;
+        } else {
+            factory = (primaryStream, filelistsStream, otherStream) -> new ContextImpl(primaryStream, filelistsStream, otherStream, this.xml);
+        }
+        process(factory, consumer::accept);
+    }
+
+    /**
+     * Create the repository metadata from a list of RPM files, in parallel
+     * <p>
+     * Files are parsed, checksummed and rendered to XML fragments on
+     * multiple threads, using the {@link RpmScanner}. The fragments are
+     * written in the order of the input files, so the result is
+     * deterministic. The package location is the path of the file, relative
+     * to the base directory. The package metadata is always written in
+     * streaming mode.
+     * </p>
+     *
+     * @param baseDirectory the base directory of the repository
+     * @param files the RPM files to add
+     * @param options the scanner options, controlling parallelism, caching
+     *            and the checksums to record
+     * @param idType the checksum to use as package ID, will be recorded in
+     *            any case
+     * @throws IOException if processing any of the files fails
+     */
+    public void process(final Path baseDirectory, final Iterable<Path> files, final ScannerOptions options, final HashAlgorithm idType) throws IOException {
+        Objects.requireNonNull(idType);
+
+        final Set<HashAlgorithm> checksums = EnumSet.of(idType);
+        checksums.addAll(options.getChecksums());
+
+        final ScannerOptions scannerOptions = new ScannerOptions(options);
+        scannerOptions.setChecksums(checksums);
+
+        final RpmScanner scanner = new RpmScanner(scannerOptions);
+        final Path base = baseDirectory.toAbsolutePath();
+
+        process(StreamingContextImpl::new, ctx -> scanner.scan(files, result -> render(ctx.getRenderer(), base, result, idType), ctx::append));
+    }
+
+    /**
+     * Update an existing repository
+     * <p>
+     * This reads the <code>repodata/repomd.xml</code> file of the base
+     * directory and reuses the metadata of all packages whose location, size
+     * and modification timestamp didn't change. Only new or changed files
+     * are parsed, packages whose files are no longer in the list are
+     * dropped. If there is no existing metadata, all files are processed.
+     * </p>
+     * <p>
+     * Reused packages are written first, in their previous order, followed
+     * by new and changed packages, in the order of the input files. The new
+     * metadata is written in streaming mode, using new unique file names.
+     * Only the primary, filelists and other data is carried over. The
+     * previous data files are not removed, they are reported in the result.
+     * </p>
+     *
+     * @param baseDirectory the base directory of the repository
+     * @param files the RPM files which should be part of the repository
+     * @param options the scanner options, controlling parallelism, caching
+     *            and the checksums to record for new packages
+     * @param idType the checksum to use as package ID for new packages
+     * @return the result of the update
+     * @throws IOException if reading the existing metadata, or processing any
+     *             of the files, fails
+     */
+    public UpdateResult update(final Path baseDirectory, final Iterable<Path> files, final ScannerOptions options, final HashAlgorithm idType) throws IOException {
+        Objects.requireNonNull(idType);
+
+        final Path base = baseDirectory.toAbsolutePath();
+        final RepodataReader reader = new RepodataReader(this.xmlOutputFactory);
+
+        final Map<String, String> previous = reader.readRepoMd(base.resolve("repodata/repomd.xml"));
+        final boolean reuse = previous.keySet().containsAll(Arrays.asList("primary", "filelists", "other"));
+
+        // find reusable entries
+
+        final List<RepodataReader.PrimaryEntry> entries;
+        if (reuse) {
+            try (InputStream in = reader.open(base, previous.get("primary"))) {
+                entries = reader.readPrimary(in);
+            }
+        } else {
+            entries = Collections.emptyList();
+        }
+
+        final Map<String, RepodataReader.PrimaryEntry> byLocation = new HashMap<>(entries.size() * 4 / 3 + 1);
+        for (final RepodataReader.PrimaryEntry entry : entries) {
+            if (entry.getLocation() != null && entry.getPkgid() != null) {
+                byLocation.putIfAbsent(entry.getLocation(), entry);
+            }
+        }
+
+        final BitSet keep = new BitSet(entries.size());
+        final Map<String, Integer> keepIds = new HashMap<>();
+        final List<Path> changed = new ArrayList<>();
+
+        for (final Path file : files) {
+            final RepodataReader.PrimaryEntry entry = byLocation.remove(makeLocation(base, file));
+            if (entry != null) {
+                final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (entry.getSize() == attributes.size() && entry.getTime() == attributes.lastModifiedTime().toInstant().getEpochSecond()) {
+                    keep.set(entry.getOrdinal());
+                    keepIds.merge(entry.getPkgid(), 1, Integer::sum);
+                    continue;
+                }
+            }
+            changed.add(file);
+        }
+
+        // write new metadata
+
+        final Set<HashAlgorithm> checksums = EnumSet.of(idType);
+        checksums.addAll(options.getChecksums());
+
+        final ScannerOptions scannerOptions = new ScannerOptions(options);
+        scannerOptions.setChecksums(checksums);
+
+        final RpmScanner scanner = new RpmScanner(scannerOptions);
+
+        final long[] reused = new long[1];
+
+        process(StreamingContextImpl::new, ctx -> {
+            if (!keep.isEmpty()) {
+                final Map<String, Integer> filelistsIds = new HashMap<>(keepIds);
+                final Map<String, Integer> otherIds = new HashMap<>(keepIds);
+
+                reused[0] = ctx.copyExisting(
+                        consumer -> copyPackages(reader, base, previous.get("primary"), (ordinal, pkgid) -> keep.get(ordinal), consumer),
+                        consumer -> copyPackages(reader, base, previous.get("filelists"), (ordinal, pkgid) -> take(filelistsIds, pkgid), consumer),
+                        consumer -> copyPackages(reader, base, previous.get("other"), (ordinal, pkgid) -> take(otherIds, pkgid), consumer));
+            }
+
+            scanner.scan(changed, result -> render(ctx.getRenderer(), base, result, idType), ctx::append);
+        });
+
+        final List<String> obsolete = new ArrayList<>();
+        if (reuse) {
+            for (final String type : Arrays.asList("primary", "filelists", "other")) {
+                final String href = previous.get(type);
+                obsolete.add(href);
+
+                // find other variants of the same file
+
+                final MetadataCompression compression = MetadataCompression.fromFileName(href);
+                final String plain = compression != null ? href.substring(0, href.length() - compression.getExtension().length() - 1) : href;
+                final List<String> variants = new ArrayList<>();
+                variants.add(plain);
+                for (final MetadataCompression variant : MetadataCompression.values()) {
+                    variants.add(plain + "." + variant.getExtension());
+                }
+                variants.add(plain + "." + ZCHUNK_EXTENSION);
+                for (final String variant : variants) {
+                    if (!obsolete.contains(variant) && Files.exists(base.resolve(variant))) {
+                        obsolete.add(variant);
+                    }
+                }
+            }
+        }
+
+        return new UpdateResult(reused[0], changed.size(), entries.size() - reused[0], obsolete);
+    }
+
+    private static long copyPackages(final RepodataReader reader, final Path base, final String href, final RepodataReader.PackageFilter filter, final IOConsumer<byte[]> consumer) throws IOException {
+        try (InputStream in = reader.open(base, href)) {
+            return reader.copyPackages(in, filter, consumer);
+        }
+    }
+
+    private static boolean take(final Map<String, Integer> ids, final String pkgid) {
+        if (pkgid == null) {
+            return false;
+        }
+        final Integer remaining = ids.get(pkgid);
+        if (remaining == null) {
+            return false;
+        }
+        if (remaining <= 1) {
+            ids.remove(pkgid);
+        } else {
+            ids.put(pkgid, remaining - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Add a package file, using the default location
+     *
+     * @param context the context to add the package to
+     * @param file the RPM file to add
+     * @throws IOException if reading the file fails
+     * @see #addPackage(Context, Path, String)
+     */
+    public void addPackage(final Context context, final Path file) throws IOException {
+        addPackage(context, file, null);
+    }
+
+    /**
+     * Add a package file
+     * <p>
+     * The file is read only once, the package checksums configured in the
+     * {@link Builder} are calculated while the package is being parsed. The
+     * result is passed on to
+     * {@link Context#addPackage(FileInformation, RpmInformation, Map, HashAlgorithm)}.
+     * </p>
+     *
+     * @param context the context to add the package to
+     * @param file the RPM file to add
+     * @param location the location of the package in the repository, if
+     *            <code>null</code>, the path relative to the base directory
+     *            of the {@link Builder}, or the file name, is used
+     * @throws IOException if reading the file fails
+     */
+    public void addPackage(final Context context, final Path file, final String location) throws IOException {
+        final ScanResult result = this.packageScanner.scanFile(file);
+
+        if (!result.isSuccess()) {
+            if (result.getError() instanceof IOException) {
+                throw (IOException) result.getError();
+            }
+            throw new IOException(String.format("Failed to process file: %s", file), result.getError());
+        }
+
+        final String effectiveLocation;
+        if (location != null) {
+            effectiveLocation = location;
+        } else if (this.baseDirectory != null) {
+            effectiveLocation = makeLocation(this.baseDirectory, file);
+        } else {
+            effectiveLocation = file.getFileName().toString();
+        }
+
+        final FileInformation fileInformation = new FileInformation(result.getAttributes().lastModifiedTime().toInstant(), result.getAttributes().size(), effectiveLocation);
+        context.addPackage(fileInformation, result.getInformation(), result.getChecksums(), this.packageIdType);
+    }
+
+    private static String makeLocation(final Path base, final Path file) {
+        return base.relativize(file.toAbsolutePath()).toString().replace(File.separatorChar, '/');
+    }
+
+    private static PackageFragments render(final FragmentRenderer renderer, final Path base, final ScanResult result, final HashAlgorithm idType) throws IOException {
+        if (!result.isSuccess()) {
+            throw new IOException(String.format("Failed to process file: %s", result.getPath()), result.getError());
+        }
+
+        final FileInformation fileInformation = new FileInformation(result.getAttributes().lastModifiedTime().toInstant(), result.getAttributes().size(), makeLocation(base, result.getPath()));
+
+        return renderer.render(fileInformation, result.getInformation(), result.getChecksums(), idType);
+    }
+
+    private <C extends ContextWriter> void process(final ContextFactory<C> factory, final IOConsumer<C> consumer) throws IOException {
         final long now = System.currentTimeMillis();
 
         this.primaryStreamBuilder.open(primaryStream -> this.filelistsStreamBuilder.open(filelistsStream -> this.otherStreamBuilder.open(otherStream -> {
-            final ContextImpl ctx = makeContext(primaryStream, filelistsStream, otherStream);
-            consumer.accept(ctx);
-            ctx.close();
+            final C ctx = factory.create(primaryStream, filelistsStream, otherStream);
+            try {
+                consumer.accept(ctx);
+                ctx.close();
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                ctx.dispose();
+            }
         })));
 
         this.mdStreamBuilder.open(stream -> writeRepoMd(stream, now));
 
     }
 
-    private ContextImpl makeContext(final OutputStream primaryStream, final OutputStream filelistsStream, final OutputStream otherStream) {
-        return new ContextImpl(primaryStream, filelistsStream, otherStream, this.xml);
+    private static String validatePackage(final FileInformation fileInformation, final RpmInformation info, final Map<HashAlgorithm, String> checksums, final HashAlgorithm idType) {
+        Objects.requireNonNull(fileInformation);
+        Objects.requireNonNull(info);
+        Objects.requireNonNull(checksums);
+        Objects.requireNonNull(idType);
+
+        final String id = checksums.get(idType);
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Checksums map did not contain a value for the ID type: %s", idType));
+        }
+
+        return id;
+    }
+
+    private static String makeFlags(final Set<RpmDependencyFlags> flags) {
+        final boolean eq = flags.contains(RpmDependencyFlags.EQUAL);
+
+        if (flags.contains(RpmDependencyFlags.GREATER)) {
+            return eq ? "GE" : "GT";
+        } else if (flags.contains(RpmDependencyFlags.LESS)) {
+            return eq ? "LE" : "LT";
+        } else if (eq) {
+            return "EQ";
+        }
+        return null;
+    }
+
+    private static boolean isPre(final Set<RpmDependencyFlags> flags) {
+        return flags.contains(RpmDependencyFlags.PREREQ) || flags.contains(RpmDependencyFlags.SCRIPT_PRE) || flags.contains(RpmDependencyFlags.SCRIPT_POST);
     }
 
     private void writeRepoMd(final OutputStream stream, final long now) throws IOException {
@@ -563,22 +1537,80 @@ public class RepositoryCreator {
 
     private void addDataFile(final Element root, final OutputSpooler spooler, final String unique, final String baseName, final long now) {
         final String filename = "repodata/" + unique + "-" + baseName + ".xml";
+        final String compressedFilename = filename + "." + this.compression.getExtension();
         final Element data = addElement(root, "data");
 
         data.setAttribute("type", baseName);
 
-        final Element checksum = addElement(data, "checksum", spooler.getChecksum(filename + ".gz", MD_NAME));
+        final Element checksum = addElement(data, "checksum", spooler.getChecksum(compressedFilename, MD_NAME));
+        checksum.setAttribute("type", MD_TAG);
+
+        final Element openChecksum = addElement(data, "open-checksum", spooler.getChecksum(filename, MD_NAME));
+        openChecksum.setAttribute("type", MD_TAG);
+
+        final Element location = addElement(data, "location");
+        location.setAttribute("href", compressedFilename);
+        addElement(data, "timestamp", now / 1000);
+
+        addElement(data, "size", "" + spooler.getSize(compressedFilename));
+        addElement(data, "open-size", "" + spooler.getSize(filename));
+
+        if (this.zchunk) {
+            addZchunkFile(root, spooler, filename, baseName, now);
+        }
+    }
+
+    private void addZchunkFile(final Element root, final OutputSpooler spooler, final String filename, final String baseName, final long now) {
+        final String zchunkFilename = filename + "." + ZCHUNK_EXTENSION;
+        final ZchunkOutputStream stream = this.zchunkStreams.get(zchunkFilename);
+        final Element data = addElement(root, "data");
+
+        data.setAttribute("type", baseName + "_zck");
+
+        final Element checksum = addElement(data, "checksum", spooler.getChecksum(zchunkFilename, MD_NAME));
         checksum.setAttribute("type", MD_TAG);
 
         final Element openChecksum = addElement(data, "open-checksum", spooler.getChecksum(filename, MD_NAME));
         openChecksum.setAttribute("type", MD_TAG);
 
+        final Element headerChecksum = addElement(data, "header-checksum", stream.getHeaderChecksum());
+        headerChecksum.setAttribute("type", MD_TAG);
+
         final Element location = addElement(data, "location");
-        location.setAttribute("href", filename + ".gz");
+        location.setAttribute("href", zchunkFilename);
         addElement(data, "timestamp", now / 1000);
 
-        addElement(data, "size", "" + spooler.getSize(filename + ".gz"));
+        addElement(data, "size", "" + spooler.getSize(zchunkFilename));
         addElement(data, "open-size", "" + spooler.getSize(filename));
+        addElement(data, "header-size", "" + stream.getHeaderSize());
+    }
+
+    private static void writeElement(final XMLStreamWriter writer, final String name, final String value) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writeText(writer, value);
+        writer.writeEndElement();
+    }
+
+    private static void writeOptionalRpmElement(final XMLStreamWriter writer, final String name, final String value) throws XMLStreamException {
+        if (value == null) {
+            return;
+        }
+
+        writer.writeStartElement("rpm", name, NS_RPM);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    private static void writeText(final XMLStreamWriter writer, final String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeCharacters(value);
+        }
+    }
+
+    private static void writeAttribute(final XMLStreamWriter writer, final String name, final String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeAttribute(name, value);
+        }
     }
 
     private static void addOptionalElement(final Element parent, final String name, final Object value) {
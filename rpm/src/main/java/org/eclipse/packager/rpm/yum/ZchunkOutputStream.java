@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.yum;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.eclipse.packager.utils.Strings;
+
+/**
+ * Write a zchunk file
+ * <p>
+ * A zchunk file consists of individually compressed chunks, and a header
+ * carrying an index of those chunks, together with their checksums. Clients
+ * having an older version of the file can fetch only the chunks which
+ * changed.
+ * </p>
+ * <p>
+ * The content is split into chunks right before each occurrence of the chunk
+ * start marker (see {@link #setChunkStart(byte[])}), when a chunk exceeds the
+ * maximum chunk size, or when {@link #endChunk()} is called. As the header
+ * must precede the data, compressed chunks are spooled into a temporary file,
+ * and copied to the target stream when this stream is closed. Only the
+ * current chunk is kept in memory.
+ * </p>
+ * <p>
+ * The header checksum is SHA-256, chunk checksums are SHA-512/128. No
+ * dictionary, data streams, optional elements or signatures are written.
+ * </p>
+ */
+public class ZchunkOutputStream extends OutputStream {
+    /**
+     * The zchunk compression type
+     */
+    public enum Compression {
+        NONE(0),
+        /**
+         * Zstandard compression
+         * <p>
+         * This requires the <code>zstd-jni</code> library to be present at
+         * runtime.
+         * </p>
+         */
+        ZSTD(2);
+
+        private final int value;
+
+        Compression(final int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return this.value;
+        }
+    }
+
+    private static final byte[] LEAD_ID = { 0, 'Z', 'C', 'K', '1' };
+
+    private static final int CHECKSUM_SHA256 = 1;
+
+    private static final int CHECKSUM_SHA512_128 = 3;
+
+    private static final int CHUNK_CHECKSUM_LENGTH = 16;
+
+    private static final int DEFAULT_MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private static final class Chunk {
+        private final byte[] checksum;
+
+        private final long length;
+
+        private final long uncompressedLength;
+
+        private Chunk(final byte[] checksum, final long length, final long uncompressedLength) {
+            this.checksum = checksum;
+            this.length = length;
+            this.uncompressedLength = uncompressedLength;
+        }
+    }
+
+    private final OutputStream out;
+
+    private final Compression compression;
+
+    private final Path dataFile;
+
+    private final OutputStream data;
+
+    private final MessageDigest dataDigest;
+
+    private final MessageDigest chunkDigest;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    private final ByteArrayOutputStream current = new ByteArrayOutputStream();
+
+    private byte[] marker;
+
+    private int[] markerFailure;
+
+    private int markerMatched;
+
+    private int maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
+
+    private String headerChecksum;
+
+    private long headerSize;
+
+    private boolean closed;
+
+    public ZchunkOutputStream(final OutputStream out) throws IOException {
+        this(out, ZstdUtils.isZstdCompressionAvailable() ? Compression.ZSTD : Compression.NONE);
+    }
+
+    public ZchunkOutputStream(final OutputStream out, final Compression compression) throws IOException {
+        if (compression == Compression.ZSTD && !ZstdUtils.isZstdCompressionAvailable()) {
+            throw new IOException("Zstandard compression is not available");
+        }
+
+        this.out = out;
+        this.compression = compression;
+
+        try {
+            this.dataDigest = MessageDigest.getInstance("SHA-256");
+            this.chunkDigest = MessageDigest.getInstance("SHA-512");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        this.dataFile = Files.createTempFile("zchunk-", ".data");
+        this.data = new BufferedOutputStream(Files.newOutputStream(this.dataFile));
+    }
+
+    /**
+     * Set the chunk start marker
+     * <p>
+     * A new chunk is started before each occurrence of the marker.
+     * </p>
+     *
+     * @param marker the marker, <code>null</code> to disable splitting on
+     *            markers
+     */
+    public void setChunkStart(final byte[] marker) {
+        if (marker == null || marker.length == 0) {
+            this.marker = null;
+            this.markerFailure = null;
+        } else {
+            this.marker = marker.clone();
+            this.markerFailure = failure(this.marker);
+        }
+        this.markerMatched = 0;
+    }
+
+    public void setChunkStart(final String marker) {
+        setChunkStart(marker == null ? null : marker.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Set the maximum uncompressed size of a chunk
+     *
+     * @param maxChunkSize the maximum size, in bytes
+     */
+    public void setMaxChunkSize(final int maxChunkSize) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("Maximum chunk size must be greater than zero");
+        }
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        checkOpen();
+
+        if (this.marker == null) {
+            int pos = off;
+            final int end = off + len;
+            while (pos < end) {
+                final int n = Math.min(end - pos, this.maxChunkSize - this.current.size());
+                this.current.write(b, pos, n);
+                pos += n;
+                if (this.current.size() >= this.maxChunkSize) {
+                    endChunk();
+                }
+            }
+            return;
+        }
+
+        int start = off;
+        for (int i = off; i < off + len; i++) {
+            if (!matchMarker(b[i])) {
+                continue;
+            }
+
+            // the marker ends at i, the chunk ends right before it
+
+            this.current.write(b, start, i + 1 - start);
+            start = i + 1;
+
+            if (this.current.size() > this.marker.length) {
+                final byte[] content = this.current.toByteArray();
+                final int chunkLength = content.length - this.marker.length;
+                this.current.reset();
+                writeChunk(content, 0, chunkLength);
+                this.current.write(content, chunkLength, this.marker.length);
+            }
+        }
+
+        this.current.write(b, start, off + len - start);
+
+        if (this.current.size() >= this.maxChunkSize) {
+            endChunk();
+        }
+    }
+
+    private boolean matchMarker(final byte b) {
+        while (this.markerMatched > 0 && this.marker[this.markerMatched] != b) {
+            this.markerMatched = this.markerFailure[this.markerMatched - 1];
+        }
+        if (this.marker[this.markerMatched] == b) {
+            this.markerMatched++;
+        }
+        if (this.markerMatched == this.marker.length) {
+            this.markerMatched = this.markerFailure[this.markerMatched - 1];
+            return true;
+        }
+        return false;
+    }
+
+    private static int[] failure(final byte[] marker) {
+        final int[] result = new int[marker.length];
+        int k = 0;
+        for (int i = 1; i < marker.length; i++) {
+            while (k > 0 && marker[k] != marker[i]) {
+                k = result[k - 1];
+            }
+            if (marker[k] == marker[i]) {
+                k++;
+            }
+            result[i] = k;
+        }
+        return result;
+    }
+
+    /**
+     * End the current chunk
+     * <p>
+     * If the current chunk is empty, nothing will be written.
+     * </p>
+     *
+     * @throws IOException if writing the chunk fails
+     */
+    public void endChunk() throws IOException {
+        checkOpen();
+
+        if (this.current.size() == 0) {
+            return;
+        }
+
+        final byte[] content = this.current.toByteArray();
+        this.current.reset();
+        writeChunk(content, 0, content.length);
+    }
+
+    private void writeChunk(final byte[] content, final int off, final int len) throws IOException {
+        if (len <= 0) {
+            return;
+        }
+
+        final byte[] compressed;
+        if (this.compression == Compression.ZSTD) {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream(len / 2 + 64);
+            try (OutputStream zstd = new ZstdCompressorOutputStream(bos)) {
+                zstd.write(content, off, len);
+            }
+            compressed = bos.toByteArray();
+        } else {
+            compressed = Arrays.copyOfRange(content, off, off + len);
+        }
+
+        this.chunkDigest.reset();
+        final byte[] checksum = Arrays.copyOf(this.chunkDigest.digest(compressed), CHUNK_CHECKSUM_LENGTH);
+
+        this.dataDigest.update(compressed);
+        this.data.write(compressed);
+
+        this.chunks.add(new Chunk(checksum, compressed.length, len));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // chunks are only written on close
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        try {
+            endChunk();
+            this.closed = true;
+            this.data.close();
+
+            final byte[] header = makeHeader();
+            this.out.write(header);
+
+            try (InputStream in = Files.newInputStream(this.dataFile)) {
+                in.transferTo(this.out);
+            }
+
+            this.out.close();
+        } finally {
+            this.closed = true;
+            this.data.close();
+            Files.deleteIfExists(this.dataFile);
+        }
+    }
+
+    private byte[] makeHeader() throws IOException {
+        // index
+
+        final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        writeInt(index, CHECKSUM_SHA512_128);
+        writeInt(index, this.chunks.size() + 1);
+
+        // no dictionary
+
+        index.write(new byte[CHUNK_CHECKSUM_LENGTH]);
+        writeInt(index, 0);
+        writeInt(index, 0);
+
+        for (final Chunk chunk : this.chunks) {
+            index.write(chunk.checksum);
+            writeInt(index, chunk.length);
+            writeInt(index, chunk.uncompressedLength);
+        }
+
+        // preface, index and signatures
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        header.write(this.dataDigest.digest());
+        writeInt(header, 0); // flags
+        writeInt(header, this.compression.getValue());
+        writeInt(header, index.size());
+        index.writeTo(header);
+        writeInt(header, 0); // signature count
+
+        // lead
+
+        final ByteArrayOutputStream lead = new ByteArrayOutputStream();
+        lead.write(LEAD_ID);
+        writeInt(lead, CHECKSUM_SHA256);
+        writeInt(lead, header.size());
+
+        final MessageDigest headerDigest;
+        try {
+            headerDigest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        headerDigest.update(lead.toByteArray());
+        headerDigest.update(header.toByteArray());
+        final byte[] checksum = headerDigest.digest();
+
+        lead.write(checksum);
+        header.writeTo(lead);
+
+        final byte[] result = lead.toByteArray();
+
+        this.headerChecksum = Strings.hex(checksum);
+        this.headerSize = result.length;
+
+        return result;
+    }
+
+    /**
+     * Write a zchunk compressed integer
+     * <p>
+     * Seven bits per byte, least significant group first, the last byte has
+     * the highest bit set.
+     * </p>
+     */
+    static void writeInt(final OutputStream out, long value) throws IOException {
+        while (value >= 0x80) {
+            out.write((int) (value & 0x7F));
+            value >>>= 7;
+        }
+        out.write((int) (value | 0x80));
+    }
+
+    private void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream is already closed");
+        }
+    }
+
+    public Compression getCompression() {
+        return this.compression;
+    }
+
+    /**
+     * Get the number of data chunks written so far
+     *
+     * @return the number of chunks, not counting the dictionary
+     */
+    public int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Get the header checksum
+     *
+     * @return the hex encoded SHA-256 header checksum, or <code>null</code>
+     *         if the stream has not been closed yet
+     */
+    public String getHeaderChecksum() {
+        return this.headerChecksum;
+    }
+
+    /**
+     * Get the size of the header, including the lead
+     *
+     * @return the header size, or <code>0</code> if the stream has not been
+     *         closed yet
+     */
+    public long getHeaderSize() {
+        return this.headerSize;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.packager.io.BufferPool;
+import org.eclipse.packager.rpm.header.Header;
+import org.eclipse.packager.rpm.header.Headers;
+import org.junit.jupiter.api.Test;
+
+class PooledBufferTest {
+
+    private static Header<RpmTag> makeHeader() {
+        final Header<RpmTag> header = new Header<>();
+        header.putString(RpmTag.NAME, "pooled");
+        header.putString(RpmTag.VERSION, "1.0.0");
+        header.putInt(RpmTag.SIZE, 42);
+        header.putStringArray(RpmTag.BASENAMES, "a", "b", "c");
+        header.putShort(RpmTag.FILE_MODES, (short) 0644, (short) 0755, (short) 0600);
+        return header;
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        final byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
+    @Test
+    void testRenderPooled() {
+        final BufferPool pool = new BufferPool(4096, 2, true);
+
+        // leave garbage in the pooled buffer
+
+        final ByteBuffer dirty = pool.acquire();
+        while (dirty.hasRemaining()) {
+            dirty.put((byte) 0xFF);
+        }
+        pool.release(dirty);
+
+        final byte[] expected = toArray(Headers.render(makeHeader().makeEntries(), true, Rpms.IMMUTABLE_TAG_HEADER));
+
+        final ByteBuffer pooled = Headers.render(makeHeader().makeEntries(), true, Rpms.IMMUTABLE_TAG_HEADER, pool::acquire);
+        assertThat(pooled).isSameAs(dirty);
+        assertThat(toArray(pooled)).isEqualTo(expected);
+        pool.release(pooled);
+    }
+
+    @Test
+    void testAcquire() {
+        final BufferPool pool = new BufferPool(1024, 1, false);
+
+        final ByteBuffer a = pool.acquire(100);
+        assertThat(a.capacity()).isEqualTo(1024);
+        assertThat(a.limit()).isEqualTo(100);
+
+        final ByteBuffer large = pool.acquire(2048);
+        assertThat(large.capacity()).isEqualTo(2048);
+
+        pool.release(a);
+        pool.release(large);
+
+        // only the pool sized buffer is re-used
+
+        final ByteBuffer b = pool.acquire();
+        assertThat(b).isSameAs(a);
+        assertThat(b.position()).isZero();
+        assertThat(b.limit()).isEqualTo(1024);
+
+        assertThat(pool.acquire()).isNotSameAs(a).isNotSameAs(large);
+    }
+
+    @Test
+    void testCopy() throws Exception {
+        final byte[] data = new byte[BufferPool.DEFAULT_BUFFER_SIZE * 2 + 123];
+        new Random(1).nextBytes(data);
+
+        final ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+        final long channelCount = BufferPool.direct().copy(Channels.newChannel(new ByteArrayInputStream(data)), Channels.newChannel(channelOut));
+
+        final ByteArrayOutputStream streamOut = new ByteArrayOutputStream();
+        final long streamCount = BufferPool.direct().copy(new ByteArrayInputStream(data), streamOut);
+
+        assertThat(channelCount).isEqualTo(data.length);
+        assertThat(streamCount).isEqualTo(data.length);
+        assertThat(Arrays.equals(channelOut.toByteArray(), data)).isTrue();
+        assertThat(Arrays.equals(streamOut.toByteArray(), data)).isTrue();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RpmVersionKeyTest {
+    private static final String ALPHABET = "0019aazZ.._+~^";
+
+    /**
+     * The scanner based implementation, used as reference
+     */
+    private static int referenceCompare(final String a, final String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+
+        final RpmVersionScanner scanner1 = new RpmVersionScanner(a);
+        final RpmVersionScanner scanner2 = new RpmVersionScanner(b);
+
+        while (scanner1.hasNext() || scanner2.hasNext()) {
+            if (scanner1.hasNextTilde() || scanner2.hasNextTilde()) {
+                if (!scanner1.hasNextTilde()) {
+                    return 1;
+                }
+                if (!scanner2.hasNextTilde()) {
+                    return -1;
+                }
+                scanner1.next();
+                scanner2.next();
+                continue;
+            }
+
+            if (scanner1.hasNextCarat() || scanner2.hasNextCarat()) {
+                if (!scanner1.hasNext()) {
+                    return -1;
+                }
+                if (!scanner2.hasNext()) {
+                    return 1;
+                }
+                if (!scanner1.hasNextCarat()) {
+                    return 1;
+                }
+                if (!scanner2.hasNextCarat()) {
+                    return -1;
+                }
+                scanner1.next();
+                scanner2.next();
+                continue;
+            }
+
+            if (scanner1.hasNextAlpha() && scanner2.hasNextAlpha()) {
+                final int i = CharSequence.compare(scanner1.next(), scanner2.next());
+                if (i != 0) {
+                    return i < 0 ? -1 : 1;
+                }
+            } else {
+                final boolean digit1 = scanner1.hasNextDigit();
+                final boolean digit2 = scanner2.hasNextDigit();
+
+                if (digit1 && digit2) {
+                    final CharSequence one = scanner1.next();
+                    final CharSequence two = scanner2.next();
+                    if (one.length() != two.length()) {
+                        return one.length() > two.length() ? 1 : -1;
+                    }
+                    final int i = CharSequence.compare(one, two);
+                    if (i != 0) {
+                        return i < 0 ? -1 : 1;
+                    }
+                } else if (digit1) {
+                    return 1;
+                } else if (digit2) {
+                    return -1;
+                } else {
+                    return scanner1.hasNext() ? 1 : -1;
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    private static String randomVersion(final Random random) {
+        final int length = random.nextInt(10);
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testEquivalence() {
+        final Random random = new Random(47);
+
+        for (int i = 0; i < 200_000; i++) {
+            final String a = randomVersion(random);
+            final String b = randomVersion(random);
+            final String rel = random.nextBoolean() ? randomVersion(random) : null;
+
+            final int expected = referenceCompare(a, b);
+
+            assertThat(RpmVersion.compare(a, b)).as("compare(%s, %s)", a, b).isEqualTo(expected);
+            assertThat(new RpmVersionKey(0, a, rel).compareTo(new RpmVersionKey(0, b, rel))).as("key(%s, %s)", a, b).isEqualTo(expected);
+            assertThat(new RpmVersionKey(0, rel != null ? rel : "", a).compareTo(new RpmVersionKey(0, rel != null ? rel : "", b))).as("release(%s, %s)", a, b).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testCachedKey() {
+        final RpmVersion version = RpmVersion.valueOf("1:2.0-1");
+        assertThat(version.getKey()).isSameAs(version.getKey());
+        assertThat(RpmVersionKey.of(version)).isSameAs(version.getKey());
+    }
+
+    @Test
+    void testSort() {
+        final List<RpmVersion> versions = new ArrayList<>();
+        for (final String version : new String[] { "1.0~rc1", "1:0.1", "1.0", "1.0-1", "1.0^git1", "0.9", "1.0.1", "1.0-2" }) {
+            versions.add(RpmVersion.valueOf(version));
+        }
+
+        Collections.shuffle(versions, new Random(47));
+        Collections.sort(versions);
+
+        assertThat(versions).extracting(RpmVersion::toString).containsExactly("0.9", "1.0~rc1", "1.0", "1.0-1", "1.0-2", "1.0^git1", "1.0.1", "1:0.1");
+    }
+}
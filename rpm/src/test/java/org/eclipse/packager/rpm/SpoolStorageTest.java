@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.eclipse.packager.io.MemorySpoolStorage;
+import org.eclipse.packager.io.SpoolFile;
+import org.eclipse.packager.io.SpoolStorage;
+import org.eclipse.packager.rpm.build.DigestAlgorithm;
+import org.eclipse.packager.rpm.build.PayloadRecorder;
+import org.eclipse.packager.rpm.coding.PayloadCoding;
+import org.eclipse.packager.rpm.coding.PayloadFlags;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpoolStorageTest {
+    @TempDir
+    Path base;
+
+    private static byte[] data(final int size) {
+        final byte[] result = new byte[size];
+        new Random(size).nextBytes(result);
+        return result;
+    }
+
+    private static long countFiles(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private byte[] record(final SpoolStorage storage, final Path spoolDirectory) throws IOException {
+        final PayloadFlags flags = new PayloadFlags(PayloadCoding.GZIP, 9);
+        try (PayloadRecorder recorder = new PayloadRecorder(PayloadCoding.GZIP, flags, DigestAlgorithm.SHA256, null, storage)) {
+            final PayloadRecorder.Result result = recorder.addFile("/opt/test/stream.bin", new ByteArrayInputStream(data(200_000)));
+            assertThat(result.getSize()).isEqualTo(200_000);
+            recorder.addFile("/opt/test/buffer.bin", ByteBuffer.wrap(data(1_000)));
+
+            try (PayloadRecorder.Finished finished = recorder.finish()) {
+                if (spoolDirectory != null) {
+                    // the payload got spilled to disk
+                    assertThat(countFiles(spoolDirectory)).isEqualTo(1);
+                }
+
+                final byte[] payload;
+                try (ReadableByteChannel channel = finished.openPayloadChannel(); InputStream in = Channels.newInputStream(channel)) {
+                    payload = in.readAllBytes();
+                    assertThat(payload).hasSize((int) finished.getPayloadSize());
+                }
+
+                // the deprecated accessor still provides a file channel, for any storage
+                try (@SuppressWarnings("deprecation") FileChannel channel = finished.openChannel(); InputStream in = Channels.newInputStream(channel)) {
+                    assertThat(channel.size()).isEqualTo(finished.getPayloadSize());
+                    assertThat(in.readAllBytes()).isEqualTo(payload);
+                }
+
+                return payload;
+            }
+        }
+    }
+
+    @Test
+    void testStorages() throws IOException {
+        final Path spill = this.base.resolve("spill");
+
+        final byte[] expected = record(SpoolStorage.defaultStorage(), null);
+
+        assertThat(record(SpoolStorage.directory(this.base.resolve("dir")), null)).isEqualTo(expected);
+        assertThat(record(SpoolStorage.memory(), null)).isEqualTo(expected);
+        assertThat(record(SpoolStorage.hybrid(1024, spill), spill)).isEqualTo(expected);
+
+        // everything got cleaned up
+
+        assertThat(countFiles(this.base.resolve("dir"))).isZero();
+        assertThat(countFiles(spill)).isZero();
+    }
+
+    @Test
+    void testMemoryChunks() throws IOException {
+        final SpoolStorage storage = new MemorySpoolStorage(16);
+        final byte[] data = data(100);
+
+        final SpoolFile file = storage.create("test");
+        try (OutputStream out = file.openOutputStream()) {
+            out.write(data[0]);
+            out.write(data, 1, data.length - 1);
+        }
+
+        assertThat(file.size()).isEqualTo(100);
+        try (InputStream in = file.openInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+
+        // can be read multiple times
+
+        try (InputStream in = file.openInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+
+        file.close();
+
+        assertThatThrownBy(file::openChannel).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.packager.rpm.info.RpmInformation;
+import org.junit.jupiter.api.Test;
+
+class DependencyIndexTest {
+    private static final long LESS = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.LESS));
+
+    private static final long GREATER_EQUAL = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.GREATER, RpmDependencyFlags.EQUAL));
+
+    private static final long EQUAL = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.EQUAL));
+
+    private static final long RPMLIB = RpmDependencyFlags.encode(EnumSet.of(RpmDependencyFlags.RPMLIB, RpmDependencyFlags.LESS, RpmDependencyFlags.EQUAL));
+
+    private static RpmInformation pkg(final String name, final String version, final String release) {
+        final RpmInformation result = new RpmInformation();
+        result.setName(name);
+        result.setVersion(new RpmInformation.Version(version, release, null));
+        return result;
+    }
+
+    private static RpmInformation.Dependency dep(final String name, final String version, final long flags) {
+        return new RpmInformation.Dependency(name, version, flags);
+    }
+
+    @Test
+    void testWhatProvides() {
+        final RpmInformation libfoo1 = pkg("libfoo", "1.0", "1");
+        libfoo1.getProvides().add(dep("libfoo.so.1()(64bit)", null, 0));
+
+        final RpmInformation libfoo2 = pkg("libfoo", "2.0", "1");
+        libfoo2.getProvides().add(dep("foo-api", "2", EQUAL));
+        libfoo2.getFiles().add("/usr/lib64/libfoo.so.2");
+
+        final DependencyIndex index = new DependencyIndex.Builder().addPackage(libfoo1).addPackage(libfoo2).build();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.whatProvides("libfoo", null, 0)).containsExactly(libfoo1, libfoo2);
+        assertThat(index.whatProvides("libfoo", "1.5", GREATER_EQUAL)).containsExactly(libfoo2);
+        assertThat(index.whatProvides("libfoo", "2.0", LESS)).containsExactly(libfoo1);
+        // release is ignored if the requirement has none
+        assertThat(index.whatProvides("libfoo", "2.0", EQUAL)).containsExactly(libfoo2);
+        assertThat(index.whatProvides("libfoo", "2.0-2", EQUAL)).isEmpty();
+        assertThat(index.whatProvides("libfoo", "1:1.0", GREATER_EQUAL)).isEmpty();
+
+        assertThat(index.whatProvides(dep("libfoo.so.1()(64bit)", null, 0))).containsExactly(libfoo1);
+        assertThat(index.whatProvides(new Dependency("foo-api", "1", RpmDependencyFlags.GREATER))).containsExactly(libfoo2);
+        assertThat(index.whatProvides("/usr/lib64/libfoo.so.2", null, 0)).containsExactly(libfoo2);
+        assertThat(index.whatProvides("missing", null, 0)).isEmpty();
+    }
+
+    @Test
+    void testRpmlib() {
+        final RpmInformation.Dependency require = dep("rpmlib(PayloadIsZstd)", "5.4.18-1", RPMLIB);
+
+        assertThat(new DependencyIndex.Builder().build().isSatisfied(require)).isTrue();
+
+        assertThat(new DependencyIndex.Builder().addRpmlibFeature("rpmlib(PayloadIsZstd)", "5.4.18-1").build().isSatisfied(require)).isTrue();
+        // rpmlib requirements are "less or equal", like the requirements generated by rpmbuild
+        assertThat(new DependencyIndex.Builder().addRpmlibFeature("rpmlib(PayloadIsZstd)", "5.4.19-1").build().isSatisfied(require)).isFalse();
+        assertThat(new DependencyIndex.Builder().addRpmlibFeature("rpmlib(CompressedFileNames)", "3.0.4-1").build().isSatisfied(require)).isFalse();
+    }
+
+    @Test
+    void testClosure() throws Exception {
+        final RpmInformation app = pkg("app", "1.0", "1");
+        app.getRequires().add(dep("libfoo", "1.5", GREATER_EQUAL));
+        app.getRequires().add(dep("/bin/sh", null, 0));
+        app.getRequires().add(dep("rpmlib(CompressedFileNames)", "3.0.4-1", RPMLIB));
+        app.getRequires().add(dep("missing", null, 0));
+
+        final RpmInformation libfoo1 = pkg("libfoo", "1.0", "1");
+        final RpmInformation libfoo2 = pkg("libfoo", "2.0", "1");
+        final RpmInformation libfoo3 = pkg("libfoo", "3.0", "1");
+        libfoo2.getRequires().add(dep("glibc", null, 0));
+        libfoo3.getRequires().add(dep("glibc", null, 0));
+
+        final RpmInformation bash = pkg("bash", "5.2", "1");
+        bash.getFiles().add("/bin/sh");
+        bash.getRequires().add(dep("glibc", null, 0));
+        bash.getRequires().add(dep("libfoo", "2.0", LESS));
+
+        final RpmInformation glibc = pkg("glibc", "2.38", "1");
+
+        final DependencyIndex index = new DependencyIndex.Builder().addPackages(Arrays.asList(app, libfoo1, libfoo2, libfoo3, bash, glibc)).build();
+
+        final DependencyIndex.Closure closure = index.closure(Collections.singleton(app));
+        assertThat(closure.getPackages()).containsExactly(app, libfoo3, bash, glibc, libfoo1);
+        assertThat(closure.isComplete()).isFalse();
+        assertThat(closure.getUnresolved()).containsOnlyKeys(app);
+        assertThat(closure.getUnresolved().get(app)).extracting(RpmInformation.Dependency::getName).containsExactly("missing");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertThat(index.closure(Collections.singleton(app), executor).getPackages()).isEqualTo(closure.getPackages());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThatThrownBy(() -> index.closure(Collections.singleton(pkg("other", "1", "1")))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testParallelClosure() {
+        // a chain of packages, each level being wider than a single batch
+
+        final int width = 200;
+        final int depth = 5;
+
+        final DependencyIndex.Builder builder = new DependencyIndex.Builder();
+        final RpmInformation root = pkg("root", "1", "1");
+        builder.addPackage(root);
+
+        for (int level = 0; level < depth; level++) {
+            for (int i = 0; i < width; i++) {
+                final RpmInformation information = pkg("p" + level + "-" + i, "1", "1");
+                if (level + 1 < depth) {
+                    information.getRequires().add(dep("p" + (level + 1) + "-" + i, null, 0));
+                    information.getRequires().add(dep("p" + (level + 1) + "-" + (width - i - 1), "1", GREATER_EQUAL));
+                }
+                builder.addPackage(information);
+                if (level == 0) {
+                    root.getRequires().add(dep(information.getName(), null, 0));
+                }
+            }
+        }
+
+        final DependencyIndex index = builder.build();
+
+        final List<RpmInformation> expected = index.closure(Collections.singleton(root)).getPackages();
+        assertThat(expected).hasSize(width * depth + 1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final DependencyIndex.Closure closure = index.closure(Collections.singleton(root), executor);
+            assertThat(closure.getPackages()).isEqualTo(expected);
+            assertThat(closure.isComplete()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
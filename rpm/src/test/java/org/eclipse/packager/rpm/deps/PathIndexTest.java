@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.deps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.packager.rpm.info.RpmInformation;
+import org.eclipse.packager.rpm.info.RpmInformations;
+import org.eclipse.packager.rpm.parse.RpmInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PathIndexTest {
+    private static final Path RPM = Path.of("src/test/resources/data/org.eclipse.scada-0.2.1-1.noarch.rpm");
+
+    @TempDir
+    Path base;
+
+    @Test
+    void testHeader() throws IOException {
+        final PathIndex.Builder builder = new PathIndex.Builder();
+        final RpmInformation information = new RpmInformation();
+
+        try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(RPM)))) {
+            builder.addPackage("scada", in.getPayloadHeader());
+            RpmInformations.fillFilesFromHeader(in.getPayloadHeader(), information);
+        }
+
+        final PathIndex index = builder.build();
+
+        assertThat(information.getFiles()).isNotEmpty();
+        for (final String file : information.getFiles()) {
+            assertThat(index.getOwners(file)).as(file).containsExactly("scada");
+        }
+        for (final String directory : information.getDirectories()) {
+            assertThat(index.contains(directory + "/")).as(directory).isTrue();
+        }
+
+        assertThat(index.contains("/usr/bin/missing")).isFalse();
+        assertThat(index.contains("/usr/bin")).isFalse();
+    }
+
+    @Test
+    void testOwners() throws IOException {
+        final PathIndex index = new PathIndex.Builder()
+                .addPackage("bash", Arrays.asList("/usr/bin/bash", "/usr/bin/sh", "/etc/skel/.bashrc", "/etc/skel/.bashrc"))
+                .addPackage("dash", Arrays.asList("/usr/bin/dash", "/usr/bin/sh"))
+                .addPackage("filesystem", Arrays.asList("/usr", "/usr/bin/", "/etc"))
+                .addPackage("empty", List.of())
+                .build();
+
+        assertThat(index.getPackageCount()).isEqualTo(4);
+        assertThat(index.getPathCount()).isEqualTo(7);
+
+        assertThat(index.getOwners("/usr/bin/bash")).containsExactly("bash");
+        assertThat(index.getOwners("/usr/bin/sh")).containsExactly("bash", "dash");
+        assertThat(index.getOwners("/etc/skel/.bashrc")).containsExactly("bash");
+        assertThat(index.getOwners("/usr/bin")).containsExactly("filesystem");
+        assertThat(index.getOwners("/usr/")).containsExactly("filesystem");
+        assertThat(index.getOwners("/usr/sbin/sh")).isEmpty();
+        assertThat(index.getOwners("/usr/bin/zsh")).isEmpty();
+        assertThat(index.getOwners("/")).isEmpty();
+        assertThat(index.getOwners("relative")).isEmpty();
+
+        assertThat(index.getSharedPaths()).containsOnlyKeys("/usr/bin/sh");
+
+        final Path file = this.base.resolve("paths.idx");
+        index.save(file);
+        final PathIndex loaded = PathIndex.load(file);
+
+        assertThat(loaded.getPackageCount()).isEqualTo(4);
+        assertThat(loaded.getPathCount()).isEqualTo(7);
+        assertThat(loaded.getOwners("/usr/bin/sh")).containsExactly("bash", "dash");
+        assertThat(loaded.getOwners("/usr/bin")).containsExactly("filesystem");
+        assertThat(loaded.getSharedPaths()).isEqualTo(index.getSharedPaths());
+
+        assertThatThrownBy(() -> new PathIndex.Builder().addPackage("bad", List.of("relative"))).isInstanceOf(IllegalArgumentException.class);
+
+        Files.write(file, new byte[] { 1, 2, 3, 4 });
+        assertThatThrownBy(() -> PathIndex.load(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testLarge() throws IOException {
+        final PathIndex.Builder builder = new PathIndex.Builder();
+        for (int p = 0; p < 500; p++) {
+            final List<String> paths = new ArrayList<>();
+            for (int f = 0; f < 50; f++) {
+                paths.add(String.format("/usr/lib/pkg%d/dir%d/file%d", p, f % 5, f));
+            }
+            builder.addPackage("pkg" + p, paths);
+        }
+        final PathIndex index = builder.build();
+
+        final Path file = this.base.resolve("large.idx");
+        index.save(file);
+        final PathIndex loaded = PathIndex.load(file);
+
+        for (final PathIndex i : Arrays.asList(index, loaded)) {
+            assertThat(i.getPathCount()).isEqualTo(500 * 50);
+            assertThat(i.getOwners("/usr/lib/pkg123/dir2/file7")).containsExactly("pkg123");
+            assertThat(i.getOwners("/usr/lib/pkg123/dir3/file7")).isEmpty();
+            assertThat(i.getSharedPaths()).isEmpty();
+        }
+    }
+}
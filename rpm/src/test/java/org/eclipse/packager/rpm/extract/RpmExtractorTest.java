@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Random;
+
+import org.eclipse.packager.rpm.RpmTag;
+import org.eclipse.packager.rpm.build.RpmBuilder;
+import org.eclipse.packager.rpm.build.RpmBuilder.PackageInformation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RpmExtractorTest {
+    @TempDir
+    private Path outBase;
+
+    @Test
+    void testExtract() throws IOException {
+        final byte[] large = new byte[1024 * 1024 + 17];
+        new Random(42).nextBytes(large);
+
+        final Path rpm;
+        try (RpmBuilder builder = new RpmBuilder("extract-test", "1.0.0", "1", "noarch", this.outBase)) {
+            builder.setInformation(new PackageInformation());
+            builder.newContext().addDirectory("/opt/extract");
+            builder.newContext().addFile("/opt/extract/small.txt", "Hello World".getBytes(StandardCharsets.UTF_8), customizer -> customizer.setMode((short) 0640));
+            builder.newContext().addFile("/opt/extract/data/large.bin", large);
+            builder.newContext().addFile("/opt/extract/empty", new byte[0]);
+            builder.newContext().addSymbolicLink("/opt/extract/link", "small.txt");
+            builder.build();
+            rpm = builder.getTargetFile();
+        }
+
+        final ExtractorOptions options = new ExtractorOptions();
+        options.setWriterThreads(3);
+        options.setBufferSize(4096);
+        options.setMaxBufferedBytes(16 * 4096);
+        options.setVerifyDigests(true);
+
+        final Path target = this.outBase.resolve("target");
+        final RpmExtractor.Result result = new RpmExtractor(options).extract(rpm, target);
+
+        assertThat(result.getFiles()).isEqualTo(3);
+        assertThat(result.getSymbolicLinks()).isEqualTo(1);
+        assertThat(result.getBytes()).isEqualTo(large.length + 11);
+
+        final Path base = target.resolve("opt/extract");
+        assertThat(base.resolve("small.txt")).hasContent("Hello World");
+        assertThat(Files.readAllBytes(base.resolve("data/large.bin"))).isEqualTo(large);
+        assertThat(base.resolve("empty")).isEmptyFile();
+        assertThat(Files.isSymbolicLink(base.resolve("link"))).isTrue();
+        assertThat(Files.readSymbolicLink(base.resolve("link"))).hasToString("small.txt");
+
+        if (target.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(base.resolve("small.txt")))).isEqualTo("rw-r-----");
+        }
+    }
+
+    @Test
+    void testHardLinks() throws IOException {
+        final Path rpm;
+        try (RpmBuilder builder = new RpmBuilder("hardlink-test", "1.0.0", "1", "noarch", this.outBase)) {
+            builder.setInformation(new PackageInformation());
+            builder.newContext().addFile("/opt/links/a", "Hello World".getBytes(StandardCharsets.UTF_8));
+            builder.newContext().addFile("/opt/links/b", "Hello World".getBytes(StandardCharsets.UTF_8));
+            // both files share the same inode, making them a hard link set
+            builder.setHeaderCustomizer(header -> header.putInt(RpmTag.FILE_INODES, 7, 7));
+            builder.build();
+            rpm = builder.getTargetFile();
+        }
+
+        final Path target = this.outBase.resolve("target");
+        final RpmExtractor.Result result = new RpmExtractor().extract(rpm, target);
+
+        assertThat(result.getFiles()).isEqualTo(1);
+        assertThat(result.getHardLinks()).isEqualTo(1);
+
+        final Path base = target.resolve("opt/links");
+        assertThat(base.resolve("a")).hasContent("Hello World");
+        assertThat(base.resolve("b")).hasContent("Hello World");
+        assertThat(Files.isSameFile(base.resolve("a"), base.resolve("b"))).isTrue();
+    }
+
+    @Test
+    void testDigestMismatch() throws IOException {
+        final Path rpm;
+        try (RpmBuilder builder = new RpmBuilder("digest-test", "1.0.0", "1", "noarch", this.outBase)) {
+            builder.setInformation(new PackageInformation());
+            builder.newContext().addFile("/opt/digest/a.txt", "Hello World".getBytes(StandardCharsets.UTF_8));
+            builder.setHeaderCustomizer(header -> header.putStringArray(RpmTag.FILE_DIGESTS, "00"));
+            builder.build();
+            rpm = builder.getTargetFile();
+        }
+
+        // without verification, the content is extracted as is
+
+        assertThat(new RpmExtractor().extract(rpm, this.outBase.resolve("unverified")).getFiles()).isEqualTo(1);
+
+        final ExtractorOptions options = new ExtractorOptions();
+        options.setVerifyDigests(true);
+
+        assertThatThrownBy(() -> new RpmExtractor(options).extract(rpm, this.outBase.resolve("verified")))
+                .isInstanceOf(IOException.class)
+                .hasStackTraceContaining("Digest mismatch for '/opt/digest/a.txt'");
+    }
+
+    @Test
+    void testSymbolicLinkEscape() throws IOException {
+        final Path outside = Files.createDirectory(this.outBase.resolve("outside"));
+
+        final Path rpm;
+        try (RpmBuilder builder = new RpmBuilder("escape-test", "1.0.0", "1", "noarch", this.outBase)) {
+            builder.setInformation(new PackageInformation());
+            builder.newContext().addSymbolicLink("/usr/link", outside.toString());
+            builder.newContext().addFile("/usr/link/passwd", "evil".getBytes(StandardCharsets.UTF_8));
+            builder.build();
+            rpm = builder.getTargetFile();
+        }
+
+        assertThatThrownBy(() -> new RpmExtractor().extract(rpm, this.outBase.resolve("target")))
+                .isInstanceOf(IOException.class);
+
+        assertThat(outside.resolve("passwd")).doesNotExist();
+    }
+}
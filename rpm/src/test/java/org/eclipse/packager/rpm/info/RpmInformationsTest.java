@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.info;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.packager.rpm.parse.RpmInputStream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RpmInformationsTest {
+    @ParameterizedTest
+    @ValueSource(strings = { "src/test/resources/data/org.eclipse.scada-0.2.1-1.noarch.rpm", "src/test/resources/data/org.eclipse.scada-centos6-0.2.1-1.noarch.rpm" })
+    void testHeaderOnlyMatchesPayload(final String file) throws IOException {
+        final RpmInformation fromPayload;
+        try (final RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(Path.of(file))))) {
+            fromPayload = RpmInformations.makeInformation(in);
+        }
+
+        final RpmInformation fromHeader;
+        try (final RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(Path.of(file))))) {
+            fromHeader = RpmInformations.makeInformation(in, true);
+        }
+
+        assertThat(fromHeader.getFiles()).isNotEmpty().isEqualTo(fromPayload.getFiles());
+        assertThat(fromHeader.getDirectories()).isEqualTo(fromPayload.getDirectories());
+        assertThat(fromHeader.getHeaderEnd()).isEqualTo(fromPayload.getHeaderEnd());
+        assertThat(fromHeader.getVersion()).isEqualTo(fromPayload.getVersion());
+    }
+}
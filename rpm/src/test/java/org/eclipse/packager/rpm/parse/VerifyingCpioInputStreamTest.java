@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.parse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.packager.rpm.RpmTag;
+import org.eclipse.packager.rpm.RpmVersion;
+import org.eclipse.packager.rpm.build.BuilderOptions;
+import org.eclipse.packager.rpm.build.DigestAlgorithm;
+import org.eclipse.packager.rpm.build.RpmBuilder;
+import org.eclipse.packager.rpm.parse.VerifyingCpioInputStream.Kind;
+import org.eclipse.packager.rpm.parse.VerifyingCpioInputStream.Mismatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VerifyingCpioInputStreamTest {
+    @TempDir
+    private Path outBase;
+
+    private Path build(final boolean corrupt) throws IOException {
+        final BuilderOptions options = new BuilderOptions();
+        options.setFileDigestAlgorithm(DigestAlgorithm.SHA256);
+
+        try (RpmBuilder builder = new RpmBuilder("verify-test", new RpmVersion("1.0.0"), "noarch", this.outBase.resolve(corrupt ? "corrupt.rpm" : "valid.rpm"), options)) {
+            builder.newContext().addDirectory("/opt/verify");
+            builder.newContext().addFile("/opt/verify/a.txt", "Hello".getBytes(StandardCharsets.UTF_8));
+            builder.newContext().addFile("/opt/verify/b.txt", "World".getBytes(StandardCharsets.UTF_8));
+            if (corrupt) {
+                builder.setHeaderCustomizer(header -> header.putStringArray(RpmTag.FILE_DIGESTS, "00", "00", "00"));
+            }
+            builder.build();
+            return builder.getTargetFile();
+        }
+    }
+
+    @Test
+    void testValid() throws IOException {
+        try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(build(false))));
+                VerifyingCpioInputStream verifier = new VerifyingCpioInputStream(in)) {
+            assertThat(verifier.getFileTable().getDigestAlgorithm()).isEqualTo(DigestAlgorithm.SHA256);
+
+            // read the first entry partially, the rest gets consumed by the verifier
+            assertThat(verifier.getNextEntry()).isNotNull();
+            verifier.read();
+
+            assertThat(verifier.verifyRemaining()).isEmpty();
+            assertThat(verifier.isValid()).isTrue();
+        }
+    }
+
+    @Test
+    void testCorrupt() throws IOException {
+        final List<Mismatch> reported = new ArrayList<>();
+        try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(build(true))));
+                VerifyingCpioInputStream verifier = new VerifyingCpioInputStream(in, reported::add)) {
+            final List<Mismatch> result = verifier.verifyRemaining();
+            assertThat(result).hasSize(2).allMatch(m -> m.getKind() == Kind.DIGEST);
+            assertThat(result).extracting(Mismatch::getName).containsExactlyInAnyOrder("/opt/verify/a.txt", "/opt/verify/b.txt");
+            assertThat(reported).isEqualTo(result);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.eclipse.packager.rpm.HashAlgorithm;
+import org.eclipse.packager.rpm.info.RpmInformation;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetadataCacheTest {
+    private static final Path RPM1 = Paths.get("src/test/resources/data/org.eclipse.scada-0.2.1-1.noarch.rpm");
+
+    private static final Path RPM2 = Paths.get("src/test/resources/data/org.eclipse.scada-centos6-0.2.1-1.noarch.rpm");
+
+    @TempDir
+    private Path base;
+
+    private List<ScanResult> scan(final Path dir, final MetadataCache cache) throws IOException {
+        final ScannerOptions options = new ScannerOptions();
+        options.setCache(cache);
+        options.setChecksums(EnumSet.of(HashAlgorithm.SHA256));
+
+        final List<ScanResult> results = new ArrayList<>();
+        new RpmScanner(options).scan(dir, results::add);
+        return results;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException, NoSuchAlgorithmException {
+        final Path repo = Files.createDirectory(this.base.resolve("repo"));
+        final Path cacheFile = this.base.resolve("cache.bin");
+
+        Files.copy(RPM1, repo.resolve("a.rpm"));
+        Files.copy(RPM2, repo.resolve("b.rpm"));
+        Files.copy(RPM1, repo.resolve("c.rpm"));
+
+        final MetadataCache cache = MetadataCache.load(cacheFile);
+        assertThat(cache.size()).isZero();
+
+        final List<ScanResult> first = scan(repo, cache);
+        assertThat(first).hasSize(3).noneMatch(ScanResult::isCached);
+        cache.save(cacheFile);
+
+        // reload and re-scan
+
+        final MetadataCache loaded = MetadataCache.load(cacheFile);
+        assertThat(loaded.size()).isEqualTo(3);
+
+        final List<ScanResult> second = scan(repo, loaded);
+        assertThat(second).hasSize(3).allMatch(ScanResult::isCached);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getInformation(), second.get(i).getInformation());
+            assertThat(second.get(i).getChecksums()).isEqualTo(first.get(i).getChecksums());
+        }
+
+        final String expected = Strings.hex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(RPM2)));
+        assertThat(second.get(1).getChecksums()).containsEntry(HashAlgorithm.SHA256, expected);
+
+        // change one file, remove another
+
+        Files.setLastModifiedTime(repo.resolve("a.rpm"), FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+        Files.delete(repo.resolve("c.rpm"));
+
+        final MetadataCache third = MetadataCache.load(cacheFile);
+        final List<ScanResult> results = scan(repo, third);
+        assertThat(results).extracting(ScanResult::isCached).containsExactly(false, true);
+        assertThat(third.prune()).isEqualTo(1);
+        assertThat(third.size()).isEqualTo(2);
+    }
+
+    private static void assertEquals(final RpmInformation expected, final RpmInformation actual) {
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+}
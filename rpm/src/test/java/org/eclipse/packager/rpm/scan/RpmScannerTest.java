@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.scan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.eclipse.packager.rpm.HashAlgorithm;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RpmScannerTest {
+    private static final Path RPM1 = Paths.get("src/test/resources/data/org.eclipse.scada-0.2.1-1.noarch.rpm");
+
+    private static final Path RPM2 = Paths.get("src/test/resources/data/org.eclipse.scada-centos6-0.2.1-1.noarch.rpm");
+
+    @TempDir
+    private Path base;
+
+    @Test
+    void testScan() throws IOException {
+        Files.createDirectories(this.base.resolve("a/b"));
+        Files.createDirectories(this.base.resolve("c"));
+
+        for (int i = 0; i < 5; i++) {
+            Files.copy(RPM1, this.base.resolve("a/b/" + i + ".rpm"));
+        }
+        Files.copy(RPM2, this.base.resolve("a/centos6.rpm"));
+        Files.write(this.base.resolve("c/broken.rpm"), new byte[] { 1, 2, 3 });
+        Files.write(this.base.resolve("c/other.txt"), new byte[] { 1, 2, 3 });
+
+        final ScannerOptions options = new ScannerOptions();
+        options.setThreads(3);
+        options.setMaxInFlight(2);
+
+        final List<ScanResult> results = new ArrayList<>();
+        final long count = new RpmScanner(options).scan(this.base, results::add);
+
+        assertThat(count).isEqualTo(7);
+        assertThat(results).extracting(result -> this.base.relativize(result.getPath()).toString().replace('\\', '/'))
+                .containsExactly("a/b/0.rpm", "a/b/1.rpm", "a/b/2.rpm", "a/b/3.rpm", "a/b/4.rpm", "a/centos6.rpm", "c/broken.rpm");
+
+        for (final ScanResult result : results.subList(0, 6)) {
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(result.getInformation().getName()).startsWith("org.eclipse.scada");
+            assertThat(result.getInformation().getFiles()).isNotEmpty();
+        }
+
+        final ScanResult broken = results.get(6);
+        assertThat(broken.isSuccess()).isFalse();
+        assertThat(broken.getInformation()).isNull();
+        assertThat(broken.getError()).isNotNull();
+    }
+
+    @Test
+    void testScanPayloadWithChecksums() throws Exception {
+        final ScannerOptions options = new ScannerOptions();
+        options.setHeaderOnly(false);
+        options.setChecksums(EnumSet.of(HashAlgorithm.SHA256, HashAlgorithm.SHA1));
+
+        final ScanResult result = new RpmScanner(options).scanFile(RPM1);
+
+        assertThat(result.getError()).isNull();
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getInformation().getFiles()).isNotEmpty();
+        assertThat(result.getChecksums())
+                .containsEntry(HashAlgorithm.SHA256, Strings.hex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(RPM1))))
+                .containsEntry(HashAlgorithm.SHA1, Strings.hex(MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(RPM1))));
+    }
+}
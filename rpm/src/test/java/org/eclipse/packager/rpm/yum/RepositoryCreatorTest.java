@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.yum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.eclipse.packager.io.FileSystemSpoolOutTarget;
+import org.eclipse.packager.io.SpoolStorage;
+import org.eclipse.packager.rpm.HashAlgorithm;
+import org.eclipse.packager.rpm.info.RpmInformation;
+import org.eclipse.packager.rpm.info.RpmInformations;
+import org.eclipse.packager.rpm.parse.RpmInputStream;
+import org.eclipse.packager.rpm.scan.ScannerOptions;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+class RepositoryCreatorTest {
+    private static final Path[] RPMS = {
+            Paths.get("src/test/resources/data/org.eclipse.scada-0.2.1-1.noarch.rpm"),
+            Paths.get("src/test/resources/data/org.eclipse.scada-centos6-0.2.1-1.noarch.rpm")
+    };
+
+    @TempDir
+    private Path base;
+
+    private void create(final Path target, final boolean streaming) throws IOException {
+        create(target, streaming, null);
+    }
+
+    private void create(final Path target, final boolean streaming, final SpoolStorage spoolStorage) throws IOException {
+        final RepositoryCreator creator = new RepositoryCreator.Builder()
+                .setTarget(new FileSystemSpoolOutTarget(target))
+                .setStreaming(streaming)
+                .setSpoolStorage(spoolStorage)
+                .build();
+
+        creator.process(context -> {
+            for (final Path rpm : RPMS) {
+                final RpmInformation info;
+                try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(rpm)))) {
+                    info = RpmInformations.makeInformation(in);
+                }
+                final Map<HashAlgorithm, String> checksums = Collections.singletonMap(HashAlgorithm.SHA256, rpm.getFileName().toString());
+                context.addPackage(new RepositoryCreator.FileInformation(Instant.ofEpochSecond(1_000_000), Files.size(rpm), rpm.getFileName().toString()), info, checksums, HashAlgorithm.SHA256);
+            }
+        });
+    }
+
+    @Test
+    void testStreamingMatchesDom() throws Exception {
+        final Path dom = this.base.resolve("dom");
+        final Path streaming = this.base.resolve("streaming");
+
+        final Path memory = this.base.resolve("memory");
+
+        create(dom, false);
+        create(streaming, true);
+        create(memory, true, SpoolStorage.memory());
+
+        for (final String type : new String[] { "primary", "filelists", "other" }) {
+            final Document expected = load(find(dom, type));
+
+            for (final Path repo : new Path[] { streaming, memory }) {
+                final Document actual = load(find(repo, type));
+
+                assertThat(actual.getDocumentElement().getAttribute("packages")).isEqualTo("2");
+                assertThat(actual.getDocumentElement().getElementsByTagNameNS("*", "package").getLength()).isEqualTo(2);
+                assertThat(actual.isEqualNode(expected)).as(type).isTrue();
+            }
+        }
+
+        assertThat(Files.exists(streaming.resolve("repodata/repomd.xml"))).isTrue();
+    }
+
+    @Test
+    void testParallelMatchesSequential() throws Exception {
+        final Path repo = Files.createDirectories(this.base.resolve("repo/packages"));
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Path file = repo.resolve(String.format("p%02d.rpm", i));
+            Files.copy(RPMS[i % RPMS.length], file);
+            files.add(file);
+        }
+
+        final Path sequential = this.base.resolve("sequential");
+        new RepositoryCreator.Builder().setTarget(new FileSystemSpoolOutTarget(sequential)).build().process(context -> {
+            for (final Path file : files) {
+                final RpmInformation info;
+                try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    info = RpmInformations.makeInformation(in);
+                }
+                final String checksum = sha256(file);
+                final RepositoryCreator.FileInformation fileInformation = new RepositoryCreator.FileInformation(Files.getLastModifiedTime(file).toInstant(), Files.size(file), "packages/" + file.getFileName());
+                context.addPackage(fileInformation, info, Collections.singletonMap(HashAlgorithm.SHA256, checksum), HashAlgorithm.SHA256);
+            }
+        });
+
+        final ScannerOptions options = new ScannerOptions();
+        options.setThreads(4);
+        options.setMaxInFlight(3);
+
+        final Path parallel = this.base.resolve("parallel");
+        new RepositoryCreator.Builder().setTarget(new FileSystemSpoolOutTarget(parallel)).build().process(repo.getParent(), files, options, HashAlgorithm.SHA256);
+
+        for (final String type : new String[] { "primary", "filelists", "other" }) {
+            final Document expected = load(find(sequential, type));
+            final Document actual = load(find(parallel, type));
+
+            assertThat(actual.getDocumentElement().getAttribute("packages")).isEqualTo("10");
+            assertThat(actual.isEqualNode(expected)).as(type).isTrue();
+        }
+    }
+
+    @Test
+    void testAddPackageFile() throws Exception {
+        final Path repo = Files.createDirectories(this.base.resolve("repo/packages"));
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final Path file = repo.resolve(String.format("p%02d.rpm", i));
+            Files.copy(RPMS[i % RPMS.length], file);
+            files.add(file);
+        }
+
+        final Path explicit = this.base.resolve("explicit");
+        new RepositoryCreator.Builder().setTarget(new FileSystemSpoolOutTarget(explicit)).build().process(context -> {
+            for (final Path file : files) {
+                final RpmInformation info;
+                try (RpmInputStream in = new RpmInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    info = RpmInformations.makeInformation(in);
+                }
+                final RepositoryCreator.FileInformation fileInformation = new RepositoryCreator.FileInformation(Files.getLastModifiedTime(file).toInstant(), Files.size(file), "packages/" + file.getFileName());
+                context.addPackage(fileInformation, info, Collections.singletonMap(HashAlgorithm.SHA256, sha256(file)), HashAlgorithm.SHA256);
+            }
+        });
+
+        for (final boolean streaming : new boolean[] { false, true }) {
+            final Path single = this.base.resolve("single-" + streaming);
+            final RepositoryCreator creator = new RepositoryCreator.Builder()
+                    .setTarget(new FileSystemSpoolOutTarget(single))
+                    .setStreaming(streaming)
+                    .setBaseDirectory(repo.getParent())
+                    .build();
+            creator.process(context -> {
+                for (final Path file : files) {
+                    creator.addPackage(context, file);
+                }
+            });
+
+            for (final String type : new String[] { "primary", "filelists", "other" }) {
+                final Document expected = load(find(explicit, type));
+                final Document actual = load(find(single, type));
+
+                assertThat(actual.getDocumentElement().getAttribute("packages")).isEqualTo("4");
+                assertThat(actual.isEqualNode(expected)).as(type).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void testUpdate() throws Exception {
+        final Path repo = this.base.resolve("repo");
+        final Path packages = Files.createDirectories(repo.resolve("packages"));
+        for (int i = 0; i < 6; i++) {
+            Files.copy(RPMS[i % RPMS.length], packages.resolve(String.format("p%02d.rpm", i)));
+        }
+
+        final ScannerOptions options = new ScannerOptions();
+        options.setThreads(2);
+
+        final RepositoryCreator.Builder builder = new RepositoryCreator.Builder().setTarget(new FileSystemSpoolOutTarget(repo));
+        builder.build().process(repo, list(packages), options, HashAlgorithm.SHA256);
+
+        // remove one, change one, add one
+
+        Files.delete(packages.resolve("p01.rpm"));
+        Files.setLastModifiedTime(packages.resolve("p02.rpm"), FileTime.from(Instant.parse("2020-01-01T00:00:00Z")));
+        Files.copy(RPMS[1], packages.resolve("p06.rpm"));
+
+        final RepositoryCreator.UpdateResult result = builder.build().update(repo, list(packages), options, HashAlgorithm.SHA256);
+
+        assertThat(result.getReused()).isEqualTo(4);
+        assertThat(result.getAdded()).isEqualTo(2);
+        assertThat(result.getRemoved()).isEqualTo(2);
+        assertThat(result.getObsoleteFiles()).hasSize(6);
+
+        for (final String file : result.getObsoleteFiles()) {
+            Files.delete(repo.resolve(file));
+        }
+
+        // compare with a fresh repository
+
+        final Path fresh = this.base.resolve("fresh");
+        new RepositoryCreator.Builder().setTarget(new FileSystemSpoolOutTarget(fresh)).build().process(repo, list(packages), options, HashAlgorithm.SHA256);
+
+        for (final String type : new String[] { "primary", "filelists", "other" }) {
+            final Document expected = load(find(fresh, type));
+            final Document actual = load(find(repo, type));
+
+            assertThat(actual.getDocumentElement().getAttribute("packages")).isEqualTo("6");
+
+            final List<Node> expectedPackages = children(expected);
+            for (final Node node : children(actual)) {
+                assertThat(removeFirst(expectedPackages, node)).as(type).isTrue();
+            }
+            assertThat(expectedPackages).isEmpty();
+        }
+    }
+
+    @Test
+    void testZchunk() throws Exception {
+        final Path target = this.base.resolve("zchunk");
+
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final Path file = this.base.resolve(String.format("p%02d.rpm", i));
+            Files.copy(RPMS[i % RPMS.length], file);
+            files.add(file);
+        }
+
+        new RepositoryCreator.Builder()
+                .setTarget(new FileSystemSpoolOutTarget(target))
+                .setZchunk(true)
+                .build()
+                .process(this.base, files, new ScannerOptions(), HashAlgorithm.SHA256);
+
+        final Document repomd = load(target.resolve("repodata/repomd.xml"));
+        final NodeList data = repomd.getElementsByTagNameNS("*", "data");
+        assertThat(data.getLength()).isEqualTo(6);
+
+        for (int i = 0; i < data.getLength(); i++) {
+            final Element element = (Element) data.item(i);
+            if (!element.getAttribute("type").endsWith("_zck")) {
+                continue;
+            }
+
+            final String href = ((Element) element.getElementsByTagNameNS("*", "location").item(0)).getAttribute("href");
+            assertThat(href).endsWith(".xml.zck");
+
+            final Path file = target.resolve(href);
+            assertThat(element.getElementsByTagNameNS("*", "checksum").item(0).getTextContent()).isEqualTo(sha256(file));
+            assertThat(element.getElementsByTagNameNS("*", "size").item(0).getTextContent()).isEqualTo(Long.toString(Files.size(file)));
+
+            // verify header checksum and size
+
+            final byte[] content = Files.readAllBytes(file);
+            final int headerSize = Integer.parseInt(element.getElementsByTagNameNS("*", "header-size").item(0).getTextContent());
+            final String headerChecksum = element.getElementsByTagNameNS("*", "header-checksum").item(0).getTextContent();
+
+            // the lead ends with the checksum, the remaining header follows
+
+            final int leadLength = headerSize - (int) readZchunkHeaderSize(content);
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content, 0, leadLength - 32);
+            digest.update(content, leadLength, headerSize - leadLength);
+            assertThat(Strings.hex(digest.digest())).isEqualTo(headerChecksum);
+            assertThat(Strings.hex(Arrays.copyOfRange(content, leadLength - 32, leadLength))).isEqualTo(headerChecksum);
+        }
+    }
+
+    private static long readZchunkHeaderSize(final byte[] content) {
+        long result = 0;
+        int shift = 0;
+        for (int i = 6;; i++) {
+            final int b = content[i] & 0xFF;
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+
+    @Test
+    void testParallelCompression() throws Exception {
+        final Path target = this.base.resolve("compressed");
+
+        final RepositoryCreator creator = new RepositoryCreator.Builder()
+                .setTarget(new FileSystemSpoolOutTarget(target))
+                .setCompressions(MetadataCompression.XZ, MetadataCompression.GZIP, MetadataCompression.ZSTD)
+                .setParallelCompression(true)
+                .build();
+
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final Path file = this.base.resolve(String.format("p%02d.rpm", i));
+            Files.copy(RPMS[i % RPMS.length], file);
+            files.add(file);
+        }
+        creator.process(this.base, files, new ScannerOptions(), HashAlgorithm.SHA256);
+
+        for (final String type : new String[] { "primary", "filelists", "other" }) {
+            final Path plain = find(target, type);
+            final byte[] expected = Files.readAllBytes(plain);
+            assertThat(expected).isNotEmpty();
+
+            for (final MetadataCompression compression : MetadataCompression.values()) {
+                final Path compressed = plain.resolveSibling(plain.getFileName() + "." + compression.getExtension());
+                try (InputStream in = compression.createInputStream(Files.newInputStream(compressed))) {
+                    assertThat(in.readAllBytes()).as("%s - %s", type, compression).isEqualTo(expected);
+                }
+            }
+        }
+
+        // the first compression format is referenced
+
+        final Document repomd = load(target.resolve("repodata/repomd.xml"));
+        final NodeList locations = repomd.getElementsByTagNameNS("*", "location");
+        assertThat(locations.getLength()).isEqualTo(3);
+        for (int i = 0; i < locations.getLength(); i++) {
+            final String href = ((Element) locations.item(i)).getAttribute("href");
+            assertThat(href).endsWith(".xml.xz");
+
+            final Element data = (Element) locations.item(i).getParentNode();
+            final String checksum = data.getElementsByTagNameNS("*", "checksum").item(0).getTextContent();
+            assertThat(checksum).isEqualTo(sha256(target.resolve(href)));
+        }
+    }
+
+    private static List<Path> list(final Path dir) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.rpm")) {
+            files.forEach(result::add);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static boolean removeFirst(final List<Node> nodes, final Node node) {
+        for (final Iterator<Node> i = nodes.iterator(); i.hasNext();) {
+            if (i.next().isEqualNode(node)) {
+                i.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Node> children(final Document doc) {
+        final List<Node> result = new ArrayList<>();
+        for (Node node = doc.getDocumentElement().getFirstChild(); node != null; node = node.getNextSibling()) {
+            result.add(node);
+        }
+        return result;
+    }
+
+    private static String sha256(final Path file) throws IOException {
+        try {
+            return Strings.hex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Path find(final Path base, final String type) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(base.resolve("repodata"), "*-" + type + ".xml")) {
+            files.forEach(result::add);
+        }
+        assertThat(result).hasSize(1);
+        return result.get(0);
+    }
+
+    private static Document load(final Path file) throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        final Document doc = factory.newDocumentBuilder().parse(file.toFile());
+        stripWhitespace(doc.getDocumentElement());
+        return doc;
+    }
+
+    private static void stripWhitespace(final Node node) {
+        Node child = node.getFirstChild();
+        while (child != null) {
+            final Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.TEXT_NODE && child.getTextContent().trim().isEmpty()) {
+                node.removeChild(child);
+            } else {
+                stripWhitespace(child);
+            }
+            child = next;
+        }
+    }
+}
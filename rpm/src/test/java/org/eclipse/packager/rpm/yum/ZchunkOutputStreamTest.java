@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+
+package org.eclipse.packager.rpm.yum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.eclipse.packager.utils.Strings;
+import org.junit.jupiter.api.Test;
+
+class ZchunkOutputStreamTest {
+
+    private static final String CONTENT;
+
+    static {
+        final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?>\n<metadata packages=\"20\">\n");
+        for (int i = 0; i < 20; i++) {
+            sb.append(String.format("  <package type=\"rpm\"><name>p%02d</name><packager>Someone</packager></package>\n", i));
+        }
+        sb.append("</metadata>\n");
+        CONTENT = sb.toString();
+    }
+
+    @Test
+    void testNone() throws Exception {
+        assertRoundTrip(ZchunkOutputStream.Compression.NONE);
+    }
+
+    @Test
+    void testZstd() throws Exception {
+        assertRoundTrip(ZchunkOutputStream.Compression.ZSTD);
+    }
+
+    @Test
+    void testMaxChunkSize() throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZchunkOutputStream out = new ZchunkOutputStream(bos, ZchunkOutputStream.Compression.NONE)) {
+            out.setMaxChunkSize(100);
+            out.write(new byte[1050]);
+            assertThat(out.getChunkCount()).isEqualTo(10);
+        }
+
+        final Parsed parsed = parse(bos.toByteArray());
+        assertThat(parsed.chunks).hasSize(11);
+        assertThat(parsed.content).hasSize(1050);
+    }
+
+    private void assertRoundTrip(final ZchunkOutputStream.Compression compression) throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final ZchunkOutputStream out = new ZchunkOutputStream(bos, compression);
+        out.setChunkStart("<package ");
+
+        // write in small pieces, splitting markers
+
+        final byte[] data = CONTENT.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < data.length; i += 7) {
+            out.write(data, i, Math.min(7, data.length - i));
+        }
+        out.close();
+
+        final byte[] result = bos.toByteArray();
+        final Parsed parsed = parse(result);
+
+        assertThat(parsed.compression).isEqualTo(compression.getValue());
+        assertThat(parsed.headerSize).isEqualTo(out.getHeaderSize());
+        assertThat(parsed.headerChecksum).isEqualTo(out.getHeaderChecksum());
+
+        // one chunk for the prolog, one per package
+
+        assertThat(out.getChunkCount()).isEqualTo(21);
+        assertThat(parsed.chunks).hasSize(21);
+        assertThat(parsed.chunks.get(0)).startsWith("<?xml").endsWith("  ");
+        for (int i = 1; i < parsed.chunks.size(); i++) {
+            assertThat(parsed.chunks.get(i)).startsWith(String.format("<package type=\"rpm\"><name>p%02d</name>", i - 1));
+        }
+
+        assertThat(new String(parsed.content, StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+    }
+
+    private static class Parsed {
+        int compression;
+
+        long headerSize;
+
+        String headerChecksum;
+
+        List<String> chunks = new ArrayList<>();
+
+        byte[] content;
+    }
+
+    private static Parsed parse(final byte[] file) throws Exception {
+        final Parsed result = new Parsed();
+        final ByteBuffer buffer = ByteBuffer.wrap(file);
+
+        final byte[] id = new byte[5];
+        buffer.get(id);
+        assertThat(id).isEqualTo(new byte[] { 0, 'Z', 'C', 'K', '1' });
+        assertThat(readInt(buffer)).isEqualTo(1); // sha256
+        final long headerSize = readInt(buffer);
+        final int leadLength = buffer.position();
+
+        final byte[] headerChecksum = new byte[32];
+        buffer.get(headerChecksum);
+        result.headerChecksum = Strings.hex(headerChecksum);
+        result.headerSize = buffer.position() + headerSize;
+
+        // verify the header checksum
+
+        final MessageDigest headerDigest = MessageDigest.getInstance("SHA-256");
+        headerDigest.update(file, 0, leadLength);
+        headerDigest.update(file, buffer.position(), (int) headerSize);
+        assertThat(headerDigest.digest()).isEqualTo(headerChecksum);
+
+        // preface
+
+        final byte[] dataChecksum = new byte[32];
+        buffer.get(dataChecksum);
+        assertThat(readInt(buffer)).isEqualTo(0); // flags
+        result.compression = (int) readInt(buffer);
+
+        // index
+
+        final long indexSize = readInt(buffer);
+        final int indexStart = buffer.position();
+        assertThat(readInt(buffer)).isEqualTo(3); // sha512/128
+        final long count = readInt(buffer);
+
+        final List<byte[]> checksums = new ArrayList<>();
+        final List<Long> lengths = new ArrayList<>();
+        final List<Long> uncompressedLengths = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            final byte[] checksum = new byte[16];
+            buffer.get(checksum);
+            checksums.add(checksum);
+            lengths.add(readInt(buffer));
+            uncompressedLengths.add(readInt(buffer));
+        }
+        assertThat(buffer.position() - indexStart).isEqualTo(indexSize);
+        assertThat(readInt(buffer)).isEqualTo(0); // signatures
+        assertThat((long) buffer.position()).isEqualTo(result.headerSize);
+
+        // dictionary
+
+        assertThat(lengths.get(0)).isEqualTo(0);
+        assertThat(checksums.get(0)).isEqualTo(new byte[16]);
+
+        // data
+
+        final MessageDigest dataDigest = MessageDigest.getInstance("SHA-256");
+        dataDigest.update(file, buffer.position(), buffer.remaining());
+        assertThat(dataDigest.digest()).isEqualTo(dataChecksum);
+
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (int i = 1; i < count; i++) {
+            final byte[] compressed = new byte[lengths.get(i).intValue()];
+            buffer.get(compressed);
+
+            final byte[] checksum = Arrays.copyOf(MessageDigest.getInstance("SHA-512").digest(compressed), 16);
+            assertThat(checksum).isEqualTo(checksums.get(i));
+
+            final byte[] chunk;
+            if (result.compression == 2) {
+                try (InputStream in = new ZstdCompressorInputStream(new ByteArrayInputStream(compressed))) {
+                    chunk = in.readAllBytes();
+                }
+            } else {
+                chunk = compressed;
+            }
+            assertThat((long) chunk.length).isEqualTo(uncompressedLengths.get(i));
+
+            result.chunks.add(new String(chunk, StandardCharsets.UTF_8));
+            content.write(chunk);
+        }
+        assertThat(buffer.remaining()).isZero();
+
+        result.content = content.toByteArray();
+        return result;
+    }
+
+    private static long readInt(final ByteBuffer buffer) throws IOException {
+        long result = 0;
+        int shift = 0;
+        while (true) {
+            final int b = buffer.get() & 0xFF;
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                return result;
+            }
+            shift += 7;
+        }
+    }
+}